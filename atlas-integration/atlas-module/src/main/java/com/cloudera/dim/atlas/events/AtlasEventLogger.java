@@ -49,7 +49,8 @@ public class AtlasEventLogger implements AutoCloseable {
 
         if (atlasConfiguration != null && atlasConfiguration.isEnabled()) {
             atlasEventsProcessor = new AtlasEventsProcessor(atlasPlugin, storageManager, transactionManager,
-                atlasConfiguration.getWaitBetweenAuditProcessing(), atlasConfiguration.isConnectWithKafka());
+                atlasConfiguration.getWaitBetweenAuditProcessing(), atlasConfiguration.isConnectWithKafka(),
+                atlasConfiguration.getAuditProcessingBatchSize(), atlasConfiguration.getAuditProcessingParallelism());
             threadPool.submit(atlasEventsProcessor);
         }
     }
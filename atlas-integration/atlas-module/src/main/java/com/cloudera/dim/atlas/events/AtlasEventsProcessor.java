@@ -16,8 +16,14 @@
 package com.cloudera.dim.atlas.events;
 
 import com.cloudera.dim.atlas.AtlasPlugin;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.schemaregistry.AtlasEventStorable;
 import com.hortonworks.registries.schemaregistry.AtlasEventStorable.EventType;
@@ -28,6 +34,7 @@ import com.hortonworks.registries.schemaregistry.SchemaVersionStorable;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.storage.StorageManager;
 import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.search.Aggregation;
 import com.hortonworks.registries.storage.search.OrderBy;
 import com.hortonworks.registries.storage.search.SearchQuery;
 import com.hortonworks.registries.storage.search.WhereClause;
@@ -38,15 +45,27 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.hortonworks.registries.storage.transaction.TransactionIsolation.READ_COMMITTED;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 
 /**
  * The processor should be run in its own thread. It reads audit entries from the database. The audit
@@ -54,29 +73,76 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * this method will also get invoked on the SchemaRegistry instance injected in its constructor.
  * By injecting an AtlasSchemaRegistry, we can ensure the methods invoked in the RDBMS-SchemaRegistry
  * will also be invoked on the Atlas model.
+ * <p>
+ * Events are claimed in bounded batches. The claim is committed before Atlas is called, so the rows are not
+ * locked while waiting for Atlas, and the outcome of the batch is stored in a second, short transaction.
+ * A claim expires after a while, the events of a processor which stopped in between are claimed again.
+ * Redundant events of a batch are coalesced, then the Atlas calls are sent with bounded parallelism. Events
+ * belonging to the same schema are always sent in the order they were created.
  */
 public class AtlasEventsProcessor implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(AtlasEventsProcessor.class);
 
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final long CLAIM_TIMEOUT_MS = MINUTES.toMillis(10);
+
     private final AtlasPlugin atlasPlugin;
     private final StorageManager storageManager;
     private final long waitBetweenProcessing;
     private final boolean connectWithKafka;
+    private final int batchSize;
     private final ManagedTransaction managedTransaction;
+    private final ExecutorService atlasCallExecutor;
     private AtomicBoolean isShutdown = new AtomicBoolean(false);
 
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMs = new AtomicLong();
+    private final Timer batchTimer;
+    private final Meter processedEvents;
+    private final Meter failedEvents;
+    private final Meter coalescedEvents;
+
     public AtlasEventsProcessor(AtlasPlugin atlasPlugin, StorageManager storageManager, TransactionManager transactionManager,
                                 long waitBetweenProcessing, boolean connectWithKafka) {
+        this(atlasPlugin, storageManager, transactionManager, waitBetweenProcessing, connectWithKafka, DEFAULT_BATCH_SIZE, DEFAULT_PARALLELISM);
+    }
+
+    public AtlasEventsProcessor(AtlasPlugin atlasPlugin, StorageManager storageManager, TransactionManager transactionManager,
+                                long waitBetweenProcessing, boolean connectWithKafka, int batchSize, int parallelism) {
         this.atlasPlugin = checkNotNull(atlasPlugin, "atlasPlugin");
         this.storageManager = checkNotNull(storageManager, "storageManager");
         checkNotNull(transactionManager, "transactionManager");
         this.connectWithKafka = connectWithKafka;
         this.waitBetweenProcessing = waitBetweenProcessing;
         checkState(waitBetweenProcessing > 0L, "Wait period must be greater than 0");
+        checkState(batchSize > 0, "Batch size must be greater than 0");
+        checkState(parallelism > 0, "Parallelism must be greater than 0");
+        this.batchSize = batchSize;
         this.managedTransaction = new ManagedTransaction(transactionManager, READ_COMMITTED);
+        this.atlasCallExecutor = Executors.newFixedThreadPool(parallelism,
+                new ThreadFactoryBuilder().setDaemon(true)
+                        .setNameFormat("atlas-event-sender-%d")
+                        .build());
+
+        MetricRegistry metrics = SharedMetricRegistries.tryGetDefault();
+        if (metrics == null) {
+            metrics = new MetricRegistry();
+        }
+        String backlogName = MetricRegistry.name(AtlasEventsProcessor.class, "backlog");
+        String lagName = MetricRegistry.name(AtlasEventsProcessor.class, "lagMs");
+        metrics.remove(backlogName);
+        metrics.remove(lagName);
+        metrics.register(backlogName, (Gauge<Long>) backlog::get);
+        metrics.register(lagName, (Gauge<Long>) lagMs::get);
+        this.batchTimer = metrics.timer(MetricRegistry.name(AtlasEventsProcessor.class, "batch"));
+        this.processedEvents = metrics.meter(MetricRegistry.name(AtlasEventsProcessor.class, "events", "processed"));
+        this.failedEvents = metrics.meter(MetricRegistry.name(AtlasEventsProcessor.class, "events", "failed"));
+        this.coalescedEvents = metrics.meter(MetricRegistry.name(AtlasEventsProcessor.class, "events", "coalesced"));
 
         LOG.info("Connecting schemas with kafka topics is {}", connectWithKafka ? "ENABLED" : "DISABLED");
+        LOG.info("Processing Atlas events in batches of {} with parallelism {}", batchSize, parallelism);
     }
 
     @Override
@@ -109,80 +175,234 @@ public class AtlasEventsProcessor implements Runnable {
         }
     }
 
+    /** Process batches until the backlog is drained or a batch could not make any progress. */
     @VisibleForTesting
     void processAtlasEvents() throws Exception {
-        managedTransaction.executeFunction((ManagedTransactionFunction.Arg0<Object>) () -> {
-            SearchQuery query = SearchQuery.searchFrom(AtlasEventStorable.NAME_SPACE)
-                    .where(WhereClause.begin()
-                            .eq(AtlasEventStorable.PROCESSED, false)
-                            .and()
-                            .eq(AtlasEventStorable.FAILED, false)
-                            .combine()
-                    )
-                    .orderBy(OrderBy.asc(AtlasEventStorable.ID))
-                    .forUpdate();
-
-            Stopwatch searchTime = Stopwatch.createStarted();
-            Collection<AtlasEventStorable> atlasEvents = storageManager.search(query);
-            LOG.trace("Waited {} ms for query", searchTime.elapsed(MILLISECONDS));
-
-            if (atlasEvents == null || atlasEvents.isEmpty()) {
-                return false;
-            }
+        BatchResult result;
+        do {
+            result = processNextBatch();
+        } while (result.claimed >= batchSize && result.completed > 0 && !isShutdown.get());
+    }
 
-            LOG.info("Processing {} Atlas events.", atlasEvents.size());
+    private BatchResult processNextBatch() throws Exception {
+        updateBacklogMetrics();
+        Collection<AtlasEventStorable> atlasEvents = managedTransaction.executeFunction(
+                (ManagedTransactionFunction.Arg0<Collection<AtlasEventStorable>>) this::claimEvents);
+        if (atlasEvents.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
 
-            for (AtlasEventStorable atlasEvent : atlasEvents) {
-                try {
-                    LOG.debug("Processing event {}", atlasEvent);
-                    processAtlasEvent(atlasEvent);
-                } catch (Exception ex) {
-                    LOG.error("Could not process Atlas event. Setting it to failed state: {}", atlasEvent, ex);
-                    setAtlasEntryToFailed(atlasEvent);
+        LOG.info("Processing {} Atlas events.", atlasEvents.size());
+        try (Timer.Context ignored = batchTimer.time()) {
+            List<AtlasCall> calls = coalesce(atlasEvents);
+            sendToAtlas(calls);
+            int completed = managedTransaction.executeFunction((ManagedTransactionFunction.Arg0<Integer>) () -> storeOutcome(calls));
+            return new BatchResult(atlasEvents.size(), completed);
+        }
+    }
+
+    /** Lock the next batch of unclaimed events and mark them as claimed, the claim is committed with the transaction. */
+    private Collection<AtlasEventStorable> claimEvents() {
+        long now = System.currentTimeMillis();
+        SearchQuery query = SearchQuery.searchFrom(AtlasEventStorable.NAME_SPACE)
+                .where(WhereClause.begin()
+                        .eq(AtlasEventStorable.PROCESSED, false)
+                        .and()
+                        .eq(AtlasEventStorable.FAILED, false)
+                        .and()
+                        .lt(AtlasEventStorable.CLAIMED_UNTIL, now)
+                        .combine()
+                )
+                .orderBy(OrderBy.asc(AtlasEventStorable.ID))
+                .limit(batchSize)
+                .forUpdate();
+
+        Stopwatch searchTime = Stopwatch.createStarted();
+        Collection<AtlasEventStorable> atlasEvents = storageManager.search(query);
+        LOG.trace("Waited {} ms for query", searchTime.elapsed(MILLISECONDS));
+        if (atlasEvents == null) {
+            return Collections.emptyList();
+        }
+
+        for (AtlasEventStorable atlasEvent : atlasEvents) {
+            atlasEvent.setClaimedUntil(now + CLAIM_TIMEOUT_MS);
+            storageManager.update(atlasEvent);
+        }
+        return atlasEvents;
+    }
+
+    /**
+     * Group the events of the batch into Atlas calls. Events of the same type referring to the same entity
+     * result in a single call. Updating a schema which is also created in the same batch is not needed,
+     * since the creation already reads the latest state of the schema.
+     */
+    @VisibleForTesting
+    List<AtlasCall> coalesce(Collection<AtlasEventStorable> atlasEvents) {
+        Map<EventKey, AtlasCall> calls = new LinkedHashMap<>();
+        List<AtlasCall> invalidCalls = new ArrayList<>();
+        for (AtlasEventStorable atlasEvent : atlasEvents) {
+            EventType type;
+            try {
+                checkNotNull(atlasEvent.getProcessedId(), "Atlas event ID is null.");
+                checkNotNull(atlasEvent.getType(), "Atlas event type is null.");
+                type = EventType.forNumValue(atlasEvent.getType());
+            } catch (Exception ex) {
+                LOG.error("Could not process Atlas event. Setting it to failed state: {}", atlasEvent, ex);
+                AtlasCall invalid = new AtlasCall(null, atlasEvent.getProcessedId());
+                invalid.events.add(atlasEvent);
+                invalid.failed = true;
+                invalidCalls.add(invalid);
+                continue;
+            }
+            calls.computeIfAbsent(new EventKey(type, atlasEvent.getProcessedId()), k -> new AtlasCall(type, k.processedId))
+                    .events.add(atlasEvent);
+        }
+
+        List<AtlasCall> result = new ArrayList<>(calls.size() + invalidCalls.size());
+        for (AtlasCall call : calls.values()) {
+            if (call.type == EventType.UPDATE_META) {
+                AtlasCall create = calls.get(new EventKey(EventType.CREATE_META, call.processedId));
+                if (create != null) {
+                    create.events.addAll(call.events);
+                    coalescedEvents.mark(call.events.size());
+                    continue;
                 }
             }
+            coalescedEvents.mark(call.events.size() - 1);
+            result.add(call);
+        }
+        result.addAll(invalidCalls);
+        return result;
+    }
 
-            return true;
-        });
+    /**
+     * Look up the entities on the current thread, then send the calls to Atlas in parallel. The calls
+     * belonging to the same schema are sent sequentially, in the order of the events.
+     */
+    private void sendToAtlas(List<AtlasCall> calls) throws InterruptedException {
+        Map<Long, SchemaMetadataInfo> schemas = new HashMap<>();
+        Map<Long, List<AtlasCall>> callsBySchema = new LinkedHashMap<>();
+        for (AtlasCall call : calls) {
+            if (call.failed) {
+                continue;
+            }
+            try {
+                resolve(call, schemas);
+                callsBySchema.computeIfAbsent(call.schemaMetadataInfo.getId(), k -> new ArrayList<>()).add(call);
+            } catch (Exception ex) {
+                LOG.error("Could not process Atlas event. Setting it to failed state: {}", call.events, ex);
+                call.failed = true;
+            }
+        }
+
+        List<Future<?>> futures = new ArrayList<>(callsBySchema.size());
+        for (List<AtlasCall> schemaCalls : callsBySchema.values()) {
+            futures.add(atlasCallExecutor.submit(() -> {
+                for (AtlasCall call : schemaCalls) {
+                    try {
+                        LOG.debug("Processing events {}", call.events);
+                        send(call);
+                    } catch (Exception ex) {
+                        LOG.error("Could not process Atlas event. Setting it to failed state: {}", call.events, ex);
+                        call.failed = true;
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                // exceptions are handled per call, this should not happen
+                LOG.error("Unexpected error while sending events to Atlas.", ex);
+            }
+        }
     }
 
-    @VisibleForTesting
-    void processAtlasEvent(AtlasEventStorable atlasEventStorable) throws Exception {
-        checkNotNull(atlasEventStorable.getProcessedId(), "Atlas event ID is null.");
-        checkNotNull(atlasEventStorable.getType(), "Atlas event type is null.");
+    private void resolve(AtlasCall call, Map<Long, SchemaMetadataInfo> schemas) throws SchemaNotFoundException {
+        switch (call.type) {
+            case CREATE_META:
+            case UPDATE_META:
+                call.schemaMetadataInfo = getCachedMetaById(call.processedId, schemas);
+                if (call.schemaMetadataInfo == null) {
+                    throw new SchemaNotFoundException("Did not find schema with ID " + call.processedId, String.valueOf(call.processedId));
+                }
+                break;
+            case CREATE_VERSION:
+                call.schemaVersionInfo = getVersionById(call.processedId);
+                if (call.schemaVersionInfo == null) {
+                    throw new SchemaNotFoundException("Did not find schema version with ID " + call.processedId, String.valueOf(call.processedId));
+                }
+                Long schemaMetadataId = call.schemaVersionInfo.getSchemaMetadataId();
+                call.schemaMetadataInfo = getCachedMetaById(schemaMetadataId, schemas);
+                if (call.schemaMetadataInfo == null) {
+                    throw new SchemaNotFoundException("Did not find schema with ID " + schemaMetadataId + " for version with ID " + call.processedId,
+                            String.valueOf(call.processedId));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported event type: " + call.type);
+        }
+    }
 
-        switch (EventType.forNumValue(atlasEventStorable.getType())) {
+    private void send(AtlasCall call) {
+        switch (call.type) {
             case CREATE_META:
-                createMeta(atlasEventStorable.getProcessedId());
+                String metaGuid = atlasPlugin.createMeta(call.schemaMetadataInfo);
+                if (metaGuid != null && isConnectWithKafka()) {
+                    connectSchemaWithTopic(metaGuid, call.schemaMetadataInfo);
+                }
                 break;
             case UPDATE_META:
-                updateMeta(atlasEventStorable.getProcessedId());
+                atlasPlugin.updateMeta(call.schemaMetadataInfo.getSchemaMetadata());
                 break;
             case CREATE_VERSION:
-                createVersion(atlasEventStorable.getProcessedId());
+                atlasPlugin.addSchemaVersion(call.schemaMetadataInfo.getSchemaMetadata().getName(), call.schemaVersionInfo);
                 break;
             default:
-                throw new IllegalArgumentException("Unsupported event type: " + atlasEventStorable);
+                throw new IllegalArgumentException("Unsupported event type: " + call.type);
         }
-
-        atlasEventStorable.setProcessed(true);
-        storageManager.update(atlasEventStorable);
     }
 
-    public void stopProcessing() {
-        isShutdown.set(true);
+    /** Write back the processed and failed flags of the whole batch. Returns the number of updated events. */
+    private int storeOutcome(List<AtlasCall> calls) {
+        int completed = 0;
+        for (AtlasCall call : calls) {
+            for (AtlasEventStorable atlasEvent : call.events) {
+                if (call.failed) {
+                    if (setAtlasEntryToFailed(atlasEvent)) {
+                        failedEvents.mark();
+                        completed++;
+                    }
+                } else {
+                    atlasEvent.setProcessed(true);
+                    storageManager.update(atlasEvent);
+                    processedEvents.mark();
+                    completed++;
+                }
+            }
+        }
+        return completed;
     }
 
-    private void createMeta(Long schemaMetadataId) throws SchemaNotFoundException {
-        SchemaMetadataInfo schemaMetadataInfo = getMetaById(schemaMetadataId);
-        if (schemaMetadataInfo == null) {
-            throw new SchemaNotFoundException("Did not find schema with ID " + schemaMetadataId, String.valueOf(schemaMetadataId));
-        }
+    /** Count the events which are still to be sent to Atlas, including the ones claimed by other processors. */
+    private void updateBacklogMetrics() {
+        SearchQuery query = SearchQuery.searchFrom(AtlasEventStorable.NAME_SPACE)
+                .where(WhereClause.begin()
+                        .eq(AtlasEventStorable.PROCESSED, false)
+                        .and()
+                        .eq(AtlasEventStorable.FAILED, false)
+                        .combine()
+                );
+        Optional<Long> count = storageManager.aggregate(query, AtlasEventStorable.ID, Aggregation.COUNT);
+        Optional<Long> oldest = storageManager.aggregate(query, AtlasEventStorable.TIMESTAMP, Aggregation.MIN);
+        backlog.set(count.orElse(0L));
+        lagMs.set(oldest.map(timestamp -> Math.max(0L, System.currentTimeMillis() - timestamp)).orElse(0L));
+    }
 
-        String metaGuid = atlasPlugin.createMeta(schemaMetadataInfo);
-        if (metaGuid != null && isConnectWithKafka()) {
-            connectSchemaWithTopic(metaGuid, schemaMetadataInfo);
-        }
+    public void stopProcessing() {
+        isShutdown.set(true);
+        atlasCallExecutor.shutdown();
     }
 
     private void connectSchemaWithTopic(String metaGuid, SchemaMetadataInfo schemaMetadataInfo) {
@@ -192,40 +412,31 @@ public class AtlasEventsProcessor implements Runnable {
         }
     }
 
-    private void updateMeta(Long schemaMetadataId) throws SchemaNotFoundException {
-        SchemaMetadataInfo schemaMetadataInfo = getMetaById(schemaMetadataId);
-        if (schemaMetadataInfo == null) {
-            throw new SchemaNotFoundException("Did not find schema with ID " + schemaMetadataId, String.valueOf(schemaMetadataId));
-        }
-
-        atlasPlugin.updateMeta(schemaMetadataInfo.getSchemaMetadata());
-    }
-
-    private void createVersion(Long versionId) throws SchemaNotFoundException {
-        SchemaVersionInfo persistedVersion = getVersionById(versionId);
-        if (persistedVersion == null) {
-            throw new SchemaNotFoundException("Did not find schema version with ID " + versionId, String.valueOf(versionId));
-        }
-
-        SchemaMetadataInfo persistedMeta = getMetaById(persistedVersion.getSchemaMetadataId());
-        if (persistedMeta == null) {
-            throw new SchemaNotFoundException("Did not find schema with ID " + persistedVersion.getSchemaMetadataId() + " for version with ID " + versionId, String.valueOf(versionId));
-        }
-
-        atlasPlugin.addSchemaVersion(persistedMeta.getSchemaMetadata().getName(), persistedVersion);
-    }
-
-    private void setAtlasEntryToFailed(AtlasEventStorable atlasEventStorable) {
+    private boolean setAtlasEntryToFailed(AtlasEventStorable atlasEventStorable) {
         if (atlasEventStorable == null) {
-            return;
+            return false;
         }
 
         try {
             atlasEventStorable.setFailed(true);
             storageManager.update(atlasEventStorable);
+            return true;
         } catch (Exception ex) {
             LOG.error("Failed to set state to 'failed' for Atlas event entry {}", atlasEventStorable, ex);
+            return false;
+        }
+    }
+
+    @Nullable
+    private SchemaMetadataInfo getCachedMetaById(@Nonnull Long schemaMetadataId, Map<Long, SchemaMetadataInfo> schemas) {
+        SchemaMetadataInfo schemaMetadataInfo = schemas.get(schemaMetadataId);
+        if (schemaMetadataInfo == null) {
+            schemaMetadataInfo = getMetaById(schemaMetadataId);
+            if (schemaMetadataInfo != null) {
+                schemas.put(schemaMetadataId, schemaMetadataInfo);
+            }
         }
+        return schemaMetadataInfo;
     }
 
     @Nullable
@@ -261,4 +472,65 @@ public class AtlasEventsProcessor implements Runnable {
     private boolean isConnectWithKafka() {
         return connectWithKafka;
     }
+
+    /** A single call to Atlas, covering one or more events of the batch. */
+    @VisibleForTesting
+    static class AtlasCall {
+        private final EventType type;
+        private final Long processedId;
+        private final List<AtlasEventStorable> events = new ArrayList<>();
+        private SchemaMetadataInfo schemaMetadataInfo;
+        private SchemaVersionInfo schemaVersionInfo;
+        private volatile boolean failed;
+
+        AtlasCall(EventType type, Long processedId) {
+            this.type = type;
+            this.processedId = processedId;
+        }
+
+        EventType getType() {
+            return type;
+        }
+
+        List<AtlasEventStorable> getEvents() {
+            return events;
+        }
+    }
+
+    private static class EventKey {
+        private final EventType type;
+        private final Long processedId;
+
+        EventKey(EventType type, Long processedId) {
+            this.type = type;
+            this.processedId = processedId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            EventKey eventKey = (EventKey) o;
+            return type == eventKey.type && Objects.equals(processedId, eventKey.processedId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, processedId);
+        }
+    }
+
+    private static class BatchResult {
+        private final int claimed;
+        private final int completed;
+
+        BatchResult(int claimed, int completed) {
+            this.claimed = claimed;
+            this.completed = completed;
+        }
+    }
 }
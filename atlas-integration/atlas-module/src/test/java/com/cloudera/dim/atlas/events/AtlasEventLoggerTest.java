@@ -117,6 +117,7 @@ public class AtlasEventLoggerTest {
                     "  type            INT                   NOT NULL," +
                     "  processed       BOOLEAN               NOT NULL," +
                     "  failed          BOOLEAN               NOT NULL," +
+                    "  claimedUntil    BIGINT                NOT NULL DEFAULT 0," +
                     "  timestamp       BIGINT                NOT NULL," +
                     "  UNIQUE KEY (id)" +
                     ")");
@@ -22,9 +22,12 @@ import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataStorable;
 import com.hortonworks.registries.schemaregistry.SchemaValidationLevel;
+import com.hortonworks.registries.schemaregistry.SchemaVersionStorable;
 import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
 import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.search.Aggregation;
 import com.hortonworks.registries.storage.search.SearchQuery;
 import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import org.apache.commons.compress.utils.Lists;
@@ -33,19 +36,28 @@ import org.apache.commons.lang3.RandomUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -67,6 +79,7 @@ public class AtlasEventsProcessorTest {
 
         persistedEvents = new ArrayList<>();
         when(storageManager.<AtlasEventStorable>search(any(SearchQuery.class))).thenReturn(persistedEvents);
+        when(storageManager.aggregate(any(SearchQuery.class), anyString(), any(Aggregation.class))).thenReturn(Optional.empty());
         when(atlasPlugin.isKafkaSchemaModelInitialized()).thenReturn(true);
         when(atlasPlugin.createMeta(any())).thenReturn(RandomStringUtils.randomAlphabetic(10));
     }
@@ -92,7 +105,8 @@ public class AtlasEventsProcessorTest {
 
         verify(storageManager).search(argThat(query ->
                         AtlasEventStorable.NAME_SPACE.equals(query.getNameSpace()) &&
-                                query.isForUpdate()
+                                query.isForUpdate() &&
+                                Integer.valueOf(AtlasEventsProcessor.DEFAULT_BATCH_SIZE).equals(query.getLimit())
                 )
         );
     }
@@ -127,8 +141,9 @@ public class AtlasEventsProcessorTest {
         atlasEventsProcessor.processAtlasEvents();
 
         // then
-        verify(transactionManager).beginTransaction(TransactionIsolation.READ_COMMITTED);
-        verify(transactionManager).commitTransaction();
+        // the events are claimed in one transaction and marked as processed in another one
+        verify(transactionManager, times(2)).beginTransaction(TransactionIsolation.READ_COMMITTED);
+        verify(transactionManager, times(2)).commitTransaction();
         ArgumentCaptor<SchemaMetadataInfo> captor = ArgumentCaptor.forClass(SchemaMetadataInfo.class);
         verify(atlasPlugin).createMeta(captor.capture());
         SchemaMetadataInfo actualValue = captor.getValue();
@@ -137,10 +152,109 @@ public class AtlasEventsProcessorTest {
         assertEquals(metadataStorable.getName(), actualValue.getSchemaMetadata().getName());
         assertEquals(metadataStorable.getDescription(), actualValue.getSchemaMetadata().getDescription());
 
-        verify(storageManager).update(any(AtlasEventStorable.class));
+        verify(storageManager, times(2)).update(any(AtlasEventStorable.class));
         verify(atlasPlugin).connectSchemaWithTopic(anyString(), any());
     }
 
+    @Test
+    public void testAtlasIsCalledOutsideOfTheClaimingTransaction() throws Exception {
+        // given
+        final Long metaId = 1L;
+        List<Storable> result = Lists.newArrayList();
+        result.add(createMetadataStorable(metaId, "schema1"));
+        when(storageManager.find(eq(SchemaMetadataStorable.NAME_SPACE), anyList())).thenReturn(result);
+        AtlasEventStorable atlasEvent = createEvent(EventType.CREATE_META, metaId);
+        persistedEvents.add(atlasEvent);
+        long start = System.currentTimeMillis();
+
+        // when
+        atlasEventsProcessor.processAtlasEvents();
+
+        // then
+        InOrder inOrder = inOrder(transactionManager, storageManager, atlasPlugin);
+        inOrder.verify(storageManager).update(atlasEvent);
+        inOrder.verify(transactionManager).commitTransaction();
+        inOrder.verify(atlasPlugin).createMeta(any());
+        inOrder.verify(transactionManager).beginTransaction(TransactionIsolation.READ_COMMITTED);
+        inOrder.verify(storageManager).update(atlasEvent);
+        inOrder.verify(transactionManager).commitTransaction();
+        assertTrue(atlasEvent.isProcessed());
+        assertTrue(atlasEvent.getClaimedUntil() >= start + AtlasEventsProcessor.CLAIM_TIMEOUT_MS);
+    }
+
+    @Test
+    public void testBacklogIsCountedInTheDatabase() throws Exception {
+        // given
+        persistedEvents.add(createEvent(EventType.CREATE_META, -1L));
+
+        // when
+        atlasEventsProcessor.processAtlasEvents();
+
+        // then
+        verify(storageManager).aggregate(any(SearchQuery.class), eq(AtlasEventStorable.ID), eq(Aggregation.COUNT));
+    }
+
+    @Test
+    public void testRedundantEventsAreCoalesced() throws Exception {
+        // given
+        final Long metaId = 1L;
+        final Long versionId = 2L;
+        SchemaMetadataStorable metadataStorable = createMetadataStorable(metaId, "schema1");
+        List<Storable> result = Lists.newArrayList();
+        result.add(metadataStorable);
+        when(storageManager.find(eq(SchemaMetadataStorable.NAME_SPACE), anyList())).thenReturn(result);
+
+        SchemaVersionStorable versionStorable = new SchemaVersionStorable();
+        versionStorable.setId(versionId);
+        versionStorable.setSchemaMetadataId(metaId);
+        versionStorable.setName("schema1");
+        versionStorable.setVersion(1);
+        versionStorable.setSchemaText("\"string\"");
+        when(storageManager.get(any(StorableKey.class))).thenReturn(versionStorable);
+
+        persistedEvents.add(createEvent(EventType.CREATE_META, metaId));
+        persistedEvents.add(createEvent(EventType.UPDATE_META, metaId));
+        persistedEvents.add(createEvent(EventType.UPDATE_META, metaId));
+        persistedEvents.add(createEvent(EventType.CREATE_VERSION, versionId));
+        persistedEvents.add(createEvent(EventType.CREATE_VERSION, versionId));
+
+        // when
+        atlasEventsProcessor.processAtlasEvents();
+
+        // then
+        verify(atlasPlugin).createMeta(any());
+        verify(atlasPlugin, never()).updateMeta(any());
+        verify(atlasPlugin).addSchemaVersion(eq("schema1"), any());
+        // every event is updated when it is claimed and once more when it was processed
+        verify(storageManager, times(10)).update(any(AtlasEventStorable.class));
+        for (AtlasEventStorable event : persistedEvents) {
+            assertTrue(event.isProcessed());
+            assertFalse(event.isFailed());
+        }
+    }
+
+    @Test
+    public void testEventsAreClaimedInBatches() throws Exception {
+        // given
+        atlasEventsProcessor = new AtlasEventsProcessor(atlasPlugin, storageManager, transactionManager, 1000L, true, 2, 2);
+        List<AtlasEventStorable> firstBatch = Arrays.asList(createEvent(EventType.CREATE_META, -1L), createEvent(EventType.CREATE_META, -2L));
+        List<AtlasEventStorable> secondBatch = Collections.singletonList(createEvent(EventType.CREATE_META, -3L));
+        when(storageManager.<AtlasEventStorable>search(any(SearchQuery.class))).thenReturn(firstBatch, secondBatch);
+
+        // when
+        atlasEventsProcessor.processAtlasEvents();
+
+        // then
+        verify(storageManager, times(2)).search(argThat(query -> Integer.valueOf(2).equals(query.getLimit())));
+        verify(transactionManager, times(4)).commitTransaction();
+        // every event is updated when it is claimed and once more when it failed
+        verify(storageManager, times(6)).update(any(AtlasEventStorable.class));
+        for (AtlasEventStorable event : firstBatch) {
+            assertTrue(event.isFailed());
+        }
+        assertTrue(secondBatch.get(0).isFailed());
+    }
+
     @Test
     public void testEmptyAuditList() throws Exception {
         //given
@@ -165,7 +279,28 @@ public class AtlasEventsProcessorTest {
         atlasEventsProcessor.processAtlasEvents();
 
         //then
-        verify(transactionManager).commitTransaction();
-        verify(storageManager).update(atlasEvent);
+        verify(transactionManager, times(2)).commitTransaction();
+        verify(storageManager, times(2)).update(atlasEvent);
+        assertTrue(atlasEvent.isFailed());
+    }
+
+    private AtlasEventStorable createEvent(EventType type, Long processedId) {
+        AtlasEventStorable atlasEvent = new AtlasEventStorable();
+        atlasEvent.setType(type);
+        atlasEvent.setProcessedId(processedId);
+        atlasEvent.setTimestamp(System.currentTimeMillis());
+        return atlasEvent;
+    }
+
+    private SchemaMetadataStorable createMetadataStorable(Long metaId, String schemaName) {
+        SchemaMetadataStorable metadataStorable = new SchemaMetadataStorable();
+        metadataStorable.setId(metaId);
+        metadataStorable.setName(schemaName);
+        metadataStorable.setEvolve(true);
+        metadataStorable.setCompatibility(SchemaCompatibility.BACKWARD);
+        metadataStorable.setType("avro");
+        metadataStorable.setSchemaGroup("kafka");
+        metadataStorable.setValidationLevel(SchemaValidationLevel.DEFAULT_VALIDATION_LEVEL);
+        return metadataStorable;
     }
 }
@@ -21,11 +21,13 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hortonworks.registries.common.CollectionResponse;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaBranch;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.exportimport.UploadResult;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Then;
@@ -91,6 +93,22 @@ public class ThenSteps extends AbstractSteps {
         assertNotNull(sow.getValue(SCHEMA_VERSION_ID), "Schema version was not created.");
     }
 
+    @Then("the last version is in the {string} state")
+    public void theLastVersionIsInTheState(String stateName) throws SchemaNotFoundException {
+        Long versionId = (Long) sow.getValue(SCHEMA_VERSION_ID);
+        assertNotNull(versionId, "Schema version was not created.");
+
+        SchemaVersionInfo schemaVersionInfo = getSchemaRegistryClient().getSchemaVersionInfo(new SchemaIdVersion(versionId));
+        assertEquals(stateName, SchemaVersionLifecycleStates.valueOf(schemaVersionInfo.getStateId()).getName());
+    }
+
+    @Then("the latest version of schema {string} is version {int}")
+    public void theLatestVersionOfSchemaIsVersion(String schemaName, int version) throws SchemaNotFoundException {
+        SchemaVersionInfo schemaVersionInfo = getSchemaRegistryClient().getLatestSchemaVersionInfo(schemaName);
+        assertNotNull(schemaVersionInfo, "Schema has no enabled version.");
+        assertEquals(version, schemaVersionInfo.getVersion());
+    }
+
     @Then("the schema is successfully updated")
     public void theSchemaIsSuccessfullyUpdated() {
         assertNotNull(sow.getValue(SCHEMA_META_INFO), "Schema meta was not updated.");
@@ -80,6 +80,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import static com.cloudera.dim.schemaregistry.GlobalState.AGGREGATED_SCHEMAS;
@@ -712,6 +716,41 @@ public class WhenSteps extends AbstractSteps {
         schemaRegistryClient.deleteSchemaVersion(versionId);
     }
 
+    @When("we disable the last version")
+    public void weDisableTheLastVersion() throws Exception {
+        Long versionId = (Long) sow.getValue(SCHEMA_VERSION_ID);
+        assertNotNull(versionId);
+
+        schemaRegistryClient.disableSchemaVersion(versionId);
+    }
+
+    @When("we disable every version of schema {string} except the first one at the same time")
+    public void weDisableEveryVersionOfSchemaExceptTheFirstOneAtTheSameTime(String schemaName) throws Exception {
+        List<Long> versionIds = new ArrayList<>();
+        for (SchemaVersionInfo schemaVersionInfo : schemaRegistryClient.getAllVersions(schemaName)) {
+            if (schemaVersionInfo.getVersion() > 1) {
+                versionIds.add(schemaVersionInfo.getId());
+            }
+        }
+        assertFalse(versionIds.isEmpty());
+
+        ExecutorService executor = Executors.newFixedThreadPool(versionIds.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long versionId : versionIds) {
+                futures.add(executor.submit(() -> {
+                    schemaRegistryClient.disableSchemaVersion(versionId);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @When("we create the model in Atlas")
     public void weCreateTheModelInAtlas() {
 
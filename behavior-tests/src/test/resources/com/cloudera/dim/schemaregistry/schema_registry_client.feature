@@ -50,4 +50,105 @@ Feature: Schema Registry Client
     Then the resulting list size is 1
     And the resulting list will contain the following 2 versions:
     | 1    |
-    | 2    |
\ No newline at end of file
+    | 2    |
+  Scenario: Change the state of a new version
+    When we create a new schema meta "Truck" with the following parameters:
+    | Name            | Value          |
+    | type            | avro           |
+    | schemaGroup     | Kafka          |
+    | compatibility   | BACKWARD       |
+    | validationLevel | ALL            |
+    | evolve          | true           |
+    | description     | this is a test |
+    Then the schema is successfully created
+
+    When we create a new version for schema "Truck" with the following schema:
+    """
+    {
+      "type": "record",
+      "namespace": "com.cloudera",
+      "name": "Truck",
+      "fields": [
+                { "name": "model", "type":  "string" },
+                { "name": "weight", "type":  "int", "default": 0 }
+      ]
+    }
+    """
+    Then the version is successfully created
+    And the last version is in the "Enabled" state
+
+    When we disable the last version
+    Then the last version is in the "Disabled" state
+
+  Scenario: Disable versions concurrently
+    When we create a new schema meta "Bus" with the following parameters:
+    | Name            | Value          |
+    | type            | avro           |
+    | schemaGroup     | Kafka          |
+    | compatibility   | BACKWARD       |
+    | validationLevel | ALL            |
+    | evolve          | true           |
+    | description     | this is a test |
+    Then the schema is successfully created
+
+    When we create a new version for schema "Bus" with the following schema:
+    """
+    {
+      "type": "record",
+      "namespace": "com.cloudera",
+      "name": "Bus",
+      "fields": [
+                { "name": "model", "type":  "string" }
+      ]
+    }
+    """
+    Then the version is successfully created
+
+    When we create a new version for schema "Bus" with the following schema:
+    """
+    {
+      "type": "record",
+      "namespace": "com.cloudera",
+      "name": "Bus",
+      "fields": [
+                { "name": "model", "type":  "string" },
+                { "name": "seats", "type":  "int", "default": 50 }
+      ]
+    }
+    """
+    Then the version is successfully created
+
+    When we create a new version for schema "Bus" with the following schema:
+    """
+    {
+      "type": "record",
+      "namespace": "com.cloudera",
+      "name": "Bus",
+      "fields": [
+                { "name": "model", "type":  "string" },
+                { "name": "seats", "type":  "int", "default": 50 },
+                { "name": "doors", "type":  "int", "default": 2 }
+      ]
+    }
+    """
+    Then the version is successfully created
+
+    When we create a new version for schema "Bus" with the following schema:
+    """
+    {
+      "type": "record",
+      "namespace": "com.cloudera",
+      "name": "Bus",
+      "fields": [
+                { "name": "model", "type":  "string" },
+                { "name": "seats", "type":  "int", "default": 50 },
+                { "name": "doors", "type":  "int", "default": 2 },
+                { "name": "color", "type":  "string", "default": "yellow" }
+      ]
+    }
+    """
+    Then the version is successfully created
+    And the latest version of schema "Bus" is version 4
+
+    When we disable every version of schema "Bus" except the first one at the same time
+    Then the latest version of schema "Bus" is version 1
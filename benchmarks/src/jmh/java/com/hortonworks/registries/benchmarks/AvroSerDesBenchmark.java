@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.benchmarks.avro.BenchmarkEvent;
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotSerializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotSerializer;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of serializing and deserializing Avro records with every serdes protocol, with the schema
+ * versions already in the caches of the serdes and of the client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AvroSerDesBenchmark {
+
+    @Param({"0", "1", "2", "3"})
+    private byte protocolId;
+
+    @Param({"generic", "specific"})
+    private String recordType;
+
+    private LocalRegistry registry;
+    private AvroSnapshotSerializer serializer;
+    private AvroSnapshotDeserializer deserializer;
+    private SchemaMetadata schemaMetadata;
+    private Object record;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws Exception {
+        registry = new LocalRegistry();
+        Map<String, Object> config = registry.clientConfig();
+        config.put(AbstractAvroSnapshotSerializer.SERDES_PROTOCOL_VERSION, protocolId);
+        config.put(AbstractAvroSnapshotDeserializer.SPECIFIC_AVRO_READER, "specific".equals(recordType));
+
+        serializer = new AvroSnapshotSerializer();
+        serializer.init(config);
+        deserializer = new AvroSnapshotDeserializer();
+        deserializer.init(config);
+
+        schemaMetadata = new SchemaMetadata.Builder("avro-serdes-benchmark-" + protocolId + "-" + recordType)
+                .type(AvroSchemaProvider.TYPE)
+                .schemaGroup("benchmarks")
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+        BenchmarkEvent event = BenchmarkEvent.newBuilder()
+                .setId(42L)
+                .setSource("sensor-42")
+                .setTimestamp(System.currentTimeMillis())
+                .setTemperature(21.5)
+                .setActive(true)
+                .setTags(Arrays.asList("outdoor", "north", "calibrated"))
+                .setLocation("47.4979,19.0402")
+                .build();
+        record = "specific".equals(recordType) ? event : toGenericRecord(event);
+
+        // registers the schema and warms up the caches
+        payload = serializer.serialize(record, schemaMetadata);
+        deserializer.deserialize(new ByteArrayInputStream(payload), null);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        serializer.close();
+        deserializer.close();
+        registry.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(record, schemaMetadata);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(new ByteArrayInputStream(payload), null);
+    }
+
+    private static GenericData.Record toGenericRecord(BenchmarkEvent event) {
+        GenericData.Record genericRecord = new GenericData.Record(BenchmarkEvent.getClassSchema());
+        for (Schema.Field field : BenchmarkEvent.getClassSchema().getFields()) {
+            genericRecord.put(field.pos(), event.get(field.pos()));
+        }
+        return genericRecord;
+    }
+}
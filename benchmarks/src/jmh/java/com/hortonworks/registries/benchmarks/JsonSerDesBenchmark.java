@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.json.JsonSchemaProvider;
+import com.hortonworks.registries.schemaregistry.serdes.json.JsonSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.json.JsonSnapshotSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of serializing and deserializing JSON payloads, which have a single serdes protocol, with
+ * the schema versions already in the caches of the serdes and of the client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonSerDesBenchmark {
+
+    private LocalRegistry registry;
+    private JsonSnapshotSerializer serializer;
+    private JsonSnapshotDeserializer deserializer;
+    private SchemaMetadata schemaMetadata;
+    private Event event;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws Exception {
+        registry = new LocalRegistry();
+        Map<String, Object> config = registry.clientConfig();
+
+        serializer = new JsonSnapshotSerializer();
+        serializer.init(config);
+        deserializer = new JsonSnapshotDeserializer();
+        deserializer.init(config);
+
+        schemaMetadata = new SchemaMetadata.Builder("json-serdes-benchmark")
+                .type(JsonSchemaProvider.TYPE)
+                .schemaGroup("benchmarks")
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+        event = new Event();
+        event.setId(42L);
+        event.setSource("sensor-42");
+        event.setTimestamp(System.currentTimeMillis());
+        event.setTemperature(21.5);
+        event.setActive(true);
+        event.setTags(Arrays.asList("outdoor", "north", "calibrated"));
+
+        // registers the schema and warms up the caches
+        payload = serializer.serialize(event, schemaMetadata);
+        deserializer.deserialize(new ByteArrayInputStream(payload), null);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        serializer.close();
+        deserializer.close();
+        registry.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(event, schemaMetadata);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(new ByteArrayInputStream(payload), null);
+    }
+
+    /**
+     * Payload with the same fields as the Avro record of {@link AvroSerDesBenchmark}.
+     */
+    public static class Event {
+        private long id;
+        private String source;
+        private long timestamp;
+        private double temperature;
+        private boolean active;
+        private List<String> tags;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public void setSource(String source) {
+            this.source = source;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public double getTemperature() {
+            return temperature;
+        }
+
+        public void setTemperature(double temperature) {
+            this.temperature = temperature;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.schemaregistry.client.SchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.webservice.LocalSchemaRegistryServer;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Schema registry running in the benchmark JVM with in-memory storage, so the benchmarks do not need any external
+ * service.
+ */
+final class LocalRegistry implements AutoCloseable {
+
+    private static final String CONFIG_RESOURCE = "/benchmark-registry.yaml";
+
+    private final LocalSchemaRegistryServer server;
+    private final File configFile;
+
+    LocalRegistry() throws Exception {
+        configFile = File.createTempFile("benchmark-registry", ".yaml");
+        try (InputStream config = LocalRegistry.class.getResourceAsStream(CONFIG_RESOURCE)) {
+            Files.copy(config, configFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        server = new LocalSchemaRegistryServer(configFile.getAbsolutePath());
+        server.start();
+    }
+
+    /**
+     * @return configuration of a client connecting to this registry, which can be extended with serdes properties
+     */
+    Map<String, Object> clientConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(SchemaRegistryClient.Configuration.SCHEMA_REGISTRY_URL.name(),
+                "http://localhost:" + server.getLocalPort() + "/api/v1");
+        return config;
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            server.stop();
+        } finally {
+            Files.deleteIfExists(configFile.toPath());
+        }
+    }
+}
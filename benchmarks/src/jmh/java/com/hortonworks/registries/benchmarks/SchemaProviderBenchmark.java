@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaProvider;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.SchemaVersionRetriever;
+import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
+import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the fingerprinting of Avro schemas and the compatibility check of a new schema version against all the
+ * existing versions, like the registry does for the transitive compatibility types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchemaProviderBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int versionCount;
+
+    private AvroSchemaProvider schemaProvider;
+    private List<String> existingSchemas;
+    private String newSchema;
+
+    @Setup
+    public void setup() {
+        schemaProvider = new AvroSchemaProvider();
+        Map<String, Object> config = new HashMap<>();
+        config.put(SchemaProvider.HASH_FUNCTION_CONFIG, "MD5");
+        config.put(SchemaProvider.SCHEMA_VERSION_RETRIEVER_CONFIG, new SchemaVersionRetriever() {
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
+                throw new SchemaNotFoundException("Schemas of the benchmark do not include other schemas", key.toString());
+            }
+
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
+                throw new SchemaNotFoundException("Schemas of the benchmark do not include other schemas", key.toString());
+            }
+        });
+        schemaProvider.init(config);
+
+        existingSchemas = new ArrayList<>(versionCount);
+        for (int version = 1; version <= versionCount; version++) {
+            existingSchemas.add(schema(version));
+        }
+        newSchema = schema(versionCount + 1);
+    }
+
+    @Benchmark
+    public byte[] fingerprint() throws InvalidSchemaException, SchemaNotFoundException {
+        return schemaProvider.getFingerprint(newSchema);
+    }
+
+    @Benchmark
+    public boolean checkCompatibilityWithAllVersions() {
+        boolean compatible = true;
+        for (String existingSchema : existingSchemas) {
+            compatible &= schemaProvider.checkCompatibility(newSchema, existingSchema, SchemaCompatibility.BACKWARD).isCompatible();
+        }
+        return compatible;
+    }
+
+    /**
+     * @return schema of the given version, every version adds an optional field to the previous one
+     */
+    private static String schema(int version) {
+        StringBuilder schema = new StringBuilder("{\"type\":\"record\",\"name\":\"Event\",")
+                .append("\"namespace\":\"com.hortonworks.registries.benchmarks\",\"fields\":[")
+                .append("{\"name\":\"id\",\"type\":\"long\"},")
+                .append("{\"name\":\"source\",\"type\":\"string\"},")
+                .append("{\"name\":\"timestamp\",\"type\":\"long\"}");
+        for (int field = 1; field < version; field++) {
+            schema.append(",{\"name\":\"field").append(field).append("\",\"type\":[\"null\",\"string\"],\"default\":null}");
+        }
+        return schema.append("]}").toString();
+    }
+}
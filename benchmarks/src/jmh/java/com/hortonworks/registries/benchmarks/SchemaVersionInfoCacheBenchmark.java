@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.SchemaVersionRetriever;
+import com.hortonworks.registries.schemaregistry.cache.SchemaVersionInfoCache;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups of {@link SchemaVersionInfoCache} by version id and by name and version. Hits are served from
+ * the cache, misses go to a retriever which answers right away, so they only measure the overhead of the cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchemaVersionInfoCacheBenchmark {
+
+    private static final int CACHE_SIZE = 1024;
+    private static final int CACHED_VERSIONS = CACHE_SIZE / 4;
+    private static final int MISSING_VERSIONS = CACHE_SIZE * 4;
+    private static final String SCHEMA_NAME = "cache-benchmark";
+    private static final String SCHEMA_TEXT = "{\"type\":\"record\",\"name\":\"Event\",\"fields\":[{\"name\":\"id\",\"type\":\"long\"}]}";
+
+    private SchemaVersionInfoCache cache;
+    private SchemaVersionInfoCache.Key[] cachedIdKeys;
+    private SchemaVersionInfoCache.Key[] cachedNameKeys;
+    private int next;
+
+    @Setup
+    public void setup() throws SchemaNotFoundException {
+        cache = new SchemaVersionInfoCache(new SchemaVersionRetriever() {
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) {
+                return schemaVersionInfo(key.getVersion());
+            }
+
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) {
+                return schemaVersionInfo(key.getSchemaVersionId().intValue());
+            }
+        }, CACHE_SIZE, TimeUnit.HOURS.toMillis(1L));
+
+        cachedIdKeys = new SchemaVersionInfoCache.Key[CACHED_VERSIONS];
+        cachedNameKeys = new SchemaVersionInfoCache.Key[CACHED_VERSIONS];
+        for (int i = 0; i < CACHED_VERSIONS; i++) {
+            cachedIdKeys[i] = SchemaVersionInfoCache.Key.of(new SchemaIdVersion((long) i));
+            cachedNameKeys[i] = SchemaVersionInfoCache.Key.of(new SchemaVersionKey(SCHEMA_NAME, i));
+            cache.getSchema(cachedIdKeys[i]);
+            cache.getSchema(cachedNameKeys[i]);
+        }
+    }
+
+    @Benchmark
+    public SchemaVersionInfo hitById() throws SchemaNotFoundException {
+        return cache.getSchema(cachedIdKeys[next++ & (CACHED_VERSIONS - 1)]);
+    }
+
+    @Benchmark
+    public SchemaVersionInfo hitByNameAndVersion() throws SchemaNotFoundException {
+        return cache.getSchema(cachedNameKeys[next++ & (CACHED_VERSIONS - 1)]);
+    }
+
+    @Benchmark
+    public SchemaVersionInfo miss() throws SchemaNotFoundException {
+        // cycles through more versions than the cache can hold, so every lookup loads the version and evicts another one
+        long id = CACHED_VERSIONS + (next++ & (MISSING_VERSIONS - 1));
+        return cache.getSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(id)));
+    }
+
+    private static SchemaVersionInfo schemaVersionInfo(int version) {
+        return new SchemaVersionInfo((long) version, SCHEMA_NAME, version, 1L, SCHEMA_TEXT, 0L, null, (byte) 5);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks;
+
+import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.schemaregistry.SchemaVersionStorable;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.impl.jdbc.JdbcStorageManager;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures storage round trips of schema versions with the in-memory storage and with the JDBC storage on an embedded
+ * H2 database, which covers the statement building of the JDBC storage and the conversion of rows to storables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StorageBenchmark {
+
+    private static final int STORED_VERSIONS = 1000;
+    private static final int SCHEMAS = 10;
+    private static final String SCHEMA_TEXT = "{\"type\":\"record\",\"name\":\"Event\",\"fields\":[{\"name\":\"id\",\"type\":\"long\"}]}";
+
+    @Param({"inmemory", "h2"})
+    private String storage;
+
+    private StorageManager storageManager;
+    private HikariCPConnectionBuilder connectionBuilder;
+    private StorableKey[] storedKeys;
+    private Map<String, Object> storedMap;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong nextId = new AtomicLong(STORED_VERSIONS);
+
+    @Setup
+    public void setup() throws Exception {
+        if ("h2".equals(storage)) {
+            connectionBuilder = new HikariCPConnectionBuilder(HikariBasicConfig.getH2HikariConfig());
+            createTables();
+            storageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1), connectionBuilder));
+        } else {
+            storageManager = new InMemoryStorageManager();
+        }
+        storageManager.registerStorables(Collections.singleton(SchemaVersionStorable.class));
+
+        storedKeys = new StorableKey[STORED_VERSIONS];
+        for (int i = 0; i < STORED_VERSIONS; i++) {
+            SchemaVersionStorable schemaVersion = schemaVersion((long) i);
+            storageManager.add(schemaVersion);
+            storedKeys[i] = schemaVersion.getStorableKey();
+        }
+        storedMap = schemaVersion(0L).toMap();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (connectionBuilder != null) {
+            connectionBuilder.cleanup();
+        }
+    }
+
+    @Benchmark
+    public Storable get() {
+        return storageManager.get(storedKeys[(int) (next.getAndIncrement() % STORED_VERSIONS)]);
+    }
+
+    @Benchmark
+    public Collection<Storable> findVersionsOfSchema() {
+        List<QueryParam> queryParams = Collections.singletonList(
+                new QueryParam(SchemaVersionStorable.NAME, schemaName(next.getAndIncrement())));
+        return storageManager.find(SchemaVersionStorable.NAME_SPACE, queryParams);
+    }
+
+    @Benchmark
+    public Storable addGetAndRemove() {
+        SchemaVersionStorable schemaVersion = schemaVersion(nextId.getAndIncrement());
+        storageManager.add(schemaVersion);
+        Storable stored = storageManager.get(schemaVersion.getStorableKey());
+        storageManager.remove(schemaVersion.getStorableKey());
+        return stored;
+    }
+
+    @Benchmark
+    public Storable fromMap() {
+        return new SchemaVersionStorable().fromMap(storedMap);
+    }
+
+    private void createTables() throws Exception {
+        String script;
+        try (InputStream in = StorageBenchmark.class.getResourceAsStream("/benchmark-tables.sql")) {
+            script = IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+        try (Connection connection = connectionBuilder.getConnection(); Statement statement = connection.createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.replaceAll("--.*", "").trim().isEmpty()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static SchemaVersionStorable schemaVersion(long id) {
+        SchemaVersionStorable schemaVersion = new SchemaVersionStorable();
+        schemaVersion.setId(id);
+        schemaVersion.setSchemaMetadataId(id % SCHEMAS);
+        schemaVersion.setName(schemaName(id));
+        schemaVersion.setVersion((int) (id / SCHEMAS) + 1);
+        schemaVersion.setSchemaText(SCHEMA_TEXT);
+        schemaVersion.setFingerprint("fingerprint-" + id);
+        schemaVersion.setDescription("version " + id);
+        schemaVersion.setTimestamp(System.currentTimeMillis());
+        schemaVersion.setState((byte) 5);
+        schemaVersion.setStateSequence(0);
+        return schemaVersion;
+    }
+
+    private static String schemaName(long id) {
+        return "schema-" + (id % SCHEMAS);
+    }
+}
@@ -0,0 +1,22 @@
+-- tables of the storage benchmark, following bootstrap/sql/mysql without the constraints to other tables
+
+CREATE TABLE IF NOT EXISTS namespace_sequence (
+  namespace VARCHAR(100) NOT NULL,
+  nextId    BIGINT       NOT NULL,
+  PRIMARY KEY (namespace)
+);
+
+CREATE TABLE IF NOT EXISTS schema_version_info (
+  id               BIGINT AUTO_INCREMENT NOT NULL,
+  description      TEXT,
+  schemaText       MEDIUMTEXT            NOT NULL,
+  fingerprint      TEXT                  NOT NULL,
+  version          INT                   NOT NULL,
+  schemaMetadataId BIGINT                NOT NULL,
+  timestamp        BIGINT                NOT NULL,
+  state            TINYINT               NOT NULL DEFAULT 5,
+  stateSequence    INT                   NOT NULL DEFAULT 0,
+  name             VARCHAR(255)          NOT NULL,
+  UNIQUE KEY (id),
+  PRIMARY KEY (name, version)
+);
@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+
+#
+# Copyright 2016-2022 Cloudera, Inc.
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+
+#   http://www.apache.org/licenses/LICENSE-2.0
+
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+
+# Resolve links - $0 may be a softlink
+PRG="${0}"
+
+while [ -h "${PRG}" ]; do
+  ls=`ls -ld "${PRG}"`
+  link=`expr "$ls" : '.*-> \(.*\)$'`
+  if expr "$link" : '/.*' > /dev/null; then
+    PRG="$link"
+  else
+    PRG=`dirname "${PRG}"`/"$link"
+  fi
+done
+
+BOOTSTRAP_DIR=`dirname ${PRG}`
+CONFIG_FILE_PATH=${BOOTSTRAP_DIR}/../conf/registry.yaml
+
+# Which java to use
+if [ -z "${JAVA_HOME}" ]; then
+  JAVA="java"
+else
+  JAVA="${JAVA_HOME}/bin/java"
+fi
+
+REGISTRY_MAIN_CLASS=com.hortonworks.registries.webservice.RegistryApplication
+
+buildClasspath() {
+  for file in "${BOOTSTRAP_DIR}"/../libs/*.jar;
+  do
+      CLASSPATH="$CLASSPATH":"$file"
+  done
+}
+
+printUsage() {
+    cat <<-EOT
+USAGE: $0 <output file> [config file path]
+   output file      : the schemas are exported into this file, it is compressed with gzip if its name ends with ".gz"
+   config file path : optional, "${CONFIG_FILE_PATH}" used if omitted
+EOT
+}
+
+if [ $# -lt 1 ] || [ $# -gt 2 ]
+then
+    printUsage
+    exit 1
+fi
+
+OUTPUT_FILE_PATH="$1"
+[ $# -eq 2 ] && CONFIG_FILE_PATH="${2}"
+
+GZIP_OPTION=""
+case "${OUTPUT_FILE_PATH}" in
+*.gz )
+    GZIP_OPTION="--gzip"
+    ;;
+esac
+
+buildClasspath
+echo "Using Configuration file: ${CONFIG_FILE_PATH}"
+${JAVA} -cp ${CLASSPATH} ${REGISTRY_MAIN_CLASS} export-schemas -o "${OUTPUT_FILE_PATH}" ${GZIP_OPTION} ${CONFIG_FILE_PATH}
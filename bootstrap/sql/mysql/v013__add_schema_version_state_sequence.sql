@@ -0,0 +1,22 @@
+-- Copyright 2018-2021 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+ALTER TABLE `schema_version_info` ADD `stateSequence` INT(11) NOT NULL DEFAULT 0 AFTER `state`;
+
+-- Backfill the sequence of the current state from the state history
+
+UPDATE `schema_version_info` v
+  SET v.`stateSequence` = (SELECT MAX(s.`sequence`) FROM `schema_version_state` s WHERE s.`schemaVersionId` = v.`id`)
+  WHERE EXISTS (SELECT 1 FROM `schema_version_state` s WHERE s.`schemaVersionId` = v.`id`);
@@ -0,0 +1,28 @@
+-- Copyright 2018-2021 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CALL create_if_not_exists('TABLE', 'CREATE TABLE "schema_change_log" (
+  "id"                NUMBER(19,0)        NOT NULL,
+  "type"              VARCHAR2(64)        NOT NULL,
+  "schemaGroup"       VARCHAR2(255),
+  "schemaName"        VARCHAR2(255)       NOT NULL,
+  "schemaMetadataId"  NUMBER(19,0)        NOT NULL,
+  "schemaVersionId"   NUMBER(19,0),
+  "version"           NUMBER(10,0),
+  "timestamp"         NUMBER(19,0)        NOT NULL,
+  CONSTRAINT schema_change_log_pk PRIMARY KEY ("id")
+)');
+
+CALL create_if_not_exists('SEQUENCE', 'CREATE SEQUENCE "SCHEMA_CHANGE_LOG" START WITH 1 INCREMENT BY 1 MAXVALUE 10000000000000000000');
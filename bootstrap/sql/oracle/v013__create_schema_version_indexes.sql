@@ -0,0 +1,50 @@
+-- Copyright 2018-2021 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CALL create_if_not_exists('TABLE', 'CREATE TABLE "schema_version_fingerprint" (
+  "schemaVersionId"     NUMBER(19,0)        NOT NULL,
+  "schemaMetadataId"    NUMBER(19,0)        NOT NULL,
+  "fingerprint"         VARCHAR2(255)       NOT NULL,
+  CONSTRAINT schema_version_fingerprint_pk PRIMARY KEY ("schemaVersionId"),
+  CONSTRAINT schema_version_fingerprint_vid FOREIGN KEY ("schemaVersionId") REFERENCES "schema_version_info" ("id") ON DELETE CASCADE,
+  CONSTRAINT schema_version_fingerprint_mid FOREIGN KEY ("schemaMetadataId") REFERENCES "schema_metadata_info" ("id") ON DELETE CASCADE
+)');
+
+CALL create_if_not_exists('INDEX', 'CREATE INDEX schema_version_meta_fp_idx ON "schema_version_fingerprint"("schemaMetadataId", "fingerprint")');
+CALL create_if_not_exists('INDEX', 'CREATE INDEX schema_version_fp_idx ON "schema_version_fingerprint"("fingerprint")');
+
+CALL create_if_not_exists('TABLE', 'CREATE TABLE "schema_branch_latest_version" (
+  "schemaBranchId"      NUMBER(19,0)        NOT NULL,
+  "schemaVersionId"     NUMBER(19,0)        NOT NULL,
+  "version"             NUMBER(10,0)        NOT NULL,
+  CONSTRAINT schema_latest_version_pk PRIMARY KEY ("schemaBranchId"),
+  CONSTRAINT schema_latest_version_bid FOREIGN KEY ("schemaBranchId") REFERENCES "schema_branch" ("id") ON DELETE CASCADE,
+  CONSTRAINT schema_latest_version_vid FOREIGN KEY ("schemaVersionId") REFERENCES "schema_version_info" ("id") ON DELETE CASCADE
+)');
+
+-- Backfill the indexes from the existing schema versions, only ENABLED (5) versions are pointed at as latest
+
+INSERT /*+ IGNORE_ROW_ON_DUPKEY_INDEX ("schema_version_fingerprint" ("schemaVersionId")) */ INTO "schema_version_fingerprint"
+  SELECT "id" AS "schemaVersionId", "schemaMetadataId", "fingerprint" FROM "schema_version_info";
+
+INSERT /*+ IGNORE_ROW_ON_DUPKEY_INDEX ("schema_branch_latest_version" ("schemaBranchId")) */ INTO "schema_branch_latest_version"
+  SELECT m."schemaBranchId", v."id" AS "schemaVersionId", v."version"
+  FROM "schema_branch_version_mapping" m
+  JOIN "schema_version_info" v ON v."id" = m."schemaVersionInfoId"
+  WHERE v."state" = 5 AND v."version" = (
+    SELECT MAX(v2."version")
+    FROM "schema_branch_version_mapping" m2
+    JOIN "schema_version_info" v2 ON v2."id" = m2."schemaVersionInfoId"
+    WHERE m2."schemaBranchId" = m."schemaBranchId" AND v2."state" = 5);
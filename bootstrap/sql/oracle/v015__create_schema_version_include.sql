@@ -0,0 +1,26 @@
+-- Copyright 2018-2021 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CALL create_if_not_exists('TABLE', 'CREATE TABLE "schema_version_include" (
+  "schemaVersionId"     NUMBER(19,0)        NOT NULL,
+  "schemaMetadataId"    NUMBER(19,0)        NOT NULL,
+  "includedSchemaName"  VARCHAR2(255)       NOT NULL,
+  "includedVersion"     NUMBER(10,0)        NOT NULL,
+  CONSTRAINT schema_version_include_pk PRIMARY KEY ("schemaVersionId", "includedSchemaName"),
+  CONSTRAINT schema_version_include_vid FOREIGN KEY ("schemaVersionId") REFERENCES "schema_version_info" ("id") ON DELETE CASCADE,
+  CONSTRAINT schema_version_include_mid FOREIGN KEY ("schemaMetadataId") REFERENCES "schema_metadata_info" ("id") ON DELETE CASCADE
+)');
+
+CALL create_if_not_exists('INDEX', 'CREATE INDEX schema_version_include_name_idx ON "schema_version_include"("includedSchemaName")');
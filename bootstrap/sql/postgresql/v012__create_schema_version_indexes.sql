@@ -0,0 +1,51 @@
+-- Copyright 2018-2021 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CREATE TABLE IF NOT EXISTS "schema_version_fingerprint" (
+  "schemaVersionId"     BIGINT          NOT NULL,
+  "schemaMetadataId"    BIGINT          NOT NULL,
+  "fingerprint"         VARCHAR(255)    NOT NULL,
+  PRIMARY KEY ("schemaVersionId"),
+  FOREIGN KEY ("schemaVersionId") REFERENCES "schema_version_info" ("id") ON DELETE CASCADE ON UPDATE CASCADE,
+  FOREIGN KEY ("schemaMetadataId") REFERENCES "schema_metadata_info" ("id") ON DELETE CASCADE ON UPDATE CASCADE
+);
+CREATE INDEX IF NOT EXISTS schema_version_meta_fp_idx ON "schema_version_fingerprint"("schemaMetadataId", "fingerprint");
+CREATE INDEX IF NOT EXISTS schema_version_fp_idx ON "schema_version_fingerprint"("fingerprint");
+
+CREATE TABLE IF NOT EXISTS "schema_branch_latest_version" (
+  "schemaBranchId"      BIGINT          NOT NULL,
+  "schemaVersionId"     BIGINT          NOT NULL,
+  "version"             INT             NOT NULL,
+  PRIMARY KEY ("schemaBranchId"),
+  FOREIGN KEY ("schemaBranchId") REFERENCES "schema_branch" ("id") ON DELETE CASCADE ON UPDATE CASCADE,
+  FOREIGN KEY ("schemaVersionId") REFERENCES "schema_version_info" ("id") ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+-- Backfill the indexes from the existing schema versions, only ENABLED (5) versions are pointed at as latest
+
+INSERT INTO "schema_version_fingerprint" ("schemaVersionId", "schemaMetadataId", "fingerprint")
+  SELECT "id", "schemaMetadataId", "fingerprint" FROM "schema_version_info"
+  ON CONFLICT ("schemaVersionId") DO NOTHING;
+
+INSERT INTO "schema_branch_latest_version" ("schemaBranchId", "schemaVersionId", "version")
+  SELECT m."schemaBranchId", v."id", v."version"
+  FROM "schema_branch_version_mapping" m
+  JOIN "schema_version_info" v ON v."id" = m."schemaVersionInfoId"
+  WHERE v."state" = 5 AND v."version" = (
+    SELECT MAX(v2."version")
+    FROM "schema_branch_version_mapping" m2
+    JOIN "schema_version_info" v2 ON v2."id" = m2."schemaVersionInfoId"
+    WHERE m2."schemaBranchId" = m."schemaBranchId" AND v2."state" = 5)
+  ON CONFLICT ("schemaBranchId") DO NOTHING;
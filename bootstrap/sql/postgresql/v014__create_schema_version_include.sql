@@ -0,0 +1,25 @@
+-- Copyright 2018-2021 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CREATE TABLE IF NOT EXISTS "schema_version_include" (
+  "schemaVersionId"     BIGINT          NOT NULL,
+  "schemaMetadataId"    BIGINT          NOT NULL,
+  "includedSchemaName"  VARCHAR(255)    NOT NULL,
+  "includedVersion"     INT             NOT NULL,
+  PRIMARY KEY ("schemaVersionId", "includedSchemaName"),
+  FOREIGN KEY ("schemaVersionId") REFERENCES "schema_version_info" ("id") ON DELETE CASCADE ON UPDATE CASCADE,
+  FOREIGN KEY ("schemaMetadataId") REFERENCES "schema_metadata_info" ("id") ON DELETE CASCADE ON UPDATE CASCADE
+);
+CREATE INDEX IF NOT EXISTS schema_version_include_name_idx ON "schema_version_include"("includedSchemaName");
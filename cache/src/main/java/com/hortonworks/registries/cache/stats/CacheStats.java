@@ -17,5 +17,31 @@
 package com.hortonworks.registries.cache.stats;
 
 
+/**
+ * Statistics of the lookups of a cache since it was created.
+ */
 public interface CacheStats {
+
+    /**
+     * @return number of lookups which returned a cached value
+     */
+    long hitCount();
+
+    /**
+     * @return number of lookups which did not find a cached value
+     */
+    long missCount();
+
+    /**
+     * @return ratio of the lookups which returned a cached value, 1.0 when there was no lookup
+     */
+    default double hitRate() {
+        long requestCount = hitCount() + missCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount() / requestCount;
+    }
+
+    /**
+     * @return number of values which were evicted from the cache because of its size or expiry policy
+     */
+    long evictionCount();
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.common.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@link RegistryMetrics} which exposes every metric as an MXBean of the platform MBean server, under the domain
+ * {@value #DOMAIN}. It does not need any library, so it is meant to be used by clients.
+ */
+public class JmxRegistryMetrics implements RegistryMetrics {
+    private static final Logger LOG = LoggerFactory.getLogger(JmxRegistryMetrics.class);
+
+    public static final String DOMAIN = "com.hortonworks.registries";
+
+    private final MBeanServer mBeanServer;
+    private final ConcurrentMap<String, Event> events = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public JmxRegistryMetrics() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxRegistryMetrics(MBeanServer mBeanServer) {
+        this.mBeanServer = mBeanServer;
+    }
+
+    @Override
+    public void mark(String name, long count) {
+        events.computeIfAbsent(name, key -> register("events", key, new Event(), EventMXBean.class)).count.add(count);
+    }
+
+    @Override
+    public void update(String name, long duration, TimeUnit unit) {
+        timers.computeIfAbsent(name, key -> register("timers", key, new Timer(), TimerMXBean.class)).update(unit.toNanos(duration));
+    }
+
+    @Override
+    public synchronized void registerGauge(String name, Supplier<? extends Number> gauge) {
+        unregister("gauges", name);
+        register("gauges", name, (GaugeMXBean) () -> gauge.get().doubleValue(), GaugeMXBean.class);
+    }
+
+    private <T, M extends T> M register(String type, String name, M metric, Class<T> mxBeanInterface) {
+        try {
+            mBeanServer.registerMBean(new StandardMBean(metric, mxBeanInterface, true), objectName(type, name));
+        } catch (JMException e) {
+            // the metric is still recorded, only it can't be read over JMX
+            LOG.warn("Failed to register MBean of metric [{}]", name, e);
+        }
+        return metric;
+    }
+
+    private void unregister(String type, String name) {
+        try {
+            ObjectName objectName = objectName(type, name);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            LOG.warn("Failed to unregister MBean of metric [{}]", name, e);
+        }
+    }
+
+    private static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    public interface EventMXBean {
+        long getCount();
+    }
+
+    public interface TimerMXBean {
+        long getCount();
+
+        double getMeanMs();
+
+        double getMaxMs();
+    }
+
+    public interface GaugeMXBean {
+        double getValue();
+    }
+
+    private static class Event implements EventMXBean {
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+
+    private static class Timer implements TimerMXBean {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        void update(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getMeanMs() {
+            long updates = getCount();
+            return updates == 0 ? 0.0 : totalNanos.sum() / (updates * 1_000_000.0);
+        }
+
+        @Override
+        public double getMaxMs() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+    }
+}
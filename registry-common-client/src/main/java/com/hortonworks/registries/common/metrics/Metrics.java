@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.common.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * Holds the {@link RegistryMetrics} of this JVM. Metrics are not recorded until an application installs an
+ * implementation, the registry server installs one backed by its Dropwizard metric registry and the client installs
+ * the one configured with {@code schema.registry.client.metrics.class}.
+ */
+public final class Metrics {
+    private static final Logger LOG = LoggerFactory.getLogger(Metrics.class);
+
+    private static volatile RegistryMetrics registryMetrics = NoopRegistryMetrics.INSTANCE;
+
+    private Metrics() {
+    }
+
+    public static RegistryMetrics get() {
+        return registryMetrics;
+    }
+
+    /**
+     * Installs the given metrics, the metrics which are recorded afterwards are recorded with it.
+     */
+    public static void set(RegistryMetrics metrics) {
+        Objects.requireNonNull(metrics, "metrics can't be null");
+        LOG.info("Recording metrics with [{}]", metrics.getClass().getName());
+        registryMetrics = metrics;
+    }
+
+    /**
+     * Installs a new instance of the given class, unless an instance of it is already installed.
+     *
+     * @param className name of a {@link RegistryMetrics} implementation with a public no-arg constructor
+     * @return the installed metrics
+     */
+    public static synchronized RegistryMetrics install(String className) {
+        if (registryMetrics.getClass().getName().equals(className)) {
+            return registryMetrics;
+        }
+        try {
+            Class<?> clazz = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            set((RegistryMetrics) clazz.getConstructor().newInstance());
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Can not create metrics of class " + className, e);
+        }
+        return registryMetrics;
+    }
+}
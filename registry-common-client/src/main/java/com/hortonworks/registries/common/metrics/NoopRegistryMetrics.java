@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link RegistryMetrics} which does not record anything, it is used until other metrics are installed.
+ */
+public class NoopRegistryMetrics implements RegistryMetrics {
+
+    public static final NoopRegistryMetrics INSTANCE = new NoopRegistryMetrics();
+
+    private static final Context NOOP_CONTEXT = () -> { };
+
+    @Override
+    public void mark(String name, long count) {
+    }
+
+    @Override
+    public void update(String name, long duration, TimeUnit unit) {
+    }
+
+    @Override
+    public Context time(String name) {
+        return NOOP_CONTEXT;
+    }
+
+    @Override
+    public void registerGauge(String name, Supplier<? extends Number> gauge) {
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Facade of the metrics library used to record the metrics of the registry server, the client and the serdes, so
+ * neither of them depends on a particular library. The instance in use is returned by {@link Metrics#get()}.
+ * <p>
+ * Implementations must be thread safe, and they create a metric when it is first used with a given name.
+ */
+public interface RegistryMetrics {
+
+    /**
+     * Records the given number of occurrences of the event with the given name, e.g. a cache hit or a failed request.
+     *
+     * @param name  name of the metric
+     * @param count number of occurrences
+     */
+    void mark(String name, long count);
+
+    /**
+     * Records an occurrence of the event with the given name.
+     *
+     * @param name name of the metric
+     */
+    default void mark(String name) {
+        mark(name, 1L);
+    }
+
+    /**
+     * Records the duration of an operation with the given name.
+     *
+     * @param name     name of the metric
+     * @param duration duration of the operation
+     * @param unit     time unit of {@code duration}
+     */
+    void update(String name, long duration, TimeUnit unit);
+
+    /**
+     * Starts timing an operation with the given name, the duration is recorded when the returned context is closed.
+     *
+     * @param name name of the metric
+     * @return context to close when the operation is completed
+     */
+    default Context time(String name) {
+        long startTime = System.nanoTime();
+        return () -> update(name, System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers a gauge with the given name, replacing the gauge which is already registered with the same name.
+     *
+     * @param name  name of the metric
+     * @param gauge supplier of the current value
+     */
+    void registerGauge(String name, Supplier<? extends Number> gauge);
+
+    /**
+     * Returns the name of a metric, which is the fully qualified name of the given class followed by the given names,
+     * separated by dots, the same way the metric names of Dropwizard are built.
+     */
+    static String name(Class<?> klass, String... names) {
+        StringBuilder name = new StringBuilder(klass.getName());
+        for (String part : names) {
+            if (part != null && !part.isEmpty()) {
+                name.append('.').append(part);
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     * Timing of an operation started with {@link #time(String)}.
+     */
+    interface Context extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.common.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JmxRegistryMetricsTest {
+
+    private MBeanServer mBeanServer;
+    private JmxRegistryMetrics underTest;
+
+    @BeforeEach
+    public void setUp() {
+        mBeanServer = MBeanServerFactory.newMBeanServer();
+        underTest = new JmxRegistryMetrics(mBeanServer);
+    }
+
+    @Test
+    public void testMarkIsReadableOverJmx() throws Exception {
+        //when
+        underTest.mark("cache.miss");
+        underTest.mark("cache.miss", 2L);
+
+        //then
+        assertEquals(3L, mBeanServer.getAttribute(objectName("events", "cache.miss"), "Count"));
+    }
+
+    @Test
+    public void testTimerIsReadableOverJmx() throws Exception {
+        //when
+        underTest.update("lookup", 10L, TimeUnit.MILLISECONDS);
+        try (RegistryMetrics.Context context = underTest.time("lookup")) {
+            // timed
+        }
+
+        //then
+        ObjectName timer = objectName("timers", "lookup");
+        assertEquals(2L, mBeanServer.getAttribute(timer, "Count"));
+        assertEquals(10.0, (Double) mBeanServer.getAttribute(timer, "MaxMs"), 1.0);
+    }
+
+    @Test
+    public void testGaugeIsReplaced() throws Exception {
+        //given
+        AtomicInteger size = new AtomicInteger(5);
+        underTest.registerGauge("cache.size", () -> 1);
+
+        //when
+        underTest.registerGauge("cache.size", size::get);
+
+        //then
+        assertEquals(5.0, mBeanServer.getAttribute(objectName("gauges", "cache.size"), "Value"));
+    }
+
+    private static ObjectName objectName(String type, String name) throws Exception {
+        return new ObjectName(JmxRegistryMetrics.DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+}
@@ -22,13 +22,14 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Implementation of JarStorage interface backed by local file system
@@ -70,12 +71,22 @@ public class LocalFileSystemStorage implements FileStorage {
         ensureDirExists();
 
         Path path = FileSystems.getDefault().getPath(directory, name);
-        File file = path.toFile();
-        if (!file.createNewFile()) {
+        if (Files.exists(path)) {
             throw new IOException("File: [" + name + "] already exists");
         }
-        try (OutputStream outputStream = new FileOutputStream(file)) {
-            ByteStreams.copy(inputStream, outputStream);
+        // the content is written next to the file and moved in place, so the file never exists with partial content
+        Path tempPath = Files.createTempFile(path.getParent(), "." + name, ".tmp");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                ByteStreams.copy(inputStream, outputStream);
+            }
+            try {
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path);
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
         }
         return path.toString();
     }
@@ -27,10 +27,14 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class LocalFileSystemStorageTest extends AbstractFileStorageTest {
 
@@ -71,4 +75,16 @@ public class LocalFileSystemStorageTest extends AbstractFileStorageTest {
         assertEquals("/tmp/schema-registry/test/directory", directory);
         assertEquals("com.hortonworks.registries.common.util.LocalFileSystemStorage", className);
     }
+
+    @Test
+    public void testUploadWhenFileExistsExceptionIsThrown() throws Exception {
+        FileStorage fileStorage = getFileStorage();
+        fileStorage.upload(new ByteArrayInputStream(new byte[] {1, 2}), "file.name");
+
+        assertThrows(IOException.class, () -> fileStorage.upload(new ByteArrayInputStream(new byte[] {3}), "file.name"));
+
+        // the stored file is kept, and no temporary file is left behind
+        assertArrayEquals(new String[] {"file.name"}, new File(uploadDir).list());
+        assertArrayEquals(new byte[] {1, 2}, Files.readAllBytes(new File(uploadDir, "file.name").toPath()));
+    }
 }
@@ -19,9 +19,15 @@ import com.cloudera.dim.registry.oauth2.variant.HmacSignedJwtValidator;
 import com.cloudera.dim.registry.oauth2.variant.JwkValidator;
 import com.cloudera.dim.registry.oauth2.variant.JwtValidatorVariant;
 import com.cloudera.dim.registry.oauth2.variant.RsaSignedJwtValidator;
+import com.cloudera.dim.registry.oauth2.VerifiedTokenCache.VerifiedToken;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
 import com.hortonworks.registries.auth.client.AuthenticationException;
 import com.hortonworks.registries.auth.server.AuthenticationHandler;
 import com.hortonworks.registries.auth.server.AuthenticationToken;
+import com.google.common.annotations.VisibleForTesting;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jwt.SignedJWT;
 import org.apache.commons.lang3.StringUtils;
@@ -59,6 +65,28 @@ public class OAuth2AuthenticationHandler implements AuthenticationHandler {
     private List<String> audiences = null;
     private HttpClientForOAuth2 httpClient;
     private JwtValidatorVariant handlerImpl;
+    private VerifiedTokenCache tokenCache;
+
+    private final Timer verificationTimer;
+    private final Meter tokenCacheHits;
+    private final Meter tokenCacheMisses;
+
+    public OAuth2AuthenticationHandler() {
+        this(null);
+    }
+
+    @VisibleForTesting
+    OAuth2AuthenticationHandler(JwtValidatorVariant handlerImpl) {
+        this.handlerImpl = handlerImpl;
+        MetricRegistry metrics = SharedMetricRegistries.tryGetDefault();
+        if (metrics == null) {
+            // not running inside the registry server, nobody is going to report these
+            metrics = new MetricRegistry();
+        }
+        this.verificationTimer = metrics.timer(MetricRegistry.name(OAuth2AuthenticationHandler.class, "verification"));
+        this.tokenCacheHits = metrics.meter(MetricRegistry.name(OAuth2AuthenticationHandler.class, "tokenCache", "hits"));
+        this.tokenCacheMisses = metrics.meter(MetricRegistry.name(OAuth2AuthenticationHandler.class, "tokenCache", "misses"));
+    }
 
     @Override
     public String getType() {
@@ -117,6 +145,12 @@ public class OAuth2AuthenticationHandler implements AuthenticationHandler {
                 audiences.add(a);
             }
         }
+
+        long tokenCacheSize = Long.parseLong(config.getProperty(TOKEN_CACHE_MAX_SIZE, "10000"));
+        if (tokenCacheSize > 0) {
+            long tokenCacheTtlMs = Long.parseLong(config.getProperty(TOKEN_CACHE_TTL_MS, String.valueOf(5 * 60000L)));
+            tokenCache = new VerifiedTokenCache(tokenCacheSize, tokenCacheTtlMs);
+        }
     }
 
     private HttpClientForOAuth2 initHttpClient(Properties config) {
@@ -174,11 +208,24 @@ public class OAuth2AuthenticationHandler implements AuthenticationHandler {
             return null;
         }
 
+        // the generation has to be read before verification, otherwise a token verified
+        // with the old keys could end up being cached for the new ones
+        long keyGeneration = handlerImpl.getKeyGeneration();
+        if (tokenCache != null) {
+            VerifiedToken verified = tokenCache.get(jwt, keyGeneration);
+            if (verified != null) {
+                tokenCacheHits.mark();
+                LOG.debug("Issuing AuthenticationToken for previously verified user.");
+                return createAuthenticationToken(verified.getUserName(), verified.getExpiresAt());
+            }
+            tokenCacheMisses.mark();
+        }
+
         String userName = null;
         SignedJWT jwtToken;
         boolean valid = false;
         Long exp = null;
-        try {
+        try (Timer.Context ignored = verificationTimer.time()) {
             jwtToken = SignedJWT.parse(jwt);
             valid = validateToken(jwtToken);
             if (valid) {
@@ -203,17 +250,25 @@ public class OAuth2AuthenticationHandler implements AuthenticationHandler {
         }
 
         if (valid) {
-            LOG.debug("Issuing AuthenticationToken for user.");
-            AuthenticationToken result = new AuthenticationToken(userName, userName, getType());
-            if (exp != null) {
-                result.setExpires(exp);
+            if (tokenCache != null) {
+                tokenCache.put(jwt, new VerifiedToken(userName, exp, keyGeneration));
             }
-            return result;
+            LOG.debug("Issuing AuthenticationToken for user.");
+            return createAuthenticationToken(userName, exp);
         }
 
         return null;
     }
 
+    private AuthenticationToken createAuthenticationToken(String userName, @Nullable Long exp) {
+        AuthenticationToken result = new AuthenticationToken(userName, userName, getType());
+        if (exp != null) {
+            result.setExpires(exp);
+        }
+        return result;
+    }
+
+
     /**
      * This method provides a single method for validating the JWT for use in
      * request processing. It provides for the override of specific aspects of
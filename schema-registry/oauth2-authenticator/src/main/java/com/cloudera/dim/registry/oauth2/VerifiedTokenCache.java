@@ -0,0 +1,102 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.cloudera.dim.registry.oauth2;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of JWTs which have already passed signature, audience and expiration validation.
+ * Tokens are keyed by their SHA-256 hash, so the raw bearer token is never kept in memory.
+ * <p>
+ * An entry is only served while the token has not expired and while the validator still uses
+ * the same key generation which verified it. Once the keys are rotated, every cached token
+ * needs to be verified again.
+ */
+class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    VerifiedTokenCache(long maxSize, long ttlMs) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Nullable
+    VerifiedToken get(@Nonnull String jwt, long keyGeneration) {
+        String key = hash(jwt);
+        VerifiedToken token = cache.getIfPresent(key);
+        if (token == null) {
+            return null;
+        }
+        if (token.getKeyGeneration() != keyGeneration || token.isExpired(System.currentTimeMillis())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return token;
+    }
+
+    void put(@Nonnull String jwt, @Nonnull VerifiedToken token) {
+        cache.put(hash(jwt), token);
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    private static String hash(String jwt) {
+        return Hashing.sha256().hashString(jwt, StandardCharsets.UTF_8).toString();
+    }
+
+    /** The outcome of a successful validation. */
+    static class VerifiedToken {
+
+        private final String userName;
+        private final Long expiresAt;
+        private final long keyGeneration;
+
+        VerifiedToken(String userName, @Nullable Long expiresAt, long keyGeneration) {
+            this.userName = userName;
+            this.expiresAt = expiresAt;
+            this.keyGeneration = keyGeneration;
+        }
+
+        String getUserName() {
+            return userName;
+        }
+
+        @Nullable
+        Long getExpiresAt() {
+            return expiresAt;
+        }
+
+        long getKeyGeneration() {
+            return keyGeneration;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != null && expiresAt <= now;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import com.cloudera.dim.registry.oauth2.HttpClientForOAuth2;
 import com.nimbusds.jwt.SignedJWT;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.jose4j.jwk.JsonWebKey;
 import org.jose4j.jwk.JsonWebKeySet;
 import org.jose4j.jwt.consumer.InvalidJwtException;
 import org.jose4j.jwt.consumer.JwtConsumer;
@@ -59,7 +60,7 @@ public class JwkValidator implements JwtValidatorVariant {
 
     private final ExecutorService threadPool = Executors.newFixedThreadPool(1);
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
-    private final AtomicReference<JsonWebKeySet> keys;
+    private final AtomicReference<KeySetGeneration> keys;
     private final HttpClientForOAuth2 httpClient;
 
     private final Integer clockSkew;
@@ -74,8 +75,8 @@ public class JwkValidator implements JwtValidatorVariant {
         this.expectedAudiences = config.containsKey(EXPECTED_JWT_AUDIENCES) ? ((String) config.get(EXPECTED_JWT_AUDIENCES)).split("\\n") : null;
         this.expectedIssuer = config.containsKey(EXPECTED_JWT_ISSUER) ? (String) config.get(EXPECTED_JWT_ISSUER) : null;
         this.refreshIntervalMs = Long.parseLong((String) config.getOrDefault(JWK_REFRESH_MS, String.valueOf(5 * 60000L)));
-        this.keys = new AtomicReference<>(retrieveKeys(config, httpClient));
         this.jwtPrincipalClaim = config.containsKey(JWT_PRINCIPAL_CLAIM) ? (String) config.get(JWT_PRINCIPAL_CLAIM) : "sub";
+        this.keys = new AtomicReference<>(new KeySetGeneration(0L, retrieveKeys(config, httpClient)));
 
         // refresh the JWKs every 5 minutes
         threadPool.submit(new JwkRefresher(config, httpClient));
@@ -85,32 +86,9 @@ public class JwkValidator implements JwtValidatorVariant {
     public boolean validateSignature(SignedJWT jwtToken) {
         LOG.debug("Validating signature for JWT");
         try {
-
-            final JwtConsumerBuilder jwtConsumerBuilder = new JwtConsumerBuilder();
-
-            if (clockSkew != null) {
-                jwtConsumerBuilder.setAllowedClockSkewInSeconds(clockSkew);
-            }
-            if (expectedAudiences != null && expectedAudiences.length > 0) {
-                jwtConsumerBuilder.setExpectedAudience(expectedAudiences);
-            }
-
-            if (expectedIssuer != null) {
-                jwtConsumerBuilder.setExpectedIssuer(expectedIssuer);
-            }
-
-            JwksVerificationKeyResolver keyResolver = new JwksVerificationKeyResolver(keys.get().getJsonWebKeys());
-
-            JwtConsumer jwtConsumer = jwtConsumerBuilder
-                    .setJwsAlgorithmConstraints(DISALLOW_NONE)
-                    .setRequireExpirationTime()
-                    .setRequireIssuedAt()
-                    .setVerificationKeyResolver(keyResolver)
-                    .build();
-
             LOG.debug("Received JWT: {}", jwtToken.getParsedString());
 
-            JwtContext jwtContext = jwtConsumer.process(jwtToken.getParsedString());
+            JwtContext jwtContext = keys.get().jwtConsumer.process(jwtToken.getParsedString());
             if (jwtContext == null) {
                 throw new RuntimeException("Could not validate JWT.");
             }
@@ -127,6 +105,36 @@ public class JwkValidator implements JwtValidatorVariant {
         return false;
     }
 
+    @Override
+    public long getKeyGeneration() {
+        return keys.get().generation;
+    }
+
+    /** The consumer is immutable and thread-safe, so we build it only once for every set of keys. */
+    private JwtConsumer buildJwtConsumer(JsonWebKeySet keySet) {
+        final JwtConsumerBuilder jwtConsumerBuilder = new JwtConsumerBuilder();
+
+        if (clockSkew != null) {
+            jwtConsumerBuilder.setAllowedClockSkewInSeconds(clockSkew);
+        }
+        if (expectedAudiences != null && expectedAudiences.length > 0) {
+            jwtConsumerBuilder.setExpectedAudience(expectedAudiences);
+        }
+
+        if (expectedIssuer != null) {
+            jwtConsumerBuilder.setExpectedIssuer(expectedIssuer);
+        }
+
+        JwksVerificationKeyResolver keyResolver = new JwksVerificationKeyResolver(keySet.getJsonWebKeys());
+
+        return jwtConsumerBuilder
+                .setJwsAlgorithmConstraints(DISALLOW_NONE)
+                .setRequireExpirationTime()
+                .setRequireIssuedAt()
+                .setVerificationKeyResolver(keyResolver)
+                .build();
+    }
+
     private JsonWebKeySet retrieveKeys(Properties config, HttpClientForOAuth2 httpClient) throws ServletException {
         String url = config.getProperty(JWK_URL);
         LOG.info("Loading JWK from {}", url);
@@ -228,7 +236,11 @@ public class JwkValidator implements JwtValidatorVariant {
                 try {
                     JsonWebKeySet newKeyset = retrieveKeys(config, httpClient);
                     if (newKeyset != null && newKeyset.getJsonWebKeys().size() > 0) {
-                        keys.set(newKeyset);
+                        KeySetGeneration current = keys.get();
+                        if (!current.sameKeysAs(newKeyset)) {
+                            LOG.info("JWK set has changed, switching to key generation {}", current.generation + 1);
+                            keys.set(new KeySetGeneration(current.generation + 1, newKeyset));
+                        }
                     }
                 } catch (Exception ex) {
                     LOG.warn("Exception while refreshing JWKs.", ex);
@@ -237,4 +249,22 @@ public class JwkValidator implements JwtValidatorVariant {
         }
     }
 
+    /** A set of keys together with the consumer verifying tokens against them. */
+    private class KeySetGeneration {
+
+        private final long generation;
+        private final String keysJson;
+        private final JwtConsumer jwtConsumer;
+
+        KeySetGeneration(long generation, JsonWebKeySet keySet) {
+            this.generation = generation;
+            this.keysJson = keySet.toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY);
+            this.jwtConsumer = buildJwtConsumer(keySet);
+        }
+
+        boolean sameKeysAs(JsonWebKeySet keySet) {
+            return keysJson.equals(keySet.toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY));
+        }
+    }
+
 }
@@ -27,6 +27,16 @@ public interface JwtValidatorVariant {
      */
     boolean validateSignature(SignedJWT jwtToken);
 
+    /**
+     * Tokens verified under one key generation must not be trusted once the validator
+     * switched to a different set of keys. Validators with static keys never change generation.
+     *
+     * @return identifier of the keys currently used for verification
+     */
+    default long getKeyGeneration() {
+        return 0L;
+    }
+
     /** Close any resources this validator might have opened. */
     void close();
 
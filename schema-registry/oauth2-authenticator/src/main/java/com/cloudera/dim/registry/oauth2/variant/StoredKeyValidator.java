@@ -35,42 +35,39 @@ abstract class StoredKeyValidator implements JwtValidatorVariant {
 
     private static final Logger LOG = LoggerFactory.getLogger(StoredKeyValidator.class);
 
-    private final Key key;
-    private final Integer clockSkew;
-    private final String[] expectedAudiences;
-    private final String expectedIssuer;
     private final String jwtPrincipalClaim;
+    private final JwtConsumer jwtConsumer;
 
     protected StoredKeyValidator(Key key, Properties config) {
-        this.key = key;
-        this.clockSkew = config.containsKey(CLOCK_SKEW) ? Integer.parseInt(config.getProperty(CLOCK_SKEW)) : null;
-        this.expectedAudiences = config.containsKey(EXPECTED_JWT_AUDIENCES) ? ((String) config.get(EXPECTED_JWT_AUDIENCES)).split("\\n") : null;
-        this.expectedIssuer = config.containsKey(EXPECTED_JWT_ISSUER) ? (String) config.get(EXPECTED_JWT_ISSUER) : null;
+        Integer clockSkew = config.containsKey(CLOCK_SKEW) ? Integer.parseInt(config.getProperty(CLOCK_SKEW)) : null;
+        String[] expectedAudiences = config.containsKey(EXPECTED_JWT_AUDIENCES) ? ((String) config.get(EXPECTED_JWT_AUDIENCES)).split("\\n") : null;
+        String expectedIssuer = config.containsKey(EXPECTED_JWT_ISSUER) ? (String) config.get(EXPECTED_JWT_ISSUER) : null;
         this.jwtPrincipalClaim = config.containsKey(JWT_PRINCIPAL_CLAIM) ? (String) config.get(JWT_PRINCIPAL_CLAIM) : "sub";
-    }
 
-    public boolean validateSignature(SignedJWT jwtToken) {
-        try {
-            final JwtConsumerBuilder jwtConsumerBuilder = new JwtConsumerBuilder();
+        // the key never changes, so the consumer can be reused for every token
+        final JwtConsumerBuilder jwtConsumerBuilder = new JwtConsumerBuilder();
 
-            if (clockSkew != null) {
-                jwtConsumerBuilder.setAllowedClockSkewInSeconds(clockSkew);
-            }
-            if (expectedAudiences != null && expectedAudiences.length > 0) {
-                jwtConsumerBuilder.setExpectedAudience(expectedAudiences);
-            }
+        if (clockSkew != null) {
+            jwtConsumerBuilder.setAllowedClockSkewInSeconds(clockSkew);
+        }
+        if (expectedAudiences != null && expectedAudiences.length > 0) {
+            jwtConsumerBuilder.setExpectedAudience(expectedAudiences);
+        }
 
-            if (expectedIssuer != null) {
-                jwtConsumerBuilder.setExpectedIssuer(expectedIssuer);
-            }
+        if (expectedIssuer != null) {
+            jwtConsumerBuilder.setExpectedIssuer(expectedIssuer);
+        }
 
-            JwtConsumer jwtConsumer = jwtConsumerBuilder
-                    .setJwsAlgorithmConstraints(DISALLOW_NONE)
-                    .setRequireExpirationTime()
-                    .setRequireIssuedAt()
-                    .setVerificationKey(key)
-                    .build();
+        this.jwtConsumer = jwtConsumerBuilder
+                .setJwsAlgorithmConstraints(DISALLOW_NONE)
+                .setRequireExpirationTime()
+                .setRequireIssuedAt()
+                .setVerificationKey(key)
+                .build();
+    }
 
+    public boolean validateSignature(SignedJWT jwtToken) {
+        try {
             JwtContext jwtContext = jwtConsumer.process(jwtToken.getParsedString());
             if (jwtContext == null) {
                 throw new RuntimeException("Could not validate JWT.");
@@ -15,6 +15,7 @@
  **/
 package com.cloudera.dim.registry.oauth2;
 
+import com.cloudera.dim.registry.oauth2.variant.JwtValidatorVariant;
 import com.google.common.collect.ImmutableMap;
 import com.hortonworks.registries.auth.server.AuthenticationToken;
 import com.nimbusds.jose.JWSAlgorithm;
@@ -34,11 +35,15 @@ import static com.cloudera.dim.registry.oauth2.OAuth2Config.JWT_PRINCIPAL_CLAIM;
 import static com.cloudera.dim.registry.oauth2.OAuth2Config.KEY_ALGORITHM;
 import static com.cloudera.dim.registry.oauth2.OAuth2Config.KEY_STORE_TYPE;
 import static com.cloudera.dim.registry.oauth2.OAuth2Config.PUBLIC_KEY_PROPERTY;
+import static com.cloudera.dim.registry.oauth2.OAuth2Config.TOKEN_CACHE_MAX_SIZE;
 import static com.cloudera.dim.registry.oauth2.TestJwtGenerator.generateSignedJwt;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class OAuth2AuthenticationHandlerTest {
@@ -103,4 +108,54 @@ public class OAuth2AuthenticationHandlerTest {
         assertEquals(truePrincipalValue, token.getUserName());
     }
 
+    @Test
+    public void testVerifiedTokenIsCached() throws Exception {
+        final String subject = "marton";
+        String secretKey = "FdFYFzERwC2uCBB46pZQi4GG85LujR8obt-KWRBICVQ";
+        JwtValidatorVariant validator = mock(JwtValidatorVariant.class);
+        when(validator.validateSignature(any())).thenReturn(true);
+
+        handler = new OAuth2AuthenticationHandler(validator);
+        handler.init(new Properties());
+
+        String jwt = generateSignedJwt(JWSAlgorithm.HS256, null, subject, secretKey);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(request.getHeader(AUTHORIZATION)).thenReturn("Bearer " + jwt);
+
+        for (int i = 0; i < 3; i++) {
+            AuthenticationToken token = handler.authenticate(request, response);
+            assertNotNull(token);
+            assertEquals(subject, token.getUserName());
+        }
+        verify(validator, times(1)).validateSignature(any());
+
+        // rotating the keys must force a new verification
+        when(validator.getKeyGeneration()).thenReturn(1L);
+        assertNotNull(handler.authenticate(request, response));
+        assertNotNull(handler.authenticate(request, response));
+        verify(validator, times(2)).validateSignature(any());
+    }
+
+    @Test
+    public void testTokenCacheDisabled() throws Exception {
+        String secretKey = "FdFYFzERwC2uCBB46pZQi4GG85LujR8obt-KWRBICVQ";
+        JwtValidatorVariant validator = mock(JwtValidatorVariant.class);
+        when(validator.validateSignature(any())).thenReturn(true);
+
+        Properties config = new Properties();
+        config.setProperty(TOKEN_CACHE_MAX_SIZE, "0");
+        handler = new OAuth2AuthenticationHandler(validator);
+        handler.init(config);
+
+        String jwt = generateSignedJwt(JWSAlgorithm.HS256, null, "marton", secretKey);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(request.getHeader(AUTHORIZATION)).thenReturn("Bearer " + jwt);
+
+        assertNotNull(handler.authenticate(request, response));
+        assertNotNull(handler.authenticate(request, response));
+        verify(validator, times(2)).validateSignature(any());
+    }
+
 }
@@ -27,6 +27,10 @@ public final class OAuth2Config {
     public static final String CLOCK_SKEW = "clock.skew";
     /** Which claim to use for retrieving the principal (default is 'sub') */
     public static final String JWT_PRINCIPAL_CLAIM = "jwt.principal.claim";
+    /** Maximum number of verified tokens kept in memory (default is 10000, 0 disables the cache) */
+    public static final String TOKEN_CACHE_MAX_SIZE = "token.cache.max.size";
+    /** Upper bound in milliseconds for keeping a verified token, regardless of its expiration (default is 5 mins) */
+    public static final String TOKEN_CACHE_TTL_MS = "token.cache.ttl.ms";
 
     /** Algorithm used for validating the signature, eg. rs256, hs256 */
     public static final String KEY_ALGORITHM = "key.algorithm";
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.authorizer.agent;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer;
+import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer.AccessType;
+import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer.UserAndGroups;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short lived cache of the decisions made by the {@link Authorizer}. A policy change only takes
+ * effect when the decisions made before it expire. If the TTL is not positive, every request
+ * goes straight to the authorizer.
+ */
+class AuthorizationDecisionCache {
+
+    private final Authorizer authorizer;
+    private final Cache<DecisionKey, Boolean> decisions;
+
+    AuthorizationDecisionCache(Authorizer authorizer, long ttlMs, long maxSize) {
+        this.authorizer = authorizer;
+        this.decisions = ttlMs > 0 ? CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .build() : null;
+    }
+
+    boolean isAuthorized(Authorizer.Resource resource, AccessType accessType, UserAndGroups userAndGroups) {
+        return isAuthorized(Collections.singleton(resource), accessType, userAndGroups).get(resource);
+    }
+
+    /**
+     * Resolve the decisions for all the given resources. Cached decisions are reused and
+     * the rest of the resources are sent to the authorizer once each.
+     */
+    Map<Authorizer.Resource, Boolean> isAuthorized(Collection<? extends Authorizer.Resource> resources,
+                                                   AccessType accessType,
+                                                   UserAndGroups userAndGroups) {
+        Map<Authorizer.Resource, Boolean> result = new HashMap<>();
+        if (decisions == null) {
+            for (Authorizer.Resource resource : resources) {
+                result.computeIfAbsent(resource, r -> authorizer.authorize(r, accessType, userAndGroups));
+            }
+            return result;
+        }
+
+        Set<String> groups = userAndGroups.getGroups() == null
+                ? Collections.emptySet() : new HashSet<>(userAndGroups.getGroups());
+        for (Authorizer.Resource resource : resources) {
+            DecisionKey key = new DecisionKey(userAndGroups.getUser(), groups, resource, accessType);
+            Boolean allowed = decisions.getIfPresent(key);
+            if (allowed == null) {
+                allowed = authorizer.authorize(resource, accessType, userAndGroups);
+                decisions.put(key, allowed);
+            }
+            result.put(resource, allowed);
+        }
+
+        return result;
+    }
+
+    private static class DecisionKey {
+        private final String user;
+        private final Set<String> groups;
+        private final Authorizer.Resource resource;
+        private final AccessType accessType;
+
+        DecisionKey(String user, Set<String> groups, Authorizer.Resource resource, AccessType accessType) {
+            this.user = user;
+            this.groups = groups;
+            this.resource = resource;
+            this.accessType = accessType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DecisionKey that = (DecisionKey) o;
+            return Objects.equals(user, that.user) &&
+                    Objects.equals(groups, that.groups) &&
+                    Objects.equals(resource, that.resource) &&
+                    accessType == that.accessType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(user, groups, resource, accessType);
+        }
+    }
+}
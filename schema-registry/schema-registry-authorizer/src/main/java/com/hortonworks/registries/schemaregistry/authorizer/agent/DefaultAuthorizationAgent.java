@@ -16,6 +16,8 @@
 package com.hortonworks.registries.schemaregistry.authorizer.agent;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaBranch;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
@@ -34,7 +36,11 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer;
 import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer.AccessType;
@@ -46,7 +52,22 @@ import javax.ws.rs.NotSupportedException;
 
 public class DefaultAuthorizationAgent implements AuthorizationAgent {
 
+    /**
+     * How long (in milliseconds) the decisions of the authorizer can be reused. 0 (the default) turns off caching.
+     * Unless the authorizer reports the version of its policies, a policy change only takes effect when the cached
+     * decisions expire.
+     */
+    public static final String DECISION_CACHE_TTL_MS = "decisionCacheTtlMs";
+    /** Maximum number of cached decisions and resolved schema versions. */
+    public static final String DECISION_CACHE_MAX_SIZE = "decisionCacheMaxSize";
+
+    private static final long DEFAULT_DECISION_CACHE_TTL_MS = 0L;
+    private static final long DEFAULT_DECISION_CACHE_MAX_SIZE = 10_000L;
+
     private Authorizer authorizer;
+    private AuthorizationDecisionCache decisionCache;
+    // schema version id -> the resource used for authorizing it; saves the metadata and branch lookups
+    private Cache<Long, Authorizer.SchemaVersionResource> versionResources;
     private static final Logger LOG = LoggerFactory.getLogger(DefaultAuthorizationAgent.class);
 
 
@@ -57,19 +78,58 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                 throw new AlreadyConfiguredException("DefaultAuthorizationAgent is already configured");
             }
             this.authorizer = AuthorizerFactory.getAuthorizer(props);
+
+            long ttlMs = getLongProperty(props, DECISION_CACHE_TTL_MS, DEFAULT_DECISION_CACHE_TTL_MS);
+            long maxSize = getLongProperty(props, DECISION_CACHE_MAX_SIZE, DEFAULT_DECISION_CACHE_MAX_SIZE);
+            LOG.info("Authorization decisions are cached for {} ms", ttlMs);
+            this.decisionCache = new AuthorizationDecisionCache(authorizer, ttlMs, maxSize);
+            if (ttlMs > 0) {
+                this.versionResources = CacheBuilder.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                        .build();
+            }
         }
     }
 
+    private static long getLongProperty(Map<String, Object> props, String key, long defaultValue) {
+        Object value = props == null ? null : props.get(key);
+        return value == null ? defaultValue : Long.parseLong(value.toString());
+    }
+
 
     @Override
     public Collection<AggregatedSchemaMetadataInfo> authorizeGetAggregatedSchemaList(UserAndGroups userAndGroups,
              Collection<AggregatedSchemaMetadataInfo> aggregatedSchemaMetadataInfoList)
             throws SchemaNotFoundException, RangerException {
 
-        return removeUnauthorizedAndNullEntities(aggregatedSchemaMetadataInfoList,
-                aggregatedSchemaMetadataInfo -> authorizeGetAggregatedSchemaInfo(userAndGroups,
-                        aggregatedSchemaMetadataInfo));
+        if (aggregatedSchemaMetadataInfoList == null) {
+            return null;
+        }
+
+        // every distinct resource of the listing is evaluated only once
+        Set<Authorizer.Resource> resources = new HashSet<>();
+        for (AggregatedSchemaMetadataInfo aggregatedSchemaMetadataInfo : aggregatedSchemaMetadataInfoList) {
+            if (aggregatedSchemaMetadataInfo != null) {
+                collectAggregatedResources(aggregatedSchemaMetadataInfo, resources);
+            }
+        }
+        Map<Authorizer.Resource, Boolean> decisions = isAuthorized(resources, AccessType.READ, userAndGroups);
+
+        ArrayList<AggregatedSchemaMetadataInfo> res = new ArrayList<>();
+        for (AggregatedSchemaMetadataInfo aggregatedSchemaMetadataInfo : aggregatedSchemaMetadataInfoList) {
+            if (aggregatedSchemaMetadataInfo == null) {
+                continue;
+            }
+            SchemaMetadata sm = aggregatedSchemaMetadataInfo.getSchemaMetadata();
+            if (decisions.get(new Authorizer.SchemaMetadataResource(sm.getSchemaGroup(), sm.getName()))) {
+                res.add(filterAggregatedSchemaInfo(aggregatedSchemaMetadataInfo, decisions));
+            } else {
+                LOG.debug("Filtering out: {}", aggregatedSchemaMetadataInfo);
+            }
+        }
 
+        return res;
     }
 
 
@@ -81,48 +141,70 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
 
         authorizeSchemaMetadata(userAndGroups, sm, AccessType.READ);
 
-        Collection<AggregatedSchemaBranch> filteredBranches =
-                removeUnauthorizedAndNullEntities(aggregatedSchemaMetadataInfo.getSchemaBranches(),
-                        aggregatedBranch -> authorizeGetAggregatedBranch(sm, userAndGroups, aggregatedBranch));
+        Set<Authorizer.Resource> resources = new HashSet<>();
+        collectAggregatedResources(aggregatedSchemaMetadataInfo, resources);
 
-        Collection<SerDesInfo> serDesInfos = aggregatedSchemaMetadataInfo.getSerDesInfos();
+        return filterAggregatedSchemaInfo(aggregatedSchemaMetadataInfo,
+                isAuthorized(resources, AccessType.READ, userAndGroups));
+    }
 
-        try { 
-            if (serDesInfos != null &&
-                    !serDesInfos.isEmpty() &&
-                    !authorizer.authorize(new Authorizer.SerdeResource(), AccessType.READ, userAndGroups)) {
-                serDesInfos = new ArrayList<>();
+    private void collectAggregatedResources(AggregatedSchemaMetadataInfo aggregatedSchemaMetadataInfo,
+                                            Set<Authorizer.Resource> resources) {
+        SchemaMetadata sm = aggregatedSchemaMetadataInfo.getSchemaMetadata();
+        String sGroup = sm.getSchemaGroup();
+        String sName = sm.getName();
+
+        resources.add(new Authorizer.SchemaMetadataResource(sGroup, sName));
+        if (aggregatedSchemaMetadataInfo.getSchemaBranches() != null) {
+            for (AggregatedSchemaBranch branch : aggregatedSchemaMetadataInfo.getSchemaBranches()) {
+                if (branch != null) {
+                    String bName = branch.getSchemaBranch().getName();
+                    resources.add(new Authorizer.SchemaBranchResource(sGroup, sName, bName));
+                    resources.add(new Authorizer.SchemaVersionResource(sGroup, sName, bName));
+                }
             }
-        } catch (Exception e) {
-            throw new RangerException("Could not perform authorization due to an error: ", e);
         }
-        
-
-        return new AggregatedSchemaMetadataInfo(sm,
-                aggregatedSchemaMetadataInfo.getId(),
-                aggregatedSchemaMetadataInfo.getTimestamp(),
-                filteredBranches,
-                serDesInfos);
+        Collection<SerDesInfo> serDesInfos = aggregatedSchemaMetadataInfo.getSerDesInfos();
+        if (serDesInfos != null && !serDesInfos.isEmpty()) {
+            resources.add(new Authorizer.SerdeResource());
+        }
     }
 
-    private AggregatedSchemaBranch authorizeGetAggregatedBranch(SchemaMetadata sm,
-                                                        UserAndGroups userAndGroups,
-                                                        AggregatedSchemaBranch branch)
-                throws AuthorizationException, RangerException {
-
+    private AggregatedSchemaMetadataInfo filterAggregatedSchemaInfo(AggregatedSchemaMetadataInfo aggregatedSchemaMetadataInfo,
+                                                                    Map<Authorizer.Resource, Boolean> decisions) {
+        SchemaMetadata sm = aggregatedSchemaMetadataInfo.getSchemaMetadata();
         String sGroup = sm.getSchemaGroup();
         String sName = sm.getName();
-        String bName = branch.getSchemaBranch().getName();
 
-        authorize(new Authorizer.SchemaBranchResource(sGroup, sName, bName),
-                AccessType.READ,
-                userAndGroups);
+        Collection<AggregatedSchemaBranch> filteredBranches = null;
+        if (aggregatedSchemaMetadataInfo.getSchemaBranches() != null) {
+            filteredBranches = new ArrayList<>();
+            for (AggregatedSchemaBranch branch : aggregatedSchemaMetadataInfo.getSchemaBranches()) {
+                if (branch == null) {
+                    continue;
+                }
+                String bName = branch.getSchemaBranch().getName();
+                if (decisions.get(new Authorizer.SchemaBranchResource(sGroup, sName, bName))
+                        && decisions.get(new Authorizer.SchemaVersionResource(sGroup, sName, bName))) {
+                    filteredBranches.add(branch);
+                } else {
+                    LOG.debug("Filtering out: {}", branch);
+                }
+            }
+        }
 
-        authorize(new Authorizer.SchemaVersionResource(sGroup, sName, bName),
-                AccessType.READ,
-                userAndGroups);
+        Collection<SerDesInfo> serDesInfos = aggregatedSchemaMetadataInfo.getSerDesInfos();
+        if (serDesInfos != null &&
+                !serDesInfos.isEmpty() &&
+                !decisions.get(new Authorizer.SerdeResource())) {
+            serDesInfos = new ArrayList<>();
+        }
 
-        return branch;
+        return new AggregatedSchemaMetadataInfo(sm,
+                aggregatedSchemaMetadataInfo.getId(),
+                aggregatedSchemaMetadataInfo.getTimestamp(),
+                filteredBranches,
+                serDesInfos);
     }
 
     @Override
@@ -145,14 +227,8 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
              ISchemaRegistry schemaRegistry,
              Collection<SchemaVersionKey> versions) throws SchemaNotFoundException, RangerException {
 
-        return authorizeGetEntities(userAndGroups, versions, schemaVersionKey -> {
-            String sName = schemaVersionKey.getSchemaName();
-            String sGroup = schemaRegistry.getSchemaMetadataInfo(sName).getSchemaMetadata().getSchemaGroup();
-            SchemaVersionInfo svi = schemaRegistry.getSchemaVersionInfo(schemaVersionKey);
-            String sBranch = getPrimaryBranch(schemaRegistry.getSchemaBranchesForVersion(svi.getId()));
-
-            return new Authorizer.SchemaVersionResource(sGroup, sName, sBranch);
-        });
+        return authorizeGetEntities(userAndGroups, versions, schemaVersionKey ->
+            getSchemaVersionResource(schemaRegistry, schemaRegistry.getSchemaVersionInfo(schemaVersionKey)));
     }
 
     @Override
@@ -316,10 +392,14 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                                        AccessType accessType)
             throws AuthorizationException, SchemaNotFoundException, RangerException {
 
-        authorizeSchemaVersion(userAndGroups,
-                schemaRegistry,
-                schemaRegistry.getSchemaVersionInfo(versionId),
-                accessType);
+        if (versionId.getSchemaVersionId() != null) {
+            authorizeSchemaVersion(userAndGroups, schemaRegistry, versionId.getSchemaVersionId(), accessType);
+        } else {
+            authorizeSchemaVersion(userAndGroups,
+                    schemaRegistry,
+                    schemaRegistry.getSchemaVersionInfo(versionId),
+                    accessType);
+        }
     }
 
     @Override
@@ -329,8 +409,12 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                                        AccessType accessType)
             throws AuthorizationException, SchemaNotFoundException, RangerException {
 
-        SchemaVersionInfo schemaVersionInfo = schemaRegistry.getSchemaVersionInfo(new SchemaIdVersion(versionId));
-        authorizeSchemaVersion(userAndGroups, schemaRegistry, schemaVersionInfo, accessType);
+        Authorizer.SchemaVersionResource schemaVersionResource = getCachedSchemaVersionResource(versionId);
+        if (schemaVersionResource == null) {
+            SchemaVersionInfo schemaVersionInfo = schemaRegistry.getSchemaVersionInfo(new SchemaIdVersion(versionId));
+            schemaVersionResource = getSchemaVersionResource(schemaRegistry, schemaVersionInfo);
+        }
+        authorize(schemaVersionResource, accessType, userAndGroups);
     }
 
     @Override
@@ -353,11 +437,7 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                                        AccessType accessType)
             throws AuthorizationException, RangerException {
 
-        SchemaMetadataInfo schemaMetadataInfo =
-                schemaRegistry.getSchemaMetadataInfo(versionInfo.getSchemaMetadataId());
-        Collection<SchemaBranch> branches = schemaRegistry.getSchemaBranchesForVersion(versionInfo.getId());
-        String schemaBranch = getPrimaryBranch(branches);
-        authorizeSchemaVersion(userAndGroups, schemaMetadataInfo, schemaBranch, accessType);
+        authorize(getSchemaVersionResource(schemaRegistry, versionInfo), accessType, userAndGroups);
     }
 
     @Override
@@ -429,19 +509,17 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                                             Long versionId)
             throws AuthorizationException, SchemaNotFoundException, RangerException {
 
-        SchemaVersionInfo schemaVersionInfo = schemaRegistry.getSchemaVersionInfo(new SchemaIdVersion(versionId));
-        SchemaMetadata sM = schemaRegistry.getSchemaMetadataInfo(schemaVersionInfo.getSchemaMetadataId()).getSchemaMetadata();
-        String sGroup = sM.getSchemaGroup();
-        String sName = sM.getName();
-
-        String branch = getPrimaryBranch(schemaRegistry.getSchemaBranchesForVersion(versionId));
-
-        Authorizer.SchemaVersionResource schemaVersionResource =
-                new Authorizer.SchemaVersionResource(sGroup, sName, branch);
+        Authorizer.SchemaVersionResource schemaVersionResource = getCachedSchemaVersionResource(versionId);
+        if (schemaVersionResource == null) {
+            SchemaVersionInfo schemaVersionInfo = schemaRegistry.getSchemaVersionInfo(new SchemaIdVersion(versionId));
+            schemaVersionResource = getSchemaVersionResource(schemaRegistry, schemaVersionInfo);
+        }
         authorize(schemaVersionResource, AccessType.READ, userAndGroups);
 
         Authorizer.SchemaVersionResource schemaVersionToCreate =
-                new Authorizer.SchemaVersionResource(sGroup, sName, SchemaBranch.MASTER_BRANCH);
+                new Authorizer.SchemaVersionResource(schemaVersionResource.getsGroupName(),
+                        schemaVersionResource.getsMetadataName(),
+                        SchemaBranch.MASTER_BRANCH);
         authorize(schemaVersionToCreate, AccessType.CREATE, userAndGroups);
     }
 
@@ -451,16 +529,8 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                                                                  Collection<SchemaVersionInfo> versions)
             throws SchemaNotFoundException, RangerException {
 
-        return authorizeGetEntities(userAndGroups, versions, schemaVersionInfo -> {
-            SchemaMetadata sM =
-                    schemaRegistry.getSchemaMetadataInfo(schemaVersionInfo.getSchemaMetadataId())
-                            .getSchemaMetadata();
-            String sGroup = sM.getSchemaGroup();
-            String sName = sM.getName();
-            String sBranch = getPrimaryBranch(schemaRegistry.getSchemaBranchesForVersion(schemaVersionInfo.getId()));
-
-            return new Authorizer.SchemaVersionResource(sGroup, sName, sBranch);
-        });
+        return authorizeGetEntities(userAndGroups, versions,
+                schemaVersionInfo -> getSchemaVersionResource(schemaRegistry, schemaVersionInfo));
 
     }
 
@@ -480,10 +550,6 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
         }
     }
 
-    private interface EntityFilterFunction<T> {
-        T filter(T elem) throws AuthorizationException, SchemaNotFoundException, RangerException;
-    }
-
     private interface EntityToAuthorizerResourceMapFunc<T> {
         Authorizer.Resource map(T elem) throws SchemaNotFoundException;
     }
@@ -492,49 +558,52 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                                                    Collection<T> entities,
                                                    EntityToAuthorizerResourceMapFunc<T> mapFunc)
             throws SchemaNotFoundException, RangerException {
+        if (entities == null) {
+            return null;
+        }
 
-        return removeUnauthorizedAndNullEntities(entities, new EntityFilterFunction<T>() {
-            @Override
-            public T filter(T elem) throws AuthorizationException, SchemaNotFoundException, RangerException {
-                try {
-                    return authorizer.authorize(mapFunc.map(elem), AccessType.READ, userAndGroups) ? elem : null;
-                } catch (Exception e) {
-                    throw new RangerException("Could not perform authorization due to an error: ", e);
-                }
+        // many entities share the same resource (eg. versions of the same branch), so each
+        // distinct resource is evaluated only once
+        Map<T, Authorizer.Resource> resources = new LinkedHashMap<>();
+        for (T elem : entities) {
+            if (elem != null) {
+                resources.put(elem, mapFunc.map(elem));
             }
-            
-        });
-    }
-
-    private <T> Collection<T> removeUnauthorizedAndNullEntities(Collection<T> elems,
-                                                                EntityFilterFunction<T> filterFunc)
-            throws SchemaNotFoundException, RangerException {
-        if (elems == null) {
-            return null;
         }
+        Map<Authorizer.Resource, Boolean> decisions =
+                isAuthorized(new HashSet<>(resources.values()), AccessType.READ, userAndGroups);
+
         ArrayList<T> res = new ArrayList<>();
-        for (T elem : elems) {
-            try {
-                T newElem = filterFunc.filter(elem);
-                if (newElem != null) {
-                    res.add(newElem);
-                } else {
-                    if (elem != null) {
-                        LOG.debug("Filtering out: {}", elem);
-                    }
-                }
-            } catch (AuthorizationException e) { }
+        for (T elem : entities) {
+            if (elem == null) {
+                continue;
+            }
+            if (decisions.get(resources.get(elem))) {
+                res.add(elem);
+            } else {
+                LOG.debug("Filtering out: {}", elem);
+            }
         }
 
         return res;
     }
 
+    private Map<Authorizer.Resource, Boolean> isAuthorized(Collection<Authorizer.Resource> resources,
+                                                           AccessType accessType,
+                                                           UserAndGroups userAndGroups) throws RangerException {
+        try {
+            return decisionCache.isAuthorized(resources, accessType, userAndGroups);
+        } catch (Exception e) {
+            throw new RangerException("Could not perform authorization due to an error: ", e);
+        }
+    }
+
     private void authorize(Authorizer.Resource resource, AccessType accessType, UserAndGroups userAndGroups)
             throws AuthorizationException, RangerException {
 
         boolean isAuthorized;
         try {
-            isAuthorized = authorizer.authorize(resource, accessType, userAndGroups);
+            isAuthorized = decisionCache.isAuthorized(resource, accessType, userAndGroups);
         } catch (Exception e) {
             throw new RangerException("Could not perform authorization due to an error: ", e);
         }
@@ -545,6 +614,25 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                 resource);
     }
 
+    private Authorizer.SchemaVersionResource getCachedSchemaVersionResource(Long versionId) {
+        return versionResources == null ? null : versionResources.getIfPresent(versionId);
+    }
+
+    private Authorizer.SchemaVersionResource getSchemaVersionResource(ISchemaRegistry schemaRegistry,
+                                                                      SchemaVersionInfo schemaVersionInfo) {
+        Authorizer.SchemaVersionResource resource = getCachedSchemaVersionResource(schemaVersionInfo.getId());
+        if (resource == null) {
+            SchemaMetadata sM = schemaRegistry.getSchemaMetadataInfo(schemaVersionInfo.getSchemaMetadataId())
+                    .getSchemaMetadata();
+            String sBranch = getPrimaryBranch(schemaRegistry.getSchemaBranchesForVersion(schemaVersionInfo.getId()));
+            resource = new Authorizer.SchemaVersionResource(sM.getSchemaGroup(), sM.getName(), sBranch);
+            if (versionResources != null) {
+                versionResources.put(schemaVersionInfo.getId(), resource);
+            }
+        }
+        return resource;
+    }
+
     private String getPrimaryBranch(Collection<SchemaBranch> branches) {
         return branches.stream().min(Comparator.comparing(SchemaBranch::getId)).get().getName();
     }
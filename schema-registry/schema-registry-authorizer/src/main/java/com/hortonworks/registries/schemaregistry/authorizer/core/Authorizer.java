@@ -16,6 +16,7 @@
 package com.hortonworks.registries.schemaregistry.authorizer.core;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -121,6 +122,22 @@ public interface Authorizer {
         public ResourceType getResourceType() {
             return resourceType;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return resourceType == ((Resource) o).resourceType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(resourceType);
+        }
     }
 
     /**
@@ -176,6 +193,20 @@ public interface Authorizer {
             return sMetadataName;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (!super.equals(o)) {
+                return false;
+            }
+            SchemaMetadataResource that = (SchemaMetadataResource) o;
+            return Objects.equals(sGroupName, that.sGroupName) && Objects.equals(sMetadataName, that.sMetadataName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), sGroupName, sMetadataName);
+        }
+
         @Override
         public String toString() {
             return String.format("SchemaMetadata{ schemaGroupName='%s', schemaMetadataName='%s' }",
@@ -202,6 +233,19 @@ public interface Authorizer {
             return sBranchName;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (!super.equals(o)) {
+                return false;
+            }
+            return Objects.equals(sBranchName, ((SchemaBranchResource) o).sBranchName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), sBranchName);
+        }
+
         @Override
         public String toString() {
             return String.format("SchemaBranch{ schemaGroupName='%s', schemaMetadataName='%s', schemaBranchName='%s' }",
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.authorizer.agent;
+
+import com.google.common.collect.Sets;
+import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer;
+import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer.AccessType;
+import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer.UserAndGroups;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuthorizationDecisionCacheTest {
+
+    private static final UserAndGroups USER = new UserAndGroups("user1", Collections.singleton("group1"));
+
+    @Test
+    public void testDecisionsAreCached() {
+        CountingAuthorizer authorizer = new CountingAuthorizer();
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(authorizer, 60_000L, 100L);
+
+        Authorizer.Resource allowed = new Authorizer.SchemaMetadataResource("Group1", "allowed");
+        Authorizer.Resource denied = new Authorizer.SchemaMetadataResource("Group1", "denied");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cache.isAuthorized(new Authorizer.SchemaMetadataResource("Group1", "allowed"), AccessType.READ, USER));
+            assertFalse(cache.isAuthorized(denied, AccessType.READ, USER));
+        }
+        assertEquals(2, authorizer.evaluations);
+
+        // different access type or different groups are different decisions
+        cache.isAuthorized(allowed, AccessType.UPDATE, USER);
+        cache.isAuthorized(allowed, AccessType.READ, new UserAndGroups("user1", Sets.newHashSet("group1", "group2")));
+        assertEquals(4, authorizer.evaluations);
+    }
+
+    @Test
+    public void testDecisionsExpire() throws Exception {
+        CountingAuthorizer authorizer = new CountingAuthorizer();
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(authorizer, 50L, 100L);
+        Authorizer.Resource resource = new Authorizer.SchemaVersionResource("Group1", "allowed", "MASTER");
+
+        assertTrue(cache.isAuthorized(resource, AccessType.READ, USER));
+        assertTrue(cache.isAuthorized(resource, AccessType.READ, USER));
+        assertEquals(1, authorizer.evaluations);
+
+        Thread.sleep(100L);
+        assertTrue(cache.isAuthorized(resource, AccessType.READ, USER));
+        assertEquals(2, authorizer.evaluations);
+    }
+
+    @Test
+    public void testBatchOnlyEvaluatesMissingResources() {
+        CountingAuthorizer authorizer = new CountingAuthorizer();
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(authorizer, 60_000L, 100L);
+        Authorizer.Resource branch = new Authorizer.SchemaBranchResource("Group1", "allowed", "MASTER");
+        Authorizer.Resource version = new Authorizer.SchemaVersionResource("Group1", "allowed", "MASTER");
+        Authorizer.Resource serde = new Authorizer.SerdeResource();
+
+        cache.isAuthorized(branch, AccessType.READ, USER);
+        Map<Authorizer.Resource, Boolean> decisions = cache.isAuthorized(Arrays.asList(branch, version, serde), AccessType.READ, USER);
+
+        assertEquals(3, decisions.size());
+        assertTrue(decisions.get(branch));
+        assertTrue(decisions.get(version));
+        assertFalse(decisions.get(serde));
+        assertEquals(3, authorizer.evaluations);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        CountingAuthorizer authorizer = new CountingAuthorizer();
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(authorizer, 0L, 100L);
+        Authorizer.Resource resource = new Authorizer.SchemaMetadataResource("Group1", "allowed");
+
+        cache.isAuthorized(resource, AccessType.READ, USER);
+        cache.isAuthorized(resource, AccessType.READ, USER);
+        assertEquals(2, authorizer.evaluations);
+    }
+
+    /** Allows access to every resource whose name starts with "allowed". */
+    private static class CountingAuthorizer implements Authorizer {
+
+        private int evaluations = 0;
+
+        @Override
+        public void configure(Map<String, Object> props) { }
+
+        @Override
+        public boolean authorize(Resource resource, AccessType accessType, UserAndGroups userAndGroups) {
+            evaluations++;
+            return resource instanceof SchemaMetadataResource
+                    && ((SchemaMetadataResource) resource).getsMetadataName().startsWith("allowed");
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hortonworks.registries.auth.KerberosLogin;
+import com.hortonworks.registries.auth.Login;
+import com.hortonworks.registries.common.catalog.CatalogResponse;
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.cache.SchemaVersionInfoCache;
+import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.hortonworks.registries.schemaregistry.exceptions.RegistryRetryableException;
+import com.hortonworks.registries.schemaregistry.retry.policy.BackoffPolicy;
+import com.hortonworks.registries.shaded.javax.ws.rs.ProcessingException;
+import com.hortonworks.registries.shaded.javax.ws.rs.WebApplicationException;
+import com.hortonworks.registries.shaded.javax.ws.rs.client.Client;
+import com.hortonworks.registries.shaded.javax.ws.rs.client.Entity;
+import com.hortonworks.registries.shaded.javax.ws.rs.client.Invocation;
+import com.hortonworks.registries.shaded.javax.ws.rs.client.InvocationCallback;
+import com.hortonworks.registries.shaded.javax.ws.rs.client.WebTarget;
+import com.hortonworks.registries.shaded.javax.ws.rs.core.MediaType;
+import com.hortonworks.registries.shaded.javax.ws.rs.core.Response;
+import com.hortonworks.registries.shaded.org.glassfish.jersey.netty.connector.NettyConnectorProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.security.auth.login.LoginException;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.hortonworks.registries.schemaregistry.client.SchemaRegistryClient.Configuration.ASYNC_RESPONSE_THREADS;
+
+/**
+ * Asynchronous variant of the most frequently used read and write operations of {@link SchemaRegistryClient}. Every
+ * operation returns immediately with a {@link CompletableFuture} and no thread is blocked while the registry answers.
+ * <p>
+ * Requests are sent with the Netty connector of Jersey unless another one is configured with
+ * {@link SchemaRegistryClient.Configuration#CONNECTOR_PROVIDER}. The connector keeps a pool of keep-alive connections
+ * per registry url which can be tuned with its own properties, they are passed through from the configuration.
+ * <p>
+ * Failed requests are retried on the other urls of the registry and after that according to the configured
+ * {@link BackoffPolicy}, exactly like the blocking client does, but the waits are scheduled instead of sleeping.
+ * Concurrent reads of the same entity share a single request and both clients share the same caches.
+ * <p>
+ * Kerberos authentication relies on the blocking connector of the JDK, such registries have to be accessed with
+ * {@link SchemaRegistryClient}.
+ */
+public class AsyncSchemaRegistryClient implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncSchemaRegistryClient.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final Client client;
+    private final Login login;
+    private final UrlSelector urlSelector;
+    private final BackoffPolicy backoffPolicy;
+    private final Map<String, WebTarget> urlWithTargets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, CompletableFuture<?>> inFlightRequests = new ConcurrentHashMap<>();
+    private final ExecutorService responseExecutor;
+    private final ScheduledExecutorService retryScheduler;
+
+    public AsyncSchemaRegistryClient(Map<String, ?> conf) {
+        this(new SchemaRegistryClient(conf), conf);
+    }
+
+    AsyncSchemaRegistryClient(SchemaRegistryClient schemaRegistryClient, Map<String, ?> conf) {
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.login = schemaRegistryClient.getLogin();
+        if (login instanceof KerberosLogin) {
+            schemaRegistryClient.close();
+            throw new IllegalArgumentException("Kerberos authentication is not supported by the asynchronous client, use "
+                    + SchemaRegistryClient.class.getSimpleName());
+        }
+        this.urlSelector = schemaRegistryClient.getUrlSelector();
+        this.backoffPolicy = schemaRegistryClient.getBackoffPolicy();
+        this.client = schemaRegistryClient.createClient(conf, new NettyConnectorProvider());
+
+        int responseThreads = ((Number) schemaRegistryClient.getConfiguration().getValue(ASYNC_RESPONSE_THREADS.name())).intValue();
+        this.responseExecutor = Executors.newFixedThreadPool(responseThreads,
+                new ThreadFactoryBuilder().setNameFormat("schema-registry-async-response-%d").setDaemon(true).build());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("schema-registry-async-retry-%d").setDaemon(true).build());
+    }
+
+    /**
+     * @return the blocking client sharing the configuration and the caches of this client
+     */
+    public SchemaRegistryClient getSchemaRegistryClient() {
+        return schemaRegistryClient;
+    }
+
+    public CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(String schemaName) {
+        SchemaMetadataInfo cached = schemaRegistryClient.getCachedSchemaMetadataInfo(SchemaMetadataCache.Key.of(schemaName));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return deduplicate(Arrays.asList("metadata", schemaName), () ->
+                execute((target, callback) -> request(target.path(SchemaRegistryClient.SCHEMAS_PATH).path(schemaName)).get(callback))
+                        .thenApply(response -> cacheSchemaMetadataInfo(readEntity(response, SchemaMetadataInfo.class, schemaName))));
+    }
+
+    public CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(Long schemaMetadataId) {
+        SchemaMetadataInfo cached = schemaRegistryClient.getCachedSchemaMetadataInfo(SchemaMetadataCache.Key.of(schemaMetadataId));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return deduplicate(Arrays.asList("metadataById", schemaMetadataId), () ->
+                execute((target, callback) ->
+                        request(target.path(SchemaRegistryClient.SCHEMAS_BY_ID_PATH).path(schemaMetadataId.toString())).get(callback))
+                        .thenApply(response -> cacheSchemaMetadataInfo(
+                                readEntity(response, SchemaMetadataInfo.class, String.valueOf(schemaMetadataId)))));
+    }
+
+    /**
+     * Registers the given schema metadata if it does not exist yet.
+     *
+     * @return id of the schema metadata
+     */
+    public CompletableFuture<Long> registerSchemaMetadata(SchemaMetadata schemaMetadata) {
+        SchemaMetadataInfo cached = schemaRegistryClient.getCachedSchemaMetadataInfo(SchemaMetadataCache.Key.of(schemaMetadata.getName()));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.getId());
+        }
+        return deduplicate(Arrays.asList("registerMetadata", schemaMetadata), () ->
+                execute((target, callback) ->
+                        request(target.path(SchemaRegistryClient.SCHEMAS_PATH)).post(Entity.json(schemaMetadata), callback))
+                        .thenCompose(response -> {
+                            if (response.getStatus() == Response.Status.BAD_REQUEST.getStatusCode()) {
+                                CatalogResponse catalogResponse = SchemaRegistryClient.readCatalogResponse(response.readEntity(String.class));
+                                if (catalogResponse.getResponseCode() == CatalogResponse.ResponseMessage.ENTITY_CONFLICT.getCode()) {
+                                    return getSchemaMetadataInfo(schemaMetadata.getName()).thenApply(SchemaMetadataInfo::getId);
+                                }
+                                throw new CompletionException(new WebApplicationException(catalogResponse.getResponseMessage(), response));
+                            }
+                            return CompletableFuture.completedFuture(readEntity(response, Long.class, schemaMetadata.getName()));
+                        }));
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        if (SchemaVersionKey.LATEST_VERSION.equals(schemaVersionKey.getVersion())) {
+            return getLatestSchemaVersionInfo(schemaVersionKey.getSchemaName());
+        }
+        SchemaVersionInfo cached = schemaRegistryClient.getCachedSchemaVersionInfo(SchemaVersionInfoCache.Key.of(schemaVersionKey));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return deduplicate(Arrays.asList("version", schemaVersionKey), () ->
+                execute((target, callback) -> request(target.path(SchemaRegistryClient.SCHEMAS_PATH)
+                        .path(schemaVersionKey.getSchemaName())
+                        .path("versions")
+                        .path(schemaVersionKey.getVersion().toString())).get(callback))
+                        .thenApply(response -> cacheSchemaVersionInfo(
+                                readEntity(response, SchemaVersionInfo.class, schemaVersionKey.toString()))));
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        SchemaVersionInfo cached = schemaRegistryClient.getCachedSchemaVersionInfo(SchemaVersionInfoCache.Key.of(schemaIdVersion));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        Long schemaVersionId = schemaIdVersion.getSchemaVersionId();
+        if (schemaVersionId != null) {
+            return deduplicate(Arrays.asList("versionById", schemaVersionId), () ->
+                    execute((target, callback) -> request(target.path(SchemaRegistryClient.SCHEMAS_PATH)
+                            .path("versionsById")
+                            .path(schemaVersionId.toString())).get(callback))
+                            .thenApply(response -> cacheSchemaVersionInfo(
+                                    readEntity(response, SchemaVersionInfo.class, String.valueOf(schemaVersionId)))));
+        } else if (schemaIdVersion.getSchemaMetadataId() != null) {
+            return getSchemaMetadataInfo(schemaIdVersion.getSchemaMetadataId())
+                    .thenCompose(schemaMetadataInfo -> getSchemaVersionInfo(
+                            new SchemaVersionKey(schemaMetadataInfo.getSchemaMetadata().getName(), schemaIdVersion.getVersion())));
+        }
+
+        CompletableFuture<SchemaVersionInfo> result = new CompletableFuture<>();
+        result.completeExceptionally(new IllegalArgumentException("Given argument not valid: " + schemaIdVersion));
+        return result;
+    }
+
+    /**
+     * The latest version changes over time, so it is always asked from the registry.
+     */
+    public CompletableFuture<SchemaVersionInfo> getLatestSchemaVersionInfo(String schemaName) {
+        return deduplicate(Arrays.asList("latestVersion", schemaName), () ->
+                execute((target, callback) -> request(target.path(SchemaRegistryClient.SCHEMAS_PATH)
+                        .path(schemaName)
+                        .path("versions/latest")
+                        .queryParam("branch", SchemaBranch.MASTER_BRANCH)).get(callback))
+                        .thenApply(response -> readEntity(response, SchemaVersionInfo.class, schemaName)));
+    }
+
+    public CompletableFuture<Collection<SchemaVersionInfo>> getAllVersions(String schemaName) {
+        return deduplicate(Arrays.asList("allVersions", schemaName), () ->
+                execute((target, callback) -> request(target.path(SchemaRegistryClient.SCHEMAS_PATH)
+                        .path(schemaName)
+                        .path("versions")
+                        .queryParam("branch", SchemaBranch.MASTER_BRANCH)).get(callback))
+                        .thenApply(response -> {
+                            List<SchemaVersionInfo> schemaVersionInfos = readEntities(response, SchemaVersionInfo.class, schemaName);
+                            schemaVersionInfos.forEach(this::cacheSchemaVersionInfo);
+                            return schemaVersionInfos;
+                        }));
+    }
+
+    /**
+     * Adds the given version to the master branch of the schema, if the same version is being added concurrently
+     * then both callers get the result of a single request.
+     *
+     * @return id of the added version, or of the existing version with the same schema text
+     */
+    public CompletableFuture<SchemaIdVersion> addSchemaVersion(String schemaName, SchemaVersion schemaVersion) {
+        return deduplicate(Arrays.asList("addVersion", schemaName, schemaVersion.getSchemaText()), () ->
+                getSchemaMetadataInfo(schemaName).thenCompose(schemaMetadataInfo ->
+                        execute((target, callback) -> request(target.path(SchemaRegistryClient.SCHEMAS_PATH)
+                                .path(schemaName)
+                                .path("versions")
+                                .queryParam("branch", SchemaBranch.MASTER_BRANCH)).post(Entity.json(schemaVersion), callback))
+                                .thenCompose(response -> {
+                                    Integer version = readSchemaVersionResponse(response, schemaName);
+                                    return getSchemaVersionInfo(new SchemaVersionKey(schemaName, version))
+                                            .thenApply(schemaVersionInfo ->
+                                                    new SchemaIdVersion(schemaMetadataInfo.getId(), version, schemaVersionInfo.getId()));
+                                })));
+    }
+
+    @Override
+    public void close() {
+        retryScheduler.shutdownNow();
+        client.close();
+        responseExecutor.shutdownNow();
+        schemaRegistryClient.close();
+    }
+
+    private SchemaMetadataInfo cacheSchemaMetadataInfo(SchemaMetadataInfo schemaMetadataInfo) {
+        schemaRegistryClient.cacheSchemaMetadataInfo(schemaMetadataInfo);
+        return schemaMetadataInfo;
+    }
+
+    private SchemaVersionInfo cacheSchemaVersionInfo(SchemaVersionInfo schemaVersionInfo) {
+        schemaRegistryClient.cacheSchemaVersionInfo(schemaVersionInfo);
+        return schemaVersionInfo;
+    }
+
+    private Invocation.AsyncInvoker request(WebTarget target) {
+        return schemaRegistryClient.addHeaderIfOAuthLogin(target.request(MediaType.APPLICATION_JSON_TYPE)).async();
+    }
+
+    /**
+     * Returns the future of the identical request which is in progress, or starts a new one. The request is
+     * forgotten as soon as it completes, so a failed request is not remembered.
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> deduplicate(Object key, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> inFlight = (CompletableFuture<T>) inFlightRequests.putIfAbsent(key, future);
+        if (inFlight != null) {
+            LOG.debug("Joining the request in progress for {}", key);
+            // callers get their own future, so one of them can not complete or cancel it for the others
+            return inFlight.thenApply(result -> result);
+        }
+
+        CompletableFuture<T> started;
+        try {
+            started = request.get();
+        } catch (RuntimeException e) {
+            started = new CompletableFuture<>();
+            started.completeExceptionally(e);
+        }
+        started.whenComplete((result, error) -> {
+            inFlightRequests.remove(key, future);
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future.thenApply(result -> result);
+    }
+
+    /**
+     * Sends the request to the urls given by the {@link UrlSelector} until one of them answers. When none of them
+     * is reachable, the next round is scheduled according to the {@link BackoffPolicy}.
+     */
+    CompletableFuture<Response> execute(AsyncRequest request) {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        send(request, result, 1, System.currentTimeMillis(), null, null);
+        return result;
+    }
+
+    private void send(AsyncRequest request, CompletableFuture<Response> result,
+                      int attemptNumber, long startTime, String firstUrl, Exception lastError) {
+        String url = urlSelector.select();
+        if (url.equals(firstUrl)) {
+            long backoffMs = backoffPolicy.nextBackoffMs(attemptNumber, System.currentTimeMillis() - startTime);
+            if (backoffMs < 0) {
+                result.completeExceptionally(new RegistryRetryableException(lastError));
+                return;
+            }
+            LOG.debug("None of the registry urls could be reached, retrying in {} ms", backoffMs);
+            retryScheduler.schedule(() -> send(request, result, attemptNumber + 1, startTime, null, lastError),
+                    backoffMs, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        String roundFirstUrl = firstUrl == null ? url : firstUrl;
+        WebTarget target = urlWithTargets.computeIfAbsent(url, client::target);
+        long requestStartTime = System.nanoTime();
+        InvocationCallback<Response> callback = new InvocationCallback<Response>() {
+            @Override
+            public void completed(Response response) {
+                urlSelector.requestCompleted(url, System.nanoTime() - requestStartTime);
+                // the entity is read on a separate pool to keep the I/O threads of the connector free
+                responseExecutor.execute(() -> {
+                    try {
+                        response.bufferEntity();
+                        result.complete(response);
+                    } catch (ProcessingException e) {
+                        LOG.debug("Reading the response of '{}' failed", url, e);
+                        urlSelector.urlWithError(url, e);
+                        send(request, result, attemptNumber, startTime, roundFirstUrl, e);
+                    }
+                });
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                if (throwable instanceof ProcessingException) {
+                    LOG.debug("Request to '{}' failed", url, throwable);
+                    urlSelector.urlWithError(url, (ProcessingException) throwable);
+                    urlSelector.requestCompleted(url, System.nanoTime() - requestStartTime);
+                    responseExecutor.execute(() -> send(request, result, attemptNumber, startTime, roundFirstUrl, (ProcessingException) throwable));
+                } else {
+                    urlSelector.requestCompleted(url, System.nanoTime() - requestStartTime);
+                    result.completeExceptionally(throwable);
+                }
+            }
+        };
+
+        try {
+            LOG.debug("Using '{}' to make request", target);
+            urlSelector.requestStarted(url);
+            login.doAction((PrivilegedAction<Future<Response>>) () -> request.send(target, callback));
+        } catch (LoginException | ProcessingException e) {
+            urlSelector.urlWithError(url, e);
+            urlSelector.requestCompleted(url, System.nanoTime() - requestStartTime);
+            send(request, result, attemptNumber, startTime, roundFirstUrl, e);
+        } catch (RuntimeException e) {
+            urlSelector.requestCompleted(url, System.nanoTime() - requestStartTime);
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static Integer readSchemaVersionResponse(Response response, String schemaName) {
+        int status = response.getStatus();
+        if (status == Response.Status.BAD_REQUEST.getStatusCode() || status == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
+            CatalogResponse catalogResponse = SchemaRegistryClient.readCatalogResponse(response.readEntity(String.class));
+            if (CatalogResponse.ResponseMessage.INCOMPATIBLE_SCHEMA.getCode() == catalogResponse.getResponseCode()) {
+                throw new CompletionException(new IncompatibleSchemaException(catalogResponse.getResponseMessage()));
+            } else if (CatalogResponse.ResponseMessage.INVALID_SCHEMA.getCode() == catalogResponse.getResponseCode()) {
+                throw new CompletionException(new InvalidSchemaException(catalogResponse.getResponseMessage()));
+            } else {
+                throw new RuntimeException(catalogResponse.getResponseMessage());
+            }
+        }
+        return readEntity(response, Integer.class, schemaName);
+    }
+
+    private static String readResponse(Response response, String entity) {
+        String msg = response.readEntity(String.class);
+        if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
+            throw new CompletionException(new SchemaNotFoundException(msg, entity));
+        } else if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+            throw new WebApplicationException(msg, response);
+        }
+        return msg;
+    }
+
+    private static <T> T readEntity(Response response, Class<T> clazz, String entity) {
+        String msg = readResponse(response, entity);
+        try {
+            return OBJECT_MAPPER.readValue(msg, clazz);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static <T> List<T> readEntities(Response response, Class<T> clazz, String entity) {
+        String msg = readResponse(response, entity);
+        List<T> entities = new ArrayList<>();
+        try {
+            Iterator<JsonNode> it = OBJECT_MAPPER.readTree(msg).get("entities").elements();
+            while (it.hasNext()) {
+                entities.add(OBJECT_MAPPER.treeToValue(it.next(), clazz));
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+        return entities;
+    }
+
+    interface AsyncRequest {
+        /**
+         * Sends the request to the given registry url without waiting for the response.
+         */
+        Future<Response> send(WebTarget rootTarget, InvocationCallback<Response> callback);
+    }
+}
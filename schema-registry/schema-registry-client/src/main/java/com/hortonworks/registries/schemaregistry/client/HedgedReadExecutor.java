@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Executes idempotent reads and, when the response is slower than the given percentile of the recent reads, sends
+ * the same read to another URL as well. The first successful response is returned and the other request is cancelled.
+ * <p>
+ * Every read earns a fraction of a hedge in the budget and every hedge spends one, so hedging can add at most that
+ * fraction of extra requests and can not multiply the load during an outage.
+ */
+class HedgedReadExecutor implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(HedgedReadExecutor.class);
+
+    static final int LATENCY_SAMPLES = 256;
+    static final int MIN_LATENCY_SAMPLES = 64;
+    private static final int MAX_BURST = 10;
+    private static final long TOKEN = 1000L;
+
+    private final int percentile;
+    private final long tokensPerRead;
+    private final ExecutorService executor;
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_SAMPLES);
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicLong budget = new AtomicLong();
+    private volatile long hedgeDelayMs = Long.MAX_VALUE;
+
+    HedgedReadExecutor(int percentile, int budgetPercent) {
+        Preconditions.checkArgument(percentile > 0 && percentile < 100, "Percentile must be between 0 and 100: %s", percentile);
+        Preconditions.checkArgument(budgetPercent > 0, "Budget must be positive: %s", budgetPercent);
+        this.percentile = percentile;
+        this.tokensPerRead = TOKEN * budgetPercent / 100;
+        this.executor = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("schema-registry-hedged-read-%d").setDaemon(true).build());
+    }
+
+    /**
+     * @param read  the read to execute
+     * @param hedge supplies the same read against another URL, or null if there is no other URL to send it to
+     * @return result of the first successful read
+     */
+    <T> T execute(Callable<T> read, Supplier<Callable<T>> hedge) throws Exception {
+        long startTime = System.currentTimeMillis();
+        budget.updateAndGet(tokens -> Math.min(MAX_BURST * TOKEN, tokens + tokensPerRead));
+
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        Future<T> primary = completionService.submit(read);
+        Future<T> secondary = null;
+        try {
+            Future<T> completed = completionService.poll(hedgeDelayMs, TimeUnit.MILLISECONDS);
+            if (completed == null) {
+                Callable<T> hedgedRead = tryAcquire() ? hedge.get() : null;
+                if (hedgedRead != null) {
+                    LOG.debug("No response in {} ms, sending a hedged read", hedgeDelayMs);
+                    secondary = completionService.submit(hedgedRead);
+                }
+                completed = completionService.take();
+            }
+
+            T result;
+            try {
+                result = completed.get();
+            } catch (ExecutionException e) {
+                if (secondary == null) {
+                    throw e;
+                }
+                // the other request may still succeed
+                LOG.debug("One of the hedged reads failed, waiting for the other one", e.getCause());
+                try {
+                    result = completionService.take().get();
+                } catch (ExecutionException otherFailure) {
+                    // the failure of the original read is reported, it is the one retried with another URL
+                    throw completed == primary ? e : otherFailure;
+                }
+            }
+            recordLatency(System.currentTimeMillis() - startTime);
+            return result;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } finally {
+            primary.cancel(true);
+            if (secondary != null) {
+                secondary.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return time to wait for a response before a hedged read is sent, {@link Long#MAX_VALUE} until there
+     * are not enough reads to tell what is slow
+     */
+    long getHedgeDelayMs() {
+        return hedgeDelayMs;
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            long tokens = budget.get();
+            if (tokens < TOKEN) {
+                LOG.debug("Hedging budget is exhausted");
+                return false;
+            }
+            if (budget.compareAndSet(tokens, tokens - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private void recordLatency(long latencyMs) {
+        int sample = samples.getAndIncrement();
+        latencies.set(Math.floorMod(sample, LATENCY_SAMPLES), latencyMs);
+        int count = sample + 1;
+        if (count >= MIN_LATENCY_SAMPLES && count % MIN_LATENCY_SAMPLES == 0) {
+            long[] sorted = new long[Math.min(count, LATENCY_SAMPLES)];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = latencies.get(i);
+            }
+            Arrays.sort(sorted);
+            hedgeDelayMs = Math.max(1L, sorted[sorted.length * percentile / 100]);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
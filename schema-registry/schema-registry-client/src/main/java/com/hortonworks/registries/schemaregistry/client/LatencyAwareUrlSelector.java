@@ -0,0 +1,305 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * This class defines a strategy which sends requests to the fastest URLs. It keeps an exponentially weighted moving
+ * average of the latency and the number of requests in progress for every URL, and picks the better of two randomly
+ * chosen URLs (power of two choices).
+ * <p>
+ * A URL which fails, or which becomes much slower than the others, is ejected for a while. The ejection time doubles
+ * with every further ejection and this penalty decays while the URL stays healthy. After the ejection time only every
+ * {@link #PROBE_INTERVAL}th request is sent to the URL until one of them proves it recovered.
+ * <p>
+ * The URL selection does not take any locks, the statistics are updated with atomic operations.
+ */
+public class LatencyAwareUrlSelector extends AbstractUrlSelector {
+
+    /**
+     * Property to configure how many times slower than the fastest URL a URL has to be to get ejected.
+     */
+    public static final String OUTLIER_LATENCY_RATIO = "outlier.latency.ratio";
+
+    /**
+     * Property to configure the latency difference to the fastest URL below which a URL is never ejected.
+     */
+    public static final String OUTLIER_MIN_LATENCY_MS = "outlier.min.latency.ms";
+
+    /**
+     * Property to configure the time a URL is ejected for the first time.
+     */
+    public static final String BASE_EJECTION_TIME_MS = "base.ejection.time.ms";
+
+    /**
+     * Property to configure the maximum time a URL is ejected.
+     */
+    public static final String MAX_EJECTION_TIME_MS = "max.ejection.time.ms";
+
+    /**
+     * Property to configure the time after which one ejection is forgiven.
+     */
+    public static final String PENALTY_DECAY_INTERVAL_MS = "penalty.decay.interval.ms";
+
+    /**
+     * Property to configure that every how many requests a recovering URL is probed.
+     */
+    public static final String PROBE_INTERVAL = "probe.interval";
+
+    static final double EWMA_WEIGHT = 0.3;
+    private static final int MAX_PENALTY = 16;
+
+    private final UrlStats[] stats;
+    private final Map<String, UrlStats> statsByUrl;
+    private final LongSupplier clock;
+    private final AtomicLong selections = new AtomicLong();
+
+    private double outlierLatencyRatio = 3.0;
+    private long outlierMinLatencyNanos = TimeUnit.MILLISECONDS.toNanos(100L);
+    private long baseEjectionTimeMs = 10 * 1000L;
+    private long maxEjectionTimeMs = 5 * 60 * 1000L;
+    private long penaltyDecayIntervalMs = 60 * 1000L;
+    private int probeInterval = 20;
+
+    public LatencyAwareUrlSelector(String clusterUrl) {
+        this(clusterUrl, System::currentTimeMillis);
+    }
+
+    LatencyAwareUrlSelector(String clusterUrl, LongSupplier clock) {
+        super(clusterUrl);
+        this.clock = clock;
+        stats = new UrlStats[urls.length];
+        statsByUrl = new HashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            stats[i] = new UrlStats(urls[i]);
+            statsByUrl.put(urls[i], stats[i]);
+        }
+    }
+
+    @Override
+    public void init(Map<String, Object> conf) {
+        super.init(conf);
+        outlierLatencyRatio = getValue(conf, OUTLIER_LATENCY_RATIO, outlierLatencyRatio);
+        outlierMinLatencyNanos = TimeUnit.MILLISECONDS.toNanos(
+                (long) getValue(conf, OUTLIER_MIN_LATENCY_MS, TimeUnit.NANOSECONDS.toMillis(outlierMinLatencyNanos)));
+        baseEjectionTimeMs = (long) getValue(conf, BASE_EJECTION_TIME_MS, baseEjectionTimeMs);
+        maxEjectionTimeMs = (long) getValue(conf, MAX_EJECTION_TIME_MS, maxEjectionTimeMs);
+        penaltyDecayIntervalMs = (long) getValue(conf, PENALTY_DECAY_INTERVAL_MS, penaltyDecayIntervalMs);
+        probeInterval = Math.max(1, (int) getValue(conf, PROBE_INTERVAL, probeInterval));
+    }
+
+    @Override
+    public String select() {
+        long now = clock.getAsLong();
+        if (selections.incrementAndGet() % probeInterval == 0) {
+            for (UrlStats urlStats : stats) {
+                if (urlStats.isRecovering(now) && urlStats.inFlight.get() == 0) {
+                    return urlStats.url;
+                }
+            }
+        }
+
+        int[] available = new int[stats.length];
+        int count = 0;
+        double fastest = Double.MAX_VALUE;
+        for (int i = 0; i < stats.length; i++) {
+            if (stats[i].isAvailable(now)) {
+                available[count++] = i;
+                double latency = stats[i].latency();
+                if (latency > 0 && latency < fastest) {
+                    fastest = latency;
+                }
+            }
+        }
+
+        if (count == 0) {
+            // simple assumption to consider all of them as active to try out the ejected URLs.
+            for (UrlStats urlStats : stats) {
+                urlStats.reinstate();
+            }
+            return urls[ThreadLocalRandom.current().nextInt(urls.length)];
+        } else if (count == 1) {
+            return urls[available[0]];
+        }
+
+        // URLs without any latency sample yet are expected to be as fast as the fastest one
+        double defaultLatency = fastest == Double.MAX_VALUE ? 1.0 : fastest;
+        int first = ThreadLocalRandom.current().nextInt(count);
+        int second = ThreadLocalRandom.current().nextInt(count - 1);
+        if (second >= first) {
+            second++;
+        }
+        UrlStats firstStats = stats[available[first]];
+        UrlStats secondStats = stats[available[second]];
+        return firstStats.score(defaultLatency) <= secondStats.score(defaultLatency) ? firstStats.url : secondStats.url;
+    }
+
+    @Override
+    public void urlWithError(String url, Exception e) {
+        UrlStats urlStats = statsByUrl.get(url);
+        if (urlStats != null && failedError(e)) {
+            eject(urlStats, clock.getAsLong());
+        }
+    }
+
+    @Override
+    public void requestStarted(String url) {
+        UrlStats urlStats = statsByUrl.get(url);
+        if (urlStats != null) {
+            urlStats.inFlight.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void requestCompleted(String url, long latencyNanos) {
+        UrlStats urlStats = statsByUrl.get(url);
+        if (urlStats == null) {
+            return;
+        }
+        urlStats.inFlight.updateAndGet(inFlight -> Math.max(0, inFlight - 1));
+
+        long now = clock.getAsLong();
+        if (urlStats.isEjected(now)) {
+            // requests which were sent before the ejection tell nothing about the recovery
+            return;
+        }
+
+        urlStats.recordLatency(latencyNanos);
+        if (isOutlier(urlStats, now)) {
+            if (urlStats.probing || ejectedCount(now) < urls.length / 2) {
+                eject(urlStats, now);
+            }
+        } else if (urlStats.probing) {
+            urlStats.probing = false;
+        }
+    }
+
+    /**
+     * Returns true if the given Exception indicates the respective URL can be treated as failed.
+     *
+     * @param ex
+     */
+    protected boolean failedError(Exception ex) {
+        return true;
+    }
+
+    private boolean isOutlier(UrlStats urlStats, long now) {
+        double latency = urlStats.latency();
+        double fastest = Double.MAX_VALUE;
+        for (UrlStats other : stats) {
+            double otherLatency = other.latency();
+            if (other != urlStats && other.isAvailable(now) && otherLatency > 0 && otherLatency < fastest) {
+                fastest = otherLatency;
+            }
+        }
+        return fastest != Double.MAX_VALUE
+                && latency > fastest * outlierLatencyRatio
+                && latency - fastest > outlierMinLatencyNanos;
+    }
+
+    private int ejectedCount(long now) {
+        int count = 0;
+        for (UrlStats urlStats : stats) {
+            if (!urlStats.isAvailable(now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void eject(UrlStats urlStats, long now) {
+        // one ejection is forgiven for every decay interval since the last one
+        long forgiven = penaltyDecayIntervalMs > 0 ? (now - urlStats.lastEjectedMs) / penaltyDecayIntervalMs : urlStats.penalty;
+        int penalty = (int) Math.min(MAX_PENALTY, Math.max(0L, urlStats.penalty - forgiven) + 1);
+        long ejectionTimeMs = Math.min(maxEjectionTimeMs, baseEjectionTimeMs << (penalty - 1));
+
+        urlStats.penalty = penalty;
+        urlStats.lastEjectedMs = now;
+        urlStats.ejectedUntilMs = now + ejectionTimeMs;
+        urlStats.probing = true;
+        urlStats.resetLatency();
+    }
+
+    private static double getValue(Map<String, Object> conf, String key, double defaultValue) {
+        Object value = conf.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    private static class UrlStats {
+        private final String url;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong latencyBits = new AtomicLong(Double.doubleToLongBits(0.0));
+        private volatile long ejectedUntilMs;
+        private volatile long lastEjectedMs;
+        private volatile int penalty;
+        private volatile boolean probing;
+
+        UrlStats(String url) {
+            this.url = url;
+        }
+
+        /**
+         * @return moving average of the latency in nanoseconds, 0 if there is no sample yet
+         */
+        double latency() {
+            return Double.longBitsToDouble(latencyBits.get());
+        }
+
+        void recordLatency(long latencyNanos) {
+            latencyBits.updateAndGet(bits -> {
+                double latency = Double.longBitsToDouble(bits);
+                double updated = latency == 0.0 ? latencyNanos : latency + EWMA_WEIGHT * (latencyNanos - latency);
+                return Double.doubleToLongBits(updated);
+            });
+        }
+
+        void resetLatency() {
+            latencyBits.set(Double.doubleToLongBits(0.0));
+        }
+
+        double score(double defaultLatency) {
+            double latency = latency();
+            return (latency > 0 ? latency : defaultLatency) * (inFlight.get() + 1);
+        }
+
+        boolean isEjected(long now) {
+            return ejectedUntilMs > now;
+        }
+
+        boolean isRecovering(long now) {
+            return probing && !isEjected(now);
+        }
+
+        boolean isAvailable(long now) {
+            return !probing && !isEjected(now);
+        }
+
+        void reinstate() {
+            ejectedUntilMs = 0L;
+            probing = false;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent tier under the client side schema caches, so a client can start up and keep deserializing records
+ * while the registry is not reachable.
+ * <p>
+ * Entries are appended to a single file, each record is protected by a CRC32 checksum. When the file is opened,
+ * it is memory mapped and replayed into in-memory indexes; a torn or corrupted record ends the replay and the
+ * file is truncated there. Removals are recorded as tombstones, superseded records are dropped by compacting the
+ * file when it is opened.
+ * <p>
+ * Schema versions are served without any time limit as their content does not change. Schema metadata can be
+ * updated on the registry, so every entry carries the time it was written and callers decide how stale an entry
+ * they accept.
+ * <p>
+ * The file is owned by one instance at a time. Clients of the same JVM share the instance of a file through
+ * {@link #acquire(String)}, it is closed with the last of them. If another process already uses the file, the cache
+ * is disabled and every lookup misses.
+ */
+public class PersistentSchemaCache implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(PersistentSchemaCache.class);
+
+    private static final int MAGIC = 0x53524331;
+    // length of the payload, checksum, type and timestamp of a record
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES + Byte.BYTES + Long.BYTES;
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+    private static final int MIN_RECORDS_TO_COMPACT = 1024;
+
+    private static final byte SCHEMA_VERSION = 1;
+    private static final byte SCHEMA_METADATA = 2;
+    private static final byte SCHEMA_VERSION_REMOVED = 3;
+    private static final byte SCHEMA_METADATA_REMOVED = 4;
+
+    // instances shared by the clients of this JVM, keyed by the canonical path of their file
+    private static final Map<Path, PersistentSchemaCache> SHARED_CACHES = new HashMap<>();
+
+    private final Path path;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Long, SchemaVersionInfo> versionsById = new HashMap<>();
+    private final Map<SchemaVersionKey, SchemaVersionInfo> versionsByKey = new HashMap<>();
+    private final Map<SchemaIdVersion, SchemaVersionInfo> versionsByMetadataId = new HashMap<>();
+    private final Map<String, MetadataEntry> metadataByName = new HashMap<>();
+    private final Map<Long, MetadataEntry> metadataById = new HashMap<>();
+
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private FileChannel channel;
+    private int records;
+    // guarded by SHARED_CACHES
+    private Path sharedPath;
+    private int references;
+
+    public PersistentSchemaCache(String path) throws IOException {
+        this.path = Paths.get(path);
+        if (this.path.getParent() != null) {
+            Files.createDirectories(this.path.getParent());
+        }
+
+        lockChannel = FileChannel.open(Paths.get(path + ".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            LOG.warn("Persistent schema cache [{}] is used by another client, it is disabled for this one", path);
+            lockChannel.close();
+            lockChannel = null;
+            return;
+        }
+
+        channel = openChannel();
+        load();
+        if (records >= MIN_RECORDS_TO_COMPACT && records > 2 * liveRecords()) {
+            compact();
+        }
+        LOG.info("Loaded {} schema versions and {} schema metadata from persistent schema cache [{}]",
+                versionsById.size(), metadataByName.size(), path);
+    }
+
+    /**
+     * Returns the instance of the file shared by the clients of this JVM, opening it if no client uses it yet.
+     * Every acquired instance has to be closed, the file is closed with the last reference.
+     *
+     * @param path path of the cache file
+     * @return the shared instance, or a disabled one if another process owns the file
+     * @throws IOException if the file can not be opened
+     */
+    public static PersistentSchemaCache acquire(String path) throws IOException {
+        Path canonicalPath = Paths.get(path).toFile().getCanonicalFile().toPath();
+        synchronized (SHARED_CACHES) {
+            PersistentSchemaCache cache = SHARED_CACHES.get(canonicalPath);
+            if (cache == null) {
+                cache = new PersistentSchemaCache(path);
+                if (!cache.isEnabled()) {
+                    return cache;
+                }
+                cache.sharedPath = canonicalPath;
+                SHARED_CACHES.put(canonicalPath, cache);
+            }
+            cache.references++;
+            return cache;
+        }
+    }
+
+    /**
+     * @return true if this instance owns the file and entries can be read and written
+     */
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    public synchronized SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        if (schemaIdVersion.getSchemaVersionId() != null) {
+            return versionsById.get(schemaIdVersion.getSchemaVersionId());
+        }
+        return versionsByMetadataId.get(new SchemaIdVersion(schemaIdVersion.getSchemaMetadataId(), schemaIdVersion.getVersion()));
+    }
+
+    public synchronized SchemaVersionInfo getSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        return versionsByKey.get(schemaVersionKey);
+    }
+
+    public synchronized void putSchemaVersionInfo(SchemaVersionInfo schemaVersionInfo) {
+        if (!isEnabled() || schemaVersionInfo.getId() == null) {
+            return;
+        }
+        SchemaVersionInfo existing = versionsById.get(schemaVersionInfo.getId());
+        if (existing != null && Objects.equals(existing.getStateId(), schemaVersionInfo.getStateId())) {
+            return;
+        }
+        if (append(SCHEMA_VERSION, System.currentTimeMillis(), schemaVersionInfo)) {
+            indexSchemaVersion(schemaVersionInfo);
+        }
+    }
+
+    public synchronized void removeSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        SchemaVersionInfo existing = getSchemaVersionInfo(schemaIdVersion);
+        if (existing != null) {
+            removeSchemaVersionInfo(new SchemaVersionKey(existing.getName(), existing.getVersion()));
+        }
+    }
+
+    public synchronized void removeSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        if (versionsByKey.containsKey(schemaVersionKey) && append(SCHEMA_VERSION_REMOVED, System.currentTimeMillis(), schemaVersionKey)) {
+            unindexSchemaVersion(schemaVersionKey);
+        }
+    }
+
+    /**
+     * @param schemaName name of the schema
+     * @param maxStalenessMs maximum age of the returned entry
+     * @return the persisted metadata of the schema, or null if there is none written in the last {@code maxStalenessMs}
+     */
+    public synchronized SchemaMetadataInfo getSchemaMetadataInfo(String schemaName, long maxStalenessMs) {
+        return fresh(metadataByName.get(schemaName), maxStalenessMs);
+    }
+
+    /**
+     * @param schemaMetadataId id of the schema
+     * @param maxStalenessMs maximum age of the returned entry
+     * @return the persisted metadata of the schema, or null if there is none written in the last {@code maxStalenessMs}
+     */
+    public synchronized SchemaMetadataInfo getSchemaMetadataInfo(Long schemaMetadataId, long maxStalenessMs) {
+        return fresh(metadataById.get(schemaMetadataId), maxStalenessMs);
+    }
+
+    public synchronized void putSchemaMetadataInfo(SchemaMetadataInfo schemaMetadataInfo) {
+        if (!isEnabled() || schemaMetadataInfo.getId() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (append(SCHEMA_METADATA, now, schemaMetadataInfo)) {
+            indexSchemaMetadata(new MetadataEntry(schemaMetadataInfo, now));
+        }
+    }
+
+    public synchronized void removeSchemaMetadataInfo(String schemaName) {
+        if (metadataByName.containsKey(schemaName) && append(SCHEMA_METADATA_REMOVED, System.currentTimeMillis(), schemaName)) {
+            unindexSchemaMetadata(schemaName);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        synchronized (SHARED_CACHES) {
+            if (sharedPath != null) {
+                if (--references > 0) {
+                    return;
+                }
+                SHARED_CACHES.remove(sharedPath);
+                sharedPath = null;
+            }
+        }
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            if (lockChannel != null) {
+                // closing the channel releases the lock
+                lockChannel.close();
+                lockChannel = null;
+            }
+        }
+    }
+
+    private SchemaMetadataInfo fresh(MetadataEntry entry, long maxStalenessMs) {
+        if (entry == null || System.currentTimeMillis() - entry.timestamp > maxStalenessMs) {
+            return null;
+        }
+        return entry.schemaMetadataInfo;
+    }
+
+    private FileChannel openChannel() throws IOException {
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (fileChannel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).putInt(MAGIC);
+            header.flip();
+            fileChannel.write(header, 0);
+        }
+        return fileChannel;
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < Integer.BYTES || buffer.getInt() != MAGIC) {
+            LOG.warn("Persistent schema cache [{}] has an unknown format, its content is dropped", path);
+            reset();
+            return;
+        }
+
+        long validPosition = buffer.position();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int length = buffer.getInt();
+            long checksum = buffer.getLong();
+            byte type = buffer.get();
+            long timestamp = buffer.getLong();
+            if (length < 0 || length > MAX_RECORD_SIZE || length > buffer.remaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (checksum != checksum(type, timestamp, payload)) {
+                break;
+            }
+            try {
+                replay(type, timestamp, payload);
+            } catch (IOException e) {
+                LOG.warn("Skipping unreadable record of type {} in persistent schema cache [{}]", type, path, e);
+            }
+            records++;
+            validPosition = buffer.position();
+        }
+
+        if (validPosition < size) {
+            LOG.warn("Persistent schema cache [{}] has a corrupted tail after {} bytes, it is truncated", path, validPosition);
+            channel.truncate(validPosition);
+        }
+    }
+
+    private void replay(byte type, long timestamp, byte[] payload) throws IOException {
+        switch (type) {
+            case SCHEMA_VERSION:
+                indexSchemaVersion(objectMapper.readValue(payload, SchemaVersionInfo.class));
+                break;
+            case SCHEMA_METADATA:
+                indexSchemaMetadata(new MetadataEntry(objectMapper.readValue(payload, SchemaMetadataInfo.class), timestamp));
+                break;
+            case SCHEMA_VERSION_REMOVED:
+                unindexSchemaVersion(objectMapper.readValue(payload, SchemaVersionKey.class));
+                break;
+            case SCHEMA_METADATA_REMOVED:
+                unindexSchemaMetadata(objectMapper.readValue(payload, String.class));
+                break;
+            default:
+                LOG.warn("Skipping record of unknown type {} in persistent schema cache [{}]", type, path);
+        }
+    }
+
+    private boolean append(byte type, long timestamp, Object value) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(value);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+            record.putInt(payload.length)
+                  .putLong(checksum(type, timestamp, payload))
+                  .put(type)
+                  .putLong(timestamp)
+                  .put(payload);
+            record.flip();
+            long position = channel.size();
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            records++;
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Failed to write persistent schema cache [{}]", path, e);
+            return false;
+        }
+    }
+
+    private void compact() throws IOException {
+        LOG.info("Compacting persistent schema cache [{}], {} records of {} are live", path, liveRecords(), records);
+        List<SchemaVersionInfo> versions = new ArrayList<>(versionsById.values());
+        List<MetadataEntry> metadata = new ArrayList<>(metadataByName.values());
+
+        Path compacted = Paths.get(path + ".compact");
+        Files.deleteIfExists(compacted);
+        channel.close();
+        try (FileChannel compactedChannel = FileChannel.open(compacted, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel = compactedChannel;
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).putInt(MAGIC);
+            header.flip();
+            channel.write(header, 0);
+            records = 0;
+            for (SchemaVersionInfo version : versions) {
+                append(SCHEMA_VERSION, System.currentTimeMillis(), version);
+            }
+            for (MetadataEntry entry : metadata) {
+                append(SCHEMA_METADATA, entry.timestamp, entry.schemaMetadataInfo);
+            }
+            channel.force(true);
+        } finally {
+            channel = null;
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = openChannel();
+    }
+
+    private void reset() throws IOException {
+        channel.truncate(0);
+        channel.close();
+        channel = openChannel();
+    }
+
+    private int liveRecords() {
+        return versionsById.size() + metadataByName.size();
+    }
+
+    private void indexSchemaVersion(SchemaVersionInfo schemaVersionInfo) {
+        versionsById.put(schemaVersionInfo.getId(), schemaVersionInfo);
+        versionsByKey.put(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()), schemaVersionInfo);
+        if (schemaVersionInfo.getSchemaMetadataId() != null) {
+            versionsByMetadataId.put(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(), schemaVersionInfo.getVersion()), schemaVersionInfo);
+        }
+    }
+
+    private void unindexSchemaVersion(SchemaVersionKey schemaVersionKey) {
+        SchemaVersionInfo removed = versionsByKey.remove(schemaVersionKey);
+        if (removed != null) {
+            versionsById.remove(removed.getId());
+            if (removed.getSchemaMetadataId() != null) {
+                versionsByMetadataId.remove(new SchemaIdVersion(removed.getSchemaMetadataId(), removed.getVersion()));
+            }
+        }
+    }
+
+    private void indexSchemaMetadata(MetadataEntry entry) {
+        metadataByName.put(entry.schemaMetadataInfo.getSchemaMetadata().getName(), entry);
+        metadataById.put(entry.schemaMetadataInfo.getId(), entry);
+    }
+
+    private void unindexSchemaMetadata(String schemaName) {
+        MetadataEntry removed = metadataByName.remove(schemaName);
+        if (removed != null) {
+            metadataById.remove(removed.schemaMetadataInfo.getId());
+        }
+    }
+
+    private static long checksum(byte type, long timestamp, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(timestamp).array());
+        crc.update(payload);
+        return crc.getValue();
+    }
+
+    private static final class MetadataEntry {
+        private final SchemaMetadataInfo schemaMetadataInfo;
+        private final long timestamp;
+
+        private MetadataEntry(SchemaMetadataInfo schemaMetadataInfo, long timestamp) {
+            this.schemaMetadataInfo = schemaMetadataInfo;
+            this.timestamp = timestamp;
+        }
+    }
+}
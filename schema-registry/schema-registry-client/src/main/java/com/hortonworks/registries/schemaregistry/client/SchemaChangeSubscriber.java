@@ -0,0 +1,117 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.SchemaChange;
+import com.hortonworks.registries.schemaregistry.SchemaChangeCursor;
+import com.hortonworks.registries.schemaregistry.SchemaChanges;
+import com.hortonworks.registries.shaded.javax.ws.rs.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Follows the change feed of the registry on a background thread and hands every change over to a listener,
+ * which invalidates the cache entries affected by the change.
+ * <p>
+ * The first request only asks for the current sequence number, changes which happened before the subscriber
+ * started are not replayed. After a failure the subscriber continues from the last sequence it has seen, so
+ * no change is lost while the registry is not available. The sequence numbers the registry skipped are asked for
+ * again, so the changes of transactions which committed late are not lost either.
+ */
+class SchemaChangeSubscriber implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaChangeSubscriber.class);
+
+    static final long RETRY_INTERVAL_MS = 5 * 1000L;
+
+    interface SchemaChangesFetcher {
+        /**
+         * @param since            sequence number of the last seen change, null to get only the current sequence number
+         * @param skippedSequences sequence numbers skipped by the previous fetches, to be read again
+         * @param waitMs           maximum time the registry waits for a change before returning an empty result
+         */
+        SchemaChanges fetch(Long since, Collection<Long> skippedSequences, long waitMs);
+    }
+
+    private final SchemaChangesFetcher fetcher;
+    private final Consumer<SchemaChange> listener;
+    private final long waitMs;
+    private final long retryIntervalMs;
+    private final Thread thread;
+    private volatile boolean closed;
+    private final SchemaChangeCursor cursor = new SchemaChangeCursor();
+
+    SchemaChangeSubscriber(SchemaChangesFetcher fetcher, Consumer<SchemaChange> listener, long waitMs) {
+        this(fetcher, listener, waitMs, RETRY_INTERVAL_MS);
+    }
+
+    SchemaChangeSubscriber(SchemaChangesFetcher fetcher, Consumer<SchemaChange> listener, long waitMs, long retryIntervalMs) {
+        this.fetcher = fetcher;
+        this.listener = listener;
+        this.waitMs = waitMs;
+        this.retryIntervalMs = retryIntervalMs;
+        this.thread = new Thread(this::run, "schema-change-subscriber");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * @return sequence number of the last change which was handed over to the listener, null before the
+     * subscriber could reach the registry
+     */
+    Long getSequence() {
+        return cursor.getSequence();
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                Long sequence = cursor.getSequence();
+                SchemaChanges schemaChanges = fetcher.fetch(sequence, cursor.getSkippedSequences(), sequence == null ? 0L : waitMs);
+                for (SchemaChange schemaChange : schemaChanges.getChanges()) {
+                    LOG.debug("Received change {}", schemaChange);
+                    listener.accept(schemaChange);
+                }
+                cursor.advance(schemaChanges);
+            } catch (NotFoundException e) {
+                LOG.warn("Schema registry does not provide a change feed, cached schemas are only refreshed when they expire");
+                return;
+            } catch (Exception e) {
+                if (closed) {
+                    return;
+                }
+                LOG.warn("Failed to fetch the schema changes after sequence [{}], retrying in {} ms", cursor.getSequence(), retryIntervalMs, e);
+                try {
+                    Thread.sleep(retryIntervalMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+}
@@ -22,6 +22,8 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.Maps;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.exceptions.RegistryException;
@@ -38,6 +40,9 @@ import java.util.concurrent.TimeUnit;
  */
 public class SchemaMetadataCache {
     private static final Logger LOG = LoggerFactory.getLogger(SchemaMetadataCache.class);
+    // the hit ratio of the cache is 1 - misses / lookups
+    private static final String LOOKUPS_METRIC = RegistryMetrics.name(SchemaMetadataCache.class, "lookups");
+    private static final String MISSES_METRIC = RegistryMetrics.name(SchemaMetadataCache.class, "misses");
 
     private final LoadingCache<Key, SchemaMetadataInfo> loadingCache;
     private final BiMap<String, Long> schemaNameToIdMap;
@@ -50,6 +55,7 @@ public class SchemaMetadataCache {
                 .build(new CacheLoader<Key, SchemaMetadataInfo>() {
                     @Override
                     public SchemaMetadataInfo load(Key key) throws Exception {
+                        Metrics.get().mark(MISSES_METRIC);
                         SchemaMetadataInfo schemaMetadataInfo;
                         Key otherKey;
                         if (key.getName() != null) {
@@ -70,6 +76,7 @@ public class SchemaMetadataCache {
     }
 
     public SchemaMetadataInfo get(Key key) {
+        Metrics.get().mark(LOOKUPS_METRIC);
         SchemaMetadataInfo schemaMetadataInfo;
         try {
             schemaMetadataInfo = loadingCache.get(key);
@@ -26,20 +26,28 @@ import com.hortonworks.registries.auth.util.JaasConfiguration;
 import com.hortonworks.registries.common.SchemaRegistryServiceInfo;
 import com.hortonworks.registries.common.SchemaRegistryVersion;
 import com.hortonworks.registries.common.catalog.CatalogResponse;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.common.util.ClassLoaderAwareInvocationHandler;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.ConfigEntry;
 import com.hortonworks.registries.schemaregistry.SchemaVersionMergeResult;
 import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaChange;
+import com.hortonworks.registries.schemaregistry.SchemaChanges;
 import com.hortonworks.registries.schemaregistry.SchemaFieldQuery;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaProviderInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionBatch;
+import com.hortonworks.registries.schemaregistry.SchemaVersionBatchResult;
+import com.hortonworks.registries.schemaregistry.SchemaVersionEntityTags;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.SchemaVersionLookup;
 import com.hortonworks.registries.schemaregistry.SchemaVersionRetriever;
 import com.hortonworks.registries.schemaregistry.SerDesInfo;
 import com.hortonworks.registries.schemaregistry.SerDesPair;
@@ -87,10 +95,12 @@ import javax.security.auth.login.LoginException;
 import com.hortonworks.registries.shaded.javax.ws.rs.BadRequestException;
 import com.hortonworks.registries.shaded.javax.ws.rs.NotFoundException;
 import com.hortonworks.registries.shaded.javax.ws.rs.ProcessingException;
+import com.hortonworks.registries.shaded.javax.ws.rs.RedirectionException;
 import com.hortonworks.registries.shaded.javax.ws.rs.client.Client;
 import com.hortonworks.registries.shaded.javax.ws.rs.client.ClientBuilder;
 import com.hortonworks.registries.shaded.javax.ws.rs.client.Entity;
 import com.hortonworks.registries.shaded.javax.ws.rs.client.WebTarget;
+import com.hortonworks.registries.shaded.javax.ws.rs.core.EntityTag;
 import com.hortonworks.registries.shaded.javax.ws.rs.core.MediaType;
 import com.hortonworks.registries.shaded.javax.ws.rs.core.Response;
 import java.io.File;
@@ -119,6 +129,8 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -143,6 +155,7 @@ import static com.hortonworks.registries.schemaregistry.client.SchemaRegistryCli
  * - {@link Configuration#SCHEMA_METADATA_CACHE_EXPIRY_INTERVAL_SECS}.
  * - {@link Configuration#SCHEMA_VERSION_CACHE_SIZE}.
  * - {@link Configuration#SCHEMA_VERSION_CACHE_EXPIRY_INTERVAL_SECS}.
+ * - {@link Configuration#SCHEMA_VERSION_CACHE_REFRESH_INTERVAL_SECS}.
  * - {@link Configuration#SCHEMA_TEXT_CACHE_SIZE}.
  * - {@link Configuration#SCHEMA_TEXT_CACHE_EXPIRY_INTERVAL_SECS}.
  *
@@ -163,9 +176,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private static final Logger LOG = LoggerFactory.getLogger(SchemaRegistryClient.class);
 
     private static final String SCHEMA_REGISTRY_PATH = "/schemaregistry";
-    private static final String SCHEMAS_PATH = SCHEMA_REGISTRY_PATH + "/schemas/";
+    static final String SCHEMAS_PATH = SCHEMA_REGISTRY_PATH + "/schemas/";
     private static final String SCHEMA_PROVIDERS_PATH = SCHEMA_REGISTRY_PATH + "/schemaproviders/";
-    private static final String SCHEMAS_BY_ID_PATH = SCHEMA_REGISTRY_PATH + "/schemasById/";
+    static final String SCHEMAS_BY_ID_PATH = SCHEMA_REGISTRY_PATH + "/schemasById/";
     private static final String SCHEMA_VERSIONS_PATH = SCHEMAS_PATH + "versions/";
     private static final String FILES_PATH = SCHEMA_REGISTRY_PATH + "/files/";
     private static final String SERIALIZERS_PATH = SCHEMA_REGISTRY_PATH + "/serdes/";
@@ -175,6 +188,7 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private static final Set<Class<?>> SERIALIZER_INTERFACE_CLASSES = Sets.newHashSet(SnapshotSerializer.class, PullSerializer.class);
     private static final String SEARCH_FIELDS = SCHEMA_REGISTRY_PATH + "/search/schemas/fields";
     private static final String FIND_AGGREGATED_SCHEMAS = SCHEMA_REGISTRY_PATH + "/search/schemas/aggregated";
+    private static final String CHANGES_PATH = SCHEMA_REGISTRY_PATH + "/changes";
     private static final long KERBEROS_SYNCHRONIZATION_TIMEOUT_MS = 180000;
 
     private static final String SSL_KEY_PASSWORD = "keyPassword";
@@ -191,7 +205,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private final ClassLoaderCache classLoaderCache;
     private final SchemaVersionInfoCache schemaVersionInfoCache;
     private final SchemaMetadataCache schemaMetadataCache;
+    private final PersistentSchemaCache persistentSchemaCache;
     private final Cache<SchemaDigestEntry, SchemaIdVersion> schemaTextCache;
+    private final SchemaChangeSubscriber schemaChangeSubscriber;
 
     private static final String SSL_CONFIGURATION_KEY = "schema.registry.client.ssl";
     private static final String SSL_PROTOCOL_KEY = "schema.registry.client.ssl.protocol";
@@ -202,7 +218,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private static final String RETRY_POLICY_CONFIG_KEY = "config";
 
     private static final String DEFAULT_RETRY_STRATEGY_CLASS = NOOPBackoffPolicy.class.getCanonicalName();
+    private final BackoffPolicy backoffPolicy;
     private final RetryExecutor retryExecutor;
+    private final HedgedReadExecutor hedgedReadExecutor;
 
     /**
      * Creates {@link SchemaRegistryClient} instance with the given yaml config.
@@ -225,32 +243,58 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         configuration = new Configuration(conf);
         initializeSecurityContext();   // configure kerberos
 
-        ClientConfig config = createClientConfig(conf);
-        ClientBuilder clientBuilder = JerseyClientBuilder.newBuilder()
-                                                   .withConfig(config)
-                                                   .property(ClientProperties.FOLLOW_REDIRECTS, Boolean.TRUE);
-
-        if (conf.containsKey(SSL_CONFIGURATION_KEY) || conf.containsKey(SSL_PROTOCOL_KEY)) {
-            configureClientForSsl(conf, clientBuilder);
+        String metricsClass = configuration.getValue(Configuration.METRICS_CLASS.name());
+        if (metricsClass != null) {
+            Metrics.install(metricsClass);
         }
 
-        client = clientBuilder.build();
-        client.register(MultiPartFeature.class);
-        configureClientForBasicAuth(client);
+        client = createClient(conf, null);
 
         // get list of urls and create given or default UrlSelector.
         urlSelector = createUrlSelector();
         urlWithTargets = new ConcurrentHashMap<>();
 
-        retryExecutor = createRetryExecutor(conf);
+        backoffPolicy = createBackoffPolicy(conf);
+        retryExecutor = createRetryExecutor(backoffPolicy);
+        hedgedReadExecutor = createHedgedReadExecutor();
 
         classLoaderCache = new ClassLoaderCache(this);
 
+        persistentSchemaCache = createPersistentSchemaCache();
+
         schemaVersionInfoCache = createSchemaVersionInfoCache();
 
         schemaMetadataCache = createSchemaMetadataCache();
 
         schemaTextCache = createSchemaTextCache();
+
+        schemaChangeSubscriber = createSchemaChangeSubscriber();
+    }
+
+    /**
+     * Creates a Jersey client with the timeouts, SSL and basic authentication settings of the given configuration.
+     *
+     * @param conf                       client configuration
+     * @param defaultConnectorProvider   connector used when none is configured with {@link Configuration#CONNECTOR_PROVIDER},
+     *                                   null to use the default connector of Jersey
+     */
+    Client createClient(Map<String, ?> conf, ConnectorProvider defaultConnectorProvider) {
+        ClientConfig config = createClientConfig(conf);
+        if (defaultConnectorProvider != null && conf.get(CONNECTOR_PROVIDER.name()) == null) {
+            config.connectorProvider(defaultConnectorProvider);
+        }
+        ClientBuilder clientBuilder = JerseyClientBuilder.newBuilder()
+                                                   .withConfig(config)
+                                                   .property(ClientProperties.FOLLOW_REDIRECTS, Boolean.TRUE);
+
+        if (conf.containsKey(SSL_CONFIGURATION_KEY) || conf.containsKey(SSL_PROTOCOL_KEY)) {
+            configureClientForSsl(conf, clientBuilder);
+        }
+
+        Client jerseyClient = clientBuilder.build();
+        jerseyClient.register(MultiPartFeature.class);
+        configureClientForBasicAuth(jerseyClient);
+        return jerseyClient;
     }
 
     @SuppressWarnings("unchecked")
@@ -287,7 +331,7 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     }
 
     @SuppressWarnings("unchecked")
-    private RetryExecutor createRetryExecutor(Map<String, ?> conf) {
+    private BackoffPolicy createBackoffPolicy(Map<String, ?> conf) {
         String retryPolicyClass = DEFAULT_RETRY_STRATEGY_CLASS;
         Map<String, Object> retryPolicyProps = new HashMap<>();
         if (conf.containsKey(CLIENT_RETRY_POLICY_KEY)) {
@@ -298,7 +342,10 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
             }
         }
 
-        BackoffPolicy backoffPolicy = createRetryPolicy(retryPolicyClass, retryPolicyProps);
+        return createRetryPolicy(retryPolicyClass, retryPolicyProps);
+    }
+
+    private RetryExecutor createRetryExecutor(BackoffPolicy backoffPolicy) {
         return new RetryExecutor.Builder()
                                          .backoffPolicy(backoffPolicy)
                                          .retryOnException(RegistryRetryableException.class)
@@ -323,24 +370,205 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         return new SchemaMetadataCache(cacheSize, expiryInSecs, schemaMetadataFetcher);
     }
 
+    private PersistentSchemaCache createPersistentSchemaCache() {
+        String path = configuration.getValue(Configuration.PERSISTENT_CACHE_PATH.name());
+        if (StringUtils.isEmpty(path)) {
+            return null;
+        }
+        try {
+            PersistentSchemaCache cache = PersistentSchemaCache.acquire(path);
+            return cache.isEnabled() ? cache : null;
+        } catch (IOException e) {
+            LOG.warn("Failed to open persistent schema cache [{}], schemas are only cached in memory", path, e);
+            return null;
+        }
+    }
+
+    private HedgedReadExecutor createHedgedReadExecutor() {
+        Number percentile = configuration.getValue(Configuration.HEDGED_READ_PERCENTILE.name());
+        if (percentile == null) {
+            return null;
+        }
+        Number budgetPercent = configuration.getValue(Configuration.HEDGED_READ_BUDGET_PERCENT.name());
+        return new HedgedReadExecutor(percentile.intValue(), budgetPercent.intValue());
+    }
+
+    private SchemaChangeSubscriber createSchemaChangeSubscriber() {
+        Number waitSecs = configuration.getValue(Configuration.CHANGE_FEED_WAIT_SECS.name());
+        if (waitSecs == null) {
+            return null;
+        }
+        SchemaChangeSubscriber subscriber = new SchemaChangeSubscriber(this::getSchemaChanges, this::invalidateCachedEntries,
+                waitSecs.longValue() * 1000L);
+        subscriber.start();
+        return subscriber;
+    }
+
+    private SchemaChanges getSchemaChanges(Long since, Collection<Long> skippedSequences, long waitMs) {
+        return runRetryableBlock((SchemaRegistryTargets targets) -> {
+            WebTarget target = targets.changesTarget.queryParam("waitMs", waitMs);
+            if (since != null) {
+                target = target.queryParam("since", since);
+            }
+            if (!skippedSequences.isEmpty()) {
+                target = target.queryParam("skipped", skippedSequences.toArray());
+            }
+            // the registry holds the request until a change happens, the read timeout has to cover the wait
+            return getEntity(target.property(ClientProperties.READ_TIMEOUT, DEFAULT_READ_TIMEOUT + (int) waitMs), SchemaChanges.class);
+        });
+    }
+
+    private void invalidateCachedEntries(SchemaChange schemaChange) {
+        String schemaName = schemaChange.getSchemaName();
+        if (schemaChange.getType().isSchemaVersionChange()) {
+            SchemaIdVersion schemaIdVersion = new SchemaIdVersion(schemaChange.getSchemaVersionId());
+            invalidateSchemaVersionInfo(SchemaVersionInfoCache.Key.of(schemaIdVersion), schemaIdVersion, null);
+            // the latest version of the schema may be a different one after the change
+            schemaVersionInfoCache.invalidateSchema(
+                    new SchemaVersionInfoCache.Key(new SchemaVersionKey(schemaName, SchemaVersionKey.LATEST_VERSION)));
+            if (schemaChange.getType() != SchemaChange.Type.SCHEMA_VERSION_ADDED) {
+                invalidateSchemaTexts(schemaName);
+            }
+        } else {
+            schemaMetadataCache.invalidateSchemaMetadata(SchemaMetadataCache.Key.of(schemaName));
+            if (persistentSchemaCache != null) {
+                persistentSchemaCache.removeSchemaMetadataInfo(schemaName);
+            }
+            if (schemaChange.getType() == SchemaChange.Type.SCHEMA_METADATA_DELETED) {
+                invalidateSchemaTexts(schemaName);
+            }
+        }
+    }
+
+    private void invalidateSchemaTexts(String schemaName) {
+        schemaTextCache.asMap().keySet().removeIf(schemaDigestEntry -> schemaDigestEntry.name.equals(schemaName));
+    }
+
     private SchemaVersionInfoCache createSchemaVersionInfoCache() {
         return new SchemaVersionInfoCache(
                 new SchemaVersionRetriever() {
                     @Override
                     public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
-                        return doGetSchemaVersionInfo(key);
+                        // the latest version changes over time, it is always asked from the registry
+                        if (persistentSchemaCache != null && !SchemaVersionKey.LATEST_VERSION.equals(key.getVersion())) {
+                            SchemaVersionInfo schemaVersionInfo = persistentSchemaCache.getSchemaVersionInfo(key);
+                            if (schemaVersionInfo != null) {
+                                return schemaVersionInfo;
+                            }
+                        }
+                        return persist(doGetSchemaVersionInfo(key));
                     }
 
                     @Override
                     public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
-                        return doGetSchemaVersionInfo(key);
+                        if (persistentSchemaCache != null) {
+                            SchemaVersionInfo schemaVersionInfo = persistentSchemaCache.getSchemaVersionInfo(key);
+                            if (schemaVersionInfo != null) {
+                                return schemaVersionInfo;
+                            }
+                        }
+                        return persist(doGetSchemaVersionInfo(key));
+                    }
+
+                    @Override
+                    public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key, SchemaVersionInfo cached) throws SchemaNotFoundException {
+                        if (SchemaVersionKey.LATEST_VERSION.equals(key.getVersion())) {
+                            return retrieveSchemaVersion(key);
+                        }
+                        return revalidateSchemaVersionInfo(targets -> targets.schemasTarget.path(
+                                String.format("%s/versions/%d", key.getSchemaName(), key.getVersion())), cached);
+                    }
+
+                    @Override
+                    public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key, SchemaVersionInfo cached) throws SchemaNotFoundException {
+                        if (key.getSchemaVersionId() == null) {
+                            return retrieveSchemaVersion(key);
+                        }
+                        return revalidateSchemaVersionInfo(targets -> targets.schemaVersionsByIdTarget.path(
+                                key.getSchemaVersionId().toString()), cached);
                     }
                 },
                 ((Number) configuration.getValue(Configuration.SCHEMA_VERSION_CACHE_SIZE.name())).intValue(),
-                ((Number) configuration.getValue(Configuration.SCHEMA_VERSION_CACHE_EXPIRY_INTERVAL_SECS.name())).longValue() * 1000L
+                ((Number) configuration.getValue(Configuration.SCHEMA_VERSION_CACHE_EXPIRY_INTERVAL_SECS.name())).longValue() * 1000L,
+                getSchemaVersionCacheRefreshIntervalMs()
         );
     }
 
+    private long getSchemaVersionCacheRefreshIntervalMs() {
+        Number refreshIntervalSecs = configuration.getValue(Configuration.SCHEMA_VERSION_CACHE_REFRESH_INTERVAL_SECS.name());
+        return refreshIntervalSecs == null ? 0L : refreshIntervalSecs.longValue() * 1000L;
+    }
+
+    /**
+     * Asks the registry for the given schema version only if it differs from the cached one, the registry answers
+     * with 304 and without the schema text when the entity tag of the cached version is still current.
+     */
+    private SchemaVersionInfo revalidateSchemaVersionInfo(Function<SchemaRegistryTargets, WebTarget> target, SchemaVersionInfo cached) {
+        EntityTag entityTag = new EntityTag(SchemaVersionEntityTags.of(cached));
+        Number readDeadlineMs = configuration.getValue(Configuration.READ_DEADLINE_MS.name());
+        long deadlineMs = readDeadlineMs == null ? Long.MAX_VALUE : System.currentTimeMillis() + readDeadlineMs.longValue();
+        SchemaVersionInfo schemaVersionInfo = runRetryableBlock((SchemaRegistryTargets targets) -> {
+            try {
+                return getEntity(target.apply(targets), SchemaVersionInfo.class, deadlineMs, entityTag);
+            } catch (RedirectionException e) {
+                if (e.getResponse().getStatus() != Response.Status.NOT_MODIFIED.getStatusCode()) {
+                    throw e;
+                }
+                Metrics.get().mark(RegistryMetrics.name(SchemaRegistryClient.class, "schemaVersionCache", "notModified"));
+                return cached;
+            }
+        }, deadlineMs);
+        return schemaVersionInfo == cached ? cached : persist(schemaVersionInfo);
+    }
+
+    private SchemaVersionInfo persist(SchemaVersionInfo schemaVersionInfo) {
+        if (persistentSchemaCache != null && schemaVersionInfo != null) {
+            persistentSchemaCache.putSchemaVersionInfo(schemaVersionInfo);
+        }
+        return schemaVersionInfo;
+    }
+
+    private SchemaMetadataInfo persist(SchemaMetadataInfo schemaMetadataInfo) {
+        if (persistentSchemaCache != null && schemaMetadataInfo != null) {
+            persistentSchemaCache.putSchemaMetadataInfo(schemaMetadataInfo);
+        }
+        return schemaMetadataInfo;
+    }
+
+    void cacheSchemaMetadataInfo(SchemaMetadataInfo schemaMetadataInfo) {
+        schemaMetadataCache.put(SchemaMetadataCache.Key.of(schemaMetadataInfo.getSchemaMetadata().getName()), schemaMetadataInfo);
+        schemaMetadataCache.put(SchemaMetadataCache.Key.of(schemaMetadataInfo.getId()), schemaMetadataInfo);
+        persist(schemaMetadataInfo);
+    }
+
+    SchemaMetadataInfo getCachedSchemaMetadataInfo(SchemaMetadataCache.Key key) {
+        return schemaMetadataCache.getIfPresent(key);
+    }
+
+    SchemaVersionInfo getCachedSchemaVersionInfo(SchemaVersionInfoCache.Key key) {
+        try {
+            return schemaVersionInfoCache.getSchemaIfPresent(key);
+        } catch (SchemaNotFoundException e) {
+            return null;
+        }
+    }
+
+    void cacheSchemaVersionInfo(SchemaVersionInfo schemaVersionInfo) {
+        schemaVersionInfoCache.put(schemaVersionInfo);
+        persist(schemaVersionInfo);
+    }
+
+    private void invalidateSchemaVersionInfo(SchemaVersionInfoCache.Key key, SchemaIdVersion schemaIdVersion, SchemaVersionKey schemaVersionKey) {
+        schemaVersionInfoCache.invalidateSchema(key);
+        if (persistentSchemaCache != null) {
+            if (schemaIdVersion != null) {
+                persistentSchemaCache.removeSchemaVersionInfo(schemaIdVersion);
+            } else {
+                persistentSchemaCache.removeSchemaVersionInfo(schemaVersionKey);
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private BackoffPolicy createRetryPolicy(String retryPolicyClass, Map<String, Object> retryPolicyProps) {
         ClassLoader classLoader = this.getClass().getClassLoader();
@@ -465,6 +693,7 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         private final WebTarget findAggregatedSchemasTarget;
         private final WebTarget serializersTarget;
         private final WebTarget filesTarget;
+        private final WebTarget changesTarget;
         private final WebTarget schemaVersionsTarget;
         private final WebTarget schemaVersionsByIdTarget;
         private final WebTarget schemaVersionsStatesMachineTarget;
@@ -481,6 +710,7 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
             findAggregatedSchemasTarget = rootTarget.path(FIND_AGGREGATED_SCHEMAS);
             serializersTarget = rootTarget.path(SERIALIZERS_PATH);
             filesTarget = rootTarget.path(FILES_PATH);
+            changesTarget = rootTarget.path(CHANGES_PATH);
         }
 
     }
@@ -511,27 +741,44 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
             @Override
             public SchemaMetadataInfo fetch(String name) throws SchemaNotFoundException {
                 try {
-                    return runRetryableBlock((SchemaRegistryTargets targets) -> {
-                        return getEntity(targets.schemasTarget.path(name), SchemaMetadataInfo.class);
-                    });
+                    return persist(runReadRequest(targets -> targets.schemasTarget.path(name), SchemaMetadataInfo.class));
                 } catch (NotFoundException e) {
                     throw new SchemaNotFoundException(e, name);
+                } catch (RegistryRetryableException e) {
+                    SchemaMetadataInfo persisted = persistentSchemaCache == null ? null
+                            : persistentSchemaCache.getSchemaMetadataInfo(name, persistedMetadataMaxStalenessMs());
+                    if (persisted == null) {
+                        throw e;
+                    }
+                    LOG.warn("Schema registry is not available, using persisted metadata of schema [{}]", name, e);
+                    return persisted;
                 }
             }
 
             @Override
             public SchemaMetadataInfo fetch(Long id) throws SchemaNotFoundException {
                 try {
-                    return runRetryableBlock((SchemaRegistryTargets targets) -> {
-                        return getEntity(targets.schemasByIdTarget.path(id.toString()), SchemaMetadataInfo.class);
-                    });
+                    return persist(runReadRequest(targets -> targets.schemasByIdTarget.path(id.toString()),
+                            SchemaMetadataInfo.class));
                 } catch (NotFoundException e) {
                     throw new SchemaNotFoundException(e, String.valueOf(id));
+                } catch (RegistryRetryableException e) {
+                    SchemaMetadataInfo persisted = persistentSchemaCache == null ? null
+                            : persistentSchemaCache.getSchemaMetadataInfo(id, persistedMetadataMaxStalenessMs());
+                    if (persisted == null) {
+                        throw e;
+                    }
+                    LOG.warn("Schema registry is not available, using persisted metadata of schema with id [{}]", id, e);
+                    return persisted;
                 }
             }
         };
     }
 
+    private long persistedMetadataMaxStalenessMs() {
+        return ((Number) configuration.getValue(Configuration.PERSISTENT_CACHE_METADATA_MAX_STALENESS_SECS.name())).longValue() * 1000L;
+    }
+
     protected ClientConfig createClientConfig(Map<String, ?> conf) {
         ClientConfig config = new ClientConfig();
         config.property(ClientProperties.CONNECT_TIMEOUT, DEFAULT_CONNECTION_TIMEOUT);
@@ -589,6 +836,7 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         });
         if (schemaMetadataInfo != null) {
             schemaMetadataCache.put(SchemaMetadataCache.Key.of(schemaName), schemaMetadataInfo);
+            persist(schemaMetadataInfo);
         }
         return schemaMetadataInfo;
     }
@@ -624,10 +872,13 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     public void deleteSchema(String schemaName) throws SchemaNotFoundException {
         Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaName);
         schemaMetadataCache.invalidateSchemaMetadata(SchemaMetadataCache.Key.of(schemaName));
+        if (persistentSchemaCache != null) {
+            persistentSchemaCache.removeSchemaMetadataInfo(schemaName);
+        }
         if (schemaVersionInfos != null) {
             for (SchemaVersionInfo schemaVersionInfo: schemaVersionInfos) {
                 SchemaIdVersion schemaIdVersion = new SchemaIdVersion(schemaVersionInfo.getId());
-                schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(schemaIdVersion));
+                invalidateSchemaVersionInfo(SchemaVersionInfoCache.Key.of(schemaIdVersion), schemaIdVersion, null);
             }
         }
 
@@ -777,9 +1028,29 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         }
     }
 
+    /**
+     * The whole batch is sent with a single request, the returned versions are added to the local cache the same way
+     * as the ones added by {@link #addSchemaVersion(String, String, SchemaVersion, boolean)}.
+     */
+    @Override
+    public SchemaVersionBatchResult addSchemaVersions(SchemaVersionBatch schemaVersionBatch) {
+        SchemaVersionBatchResult result = runRetryableBlock((SchemaRegistryTargets targets) ->
+                postEntity(targets.schemasTarget.path("versions/batch"), schemaVersionBatch, SchemaVersionBatchResult.class));
+        List<SchemaVersionBatch.Item> items = schemaVersionBatch.getItems();
+        List<SchemaVersionBatchResult.ItemResult> results = result.getResults();
+        for (int i = 0; i < items.size() && i < results.size(); i++) {
+            SchemaVersionBatchResult.Status status = results.get(i).getStatus();
+            if (status == SchemaVersionBatchResult.Status.REGISTERED || status == SchemaVersionBatchResult.Status.EXISTING) {
+                SchemaVersionBatch.Item item = items.get(i);
+                schemaTextCache.put(buildSchemaTextEntry(item.getSchemaVersion(), item.getSchemaName()), results.get(i).getSchemaIdVersion());
+            }
+        }
+        return result;
+    }
+
     @Override
     public void deleteSchemaVersion(SchemaVersionKey schemaVersionKey) throws SchemaNotFoundException, SchemaLifecycleException {
-        schemaVersionInfoCache.invalidateSchema(new SchemaVersionInfoCache.Key(schemaVersionKey));
+        invalidateSchemaVersionInfo(new SchemaVersionInfoCache.Key(schemaVersionKey), null, schemaVersionKey);
 
         Response response = runRetryableBlock((SchemaRegistryTargets targets) -> {
             WebTarget target = targets.schemasTarget.path(String.format("%s/versions/%s", schemaVersionKey
@@ -799,7 +1070,7 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         handleDeleteSchemaResponse(response);
     }
     
-    private Invocation.Builder addHeaderIfOAuthLogin(Invocation.Builder request) {
+    Invocation.Builder addHeaderIfOAuthLogin(Invocation.Builder request) {
         if (login instanceof OAuth2Login) {
             request.header(HttpHeaders.AUTHORIZATION, "Bearer " + ((OAuth2Login) login).getAuthToken());
         }
@@ -908,6 +1179,70 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         }
     }
 
+    /**
+     * Versions found in the local cache are returned as they are, the rest of them are fetched from the registry with
+     * a single request and added to the cache.
+     */
+    @Override
+    public Collection<SchemaVersionInfo> getSchemaVersionInfos(Collection<SchemaIdVersion> schemaIdVersions) {
+        List<SchemaVersionInfo> result = new ArrayList<>();
+        List<Long> schemaVersionIds = new ArrayList<>();
+        List<SchemaVersionKey> schemaVersionKeys = new ArrayList<>();
+        for (SchemaIdVersion schemaIdVersion : schemaIdVersions) {
+            SchemaVersionInfo schemaVersionInfo;
+            try {
+                schemaVersionInfo = schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(schemaIdVersion));
+            } catch (SchemaNotFoundException e) {
+                schemaVersionInfo = null;
+            }
+            if (schemaVersionInfo != null) {
+                result.add(schemaVersionInfo);
+            } else if (schemaIdVersion.getSchemaVersionId() != null) {
+                schemaVersionIds.add(schemaIdVersion.getSchemaVersionId());
+            } else if (schemaIdVersion.getSchemaMetadataId() != null) {
+                SchemaMetadataInfo schemaMetadataInfo = getSchemaMetadataInfo(schemaIdVersion.getSchemaMetadataId());
+                if (schemaMetadataInfo != null) {
+                    schemaVersionKeys.add(new SchemaVersionKey(schemaMetadataInfo.getSchemaMetadata().getName(), schemaIdVersion.getVersion()));
+                }
+            } else {
+                throw new IllegalArgumentException("Given argument not valid: " + schemaIdVersion);
+            }
+        }
+
+        if (!schemaVersionIds.isEmpty() || !schemaVersionKeys.isEmpty()) {
+            LOG.debug("Getting {} schema versions by id and {} by name from target registry", schemaVersionIds.size(), schemaVersionKeys.size());
+            for (SchemaVersionInfo schemaVersionInfo : lookupSchemaVersions(new SchemaVersionLookup(schemaVersionIds, schemaVersionKeys))) {
+                cacheSchemaVersionInfo(schemaVersionInfo);
+                result.add(schemaVersionInfo);
+            }
+        }
+
+        return result;
+    }
+
+    private List<SchemaVersionInfo> lookupSchemaVersions(SchemaVersionLookup schemaVersionLookup) {
+        return runRetryableBlock((SchemaRegistryTargets targets) ->
+                postEntities(targets.schemasTarget.path("versions/lookup"), schemaVersionLookup, SchemaVersionInfo.class));
+    }
+
+    @Override
+    public void warmUpSchemaVersions(Collection<String> schemaNames) {
+        for (String schemaName : schemaNames) {
+            try {
+                Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaName);
+                for (SchemaVersionInfo schemaVersionInfo : schemaVersionInfos) {
+                    cacheSchemaVersionInfo(schemaVersionInfo);
+                }
+                LOG.info("Loaded {} versions of schema [{}] into the cache", schemaVersionInfos.size(), schemaName);
+            } catch (SchemaNotFoundException e) {
+                LOG.warn("Schema [{}] can not be warmed up as it does not exist", schemaName);
+            } catch (RuntimeException e) {
+                // warming up is only an optimization, versions are fetched on demand anyway
+                LOG.warn("Failed to warm up versions of schema [{}]", schemaName, e);
+            }
+        }
+    }
+
     private SchemaVersionInfo doGetSchemaVersionInfo(SchemaIdVersion schemaIdVersion) throws SchemaNotFoundException {
         if (schemaIdVersion.getSchemaVersionId() != null) {
             LOG.info("Getting schema version from target registry by its id [{}]", schemaIdVersion.getSchemaVersionId());
@@ -924,24 +1259,20 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     }
 
     private SchemaVersionInfo doGetSchemaIdVersionInfo(Long versionId) {
-        return runRetryableBlock((SchemaRegistryTargets targets) ->
-                getEntity(targets.schemaVersionsByIdTarget.path(versionId.toString()), SchemaVersionInfo.class));
+        return runReadRequest(targets -> targets.schemaVersionsByIdTarget.path(versionId.toString()), SchemaVersionInfo.class);
     }
 
     private SchemaVersionInfo doGetSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
         LOG.info("Getting schema version from target registry for [{}]", schemaVersionKey);
         String schemaName = schemaVersionKey.getSchemaName();
-        return runRetryableBlock((SchemaRegistryTargets targets) ->
-                getEntity(targets.schemasTarget.path(String.format("%s/versions/%d", schemaName, schemaVersionKey.getVersion())),
-                        SchemaVersionInfo.class));
+        return runReadRequest(targets -> targets.schemasTarget.path(String.format("%s/versions/%d", schemaName, schemaVersionKey.getVersion())),
+                SchemaVersionInfo.class);
     }
 
     @Override
     public SchemaVersionInfo getLatestSchemaVersionInfo(String schemaBranchName, String schemaName) throws SchemaNotFoundException {
-        return runRetryableBlock((SchemaRegistryTargets targets) -> {
-            WebTarget webTarget = targets.schemasTarget.path(encode(schemaName) + "/versions/latest").queryParam("branch", schemaBranchName);
-            return getEntity(webTarget, SchemaVersionInfo.class);
-        });
+        return runReadRequest(targets -> targets.schemasTarget.path(encode(schemaName) + "/versions/latest")
+                .queryParam("branch", schemaBranchName), SchemaVersionInfo.class);
     }
 
     @Override
@@ -1153,7 +1484,8 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         boolean result = handleSchemaLifeCycleResponse(response);
 
         // invalidate this entry from cache.
-        schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionId)));
+        SchemaIdVersion schemaIdVersion = new SchemaIdVersion(schemaVersionId);
+        invalidateSchemaVersionInfo(SchemaVersionInfoCache.Key.of(schemaIdVersion), schemaIdVersion, null);
 
         return result;
     }
@@ -1381,6 +1713,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
      */
     @Override
     public void close() {
+        if (schemaChangeSubscriber != null) {
+            schemaChangeSubscriber.close();
+        }
         if (login != null) {
             try {
                 login.close();
@@ -1388,13 +1723,35 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                 LOG.debug("Exception thrown while closing the kerberos login.", ex);
             }
         }
+        if (hedgedReadExecutor != null) {
+            hedgedReadExecutor.close();
+        }
         client.close();
+        if (persistentSchemaCache != null) {
+            try {
+                persistentSchemaCache.close();
+            } catch (IOException ex) {
+                LOG.debug("Exception thrown while closing the persistent schema cache.", ex);
+            }
+        }
     }
 
     public SchemaRegistryVersion clientVersion() {
         return CLIENT_VERSION;
     }
 
+    Login getLogin() {
+        return login;
+    }
+
+    UrlSelector getUrlSelector() {
+        return urlSelector;
+    }
+
+    BackoffPolicy getBackoffPolicy() {
+        return backoffPolicy;
+    }
+
     private <T> T createInstance(SerDesInfo serDesInfo, boolean isSerializer) {
         Set<Class<?>> interfaceClasses = isSerializer ? SERIALIZER_INTERFACE_CLASSES : DESERIALIZER_INTERFACE_CLASSES;
 
@@ -1482,6 +1839,21 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         return readEntity(response, responseType);
     }
 
+    private <T> List<T> postEntities(WebTarget target, Object json, Class<T> clazz) {
+        String response = null;
+        try {
+            response = login.doAction(new PrivilegedAction<String>() {
+                @Override
+                public String run() {
+                    return addHeaderIfOAuthLogin(target.request(MediaType.APPLICATION_JSON_TYPE)).post(Entity.json(json), String.class);
+                }
+            });
+        } catch (LoginException | ProcessingException e) {
+            throw new RegistryRetryableException(e);
+        }
+        return parseResponseAsEntities(response, clazz);
+    }
+
     private <T> T readEntity(String response, Class<T> clazz) {
         try {
             ObjectMapper mapper = new ObjectMapper();
@@ -1492,12 +1864,35 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     }
 
     private <T> T getEntity(WebTarget target, Class<T> clazz) {
+        return getEntity(target, clazz, Long.MAX_VALUE);
+    }
+
+    private <T> T getEntity(WebTarget target, Class<T> clazz, long deadlineMs) {
+        return getEntity(target, clazz, deadlineMs, null);
+    }
+
+    /**
+     * @param ifNoneMatch entity tag of the representation the caller already has, the registry answers with 304
+     *                    which is thrown as {@link RedirectionException} when it is still current, can be null
+     */
+    private <T> T getEntity(WebTarget target, Class<T> clazz, long deadlineMs, EntityTag ifNoneMatch) {
+        long timeRemaining = deadlineMs - System.currentTimeMillis();
+        if (timeRemaining <= 0) {
+            throw new RegistryRetryableException("Deadline of the request to " + target.getUri() + " is exceeded");
+        }
         String response = null;
         try {
             response = login.doAction(new PrivilegedAction<String>() {
                 @Override
                 public String run() {
-                    return addHeaderIfOAuthLogin(target.request(MediaType.APPLICATION_JSON_TYPE)).get(String.class);
+                    Invocation.Builder builder = target.request(MediaType.APPLICATION_JSON_TYPE);
+                    if (timeRemaining < readTimeout(target)) {
+                        builder.property(ClientProperties.READ_TIMEOUT, (int) timeRemaining);
+                    }
+                    if (ifNoneMatch != null) {
+                        builder.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+                    }
+                    return addHeaderIfOAuthLogin(builder).get(String.class);
                 }
             });
         } catch (LoginException | ProcessingException e) {
@@ -1507,6 +1902,11 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         return readEntity(response, clazz);
     }
 
+    private static int readTimeout(WebTarget target) {
+        return ClientProperties.getValue(target.getConfiguration().getProperties(), ClientProperties.READ_TIMEOUT,
+                                         DEFAULT_READ_TIMEOUT, Integer.class);
+    }
+
     /**
      *   If schema registry client is configured with URL ensemble eg: url1,url2,url3 and ExponentialBackoffPolicy is
      *   configured as a retry mechanism, then retry is done in following manner
@@ -1526,6 +1926,14 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
      * @return
      */
     private <T> T runRetryableBlock(RegistryRetryableBlock<T> registryRetryableBlock) {
+        return runRetryableBlock(registryRetryableBlock, Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #runRetryableBlock(RegistryRetryableBlock)}, but neither another URL nor another retry attempt
+     * is tried after the given deadline.
+     */
+    private <T> T runRetryableBlock(RegistryRetryableBlock<T> registryRetryableBlock, long deadlineMs) {
         return retryExecutor.execute(() -> {
             WebTarget initialWebTarget = null;
             RegistryRetryableException retryableException = null;
@@ -1533,18 +1941,73 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                 SchemaRegistryClient.SchemaRegistryTargets targets = currentSchemaRegistryTargets();
                 if (initialWebTarget == null) {
                     initialWebTarget = targets.rootTarget;
-                } else if (initialWebTarget.equals(targets.rootTarget)) {
+                } else if (initialWebTarget.equals(targets.rootTarget) || System.currentTimeMillis() >= deadlineMs) {
                     throw retryableException;
                 }
+                String url = targets.rootTarget.getUri().toString();
+                long startTime = System.nanoTime();
+                urlSelector.requestStarted(url);
+                Metrics.get().mark(RegistryMetrics.name(SchemaRegistryClient.class, "requests", url));
                 try {
                     LOG.debug("Using '{}' to make request", targets.rootTarget);
                     return registryRetryableBlock.run(targets);
                 } catch (RegistryRetryableException e) {
-                    urlSelector.urlWithError(targets.rootTarget.getUri().toString(), e);
+                    Metrics.get().mark(RegistryMetrics.name(SchemaRegistryClient.class, "failures", url));
+                    urlSelector.urlWithError(url, e);
                     retryableException = e;
+                } finally {
+                    urlSelector.requestCompleted(url, System.nanoTime() - startTime);
                 }
             }
-        });
+        }, deadlineMs);
+    }
+
+    /**
+     * Runs a GET request of the given target with retries, within the configured {@link Configuration#READ_DEADLINE_MS}.
+     * If {@link Configuration#HEDGED_READ_PERCENTILE} is configured, the request is also sent to another URL when the
+     * response is slower than usual.
+     */
+    private <T> T runReadRequest(Function<SchemaRegistryTargets, WebTarget> target, Class<T> clazz) {
+        Number readDeadlineMs = configuration.getValue(Configuration.READ_DEADLINE_MS.name());
+        long deadlineMs = readDeadlineMs == null ? Long.MAX_VALUE : System.currentTimeMillis() + readDeadlineMs.longValue();
+        return runRetryableBlock((SchemaRegistryTargets targets) -> {
+            if (hedgedReadExecutor == null) {
+                return getEntity(target.apply(targets), clazz, deadlineMs);
+            }
+            try {
+                return hedgedReadExecutor.execute(() -> getEntity(target.apply(targets), clazz, deadlineMs), () -> {
+                    SchemaRegistryTargets hedgeTargets = currentSchemaRegistryTargets();
+                    if (hedgeTargets.rootTarget.equals(targets.rootTarget)) {
+                        return null;
+                    }
+                    return () -> runHedgedRead(hedgeTargets, () -> getEntity(target.apply(hedgeTargets), clazz, deadlineMs));
+                });
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RegistryRetryableException(e);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, deadlineMs);
+    }
+
+    private <T> T runHedgedRead(SchemaRegistryTargets targets, Supplier<T> read) {
+        String url = targets.rootTarget.getUri().toString();
+        long startTime = System.nanoTime();
+        urlSelector.requestStarted(url);
+        Metrics.get().mark(RegistryMetrics.name(SchemaRegistryClient.class, "hedgedRequests", url));
+        try {
+            LOG.debug("Using '{}' to make hedged request", targets.rootTarget);
+            return read.get();
+        } catch (RegistryRetryableException e) {
+            Metrics.get().mark(RegistryMetrics.name(SchemaRegistryClient.class, "failures", url));
+            urlSelector.urlWithError(url, e);
+            throw e;
+        } finally {
+            urlSelector.requestCompleted(url, System.nanoTime() - startTime);
+        }
     }
 
     public static final class Configuration {
@@ -1636,6 +2099,18 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                                      ConfigEntry.IntegerConverter.get(),
                                      ConfigEntry.PositiveNumberValidator.get());
 
+        /**
+         * Interval(in seconds) after which a used entry of schema version cache is revalidated with the registry, the
+         * schema version is only transferred again when it changed. Entries are not revalidated when it is not set.
+         */
+        public static final ConfigEntry<Number> SCHEMA_VERSION_CACHE_REFRESH_INTERVAL_SECS =
+                ConfigEntry.optional("schema.registry.client.schema.version.cache.refresh.interval.secs",
+                                     Integer.class,
+                                     "Interval(in seconds) after which a used entry of schema version cache is revalidated",
+                                     null,
+                                     ConfigEntry.IntegerConverter.get(),
+                                     ConfigEntry.PositiveNumberValidator.get());
+
         /**
          * Maximum size of schema metadata cache. Default value is {@link #DEFAULT_SCHEMA_CACHE_SIZE}
          */
@@ -1681,6 +2156,121 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                                      ConfigEntry.IntegerConverter.get(),
                                      ConfigEntry.PositiveNumberValidator.get());
 
+        /**
+         * Default maximum age(in seconds) of the schema metadata served from the persistent cache, one day.
+         */
+        public static final long DEFAULT_PERSISTENT_CACHE_METADATA_MAX_STALENESS_SECS = 24 * 60 * 60;
+
+        /**
+         * Path of the file schemas are persisted in. Schema versions are served from this file after a restart and
+         * schema metadata is served from it while the registry is not available. Disabled when it is not set.
+         */
+        public static final ConfigEntry<String> PERSISTENT_CACHE_PATH =
+                ConfigEntry.optional("schema.registry.client.persistent.cache.path",
+                                     String.class,
+                                     "Path of the file schemas are persisted in, persistent cache is disabled when not set",
+                                     null,
+                                     ConfigEntry.StringConverter.get(),
+                                     ConfigEntry.NonEmptyStringValidator.get());
+
+        /**
+         * Maximum age(in seconds) of the schema metadata served from the persistent cache when the registry is not available.
+         * Default value is {@link #DEFAULT_PERSISTENT_CACHE_METADATA_MAX_STALENESS_SECS}
+         */
+        public static final ConfigEntry<Number> PERSISTENT_CACHE_METADATA_MAX_STALENESS_SECS =
+                ConfigEntry.optional("schema.registry.client.persistent.cache.metadata.max.staleness.secs",
+                                     Integer.class,
+                                     "Maximum age(in seconds) of the schema metadata served from the persistent cache",
+                                     DEFAULT_PERSISTENT_CACHE_METADATA_MAX_STALENESS_SECS,
+                                     ConfigEntry.IntegerConverter.get(),
+                                     ConfigEntry.PositiveNumberValidator.get());
+
+        /**
+         * Maximum time(in seconds) a request of the change feed subscriber waits for a change. When it is set, the
+         * client follows the change feed of the registry and drops the cache entries of changed schemas and schema
+         * versions right away, so the cache expiry intervals can be set much longer. Disabled when it is not set.
+         */
+        public static final ConfigEntry<Number> CHANGE_FEED_WAIT_SECS =
+                ConfigEntry.optional("schema.registry.client.change.feed.wait.secs",
+                                     Integer.class,
+                                     "Maximum time(in seconds) a request of the change feed subscriber waits for a change, " +
+                                             "the subscriber is disabled when not set",
+                                     null,
+                                     ConfigEntry.IntegerConverter.get(),
+                                     ConfigEntry.PositiveNumberValidator.get());
+
+        /**
+         * Default number of threads of {@link AsyncSchemaRegistryClient} reading the responses of the registry.
+         */
+        public static final int DEFAULT_ASYNC_RESPONSE_THREADS = 4;
+
+        /**
+         * Number of threads of {@link AsyncSchemaRegistryClient} reading the responses of the registry.
+         */
+        public static final ConfigEntry<Number> ASYNC_RESPONSE_THREADS =
+                ConfigEntry.optional("schema.registry.client.async.response.threads",
+                                     Integer.class,
+                                     "Number of threads of the asynchronous client reading the responses of the registry",
+                                     DEFAULT_ASYNC_RESPONSE_THREADS,
+                                     ConfigEntry.IntegerConverter.get(),
+                                     ConfigEntry.PositiveNumberValidator.get());
+
+        /**
+         * Maximum time(in milliseconds) a read of a schema or a schema version can take including all of its retries.
+         * Reads are only bounded by the retry policy and the read timeout when it is not set.
+         */
+        public static final ConfigEntry<Number> READ_DEADLINE_MS =
+                ConfigEntry.optional("schema.registry.client.read.deadline.ms",
+                                     Integer.class,
+                                     "Maximum time(in milliseconds) a read of a schema or a schema version can take " +
+                                             "including all of its retries",
+                                     null,
+                                     ConfigEntry.IntegerConverter.get(),
+                                     ConfigEntry.PositiveNumberValidator.get());
+
+        /**
+         * Percentile of the recent read latencies after which the read of a schema or a schema version is also sent
+         * to another URL, and the first response is used. Reads are not hedged when it is not set.
+         */
+        public static final ConfigEntry<Number> HEDGED_READ_PERCENTILE =
+                ConfigEntry.optional("schema.registry.client.hedged.read.percentile",
+                                     Integer.class,
+                                     "Percentile(1-99) of the recent read latencies after which a read is also sent " +
+                                             "to another URL, reads are not hedged when not set",
+                                     null,
+                                     ConfigEntry.IntegerConverter.get(),
+                                     ConfigEntry.PositiveNumberValidator.get());
+
+        /**
+         * Default percentage of the reads which can be hedged.
+         */
+        public static final int DEFAULT_HEDGED_READ_BUDGET_PERCENT = 10;
+
+        /**
+         * Maximum percentage of the reads which can be hedged, so hedging does not multiply the load of the registry
+         * when all of its instances are slow.
+         */
+        public static final ConfigEntry<Number> HEDGED_READ_BUDGET_PERCENT =
+                ConfigEntry.optional("schema.registry.client.hedged.read.budget.percent",
+                                     Integer.class,
+                                     "Maximum percentage of the reads which can be hedged",
+                                     DEFAULT_HEDGED_READ_BUDGET_PERCENT,
+                                     ConfigEntry.IntegerConverter.get(),
+                                     ConfigEntry.PositiveNumberValidator.get());
+
+        /**
+         * {@link RegistryMetrics} implementation used to record the metrics of the client and the serdes, e.g.
+         * {@link com.hortonworks.registries.common.metrics.JmxRegistryMetrics}. Metrics are not recorded when it is not
+         * set, unless the application installed them with {@link Metrics#set(RegistryMetrics)}.
+         */
+        public static final ConfigEntry<String> METRICS_CLASS =
+                ConfigEntry.optional("schema.registry.client.metrics.class",
+                                     String.class,
+                                     "Class of the metrics used to record the metrics of the client and the serdes",
+                                     null,
+                                     ConfigEntry.StringConverter.get(),
+                                     ConfigEntry.NonEmptyStringValidator.get());
+
         /**
          *
          */
@@ -35,4 +35,20 @@ public interface UrlSelector {
      * @param ex exception encountered
      */
     void urlWithError(String url, Exception ex);
+
+    /**
+     * Invoked before a request is sent to the given {@code url}.
+     * @param url url the request is sent to
+     */
+    default void requestStarted(String url) {
+    }
+
+    /**
+     * Invoked after a request to the given {@code url} finished, whether it succeeded or not. Failures are reported
+     * with {@link #urlWithError(String, Exception)} before this method is invoked.
+     * @param url url the request was sent to
+     * @param latencyNanos time elapsed since the request was started
+     */
+    default void requestCompleted(String url, long latencyNanos) {
+    }
 }
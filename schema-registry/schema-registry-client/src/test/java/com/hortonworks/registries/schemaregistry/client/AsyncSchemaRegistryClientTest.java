@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncSchemaRegistryClientTest {
+
+    private static final String ROOT_PATH = "/api/v1";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private HttpServer server;
+    private AsyncSchemaRegistryClient client;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void testConcurrentReadsShareOneRequest() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(7L, "foo", 1, 3L, "\"string\"", 1L, "description", (byte) 1);
+        server.createContext(ROOT_PATH + "/schemaregistry/schemas/versionsById/7", exchange -> {
+            requests.incrementAndGet();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, OBJECT_MAPPER.writeValueAsString(schemaVersionInfo));
+        });
+        client = new AsyncSchemaRegistryClient(conf(serverUrl()));
+
+        CompletableFuture<SchemaVersionInfo> first = client.getSchemaVersionInfo(new SchemaIdVersion(7L));
+        CompletableFuture<SchemaVersionInfo> second = client.getSchemaVersionInfo(new SchemaIdVersion(7L));
+        release.countDown();
+
+        assertEquals(schemaVersionInfo, first.get(30, TimeUnit.SECONDS));
+        assertEquals(schemaVersionInfo, second.get(30, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+
+        // the version is cached by now
+        assertEquals(schemaVersionInfo, client.getSchemaVersionInfo(new SchemaIdVersion(7L)).get(30, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testFailsOverToReachableUrl() throws Exception {
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder("foo")
+                .type("avro")
+                .schemaGroup("kafka")
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+        SchemaMetadataInfo schemaMetadataInfo = new SchemaMetadataInfo(schemaMetadata, 3L, 1L);
+        server.createContext(ROOT_PATH + "/schemaregistry/schemas/foo",
+            exchange -> respond(exchange, 200, OBJECT_MAPPER.writeValueAsString(schemaMetadataInfo)));
+        Map<String, Object> conf = conf(unreachableUrl() + "," + serverUrl());
+        // always starts with the first, unreachable url
+        conf.put(SchemaRegistryClient.Configuration.URL_SELECTOR_CLASS.name(), FailoverUrlSelector.class.getName());
+        client = new AsyncSchemaRegistryClient(conf);
+
+        assertEquals(schemaMetadataInfo, client.getSchemaMetadataInfo("foo").get(30, TimeUnit.SECONDS));
+        assertEquals(schemaMetadataInfo, client.getSchemaRegistryClient().getSchemaMetadataInfo(3L));
+    }
+
+    @Test
+    public void testSchemaNotFound() {
+        server.createContext(ROOT_PATH + "/schemaregistry/schemas/bar", exchange -> respond(exchange, 404, "{}"));
+        client = new AsyncSchemaRegistryClient(conf(serverUrl()));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+            () -> client.getSchemaMetadataInfo("bar").get(30, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof SchemaNotFoundException);
+    }
+
+    private Map<String, Object> conf(String url) {
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(SchemaRegistryClient.Configuration.SCHEMA_REGISTRY_URL.name(), url);
+        return conf;
+    }
+
+    private String serverUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + ROOT_PATH;
+    }
+
+    private static String unreachableUrl() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return "http://localhost:" + socket.getLocalPort() + ROOT_PATH;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HedgedReadExecutorTest {
+
+    @Test
+    public void testSlowReadIsHedgedAndCancelled() throws Exception {
+        try (HedgedReadExecutor executor = new HedgedReadExecutor(50, 100)) {
+            warmUp(executor);
+            Assertions.assertTrue(executor.getHedgeDelayMs() < 1000L);
+
+            CountDownLatch interrupted = new CountDownLatch(1);
+            String result = executor.execute(() -> {
+                try {
+                    Thread.sleep(60 * 1000L);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "primary";
+            }, () -> () -> "hedge");
+
+            Assertions.assertEquals("hedge", result);
+            Assertions.assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testHedgingIsLimitedByBudget() throws Exception {
+        try (HedgedReadExecutor executor = new HedgedReadExecutor(50, 10)) {
+            // 64 fast reads earn 6.4 hedges
+            warmUp(executor);
+
+            AtomicInteger hedges = new AtomicInteger();
+            for (int i = 0; i < 20; i++) {
+                executor.execute(() -> {
+                    Thread.sleep(20L);
+                    return "primary";
+                }, () -> {
+                    hedges.incrementAndGet();
+                    return () -> "hedge";
+                });
+            }
+
+            // the 20 slow reads earn 2 more
+            Assertions.assertEquals(8, hedges.get());
+        }
+    }
+
+    @Test
+    public void testFailureOfPrimaryReadIsThrownWhenBothFail() throws Exception {
+        try (HedgedReadExecutor executor = new HedgedReadExecutor(50, 100)) {
+            warmUp(executor);
+
+            IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, () -> executor.execute(() -> {
+                Thread.sleep(100L);
+                throw new IllegalStateException("primary");
+            }, () -> () -> {
+                throw new IllegalArgumentException("hedge");
+            }));
+            Assertions.assertEquals("primary", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNoHedgingWithoutAnotherUrl() throws Exception {
+        try (HedgedReadExecutor executor = new HedgedReadExecutor(50, 100)) {
+            warmUp(executor);
+
+            Assertions.assertEquals("primary", executor.execute(() -> {
+                Thread.sleep(20L);
+                return "primary";
+            }, () -> null));
+        }
+    }
+
+    private static void warmUp(HedgedReadExecutor executor) throws Exception {
+        Assertions.assertEquals(Long.MAX_VALUE, executor.getHedgeDelayMs());
+        for (int i = 0; i < HedgedReadExecutor.MIN_LATENCY_SAMPLES; i++) {
+            executor.execute(() -> "primary", () -> () -> "hedge");
+        }
+    }
+}
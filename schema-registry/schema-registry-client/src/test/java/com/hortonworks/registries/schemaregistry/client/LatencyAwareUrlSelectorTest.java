@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LatencyAwareUrlSelectorTest {
+
+    private static final String FAST_URL_1 = "http://localhost:8081";
+    private static final String FAST_URL_2 = "http://localhost:8082";
+    private static final String SLOW_URL = "http://localhost:8083";
+    private static final String CLUSTER_URL = FAST_URL_1 + "," + FAST_URL_2 + "," + SLOW_URL;
+
+    @Test
+    public void testFailedUrlIsEjectedAndProbedAfterwards() {
+        AtomicLong clock = new AtomicLong(1000L);
+        LatencyAwareUrlSelector selector = new LatencyAwareUrlSelector(CLUSTER_URL, clock::get);
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(LatencyAwareUrlSelector.BASE_EJECTION_TIME_MS, 1000L);
+        conf.put(LatencyAwareUrlSelector.PROBE_INTERVAL, 10);
+        selector.init(conf);
+
+        selector.requestStarted(SLOW_URL);
+        selector.urlWithError(SLOW_URL, new IOException());
+        selector.requestCompleted(SLOW_URL, TimeUnit.MILLISECONDS.toNanos(5L));
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertNotEquals(SLOW_URL, selector.select());
+        }
+
+        // only a trickle of requests goes to the url after its ejection time
+        clock.addAndGet(1000L);
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            selected.add(selector.select());
+        }
+        Assertions.assertEquals(10, Collections.frequency(selected, SLOW_URL));
+
+        // a successful probe brings it back
+        selector.requestStarted(SLOW_URL);
+        selector.requestCompleted(SLOW_URL, TimeUnit.MILLISECONDS.toNanos(5L));
+        selected.clear();
+        for (int i = 0; i < 300; i++) {
+            selected.add(selector.select());
+        }
+        Assertions.assertTrue(Collections.frequency(selected, SLOW_URL) > 30);
+    }
+
+    @Test
+    public void testRepeatedEjectionsLastLonger() {
+        AtomicLong clock = new AtomicLong(1000L);
+        LatencyAwareUrlSelector selector = new LatencyAwareUrlSelector(CLUSTER_URL, clock::get);
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(LatencyAwareUrlSelector.BASE_EJECTION_TIME_MS, 1000L);
+        conf.put(LatencyAwareUrlSelector.PROBE_INTERVAL, 1);
+        selector.init(conf);
+
+        selector.urlWithError(SLOW_URL, new IOException());
+        clock.addAndGet(1000L);
+        Assertions.assertEquals(SLOW_URL, selector.select());
+        selector.urlWithError(SLOW_URL, new IOException());
+
+        // the second ejection is twice as long as the first one
+        clock.addAndGet(1000L);
+        Assertions.assertNotEquals(SLOW_URL, selector.select());
+        clock.addAndGet(1000L);
+        Assertions.assertEquals(SLOW_URL, selector.select());
+    }
+
+    @Test
+    public void testSlowUrlDoesNotDominateTailLatency() {
+        long roundRobinP99 = simulate(new RoundRobinUrlSelector(CLUSTER_URL), new AtomicLong());
+        AtomicLong clock = new AtomicLong();
+        LatencyAwareUrlSelector latencyAwareUrlSelector = new LatencyAwareUrlSelector(CLUSTER_URL, clock::get);
+        latencyAwareUrlSelector.init(Collections.emptyMap());
+        long latencyAwareP99 = simulate(latencyAwareUrlSelector, clock);
+
+        Assertions.assertTrue(roundRobinP99 >= 300L, "p99 latency with round robin was " + roundRobinP99);
+        Assertions.assertTrue(latencyAwareP99 < 50L, "p99 latency with latency aware selection was " + latencyAwareP99);
+    }
+
+    /**
+     * Sends two requests every millisecond for 30 seconds to a cluster where one of the nodes answers in 300 ms
+     * while the others in 10-20 ms, and returns the 99th percentile of the latencies in milliseconds.
+     */
+    private static long simulate(UrlSelector selector, AtomicLong clock) {
+        Random random = new Random(42L);
+        PriorityQueue<long[]> inFlight = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        List<Long> latencies = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        for (long now = 0; now < 30 * 1000L; now++) {
+            clock.set(now);
+            while (!inFlight.isEmpty() && inFlight.peek()[0] <= now) {
+                long[] completed = inFlight.poll();
+                selector.requestCompleted(urls.get((int) completed[1]), TimeUnit.MILLISECONDS.toNanos(completed[2]));
+            }
+            for (int i = 0; i < 2; i++) {
+                String url = selector.select();
+                long latency = SLOW_URL.equals(url) ? 300L : 10L + random.nextInt(10);
+                selector.requestStarted(url);
+                urls.add(url);
+                latencies.add(latency);
+                inFlight.add(new long[] {now + latency, urls.size() - 1, latency});
+            }
+        }
+        Collections.sort(latencies);
+        return latencies.get((int) (latencies.size() * 0.99));
+    }
+}
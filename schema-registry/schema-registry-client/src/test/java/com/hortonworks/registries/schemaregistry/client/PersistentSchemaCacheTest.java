@@ -0,0 +1,167 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistentSchemaCacheTest {
+
+    private File dir;
+    private String path;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("schema-cache").toFile();
+        path = new File(dir, "schemas.cache").getAbsolutePath();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FileUtils.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testEntriesSurviveRestart() throws Exception {
+        SchemaVersionInfo version = schemaVersionInfo(3L, "rain", 2);
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(path)) {
+            cache.putSchemaVersionInfo(version);
+            cache.putSchemaVersionInfo(schemaVersionInfo(4L, "rain", 3));
+            cache.putSchemaMetadataInfo(schemaMetadataInfo(1L, "rain"));
+            cache.removeSchemaVersionInfo(new SchemaIdVersion(4L));
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(path)) {
+            assertEquals(version.getSchemaText(), cache.getSchemaVersionInfo(new SchemaIdVersion(3L)).getSchemaText());
+            assertEquals(Long.valueOf(3L), cache.getSchemaVersionInfo(new SchemaIdVersion(1L, 2)).getId());
+            assertEquals(Long.valueOf(3L), cache.getSchemaVersionInfo(new SchemaVersionKey("rain", 2)).getId());
+            assertNull(cache.getSchemaVersionInfo(new SchemaIdVersion(4L)));
+            assertNull(cache.getSchemaVersionInfo(new SchemaVersionKey("rain", 3)));
+
+            assertEquals("rain", cache.getSchemaMetadataInfo(1L, 60_000L).getSchemaMetadata().getName());
+            assertEquals(Long.valueOf(1L), cache.getSchemaMetadataInfo("rain", 60_000L).getId());
+        }
+    }
+
+    @Test
+    public void testStaleMetadataIsNotReturned() throws Exception {
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(path)) {
+            cache.putSchemaMetadataInfo(schemaMetadataInfo(1L, "rain"));
+            Thread.sleep(5L);
+
+            assertNull(cache.getSchemaMetadataInfo("rain", 1L));
+            assertEquals(Long.valueOf(1L), cache.getSchemaMetadataInfo("rain", 60_000L).getId());
+        }
+    }
+
+    @Test
+    public void testCorruptedTailIsDropped() throws Exception {
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(path)) {
+            cache.putSchemaVersionInfo(schemaVersionInfo(3L, "rain", 1));
+            cache.putSchemaVersionInfo(schemaVersionInfo(4L, "rain", 2));
+        }
+        // flip the last byte of the file, so the checksum of the last record does not match
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(path)) {
+            assertEquals(Long.valueOf(3L), cache.getSchemaVersionInfo(new SchemaIdVersion(3L)).getId());
+            assertNull(cache.getSchemaVersionInfo(new SchemaIdVersion(4L)));
+            cache.putSchemaVersionInfo(schemaVersionInfo(5L, "rain", 3));
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(path)) {
+            // records appended after the truncation are readable
+            assertEquals(Long.valueOf(3L), cache.getSchemaVersionInfo(new SchemaIdVersion(3L)).getId());
+            assertEquals(Long.valueOf(5L), cache.getSchemaVersionInfo(new SchemaIdVersion(5L)).getId());
+        }
+    }
+
+    @Test
+    public void testFileIsOwnedByOneInstance() throws Exception {
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(path);
+             PersistentSchemaCache other = new PersistentSchemaCache(path)) {
+            assertTrue(cache.isEnabled());
+            assertFalse(other.isEnabled());
+
+            other.putSchemaVersionInfo(schemaVersionInfo(3L, "rain", 1));
+            assertNull(other.getSchemaVersionInfo(new SchemaIdVersion(3L)));
+        }
+    }
+
+    @Test
+    public void testClientsOfTheSameFileShareTheInstance() throws Exception {
+        PersistentSchemaCache cache = PersistentSchemaCache.acquire(path);
+        PersistentSchemaCache other = PersistentSchemaCache.acquire(new File(new File(dir, "."), "schemas.cache").getPath());
+        assertSame(cache, other);
+        assertTrue(other.isEnabled());
+
+        cache.putSchemaVersionInfo(schemaVersionInfo(3L, "rain", 1));
+        cache.close();
+
+        // the file stays open for the remaining client
+        other.putSchemaVersionInfo(schemaVersionInfo(4L, "rain", 2));
+        assertEquals(Long.valueOf(3L), other.getSchemaVersionInfo(new SchemaIdVersion(3L)).getId());
+        try (PersistentSchemaCache standalone = new PersistentSchemaCache(path)) {
+            assertFalse(standalone.isEnabled());
+        }
+        other.close();
+
+        try (PersistentSchemaCache reopened = PersistentSchemaCache.acquire(path)) {
+            assertTrue(reopened.isEnabled());
+            assertNotSame(cache, reopened);
+            assertEquals(Long.valueOf(4L), reopened.getSchemaVersionInfo(new SchemaVersionKey("rain", 2)).getId());
+        }
+    }
+
+    private SchemaVersionInfo schemaVersionInfo(Long id, String name, int version) {
+        return new SchemaVersionInfo(id, name, version, 1L, "{\"type\":\"string\",\"doc\":\"" + id + "\"}",
+                System.currentTimeMillis(), "description", SchemaVersionLifecycleStates.ENABLED.getId());
+    }
+
+    private SchemaMetadataInfo schemaMetadataInfo(Long id, String name) {
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(name)
+                .type("avro")
+                .schemaGroup("kafka")
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+        return new SchemaMetadataInfo(schemaMetadata, id, System.currentTimeMillis());
+    }
+}
@@ -28,6 +28,7 @@ import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleSta
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -278,6 +279,35 @@ public interface ISchemaRegistryService {
                                      boolean disableCanonicalCheck) 
             throws InvalidSchemaException, IncompatibleSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException;
 
+    /**
+     * Registers versions of several schemas at once. Instead of throwing an exception, the failure of a version is
+     * reported in its result. The default implementation registers the versions one after the other, in
+     * {@link SchemaVersionBatch.TransactionMode#ALL_OR_NOTHING} mode it stops at the first failure and aborts the rest
+     * of the batch, but it can't roll back the versions registered before the failure.
+     *
+     * @param schemaVersionBatch versions to be registered
+     *
+     * @return results of the versions, in the order of the items of the batch
+     */
+    default SchemaVersionBatchResult addSchemaVersions(SchemaVersionBatch schemaVersionBatch) {
+        List<SchemaVersionBatchResult.ItemResult> results = new ArrayList<>();
+        boolean aborted = false;
+        for (SchemaVersionBatch.Item item : schemaVersionBatch.getItems()) {
+            if (aborted) {
+                results.add(SchemaVersionBatchResult.ItemResult.aborted(item));
+                continue;
+            }
+            try {
+                results.add(SchemaVersionBatchResult.ItemResult.registered(item, addSchemaVersion(item.getSchemaBranchName(),
+                        item.getSchemaName(), item.getSchemaVersion(), schemaVersionBatch.isDisableCanonicalCheck())));
+            } catch (Exception e) {
+                results.add(SchemaVersionBatchResult.ItemResult.failed(item, e.getMessage()));
+                aborted = schemaVersionBatch.getTransactionMode() == SchemaVersionBatch.TransactionMode.ALL_OR_NOTHING;
+            }
+        }
+        return new SchemaVersionBatchResult(results);
+    }
+
     /**
      * Deletes a schema version given {@code schemaVersionKey}, throws an SchemaNotFoundException if the schema version is absent.
      *
@@ -305,6 +335,25 @@ public interface ISchemaRegistryService {
      */
     SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) throws SchemaNotFoundException;
 
+    /**
+     * Looks up several schema versions at once. Versions which do not exist are left out of the result.
+     *
+     * @param schemaIdVersions keys identifying the schema versions
+     *
+     * @return {@link SchemaVersionInfo}s of the existing schema versions
+     */
+    default Collection<SchemaVersionInfo> getSchemaVersionInfos(Collection<SchemaIdVersion> schemaIdVersions) {
+        List<SchemaVersionInfo> result = new ArrayList<>();
+        for (SchemaIdVersion schemaIdVersion : schemaIdVersions) {
+            try {
+                result.add(getSchemaVersionInfo(schemaIdVersion));
+            } catch (SchemaNotFoundException e) {
+                // missing versions are not part of the result
+            }
+        }
+        return result;
+    }
+
     /**
      * @param schemaName name identifying a schema
      *
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+
+/**
+ * A single entry of the change log of the registry. Every change of a schema or of a schema version is recorded
+ * with a monotonically increasing sequence number, so clients can find out which of their cached entries are stale.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class SchemaChange implements Serializable {
+
+    private static final long serialVersionUID = 6113465729013286447L;
+
+    public enum Type {
+        SCHEMA_METADATA_ADDED,
+        SCHEMA_METADATA_UPDATED,
+        SCHEMA_METADATA_DELETED,
+        SCHEMA_VERSION_ADDED,
+        SCHEMA_VERSION_STATE_CHANGED,
+        SCHEMA_VERSION_DELETED;
+
+        public boolean isSchemaVersionChange() {
+            return this == SCHEMA_VERSION_ADDED || this == SCHEMA_VERSION_STATE_CHANGED || this == SCHEMA_VERSION_DELETED;
+        }
+    }
+
+    private Long sequence;
+    private Type type;
+    private String schemaGroup;
+    private String schemaName;
+    private Long schemaMetadataId;
+    private Long schemaVersionId;
+    private Integer version;
+    private Long timestamp;
+
+    /**
+     * Private constructor for Jackson JSON mapping
+     */
+    @SuppressWarnings("unused")
+    private SchemaChange() {
+    }
+
+    /**
+     * @param sequence         sequence number of the change
+     * @param type             type of the change
+     * @param schemaGroup      group of the changed schema
+     * @param schemaName       name of the changed schema
+     * @param schemaMetadataId id of the changed schema
+     * @param schemaVersionId  id of the changed schema version, null if the change is not about a schema version
+     * @param version          version of the changed schema version, null if the change is not about a schema version
+     * @param timestamp        time of the change
+     */
+    public SchemaChange(Long sequence,
+                        Type type,
+                        String schemaGroup,
+                        String schemaName,
+                        Long schemaMetadataId,
+                        Long schemaVersionId,
+                        Integer version,
+                        Long timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.schemaGroup = schemaGroup;
+        this.schemaName = schemaName;
+        this.schemaMetadataId = schemaMetadataId;
+        this.schemaVersionId = schemaVersionId;
+        this.version = version;
+        this.timestamp = timestamp;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getSchemaGroup() {
+        return schemaGroup;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public Long getSchemaMetadataId() {
+        return schemaMetadataId;
+    }
+
+    public Long getSchemaVersionId() {
+        return schemaVersionId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaChange{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", schemaGroup='" + schemaGroup + '\'' +
+                ", schemaName='" + schemaName + '\'' +
+                ", schemaMetadataId=" + schemaMetadataId +
+                ", schemaVersionId=" + schemaVersionId +
+                ", version=" + version +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
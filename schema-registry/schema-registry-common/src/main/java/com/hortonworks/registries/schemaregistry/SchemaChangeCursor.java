@@ -0,0 +1,92 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Position of a reader in the change log of the registry. Besides the sequence number of the last change read, it
+ * keeps the sequence numbers the registry skipped over as rolled back, so they are asked for again in case their
+ * transaction commits late. A skipped sequence number is given up after {@link #DEFAULT_SKIPPED_RETRY_MS}.
+ */
+public final class SchemaChangeCursor {
+
+    public static final long DEFAULT_SKIPPED_RETRY_MS = 10 * 60 * 1000L;
+
+    private final long skippedRetryMs;
+    private Long sequence;
+    /** Skipped sequence numbers with the time they were first skipped. */
+    private final Map<Long, Long> skippedSequences = new LinkedHashMap<>();
+
+    public SchemaChangeCursor() {
+        this(DEFAULT_SKIPPED_RETRY_MS);
+    }
+
+    public SchemaChangeCursor(long skippedRetryMs) {
+        this.skippedRetryMs = skippedRetryMs;
+    }
+
+    /**
+     * @return sequence number of the last change read, null before the first read
+     */
+    public synchronized Long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return skipped sequence numbers to ask for again with the next read
+     */
+    public synchronized List<Long> getSkippedSequences() {
+        long now = System.currentTimeMillis();
+        skippedSequences.values().removeIf(skippedAt -> now - skippedAt > skippedRetryMs);
+        return new ArrayList<>(skippedSequences.keySet());
+    }
+
+    /**
+     * Moves the cursor past the given page of the change log.
+     */
+    public synchronized void advance(SchemaChanges schemaChanges) {
+        sequence = schemaChanges.getSequence();
+        // the sequence numbers which are not returned as skipped any more were read with the page
+        Set<Long> stillSkipped = new HashSet<>(schemaChanges.getSkippedSequences());
+        skippedSequences.keySet().retainAll(stillSkipped);
+        long now = System.currentTimeMillis();
+        for (Long skippedSequence : schemaChanges.getSkippedSequences()) {
+            skippedSequences.putIfAbsent(skippedSequence, now);
+        }
+    }
+
+    /**
+     * Moves the cursor to the given sequence number, forgetting the skipped sequence numbers.
+     */
+    public synchronized void reset(Long sequence) {
+        this.sequence = sequence;
+        skippedSequences.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SchemaChangeCursor{" +
+                "sequence=" + sequence +
+                ", skippedSequences=" + skippedSequences.keySet() +
+                '}';
+    }
+}
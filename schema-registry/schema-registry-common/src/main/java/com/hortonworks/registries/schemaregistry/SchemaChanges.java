@@ -0,0 +1,98 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A page of the change log of the registry. {@link #getSequence()} is the sequence number the next page should be
+ * asked from, it can be greater than the sequence of the last change when some of the changes were filtered out.
+ * {@link #getSkippedSequences()} are the sequence numbers below it which had no change yet, they are asked for
+ * again with the next page in case their transaction commits late.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class SchemaChanges implements Serializable {
+
+    private static final long serialVersionUID = -6632713846093574115L;
+
+    private List<SchemaChange> changes = new ArrayList<>();
+    private Long sequence;
+    private List<Long> skippedSequences = new ArrayList<>();
+
+    /**
+     * Private constructor for Jackson JSON mapping
+     */
+    @SuppressWarnings("unused")
+    private SchemaChanges() {
+    }
+
+    /**
+     * @param changes  changes in the order of their sequence number
+     * @param sequence sequence number of the last change which was read
+     */
+    public SchemaChanges(Collection<SchemaChange> changes, Long sequence) {
+        this(changes, sequence, null);
+    }
+
+    /**
+     * @param changes          changes in the order of their sequence number
+     * @param sequence         sequence number of the last change which was read
+     * @param skippedSequences sequence numbers below {@code sequence} which had no change when they were read
+     */
+    public SchemaChanges(Collection<SchemaChange> changes, Long sequence, Collection<Long> skippedSequences) {
+        if (changes != null) {
+            this.changes.addAll(changes);
+        }
+        this.sequence = sequence;
+        if (skippedSequences != null) {
+            this.skippedSequences.addAll(skippedSequences);
+        }
+    }
+
+    /**
+     * @return changes in the order of their sequence number
+     */
+    public List<SchemaChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return sequence number of the last change which was read
+     */
+    public Long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return sequence numbers below {@link #getSequence()} which had no change when they were read
+     */
+    public List<Long> getSkippedSequences() {
+        return skippedSequences;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaChanges{" +
+                "changes=" + changes +
+                ", sequence=" + sequence +
+                ", skippedSequences=" + skippedSequences +
+                '}';
+    }
+}
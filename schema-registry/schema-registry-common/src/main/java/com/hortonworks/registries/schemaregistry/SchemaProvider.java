@@ -17,6 +17,7 @@ package com.hortonworks.registries.schemaregistry;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -107,4 +108,25 @@ public interface SchemaProvider {
      * @throws SchemaNotFoundException when any of the dependent includedSchemas does not exist
      */
     String getResultantSchema(String schemaText) throws InvalidSchemaException, SchemaNotFoundException;
+
+    /**
+     * Returns the schemas which are included by the given {@code schemaText}, their version is
+     * {@link SchemaVersionKey#LATEST_VERSION} when the include does not pin it.
+     *
+     * @param schemaText schema text
+     *
+     * @throws InvalidSchemaException when the given schemaText does not represent a valid schema
+     */
+    default List<SchemaVersionKey> getIncludedSchemaVersions(String schemaText) throws InvalidSchemaException {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Invoked when the schema with the given name got a new version, resultant schemas including the latest version
+     * of that schema, which are kept by this provider, are not valid anymore.
+     *
+     * @param schemaName name of the changed schema
+     */
+    default void invalidateDependents(String schemaName) {
+    }
 }
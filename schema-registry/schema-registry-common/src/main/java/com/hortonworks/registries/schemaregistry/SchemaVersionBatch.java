@@ -0,0 +1,167 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Versions of several schemas which are registered with a single request.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class SchemaVersionBatch implements Serializable {
+
+    private static final long serialVersionUID = 4851392736102650183L;
+
+    /**
+     * Defines what happens with the other versions of the batch when one of them can't be registered.
+     */
+    public enum TransactionMode {
+        /** Either all the versions are registered or none of them. */
+        ALL_OR_NOTHING,
+        /** Every version is registered on its own, a failure does not affect the others. */
+        PER_ITEM
+    }
+
+    private List<Item> items = new ArrayList<>();
+    private TransactionMode transactionMode = TransactionMode.PER_ITEM;
+    private boolean disableCanonicalCheck;
+
+    /**
+     * Private constructor for Jackson JSON mapping
+     */
+    @SuppressWarnings("unused")
+    private SchemaVersionBatch() {
+    }
+
+    /**
+     * @param items                 versions to be registered
+     * @param transactionMode       whether a failure affects the other versions of the batch
+     * @param disableCanonicalCheck true if the versions should be added despite being canonically similar to an
+     *                              existing schema version, else false
+     */
+    public SchemaVersionBatch(Collection<Item> items, TransactionMode transactionMode, boolean disableCanonicalCheck) {
+        if (items != null) {
+            this.items.addAll(items);
+        }
+        if (transactionMode != null) {
+            this.transactionMode = transactionMode;
+        }
+        this.disableCanonicalCheck = disableCanonicalCheck;
+    }
+
+    /**
+     * @return versions to be registered, in the order they are registered for the same schema
+     */
+    public List<Item> getItems() {
+        return items;
+    }
+
+    /**
+     * @return whether a failure affects the other versions of the batch
+     */
+    public TransactionMode getTransactionMode() {
+        return transactionMode;
+    }
+
+    /**
+     * @return true if the versions should be added despite being canonically similar to an existing schema version
+     */
+    public boolean isDisableCanonicalCheck() {
+        return disableCanonicalCheck;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaVersionBatch{" +
+                "items=" + items +
+                ", transactionMode=" + transactionMode +
+                ", disableCanonicalCheck=" + disableCanonicalCheck +
+                '}';
+    }
+
+    /**
+     * A version to be registered to a branch of a schema.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class Item implements Serializable {
+
+        private static final long serialVersionUID = -6920417533187224950L;
+
+        private String schemaName;
+        private String schemaBranchName = SchemaBranch.MASTER_BRANCH;
+        private SchemaVersion schemaVersion;
+
+        /**
+         * Private constructor for Jackson JSON mapping
+         */
+        @SuppressWarnings("unused")
+        private Item() {
+        }
+
+        /**
+         * @param schemaName    name of the schema
+         * @param schemaVersion version to be registered to the master branch
+         */
+        public Item(String schemaName, SchemaVersion schemaVersion) {
+            this(SchemaBranch.MASTER_BRANCH, schemaName, schemaVersion);
+        }
+
+        /**
+         * @param schemaBranchName name of the schema branch
+         * @param schemaName       name of the schema
+         * @param schemaVersion    version to be registered
+         */
+        public Item(String schemaBranchName, String schemaName, SchemaVersion schemaVersion) {
+            this.schemaBranchName = schemaBranchName;
+            this.schemaName = schemaName;
+            this.schemaVersion = schemaVersion;
+        }
+
+        /**
+         * @return name of the schema
+         */
+        public String getSchemaName() {
+            return schemaName;
+        }
+
+        /**
+         * @return name of the schema branch
+         */
+        public String getSchemaBranchName() {
+            return schemaBranchName;
+        }
+
+        /**
+         * @return version to be registered
+         */
+        public SchemaVersion getSchemaVersion() {
+            return schemaVersion;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{" +
+                    "schemaName='" + schemaName + '\'' +
+                    ", schemaBranchName='" + schemaBranchName + '\'' +
+                    ", schemaVersion=" + schemaVersion +
+                    '}';
+        }
+    }
+}
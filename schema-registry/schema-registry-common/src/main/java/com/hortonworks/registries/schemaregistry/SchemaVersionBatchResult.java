@@ -0,0 +1,167 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Outcome of registering a {@link SchemaVersionBatch}, with one result for every item of the batch in the same order.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class SchemaVersionBatchResult implements Serializable {
+
+    private static final long serialVersionUID = -1208396127430955864L;
+
+    /**
+     * Outcome of a single item of the batch.
+     */
+    public enum Status {
+        /** A new version was registered. */
+        REGISTERED,
+        /** The schema text was already registered as a version of the branch, the existing version is returned. */
+        EXISTING,
+        /** The version could not be registered. */
+        FAILED,
+        /** The version was not registered, or it was rolled back, because another item of the batch failed. */
+        ABORTED
+    }
+
+    private List<ItemResult> results = new ArrayList<>();
+
+    /**
+     * Private constructor for Jackson JSON mapping
+     */
+    @SuppressWarnings("unused")
+    private SchemaVersionBatchResult() {
+    }
+
+    /**
+     * @param results results of the items, in the order of the items of the batch
+     */
+    public SchemaVersionBatchResult(Collection<ItemResult> results) {
+        this.results.addAll(results);
+    }
+
+    /**
+     * @return results of the items, in the order of the items of the batch
+     */
+    public List<ItemResult> getResults() {
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaVersionBatchResult{" +
+                "results=" + results +
+                '}';
+    }
+
+    /**
+     * Outcome of registering a single item of the batch.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class ItemResult implements Serializable {
+
+        private static final long serialVersionUID = 3306758120475932711L;
+
+        private String schemaName;
+        private String schemaBranchName;
+        private Status status;
+        private SchemaIdVersion schemaIdVersion;
+        private String errorMessage;
+
+        /**
+         * Private constructor for Jackson JSON mapping
+         */
+        @SuppressWarnings("unused")
+        private ItemResult() {
+        }
+
+        private ItemResult(SchemaVersionBatch.Item item, Status status, SchemaIdVersion schemaIdVersion, String errorMessage) {
+            this.schemaName = item.getSchemaName();
+            this.schemaBranchName = item.getSchemaBranchName();
+            this.status = status;
+            this.schemaIdVersion = schemaIdVersion;
+            this.errorMessage = errorMessage;
+        }
+
+        public static ItemResult registered(SchemaVersionBatch.Item item, SchemaIdVersion schemaIdVersion) {
+            return new ItemResult(item, Status.REGISTERED, schemaIdVersion, null);
+        }
+
+        public static ItemResult existing(SchemaVersionBatch.Item item, SchemaIdVersion schemaIdVersion) {
+            return new ItemResult(item, Status.EXISTING, schemaIdVersion, null);
+        }
+
+        public static ItemResult failed(SchemaVersionBatch.Item item, String errorMessage) {
+            return new ItemResult(item, Status.FAILED, null, errorMessage);
+        }
+
+        public static ItemResult aborted(SchemaVersionBatch.Item item) {
+            return new ItemResult(item, Status.ABORTED, null, null);
+        }
+
+        /**
+         * @return name of the schema
+         */
+        public String getSchemaName() {
+            return schemaName;
+        }
+
+        /**
+         * @return name of the schema branch
+         */
+        public String getSchemaBranchName() {
+            return schemaBranchName;
+        }
+
+        /**
+         * @return outcome of the item
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the registered or already existing version, null if the item failed or was aborted
+         */
+        public SchemaIdVersion getSchemaIdVersion() {
+            return schemaIdVersion;
+        }
+
+        /**
+         * @return reason of the failure, null unless the item failed
+         */
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        @Override
+        public String toString() {
+            return "ItemResult{" +
+                    "schemaName='" + schemaName + '\'' +
+                    ", schemaBranchName='" + schemaBranchName + '\'' +
+                    ", status=" + status +
+                    ", schemaIdVersion=" + schemaIdVersion +
+                    ", errorMessage='" + errorMessage + '\'' +
+                    '}';
+        }
+    }
+}
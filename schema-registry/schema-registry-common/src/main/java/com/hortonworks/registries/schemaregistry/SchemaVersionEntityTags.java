@@ -0,0 +1,40 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+/**
+ * Values of the entity tags of the schema version representations served by the registry. The registry and its
+ * clients derive them the same way, so a client can revalidate its cached schema versions without keeping the tags.
+ */
+public final class SchemaVersionEntityTags {
+
+    private SchemaVersionEntityTags() {
+    }
+
+    /**
+     * @return tag of the representations of the whole schema version, only its state can change after it was created.
+     * The state sequence grows with every state change, so the tag changes even if the version returns to an earlier state.
+     */
+    public static String of(SchemaVersionInfo schemaVersionInfo) {
+        return schemaVersionInfo.getId() + "-" + schemaVersionInfo.getStateId() + "-" + schemaVersionInfo.getStateSequence();
+    }
+
+    /**
+     * @return tag of the representations of the schema text of a schema version, it never changes
+     */
+    public static String ofSchemaText(Long schemaVersionId) {
+        return String.valueOf(schemaVersionId);
+    }
+}
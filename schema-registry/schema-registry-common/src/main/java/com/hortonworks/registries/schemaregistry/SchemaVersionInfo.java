@@ -69,6 +69,10 @@ public final class SchemaVersionInfo implements Serializable {
      */
     private Byte stateId;
 
+    /**
+     * sequence of the current state of this version, it grows with every state change.
+     */
+    private Integer stateSequence;
 
     /**
      *   If schema version was merged from another branch, then this will variable will have branch name
@@ -138,6 +142,14 @@ public final class SchemaVersionInfo implements Serializable {
         return schemaMetadataId;
     }
 
+    public Integer getStateSequence() {
+        return stateSequence;
+    }
+
+    public void setStateSequence(Integer stateSequence) {
+        this.stateSequence = stateSequence;
+    }
+
     public MergeInfo getMergeInfo() { 
         return this.mergeInfo; 
     }
@@ -209,6 +221,7 @@ public final class SchemaVersionInfo implements Serializable {
                 ", schemaText='" + schemaText + '\'' +
                 ", timestamp=" + timestamp +
                 ", stateId=" + stateId +
+                ", stateSequence=" + stateSequence +
                 ", details='" + mergeInfo + '\'' +
                 '}';
     }
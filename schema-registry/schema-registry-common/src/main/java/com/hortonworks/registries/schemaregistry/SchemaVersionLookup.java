@@ -0,0 +1,77 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Identifies a set of schema versions which are looked up with a single request, either by their version ids
+ * or by schema name and version.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class SchemaVersionLookup implements Serializable {
+
+    private static final long serialVersionUID = -2304771358806618052L;
+
+    private List<Long> schemaVersionIds = new ArrayList<>();
+    private List<SchemaVersionKey> schemaVersionKeys = new ArrayList<>();
+
+    /**
+     * Private constructor for Jackson JSON mapping
+     */
+    @SuppressWarnings("unused")
+    private SchemaVersionLookup() {
+    }
+
+    /**
+     * @param schemaVersionIds  ids of the schema versions
+     * @param schemaVersionKeys schema name and version pairs
+     */
+    public SchemaVersionLookup(Collection<Long> schemaVersionIds, Collection<SchemaVersionKey> schemaVersionKeys) {
+        if (schemaVersionIds != null) {
+            this.schemaVersionIds.addAll(schemaVersionIds);
+        }
+        if (schemaVersionKeys != null) {
+            this.schemaVersionKeys.addAll(schemaVersionKeys);
+        }
+    }
+
+    /**
+     * @return ids of the schema versions
+     */
+    public List<Long> getSchemaVersionIds() {
+        return schemaVersionIds;
+    }
+
+    /**
+     * @return schema name and version pairs
+     */
+    public List<SchemaVersionKey> getSchemaVersionKeys() {
+        return schemaVersionKeys;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaVersionLookup{" +
+                "schemaVersionIds=" + schemaVersionIds +
+                ", schemaVersionKeys=" + schemaVersionKeys +
+                '}';
+    }
+}
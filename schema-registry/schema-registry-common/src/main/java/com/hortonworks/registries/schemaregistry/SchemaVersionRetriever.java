@@ -25,4 +25,20 @@ public interface SchemaVersionRetriever {
     SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException;
 
     SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException;
+
+    /**
+     * Retrieves the schema version again to refresh the given, earlier retrieved copy of it. Implementations may
+     * return the given copy when the schema version did not change.
+     */
+    default SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key, SchemaVersionInfo cached) throws SchemaNotFoundException {
+        return retrieveSchemaVersion(key);
+    }
+
+    /**
+     * Retrieves the schema version again to refresh the given, earlier retrieved copy of it. Implementations may
+     * return the given copy when the schema version did not change.
+     */
+    default SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key, SchemaVersionInfo cached) throws SchemaNotFoundException {
+        return retrieveSchemaVersion(key);
+    }
 }
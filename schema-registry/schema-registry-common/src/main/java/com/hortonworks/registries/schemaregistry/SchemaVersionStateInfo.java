@@ -0,0 +1,127 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A state a schema version has been in, the states of a version ordered by sequence make up its history.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class SchemaVersionStateInfo implements Serializable {
+
+    private static final long serialVersionUID = -4410457823513640218L;
+
+    private Long schemaVersionId;
+    private Byte stateId;
+    private Integer sequence;
+    private Long timestamp;
+    private byte[] details;
+
+    /**
+     * Private constructor for Jackson JSON mapping
+     */
+    @SuppressWarnings("unused")
+    private SchemaVersionStateInfo() {
+    }
+
+    /**
+     * @param schemaVersionId id of the schema version
+     * @param stateId         id of the state
+     * @param sequence        position of the state in the history of the version
+     * @param timestamp       time the version moved into the state
+     * @param details         details given with the transition into the state, can be null
+     */
+    public SchemaVersionStateInfo(Long schemaVersionId, Byte stateId, Integer sequence, Long timestamp, byte[] details) {
+        this.schemaVersionId = schemaVersionId;
+        this.stateId = stateId;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.details = details;
+    }
+
+    /**
+     * @return id of the schema version
+     */
+    public Long getSchemaVersionId() {
+        return schemaVersionId;
+    }
+
+    /**
+     * @return id of the state
+     */
+    public Byte getStateId() {
+        return stateId;
+    }
+
+    /**
+     * @return position of the state in the history of the version
+     */
+    public Integer getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return time the version moved into the state
+     */
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return details given with the transition into the state, can be null
+     */
+    public byte[] getDetails() {
+        return details;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SchemaVersionStateInfo that = (SchemaVersionStateInfo) o;
+        return Objects.equals(schemaVersionId, that.schemaVersionId) &&
+                Objects.equals(stateId, that.stateId) &&
+                Objects.equals(sequence, that.sequence) &&
+                Objects.equals(timestamp, that.timestamp) &&
+                Arrays.equals(details, that.details);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(schemaVersionId, stateId, sequence, timestamp);
+        result = 31 * result + Arrays.hashCode(details);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaVersionStateInfo{" +
+                "schemaVersionId=" + schemaVersionId +
+                ", stateId=" + stateId +
+                ", sequence=" + sequence +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -20,6 +20,7 @@ import com.hortonworks.registries.schemaregistry.AbstractSchemaProvider;
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
 import com.hortonworks.registries.schemaregistry.SchemaFieldInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import org.apache.avro.JsonProperties;
@@ -41,6 +42,15 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
 
     public static final String TYPE = "avro";
 
+    private volatile AvroSchemaResolver avroSchemaResolver = new AvroSchemaResolver(null);
+
+    @Override
+    public void init(Map<String, Object> config) {
+        super.init(config);
+        // resolutions of the earlier retriever are not kept
+        avroSchemaResolver = new AvroSchemaResolver(getSchemaVersionRetriever());
+    }
+
     @Override
     public String getName() {
         return "Avro schema provider";
@@ -81,10 +91,19 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
 
     @Override
     public String getResultantSchema(String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
-        AvroSchemaResolver avroSchemaResolver = new AvroSchemaResolver(getSchemaVersionRetriever());
         return avroSchemaResolver.resolveSchema(schemaText);
     }
 
+    @Override
+    public List<SchemaVersionKey> getIncludedSchemaVersions(String schemaText) throws InvalidSchemaException {
+        return avroSchemaResolver.getIncludedSchemaVersions(schemaText);
+    }
+
+    @Override
+    public void invalidateDependents(String schemaName) {
+        avroSchemaResolver.invalidateDependents(schemaName);
+    }
+
     @Override
     public List<SchemaFieldInfo> generateFields(String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
         AvroFieldsGenerator avroFieldsGenerator = new AvroFieldsGenerator();
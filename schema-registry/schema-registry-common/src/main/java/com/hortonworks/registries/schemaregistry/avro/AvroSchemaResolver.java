@@ -17,7 +17,13 @@ package com.hortonworks.registries.schemaregistry.avro;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.schemaregistry.SchemaResolver;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
 import com.hortonworks.registries.schemaregistry.SchemaVersionRetriever;
 import com.hortonworks.registries.schemaregistry.errors.CyclicSchemaDependencyException;
@@ -31,9 +37,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.apache.avro.Schema.Type.RECORD;
 
@@ -94,8 +104,21 @@ import static org.apache.avro.Schema.Type.RECORD;
  *
  * }</pre>
  *
+ * <p>
+ * Resolutions are memoized. An include without a version is pinned to the version which is the latest one at the
+ * time of the resolution, and a resolution is cached with the schema text and the version ids its includes were
+ * pinned to. A new latest version of an included schema therefore changes the key, and a stale resolution is never
+ * returned. The resolutions depending on a schema can also be dropped right away with {@link #invalidateDependents(String)}.
+ *
  */
 public class AvroSchemaResolver implements SchemaResolver {
+    private static final String LOOKUPS_METRIC = RegistryMetrics.name(AvroSchemaResolver.class, "lookups");
+    private static final String MISSES_METRIC = RegistryMetrics.name(AvroSchemaResolver.class, "misses");
+
+    /** Maximum number of memoized resolutions, and of schema texts with their parsed includes. */
+    static final int MAX_CACHED_RESOLUTIONS = 1000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     private enum SchemaParsingState {
         PARSING, PARSED
@@ -103,32 +126,118 @@ public class AvroSchemaResolver implements SchemaResolver {
 
     private final SchemaVersionRetriever schemaVersionRetriever;
 
+    // a schema text always has the same includes, they are parsed only once
+    private final Cache<String, List<SchemaVersionKey>> includesCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_RESOLUTIONS)
+            .build();
+    private final Cache<Resolution, String> resolutionCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_RESOLUTIONS)
+            .removalListener((RemovalListener<Resolution, String>) notification -> unregister(notification.getKey()))
+            .build();
+    // names of the included schemas to the resolutions which depend on them
+    private final ConcurrentMap<String, Set<Resolution>> dependentResolutions = new ConcurrentHashMap<>();
+
     public AvroSchemaResolver(SchemaVersionRetriever schemaVersionRetriever) {
         this.schemaVersionRetriever = schemaVersionRetriever;
     }
 
     @Override
     public String resolveSchema(SchemaVersionKey schemaVersionKey) throws InvalidSchemaException, SchemaNotFoundException {
-        Map<String, SchemaParsingState> schemaParsingStates = new HashMap<>();
-        schemaParsingStates.put(schemaVersionKey.getSchemaName(), SchemaParsingState.PARSING);
-        return getResultantSchema(schemaVersionKey, schemaParsingStates);
+        String schemaText = schemaVersionRetriever.retrieveSchemaVersion(schemaVersionKey).getSchemaText();
+        return resolveSchema(schemaText, schemaVersionKey.getSchemaName());
     }
 
     public String resolveSchema(String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
+        return resolveSchema(schemaText, null);
+    }
+
+    /**
+     * Drops the memoized resolutions which include the given schema, directly or through other included schemas.
+     * It is called when the schema gets a new version, the resolutions pinned to its earlier latest version are not
+     * used anymore.
+     */
+    public void invalidateDependents(String schemaName) {
+        Set<Resolution> resolutions = dependentResolutions.remove(schemaName);
+        if (resolutions != null) {
+            resolutionCache.invalidateAll(resolutions);
+        }
+    }
+
+    /**
+     * @return the schemas included by the given schema text with {@code includeSchemas}, the version is
+     * {@link SchemaVersionKey#LATEST_VERSION} when it is not given
+     */
+    public List<SchemaVersionKey> getIncludedSchemaVersions(String schemaText) throws InvalidSchemaException {
+        List<SchemaVersionKey> includedSchemaVersions = includesCache.getIfPresent(schemaText);
+        if (includedSchemaVersions == null) {
+            includedSchemaVersions = Collections.unmodifiableList(parseIncludedSchemaVersions(schemaText));
+            includesCache.put(schemaText, includedSchemaVersions);
+        }
+        return includedSchemaVersions;
+    }
+
+    private String resolveSchema(String schemaText, String schemaName) throws InvalidSchemaException, SchemaNotFoundException {
+        Metrics.get().mark(LOOKUPS_METRIC);
         Map<String, SchemaParsingState> schemaParsingStates = new HashMap<>();
-        return getResultantSchema(schemaText, schemaParsingStates);
+        if (schemaName != null) {
+            schemaParsingStates.put(schemaName, SchemaParsingState.PARSING);
+        }
+        Map<String, SchemaVersionInfo> pinnedVersions = new LinkedHashMap<>();
+        pinIncludedSchemaVersions(getIncludedSchemaVersions(schemaText), schemaParsingStates, pinnedVersions);
+
+        Resolution resolution = new Resolution(schemaText, pinnedVersions);
+        String resultantSchema = resolutionCache.getIfPresent(resolution);
+        if (resultantSchema == null) {
+            Metrics.get().mark(MISSES_METRIC);
+            resultantSchema = getResultantSchema(schemaText, pinnedVersions, new HashSet<>());
+            // registered first, so an eviction right after the put finds the resolution to unregister
+            register(resolution);
+            resolutionCache.put(resolution, resultantSchema);
+        }
+        return resultantSchema;
     }
 
-    private String getResultantSchema(SchemaVersionKey schemaVersionKey,
-                                      Map<String, SchemaParsingState> schemaParsingStates)
+    /**
+     * Walks the includes, and pins each included schema to the version it resolves to now. Cyclic includes are
+     * found here, before anything is parsed.
+     */
+    private void pinIncludedSchemaVersions(List<SchemaVersionKey> includedSchemaVersions,
+                                           Map<String, SchemaParsingState> schemaParsingStates,
+                                           Map<String, SchemaVersionInfo> pinnedVersions)
             throws InvalidSchemaException, SchemaNotFoundException {
-        String schemaText = schemaVersionRetriever.retrieveSchemaVersion(schemaVersionKey).getSchemaText();
-        return getResultantSchema(schemaText, schemaParsingStates);
+        for (SchemaVersionKey schemaVersionKey : includedSchemaVersions) {
+            String schemaName = schemaVersionKey.getSchemaName();
+            SchemaParsingState schemaParsingState = schemaParsingStates.putIfAbsent(schemaName, SchemaParsingState.PARSING);
+
+            // if it is already pinned then its includes are already pinned too.
+            if (SchemaParsingState.PARSED == schemaParsingState) {
+                continue;
+            }
+
+            // if it is in parsing state earlier and it is visted again then ther eis circular dependency!!
+            if (SchemaParsingState.PARSING == schemaParsingState) {
+                throw new CyclicSchemaDependencyException("Cyclic dependency of schema imports with schema [" + schemaName + "]");
+            }
+
+            SchemaVersionInfo schemaVersionInfo = schemaVersionRetriever.retrieveSchemaVersion(schemaVersionKey);
+            pinIncludedSchemaVersions(getIncludedSchemaVersions(schemaVersionInfo.getSchemaText()), schemaParsingStates, pinnedVersions);
+            pinnedVersions.put(schemaName, schemaVersionInfo);
+            schemaParsingStates.put(schemaName, SchemaParsingState.PARSED);
+        }
     }
 
-    private String getResultantSchema(String schemaText, Map<String, SchemaParsingState> schemaParsingStates)
-            throws InvalidSchemaException, SchemaNotFoundException {
-        Map<String, Schema> complexTypes = traverseIncludedSchemaTypes(schemaText, schemaParsingStates);
+    private String getResultantSchema(String schemaText,
+                                      Map<String, SchemaVersionInfo> pinnedVersions,
+                                      Set<String> collectedSchemas) throws InvalidSchemaException {
+        // the types of an included schema are collected only at its first include, as they were before pinning
+        Map<String, Schema> complexTypes = new HashMap<>();
+        for (SchemaVersionKey schemaVersionKey : getIncludedSchemaVersions(schemaText)) {
+            if (collectedSchemas.add(schemaVersionKey.getSchemaName())) {
+                String includedSchemaText = pinnedVersions.get(schemaVersionKey.getSchemaName()).getSchemaText();
+                Schema schema = new Schema.Parser().parse(getResultantSchema(includedSchemaText, pinnedVersions, collectedSchemas));
+                collectComplexTypes(schema, complexTypes);
+            }
+        }
 
         Schema.Parser parser = new Schema.Parser();
         parser.addTypes(complexTypes);
@@ -139,6 +248,21 @@ public class AvroSchemaResolver implements SchemaResolver {
         return (schema == updatedSchema && complexTypes.isEmpty()) ? schemaText : updatedSchema.toString();
     }
 
+    private void register(Resolution resolution) {
+        for (String schemaName : resolution.pinnedVersionIds.keySet()) {
+            dependentResolutions.computeIfAbsent(schemaName, name -> ConcurrentHashMap.newKeySet()).add(resolution);
+        }
+    }
+
+    private void unregister(Resolution resolution) {
+        for (String schemaName : resolution.pinnedVersionIds.keySet()) {
+            dependentResolutions.computeIfPresent(schemaName, (name, resolutions) -> {
+                resolutions.remove(resolution);
+                return resolutions.isEmpty() ? null : resolutions;
+            });
+        }
+    }
+
     public Schema handleUnionFieldsWithNull(Schema schema, Set<String> visitingTypes) {
         if (visitingTypes.contains(schema.getFullName())) {
             return schema;
@@ -197,55 +321,6 @@ public class AvroSchemaResolver implements SchemaResolver {
         return updatedRootSchema;
     }
 
-    private Map<String, Schema> traverseIncludedSchemaTypes(String schemaText,
-                                                            Map<String, SchemaParsingState> schemaParsingStates)
-            throws InvalidSchemaException, SchemaNotFoundException {
-        List<SchemaVersionKey> includedSchemaVersions = getIncludedSchemaVersions(schemaText);
-
-        if (includedSchemaVersions == null || includedSchemaVersions.isEmpty()) {
-            return Collections.emptyMap();
-        }
-        Map<String, Schema> schemaTypes = new HashMap<>();
-        for (SchemaVersionKey schemaVersionKey : includedSchemaVersions) {
-            Map<String, Schema> collectedSchemas = collectSchemaTypes(schemaVersionKey, schemaParsingStates);
-            if (collectedSchemas != null) {
-                schemaTypes.putAll(collectedSchemas);
-            }
-        }
-
-        return schemaTypes;
-    }
-
-    private Map<String, Schema> collectSchemaTypes(SchemaVersionKey schemaVersionKey,
-                                                   Map<String, SchemaParsingState> schemaParsingStates)
-            throws SchemaNotFoundException, InvalidSchemaException {
-
-        String schemaName = schemaVersionKey.getSchemaName();
-        SchemaParsingState schemaParsingState = schemaParsingStates.putIfAbsent(schemaName, SchemaParsingState.PARSING);
-
-        // if it is already parsed then the respective schema types would have been already collected.
-        if (SchemaParsingState.PARSED == schemaParsingState) {
-            return null;
-        }
-
-        // if it is in parsing state earlier and it is visted again then ther eis circular dependency!!
-        if (SchemaParsingState.PARSING == schemaParsingState) {
-            throw new CyclicSchemaDependencyException("Cyclic dependency of schema imports with schema [" + schemaName + "]");
-        }
-
-        // this schema is not yet parsed till now
-        if (schemaParsingState == null) {
-            Schema.Parser parser = new Schema.Parser();
-            Schema schema = parser.parse(getResultantSchema(schemaVersionKey, schemaParsingStates));
-            Map<String, Schema> complexTypes = new HashMap<>();
-            collectComplexTypes(schema, complexTypes);
-            schemaParsingStates.put(schemaName, SchemaParsingState.PARSED);
-            return complexTypes;
-        }
-
-        throw new IllegalStateException("Schema parsing with schema version " + schemaVersionKey + " is in invalid state!!");
-    }
-
     private void collectComplexTypes(Schema schema, Map<String, Schema> complexTypes) {
         switch (schema.getType()) {
             case RECORD:
@@ -275,10 +350,10 @@ public class AvroSchemaResolver implements SchemaResolver {
         }
     }
 
-    private List<SchemaVersionKey> getIncludedSchemaVersions(String schemaText) throws InvalidSchemaException {
+    private List<SchemaVersionKey> parseIncludedSchemaVersions(String schemaText) throws InvalidSchemaException {
         JsonNode jsonNode = null;
         try {
-            jsonNode = new ObjectMapper().readTree(schemaText);
+            jsonNode = OBJECT_MAPPER.readTree(schemaText);
         } catch (IOException e) {
             throw new InvalidSchemaException(e);
         }
@@ -298,4 +373,36 @@ public class AvroSchemaResolver implements SchemaResolver {
         }
         return includedSchemaVersions;
     }
+
+    /** Key of a memoized resolution: the schema text, and the version ids of its includes. */
+    private static final class Resolution {
+        private final String schemaText;
+        private final Map<String, Long> pinnedVersionIds;
+
+        private Resolution(String schemaText, Map<String, SchemaVersionInfo> pinnedVersions) {
+            this.schemaText = schemaText;
+            Map<String, Long> versionIds = new HashMap<>();
+            for (Map.Entry<String, SchemaVersionInfo> entry : pinnedVersions.entrySet()) {
+                versionIds.put(entry.getKey(), entry.getValue().getId());
+            }
+            this.pinnedVersionIds = versionIds;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Resolution that = (Resolution) o;
+            return schemaText.equals(that.schemaText) && pinnedVersionIds.equals(that.pinnedVersionIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schemaText, pinnedVersionIds);
+        }
+    }
 }
@@ -20,6 +20,10 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
@@ -40,6 +44,9 @@ import java.util.concurrent.TimeUnit;
  */
 public class SchemaVersionInfoCache implements AbstractCache {
     private static final Logger LOG = LoggerFactory.getLogger(SchemaVersionInfoCache.class);
+    // the hit ratio of the cache is 1 - misses / lookups
+    private static final String LOOKUPS_METRIC = RegistryMetrics.name(SchemaVersionInfoCache.class, "lookups");
+    private static final String MISSES_METRIC = RegistryMetrics.name(SchemaVersionInfoCache.class, "misses");
 
     private final LoadingCache<Key, SchemaVersionInfo> loadingCache;
     private final ConcurrentMap<SchemaIdVersion, SchemaVersionKey> idWithNameVersion;
@@ -48,21 +55,38 @@ public class SchemaVersionInfoCache implements AbstractCache {
     public SchemaVersionInfoCache(final SchemaVersionRetriever schemaRetriever,
                                   final int schemaCacheSize,
                                   final long schemaCacheExpiryInMilliSecs) {
+        this(schemaRetriever, schemaCacheSize, schemaCacheExpiryInMilliSecs, 0L);
+    }
+
+    /**
+     * @param schemaCacheRefreshInMilliSecs the entries which are still used are retrieved again this long after they
+     *                                      were retrieved, with the earlier retrieved schema version given to the
+     *                                      retriever, they are never refreshed when it is not positive
+     */
+    public SchemaVersionInfoCache(final SchemaVersionRetriever schemaRetriever,
+                                  final int schemaCacheSize,
+                                  final long schemaCacheExpiryInMilliSecs,
+                                  final long schemaCacheRefreshInMilliSecs) {
         idWithNameVersion = new ConcurrentHashMap<>(schemaCacheSize);
         nameVersionWithIds = new ConcurrentHashMap<>(schemaCacheSize);
-        loadingCache = createLoadingCache(schemaRetriever, schemaCacheSize, schemaCacheExpiryInMilliSecs);
+        loadingCache = createLoadingCache(schemaRetriever, schemaCacheSize, schemaCacheExpiryInMilliSecs, schemaCacheRefreshInMilliSecs);
     }
 
     private LoadingCache<Key, SchemaVersionInfo> createLoadingCache(SchemaVersionRetriever schemaRetriever,
                                                                     int schemaCacheSize,
-                                                                    long schemaCacheExpiryInMilliSecs) {
-        return CacheBuilder.newBuilder()
+                                                                    long schemaCacheExpiryInMilliSecs,
+                                                                    long schemaCacheRefreshInMilliSecs) {
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
                            .maximumSize(schemaCacheSize)
-                           .expireAfterAccess(schemaCacheExpiryInMilliSecs, TimeUnit.MILLISECONDS)
-                           .build(new CacheLoader<Key, SchemaVersionInfo>() {
+                           .expireAfterAccess(schemaCacheExpiryInMilliSecs, TimeUnit.MILLISECONDS);
+        if (schemaCacheRefreshInMilliSecs > 0) {
+            cacheBuilder.refreshAfterWrite(schemaCacheRefreshInMilliSecs, TimeUnit.MILLISECONDS);
+        }
+        return cacheBuilder.build(new CacheLoader<Key, SchemaVersionInfo>() {
                                        @Override
                                        public SchemaVersionInfo load(Key key) throws Exception {
                                            LOG.debug("Key is not in cache: [{}]. Loading from from target service", key);
+                                           Metrics.get().mark(MISSES_METRIC);
                                            SchemaVersionInfo schemaVersionInfo;
                                            if (key.schemaVersionKey != null) {
                                                schemaVersionInfo = schemaRetriever.retrieveSchemaVersion(key.schemaVersionKey);
@@ -77,6 +101,23 @@ public class SchemaVersionInfoCache implements AbstractCache {
                                            LOG.trace("Return version {}", schemaVersionInfo);
                                            return schemaVersionInfo;
                                        }
+
+                                       @Override
+                                       public ListenableFuture<SchemaVersionInfo> reload(Key key, SchemaVersionInfo oldValue) throws Exception {
+                                           LOG.debug("Refreshing cache entry: [{}]", key);
+                                           SchemaVersionInfo schemaVersionInfo;
+                                           if (key.schemaVersionKey != null) {
+                                               schemaVersionInfo = schemaRetriever.retrieveSchemaVersion(key.schemaVersionKey, oldValue);
+                                           } else if (key.schemaIdVersion != null) {
+                                               schemaVersionInfo = schemaRetriever.retrieveSchemaVersion(key.schemaIdVersion, oldValue);
+                                           } else {
+                                               throw new IllegalArgumentException("Given argument is not valid: " + key);
+                                           }
+                                           if (schemaVersionInfo != oldValue) {
+                                               updateCacheInvalidationEntries(schemaVersionInfo);
+                                           }
+                                           return Futures.immediateFuture(schemaVersionInfo);
+                                       }
                                    });
     }
 
@@ -101,6 +142,7 @@ public class SchemaVersionInfoCache implements AbstractCache {
     public SchemaVersionInfo getSchema(SchemaVersionInfoCache.Key key) throws SchemaNotFoundException {
         try {
             LOG.debug("Trying to load entry for cache with key [{}] from target service", key);
+            Metrics.get().mark(LOOKUPS_METRIC);
             SchemaVersionInfo schemaVersionInfo = loadingCache.get(key);
             LOG.trace("Result: {}", schemaVersionInfo);
             return schemaVersionInfo;
@@ -122,6 +164,19 @@ public class SchemaVersionInfoCache implements AbstractCache {
         return loadingCache.getIfPresent(key);
     }
 
+    /**
+     * Adds an already retrieved schema version to the cache under all the keys it can be looked up with.
+     */
+    public void put(SchemaVersionInfo schemaVersionInfo) {
+        LOG.debug("Adding entry to the cache {}", schemaVersionInfo);
+        updateCacheInvalidationEntries(schemaVersionInfo);
+        SchemaVersionKey schemaVersionKey = new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion());
+        loadingCache.put(Key.of(schemaVersionKey), schemaVersionInfo);
+        for (SchemaIdVersion schemaIdVersion : nameVersionWithIds.getOrDefault(schemaVersionKey, Collections.emptyList())) {
+            loadingCache.put(Key.of(schemaIdVersion), schemaVersionInfo);
+        }
+    }
+
     public void invalidateSchema(SchemaVersionInfoCache.Key key) {
         LOG.debug("Invalidating cache entry for key [{}]", key);
         loadingCache.invalidate(key);
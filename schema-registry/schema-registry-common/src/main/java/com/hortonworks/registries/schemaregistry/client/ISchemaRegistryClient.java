@@ -27,6 +27,7 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -250,4 +251,20 @@ public interface ISchemaRegistryClient extends ISchemaRegistryService, AutoClose
         return Collections.emptyList();
     }
 
+    /**
+     * Loads all the versions of the given schemas into the local cache, so the first records of those schemas
+     * do not have to wait for the registry. Schemas which do not exist are skipped.
+     *
+     * @param schemaNames names of the schemas
+     */
+    default void warmUpSchemaVersions(Collection<String> schemaNames) {
+        for (String schemaName : schemaNames) {
+            try {
+                getAllVersions(schemaName);
+            } catch (SchemaNotFoundException e) {
+                // nothing to warm up
+            }
+        }
+    }
+
 }
\ No newline at end of file
@@ -16,6 +16,8 @@
 
 package com.hortonworks.registries.schemaregistry.retry;
 
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.schemaregistry.retry.policy.BackoffPolicy;
 import com.hortonworks.registries.schemaregistry.retry.policy.NOOPBackoffPolicy;
 import com.hortonworks.registries.schemaregistry.retry.block.RetryableBlock;
@@ -37,6 +39,8 @@ import java.util.Objects;
 public class RetryExecutor {
 
     private static final Logger LOG = LoggerFactory.getLogger(RetryExecutor.class);
+    private static final String RETRIES_METRIC = RegistryMetrics.name(RetryExecutor.class, "retries");
+    private static final String EXHAUSTED_METRIC = RegistryMetrics.name(RetryExecutor.class, "exhausted");
 
     private BackoffPolicy backoffPolicy;
 
@@ -48,15 +52,31 @@ public class RetryExecutor {
     }
 
     public <T> T execute(RetryableBlock<T> retryableBlock) {
+        return execute(retryableBlock, Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #execute(RetryableBlock)}, but no further attempt is made if the sleep before it and the attempt
+     * itself would not fit before the given deadline. An attempt is expected to take as long as the previous one.
+     *
+     * @param retryableBlock block to execute
+     * @param deadlineMs     time in epoch milliseconds by which the attempts have to be finished
+     */
+    public <T> T execute(RetryableBlock<T> retryableBlock, long deadlineMs) {
         RuntimeException exception = null;
 
         int attemptNumber = 1;
         long startTime = System.currentTimeMillis();
+        long attemptTime;
 
         do {
+            long attemptStartTime = System.currentTimeMillis();
             try {
                 LOG.debug("Executing the retryable block with attempt number : {} and elapsed time : {} ms",
-                        attemptNumber, (System.currentTimeMillis() - startTime));
+                        attemptNumber, (attemptStartTime - startTime));
+                if (attemptNumber > 1) {
+                    Metrics.get().mark(RETRIES_METRIC);
+                }
                 return retryableBlock.run();
             } catch (Exception e) {
                 if (!(e.getClass().equals(exceptionClass))) {
@@ -65,14 +85,24 @@ public class RetryExecutor {
                     exception = (RuntimeException) e;
                 }
             }
-        } while (backoffPolicy.mayBeSleep(attemptNumber++, System.currentTimeMillis() - startTime));
+            attemptTime = System.currentTimeMillis() - attemptStartTime;
+        } while (backoffPolicy.mayBeSleep(attemptNumber++, System.currentTimeMillis() - startTime,
+                timeRemaining(deadlineMs, attemptTime)));
 
+        Metrics.get().mark(EXHAUSTED_METRIC);
         LOG.debug("Giving up on executing the retryable block after attempt number : {} and elapsed time : {} ms",
                 attemptNumber, (System.currentTimeMillis() - startTime));
 
         throw exception;
     }
 
+    private static long timeRemaining(long deadlineMs, long attemptTime) {
+        if (deadlineMs == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return deadlineMs - System.currentTimeMillis() - attemptTime;
+    }
+
     public static class Builder {
 
         private BackoffPolicy policy = new NOOPBackoffPolicy();
@@ -41,19 +41,49 @@ public abstract class BackoffPolicy {
     public abstract void init(Map<String, Object> properties);
 
     public boolean mayBeSleep(int attemptNumber, long timeElapsed) {
-        if (attemptNumber >= maxAttempts) {
+        return mayBeSleep(attemptNumber, timeElapsed, Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #mayBeSleep(int, long)}, but it does not sleep past the deadline of the caller.
+     *
+     * @param attemptNumber number of attempts made so far
+     * @param timeElapsed   time elapsed since the first attempt in milliseconds
+     * @param timeRemaining time remaining until the deadline of the caller in milliseconds
+     * @return true if it slept and the next attempt can be made
+     */
+    public boolean mayBeSleep(int attemptNumber, long timeElapsed, long timeRemaining) {
+        long sleepTime = nextBackoffMs(attemptNumber, timeElapsed);
+
+        if (sleepTime < 0 || sleepTime >= timeRemaining) {
             return false;
         }
 
+        sleep(sleepTime);
+
+        return true;
+    }
+
+    /**
+     * Returns how long to wait before the next attempt without sleeping, so that callers which must not block
+     * can schedule the retry themselves.
+     *
+     * @param attemptNumber number of attempts made so far
+     * @param timeElapsed   time elapsed since the first attempt in milliseconds
+     * @return the time to wait in milliseconds, or -1 if no more attempts should be made
+     */
+    public long nextBackoffMs(int attemptNumber, long timeElapsed) {
+        if (attemptNumber >= maxAttempts) {
+            return -1;
+        }
+
         long sleepTime = sleepTime(attemptNumber, timeElapsed);
 
         if (sleepTime + timeElapsed > this.timeoutMs) {
-            return false;
+            return -1;
         }
 
-        sleep(sleepTime);
-
-        return true;
+        return sleepTime;
     }
 
     abstract long sleepTime(int iteration, long timeElapsed);
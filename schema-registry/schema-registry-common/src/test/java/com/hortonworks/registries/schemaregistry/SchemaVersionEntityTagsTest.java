@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class SchemaVersionEntityTagsTest {
+
+    @Test
+    public void testTagChangesWhenTheVersionReturnsToAnEarlierState() {
+        String enabled = SchemaVersionEntityTags.of(version(SchemaVersionLifecycleStates.ENABLED.getId(), 1));
+        String disabled = SchemaVersionEntityTags.of(version(SchemaVersionLifecycleStates.DISABLED.getId(), 2));
+        String enabledAgain = SchemaVersionEntityTags.of(version(SchemaVersionLifecycleStates.ENABLED.getId(), 3));
+
+        assertNotEquals(enabled, disabled);
+        assertNotEquals(enabled, enabledAgain);
+        assertEquals(enabledAgain, SchemaVersionEntityTags.of(version(SchemaVersionLifecycleStates.ENABLED.getId(), 3)));
+    }
+
+    private static SchemaVersionInfo version(Byte stateId, int stateSequence) {
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(1L, "rain", 1, 1L, "\"string\"", 0L, null, stateId);
+        schemaVersionInfo.setStateSequence(stateSequence);
+        return schemaVersionInfo;
+    }
+}
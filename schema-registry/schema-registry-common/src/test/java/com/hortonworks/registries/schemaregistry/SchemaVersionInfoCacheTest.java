@@ -25,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  *
@@ -122,4 +123,68 @@ public class SchemaVersionInfoCacheTest {
         }
 
     }
+
+    @Test
+    public void testPutSchemaVersion() throws Exception {
+        SchemaVersionRetriever failingRetriever = new SchemaVersionRetriever() {
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
+                throw new SchemaNotFoundException("Not expected to be loaded", key.toString());
+            }
+
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
+                throw new SchemaNotFoundException("Not expected to be loaded", key.toString());
+            }
+        };
+        SchemaVersionInfoCache schemaVersionInfoCache = new SchemaVersionInfoCache(failingRetriever, 32, 60 * 1000L);
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(3L, "schema-1", 2, 1L, "schema-text",
+                System.currentTimeMillis(), "schema-description", SchemaVersionLifecycleStates.ENABLED.getId());
+
+        schemaVersionInfoCache.put(schemaVersionInfo);
+
+        // the version can be found with every kind of key without going to the target
+        Assertions.assertEquals(schemaVersionInfo, schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(3L))));
+        Assertions.assertEquals(schemaVersionInfo, schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(1L, 2))));
+        Assertions.assertEquals(schemaVersionInfo, schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(new SchemaVersionKey("schema-1", 2))));
+
+        // and it is invalidated like the loaded entries
+        schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(new SchemaVersionKey("schema-1", 2)));
+        Assertions.assertNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(3L))));
+        Assertions.assertNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(1L, 2))));
+    }
+
+    @Test
+    public void testRefreshWithCachedSchemaVersion() throws Exception {
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(3L, "schema-1", 2, 1L, "schema-text",
+                System.currentTimeMillis(), "schema-description", SchemaVersionLifecycleStates.ENABLED.getId());
+        AtomicReference<SchemaVersionInfo> refreshedFrom = new AtomicReference<>();
+        SchemaVersionRetriever schemaRetriever = new SchemaVersionRetriever() {
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
+                return schemaVersionInfo;
+            }
+
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
+                return schemaVersionInfo;
+            }
+
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key, SchemaVersionInfo cached) throws SchemaNotFoundException {
+                // the version did not change
+                refreshedFrom.set(cached);
+                return cached;
+            }
+        };
+        SchemaVersionInfoCache schemaVersionInfoCache = new SchemaVersionInfoCache(schemaRetriever, 32, 60 * 1000L, 1L);
+        SchemaVersionInfoCache.Key key = SchemaVersionInfoCache.Key.of(new SchemaIdVersion(3L));
+
+        SchemaVersionInfo loaded = schemaVersionInfoCache.getSchema(key);
+        Thread.sleep(10);
+
+        // the stale entry is refreshed with the earlier retrieved version given to the retriever
+        Assertions.assertSame(loaded, schemaVersionInfoCache.getSchema(key));
+        Assertions.assertSame(loaded, refreshedFrom.get());
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.avro;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.SchemaVersionRetriever;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.apache.avro.Schema;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class AvroSchemaResolverTest {
+
+    private Map<String, SchemaVersionInfo> latestVersions;
+    private AvroSchemaResolver underTest;
+    private String accountSchemaText;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        latestVersions = new HashMap<>();
+        latestVersions.put("utils", new SchemaVersionInfo(1L, "utils", 1, getResourceText("/avro/composites/util.avsc"), 0L, ""));
+        accountSchemaText = getResourceText("/avro/composites/account.avsc");
+        underTest = new AvroSchemaResolver(new SchemaVersionRetriever() {
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
+                return latestVersions.get(key.getSchemaName());
+            }
+
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testIncludedSchemaVersions() throws Exception {
+        assertEquals(Collections.singletonList(new SchemaVersionKey("utils", SchemaVersionKey.LATEST_VERSION)),
+                underTest.getIncludedSchemaVersions(accountSchemaText));
+    }
+
+    @Test
+    public void testResolutionIsMemoized() throws Exception {
+        String resultantSchema = underTest.resolveSchema(accountSchemaText);
+
+        assertSame(resultantSchema, underTest.resolveSchema(accountSchemaText));
+        assertEquals("com.hortonworks.datatypes.uuid", new Schema.Parser().parse(resultantSchema).getField("id").schema().getFullName());
+    }
+
+    @Test
+    public void testNewLatestVersionOfIncludedSchemaIsResolved() throws Exception {
+        //given
+        String resultantSchema = underTest.resolveSchema(accountSchemaText);
+
+        //when
+        String utilsSchemaText = latestVersions.get("utils").getSchemaText()
+                .replace("\"fields\": [", "\"fields\": [ {\"name\": \"version\", \"type\": \"int\", \"default\": 0},");
+        latestVersions.put("utils", new SchemaVersionInfo(2L, "utils", 2, utilsSchemaText, 0L, ""));
+
+        //then
+        String newResultantSchema = underTest.resolveSchema(accountSchemaText);
+        assertNotEquals(resultantSchema, newResultantSchema);
+        assertEquals(2, new Schema.Parser().parse(newResultantSchema).getField("id").schema().getFields().size());
+    }
+
+    @Test
+    public void testInvalidateDependents() throws Exception {
+        String resultantSchema = underTest.resolveSchema(accountSchemaText);
+
+        underTest.invalidateDependents("account");
+        assertSame(resultantSchema, underTest.resolveSchema(accountSchemaText));
+
+        underTest.invalidateDependents("utils");
+        String newResultantSchema = underTest.resolveSchema(accountSchemaText);
+        assertNotSame(resultantSchema, newResultantSchema);
+        assertEquals(resultantSchema, newResultantSchema);
+    }
+
+    private String getResourceText(String name) throws IOException {
+        return IOUtils.toString(AvroSchemaResolverTest.class.getResourceAsStream(name), "UTF-8");
+    }
+}
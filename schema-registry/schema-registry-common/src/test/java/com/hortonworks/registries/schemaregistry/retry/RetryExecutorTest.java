@@ -81,6 +81,45 @@ public class RetryExecutorTest {
         }));
     }
 
+    @ParameterizedTest
+    @MethodSource("profiles")
+    public void testNoAttemptAfterDeadline(RetryPolicyType profile) throws Exception {
+        beforeParam(profile);
+        AtomicInteger attempt = new AtomicInteger();
+
+        Assertions.assertThrows(RuntimeException.class, () -> createRetryExecutor(100, 1000, 60_000).execute(() -> {
+            attempt.incrementAndGet();
+            throw new RuntimeException();
+        }, System.currentTimeMillis() + 150));
+
+        Assertions.assertEquals(2, attempt.get());
+    }
+
+    @ParameterizedTest
+    @MethodSource("profiles")
+    public void testNoAttemptWhichWouldEndAfterDeadline(RetryPolicyType profile) throws Exception {
+        beforeParam(profile);
+        AtomicInteger attempt = new AtomicInteger();
+
+        // the sleep and another attempt of 100 ms would end after the deadline
+        Assertions.assertThrows(RuntimeException.class, () -> createRetryExecutor(100, 1000, 60_000).execute(() -> {
+            attempt.incrementAndGet();
+            sleep(100);
+            throw new RuntimeException();
+        }, System.currentTimeMillis() + 250));
+
+        Assertions.assertEquals(1, attempt.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
     private RetryExecutor createRetryExecutor(long sleepTimeMs, int maxAttempts, long timeoutMs) {
         BackoffPolicy backoffPolicy;
         Map<String, Object> props = new HashMap<>();
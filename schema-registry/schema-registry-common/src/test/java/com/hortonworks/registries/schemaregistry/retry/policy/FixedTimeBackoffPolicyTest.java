@@ -30,4 +30,16 @@ public class FixedTimeBackoffPolicyTest {
             Assertions.assertEquals(sleepMs, fixedTimeRetryPolicy.sleepTime(i + 1, 1000));
         }
     }
+
+    @Test
+    public void testNextBackoff() {
+        FixedTimeBackoffPolicy fixedTimeRetryPolicy = new FixedTimeBackoffPolicy(100L, 3, 1000L);
+
+        Assertions.assertEquals(100L, fixedTimeRetryPolicy.nextBackoffMs(1, 0L));
+        Assertions.assertEquals(100L, fixedTimeRetryPolicy.nextBackoffMs(2, 500L));
+        // out of attempts
+        Assertions.assertEquals(-1L, fixedTimeRetryPolicy.nextBackoffMs(3, 500L));
+        // the wait would exceed the timeout
+        Assertions.assertEquals(-1L, fixedTimeRetryPolicy.nextBackoffMs(1, 950L));
+    }
 }
@@ -52,6 +52,8 @@ public class AtlasConfiguration {
     private BasicAuth basicAuth;
     private boolean enabled = false;
     private long waitBetweenAuditProcessing = 60000L;
+    private int auditProcessingBatchSize = 100;
+    private int auditProcessingParallelism = 4;
     private String customClasspathLoader;
     private String customClasspath;
     private boolean connectWithKafka = true;
@@ -94,6 +96,25 @@ public class AtlasConfiguration {
         this.waitBetweenAuditProcessing = waitBetweenAuditProcessing;
     }
 
+    /** Maximum number of events the AtlasEventProcessor claims from the database in a single transaction. */
+    public int getAuditProcessingBatchSize() {
+        return auditProcessingBatchSize;
+    }
+
+    public void setAuditProcessingBatchSize(int auditProcessingBatchSize) {
+        this.auditProcessingBatchSize = auditProcessingBatchSize;
+    }
+
+    /** Number of schemas the AtlasEventProcessor sends to Atlas in parallel. Events of the same schema
+     * are always sent in order. */
+    public int getAuditProcessingParallelism() {
+        return auditProcessingParallelism;
+    }
+
+    public void setAuditProcessingParallelism(int auditProcessingParallelism) {
+        this.auditProcessingParallelism = auditProcessingParallelism;
+    }
+
     /** Atlas is running on a separate classpath. We can provide a custom classpath loader if we want to load it differently. */
     public String getCustomClasspathLoader() {
         return customClasspathLoader;
@@ -135,6 +156,8 @@ public class AtlasConfiguration {
         result.put("atlasUrls", atlasUrls);
         result.put("enabled", enabled);
         result.put("waitBetweenAuditProcessing", waitBetweenAuditProcessing);
+        result.put("auditProcessingBatchSize", auditProcessingBatchSize);
+        result.put("auditProcessingParallelism", auditProcessingParallelism);
         result.put("customClasspathLoader", customClasspathLoader);
         result.put("customClasspath", customClasspath);
         result.put("connectWithKafka", connectWithKafka);
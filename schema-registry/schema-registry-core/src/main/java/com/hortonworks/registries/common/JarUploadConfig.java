@@ -0,0 +1,62 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.common;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Limits of the uploaded serdes jars. An upload is spooled to a temporary file while it is validated, so it is
+ * never held in memory; the limits keep the spooled and the uncompressed size of a jar bounded.
+ */
+public class JarUploadConfig {
+
+    public static final long DEFAULT_MAX_SIZE_BYTES = 256L * 1024 * 1024;
+    public static final long DEFAULT_MAX_UNCOMPRESSED_SIZE_BYTES = 1024L * 1024 * 1024;
+
+    @JsonProperty
+    private long maxSizeBytes = DEFAULT_MAX_SIZE_BYTES;
+    @JsonProperty
+    private long maxUncompressedSizeBytes = DEFAULT_MAX_UNCOMPRESSED_SIZE_BYTES;
+    /** Directory of the spooled uploads, the default temporary directory is used if it is not set. */
+    @JsonProperty
+    private String spoolDirectory;
+
+    public JarUploadConfig() { }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    public void setMaxSizeBytes(long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    public long getMaxUncompressedSizeBytes() {
+        return maxUncompressedSizeBytes;
+    }
+
+    public void setMaxUncompressedSizeBytes(long maxUncompressedSizeBytes) {
+        this.maxUncompressedSizeBytes = maxUncompressedSizeBytes;
+    }
+
+    public String getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    public void setSpoolDirectory(String spoolDirectory) {
+        this.spoolDirectory = spoolDirectory;
+    }
+}
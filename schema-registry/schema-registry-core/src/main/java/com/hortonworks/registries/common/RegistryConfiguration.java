@@ -22,6 +22,7 @@ import com.hortonworks.registries.storage.StorageProviderConfiguration;
 import io.dropwizard.Configuration;
 import io.federecio.dropwizard.swagger.SwaggerBundleConfiguration;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.util.Collection;
 import java.util.List;
@@ -59,6 +60,19 @@ public class RegistryConfiguration extends Configuration {
     @JsonProperty
     private CompatibilityConfig compatibility = new CompatibilityConfig();
 
+    @JsonProperty
+    private JarUploadConfig jarUpload = new JarUploadConfig();
+
+    /** Number of threads, each holding a database connection, registering the versions of a batch. */
+    @Min(1)
+    @JsonProperty
+    private int schemaVersionBatchParallelism = 4;
+
+    /** Hours the changes of the change feed are kept for, 0 keeps them forever. */
+    @Min(0)
+    @JsonProperty
+    private long schemaChangeLogRetentionHours = 7 * 24;
+
     private String httpProxyUrl;
     private String httpProxyUsername;
     private String httpProxyPassword;
@@ -179,6 +193,30 @@ public class RegistryConfiguration extends Configuration {
         this.compatibility = compatibility;
     }
 
+    public JarUploadConfig getJarUpload() {
+        return jarUpload;
+    }
+
+    public void setJarUpload(JarUploadConfig jarUpload) {
+        this.jarUpload = jarUpload;
+    }
+
+    public int getSchemaVersionBatchParallelism() {
+        return schemaVersionBatchParallelism;
+    }
+
+    public void setSchemaVersionBatchParallelism(int schemaVersionBatchParallelism) {
+        this.schemaVersionBatchParallelism = schemaVersionBatchParallelism;
+    }
+
+    public long getSchemaChangeLogRetentionHours() {
+        return schemaChangeLogRetentionHours;
+    }
+
+    public void setSchemaChangeLogRetentionHours(long schemaChangeLogRetentionHours) {
+        this.schemaChangeLogRetentionHours = schemaChangeLogRetentionHours;
+    }
+
     public String getFileServiceImplementation() {
         return fileServiceImplementation;
     }
@@ -62,6 +62,7 @@ public class AtlasEventStorable extends AbstractStorable {
     public static final String PROCESSED = "processed";
     public static final String FAILED = "failed";
     public static final String TIMESTAMP = "timestamp";
+    public static final String CLAIMED_UNTIL = "claimedUntil";
 
     private Long id;
     private String username;
@@ -70,6 +71,8 @@ public class AtlasEventStorable extends AbstractStorable {
     private boolean processed;
     private boolean failed;
     private Long timestamp;
+    /** Time until which the event is claimed by a processor, 0 if it was never claimed. */
+    private Long claimedUntil = 0L;
 
     public AtlasEventStorable() { }
 
@@ -171,6 +174,14 @@ public class AtlasEventStorable extends AbstractStorable {
         this.timestamp = timestamp;
     }
 
+    public Long getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(Long claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
     @Override
     public String toString() {
         return "AtlasEventStorable{" +
@@ -181,6 +192,7 @@ public class AtlasEventStorable extends AbstractStorable {
                 ", processed=" + processed +
                 ", failed=" + failed +
                 ", timestamp=" + timestamp +
+                ", claimedUntil=" + claimedUntil +
                 '}';
     }
 
@@ -199,11 +211,12 @@ public class AtlasEventStorable extends AbstractStorable {
                 Objects.equals(username, that.username) &&
                 Objects.equals(processedId, that.processedId) &&
                 Objects.equals(type, that.type) &&
-                Objects.equals(timestamp, that.timestamp);
+                Objects.equals(timestamp, that.timestamp) &&
+                Objects.equals(claimedUntil, that.claimedUntil);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, username, processedId, type, processed, failed, timestamp);
+        return Objects.hash(id, username, processedId, type, processed, failed, timestamp, claimedUntil);
     }
 }
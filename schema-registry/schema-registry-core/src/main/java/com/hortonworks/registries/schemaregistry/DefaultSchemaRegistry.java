@@ -19,6 +19,8 @@ import com.google.common.collect.ImmutableList;
 import com.hortonworks.registries.common.CompatibilityConfig;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.common.RegistryConfiguration;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.common.util.FileStorage;
 import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaBranchDeletionException;
@@ -27,6 +29,7 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaBranchAlreadyExist
 import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.errors.UnsupportedSchemaTypeException;
+import com.hortonworks.registries.schemaregistry.exportimport.BulkExportService;
 import com.hortonworks.registries.schemaregistry.exportimport.BulkUploadInputFormat;
 import com.hortonworks.registries.schemaregistry.exportimport.BulkUploadService;
 import com.hortonworks.registries.schemaregistry.exportimport.UploadResult;
@@ -34,7 +37,6 @@ import com.hortonworks.registries.schemaregistry.locks.Lock;
 import com.hortonworks.registries.schemaregistry.locks.SchemaLockManager;
 import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 import com.hortonworks.registries.schemaregistry.state.SchemaLifecycleException;
-import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleContext;
 import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStateMachineInfo;
 import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
 import com.hortonworks.registries.schemaregistry.state.details.InitializedStateDetails;
@@ -44,7 +46,9 @@ import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.TransactionManager;
 import com.hortonworks.registries.storage.catalog.AbstractStorable;
+import com.hortonworks.registries.storage.exception.OptimisticLockException;
 import com.hortonworks.registries.storage.impl.jdbc.sequences.NamespaceSequenceStorable;
 import com.hortonworks.registries.storage.search.OrderBy;
 import com.hortonworks.registries.storage.search.SearchQuery;
@@ -60,16 +64,23 @@ import javax.inject.Inject;
 import javax.ws.rs.core.MultivaluedMap;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -82,11 +93,14 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 /**
  * Default implementation for schema registry.
  */
-public class DefaultSchemaRegistry implements ISchemaRegistry {
+public class DefaultSchemaRegistry implements ISchemaRegistry, AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultSchemaRegistry.class);
 
     public static final String ORDER_BY_FIELDS_PARAM_NAME = "_orderByFields";
     private static final Long DEFAULT_SCHEMA_LOCK_TIMEOUT_IN_SECS = 120L;
+    private static final int OPTIMISTIC_REGISTRATION_ATTEMPTS = 3;
+    private static final String REGISTRATION_CONFLICTS_METRIC = RegistryMetrics.name(DefaultSchemaRegistry.class, "registration", "conflicts");
+    private static final String DUPLICATE_UPLOADS_METRIC = RegistryMetrics.name(DefaultSchemaRegistry.class, "files", "duplicates");
 
     private final StorageManager storageManager;
     private final FileStorage fileStorage;
@@ -97,6 +111,9 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     private final SchemaLockManager schemaLockManager;
     private final CompatibilityConfig compatibilityConfig;
     private final BulkUploadService bulkUploadService;
+    private final BulkExportService bulkExportService;
+    private final SchemaVersionBatchService schemaVersionBatchService;
+    private final SchemaChangeLog schemaChangeLog;
 
     @Inject
     public DefaultSchemaRegistry(RegistryConfiguration configuration,
@@ -109,7 +126,12 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         this.fileStorage = fileStorage;
         this.schemaLockManager = schemaLockManager;
         this.compatibilityConfig = compatibilityConfig;
-        this.bulkUploadService = new BulkUploadService(this);
+        this.bulkUploadService = new BulkUploadService(this,
+                storageManager instanceof TransactionManager ? (TransactionManager) storageManager : null,
+                BulkUploadService.DEFAULT_PARALLELISM);
+        this.bulkExportService = new BulkExportService(storageManager);
+        this.schemaChangeLog = new SchemaChangeLog(storageManager, SchemaChangeLog.DEFAULT_POLL_INTERVAL_MS,
+                TimeUnit.HOURS.toMillis(configuration.getSchemaChangeLogRetentionHours()));
 
         storageManager.registerStorables(
                 Arrays.asList(
@@ -122,13 +144,21 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                         SchemaSerDesMapping.class,
                         SchemaBranchStorable.class,
                         SchemaBranchVersionMapping.class,
+                        SchemaBranchLatestVersionStorable.class,
+                        SchemaVersionFingerprintStorable.class,
+                        SchemaVersionIncludeStorable.class,
                         SchemaLockStorable.class,
-                        AtlasEventStorable.class
+                        AtlasEventStorable.class,
+                        SchemaChangeStorable.class
                 ));
 
         SchemaMetadataFetcher schemaMetadataFetcher = createSchemaMetadataFetcher();
         this.schemaVersionLifecycleManager = new DefaultSchemaVersionLifecycleManager(storageManager,
-                configuration, schemaMetadataFetcher, this::getSchemaBranch, this::getSchemaBranch);
+                configuration, schemaMetadataFetcher, this::getSchemaBranch, this::getSchemaBranch, schemaChangeLog,
+                this::lockSchemaMetadata);
+        this.schemaVersionBatchService = new SchemaVersionBatchService(this, schemaVersionLifecycleManager,
+                storageManager instanceof TransactionManager ? (TransactionManager) storageManager : null,
+                configuration.getSchemaVersionBatchParallelism());
 
         Collection<SchemaProvider> schemaProviders = initSchemaProviders(schemaProvidersConfig, schemaVersionLifecycleManager.getSchemaVersionRetriever());
 
@@ -282,6 +312,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         givenSchemaMetadataStorable.setId(nextId);
         givenSchemaMetadataStorable.setTimestamp(System.currentTimeMillis());
         storageManager.add(givenSchemaMetadataStorable);
+        schemaChangeLog.schemaMetadataChanged(SchemaChange.Type.SCHEMA_METADATA_ADDED, givenSchemaMetadataStorable.toSchemaMetadataInfo());
 
         return Pair.of(givenSchemaMetadataStorable, true);
     }
@@ -332,6 +363,14 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                 storageManager.remove(schemaSerDesMapping.getStorableKey());
             }
         }
+        // The versions are removed on cascade, their changes are recorded one by one so subscribers can drop them from their caches
+        if (schemaVersionInfos != null) {
+            String schemaGroup = schemaMetadataInfo.getSchemaMetadata().getSchemaGroup();
+            for (SchemaVersionInfo schemaVersionInfo : schemaVersionInfos) {
+                schemaChangeLog.schemaVersionChanged(SchemaChange.Type.SCHEMA_VERSION_DELETED, schemaGroup, schemaVersionInfo);
+            }
+        }
+        schemaChangeLog.schemaMetadataChanged(SchemaChange.Type.SCHEMA_METADATA_DELETED, schemaMetadataInfo);
         // Finally remove the schema metadata entry that will remove other related entries on cascade at DB level
         SchemaMetadataStorable schemaMetadataStorable = new SchemaMetadataStorable();
         schemaMetadataStorable.setName(schemaName);
@@ -379,7 +418,9 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
             schemaMetadataStorable = schemaMetadataStorable.updateSchemaMetadata(schemaMetadata);
             schemaMetadataStorable = ensureJsonCompatibility(schemaMetadataStorable);
             storageManager.update(schemaMetadataStorable);
-            return schemaMetadataStorable.toSchemaMetadataInfo();
+            SchemaMetadataInfo schemaMetadataInfo = schemaMetadataStorable.toSchemaMetadataInfo();
+            schemaChangeLog.schemaMetadataChanged(SchemaChange.Type.SCHEMA_METADATA_UPDATED, schemaMetadataInfo);
+            return schemaMetadataInfo;
         } else {
             return null;
         }
@@ -518,9 +559,9 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                             SchemaVersion schemaVersion,
                                             boolean disableCanonicalCheck)
             throws IncompatibleSchemaException, InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
-        lockSchemaMetadata(schemaMetadata.getName());
-        return schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata, schemaVersion,
-                x -> registerSchemaMetadata(x), disableCanonicalCheck);
+        return registerSchemaVersion(schemaMetadata.getName(), () ->
+                schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata, schemaVersion,
+                        x -> registerSchemaMetadata(x), disableCanonicalCheck));
     }
 
     @Override
@@ -529,9 +570,9 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                             SchemaVersion schemaVersion,
                                             boolean disableCanonicalCheck)
             throws IncompatibleSchemaException, InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
-        lockSchemaMetadata(schemaMetadata.getName());
-        return schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaMetadata, schemaVersion,
-                x -> registerSchemaMetadata(x), disableCanonicalCheck);
+        return registerSchemaVersion(schemaMetadata.getName(), () ->
+                schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaMetadata, schemaVersion,
+                        x -> registerSchemaMetadata(x), disableCanonicalCheck));
     }
 
     @Override
@@ -539,8 +580,8 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                             SchemaVersion schemaVersion,
                                             boolean disableCanonicalCheck)
             throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException {
-        lockSchemaMetadata(schemaName);
-        return schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaName, schemaVersion, disableCanonicalCheck);
+        return registerSchemaVersion(schemaName, () ->
+                schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaName, schemaVersion, disableCanonicalCheck));
     }
 
     @Override
@@ -549,23 +590,28 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                             SchemaVersion schemaVersion,
                                             boolean disableCanonicalCheck)
             throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException {
-        lockSchemaMetadata(schemaName);
-        return schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaName, schemaVersion, disableCanonicalCheck);
+        return registerSchemaVersion(schemaName, () ->
+                schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaName, schemaVersion, disableCanonicalCheck));
+    }
+
+    @Override
+    public SchemaVersionBatchResult addSchemaVersions(SchemaVersionBatch schemaVersionBatch) {
+        return schemaVersionBatchService.addSchemaVersions(schemaVersionBatch);
     }
 
     @Override
     public SchemaIdVersion addSchemaVersion(SchemaMetadata schemaMetadata, Long versionId, SchemaVersion schemaVersion) throws InvalidSchemaException, IncompatibleSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
-        lockSchemaMetadata(schemaMetadata.getName());
-        return schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata,
-            schemaVersion, this::registerSchemaMetadata, false);
+        return registerSchemaVersion(schemaMetadata.getName(), () ->
+                schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata,
+                        schemaVersion, this::registerSchemaMetadata, false));
     }
 
     @Override
     public SchemaIdVersion addSchemaVersionWithBranchName(String branchName, SchemaMetadata schemaMetadata, Long versionId, SchemaVersionInfo schemaVersionInfo) 
         throws InvalidSchemaException, IncompatibleSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
-        lockSchemaMetadata(schemaMetadata.getName());
-        return schemaVersionLifecycleManager.addSchemaVersion(branchName, schemaMetadata,
-            versionId, new SchemaVersion(schemaVersionInfo), schemaVersionInfo.getVersion(), this::registerSchemaMetadata, false);
+        return registerSchemaVersion(schemaMetadata.getName(), () ->
+                schemaVersionLifecycleManager.addSchemaVersion(branchName, schemaMetadata, versionId, new SchemaVersion(schemaVersionInfo),
+                        schemaVersionInfo.getVersion(), this::registerSchemaMetadata, false));
     }
 
     @Override
@@ -592,6 +638,27 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         
     }
 
+    /**
+     * Registers a schema version without locking the schema. The schema text is parsed and checked against the
+     * existing versions first, and the version is only stored if no other version was registered in the meantime,
+     * otherwise it is registered again, it may turn out to be registered already. The retries run in the transaction
+     * of the caller, they see the versions registered in the meantime at the read committed isolation of requests.
+     * After a few conflicts the schema is locked, as the registration can't conflict with others while it holds the lock.
+     */
+    private SchemaIdVersion registerSchemaVersion(String schemaName, SchemaVersionRegistration registration)
+            throws IncompatibleSchemaException, InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
+        for (int attempt = 1; attempt <= OPTIMISTIC_REGISTRATION_ATTEMPTS; attempt++) {
+            try {
+                return registration.register();
+            } catch (OptimisticLockException e) {
+                LOG.debug("Version of schema [{}] was registered concurrently, attempt {} failed", schemaName, attempt);
+                Metrics.get().mark(REGISTRATION_CONFLICTS_METRIC);
+            }
+        }
+        lockSchemaMetadata(schemaName);
+        return registration.register();
+    }
+
     private void lockSchemaMetadata(String schemaName) {
         String lockName = new SchemaLockStorable(SchemaMetadataStorable.NAME_SPACE, schemaName).getName();
         Lock writeLock = schemaLockManager.getWriteLock(lockName);
@@ -629,6 +696,29 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         return schemaVersionLifecycleManager.getSchemaVersionInfo(schemaVersionKey);
     }
 
+    @Override
+    public Collection<SchemaVersionInfo> getSchemaVersionInfos(SchemaVersionLookup schemaVersionLookup) {
+        return schemaVersionLifecycleManager.fetchSchemaVersionInfos(schemaVersionLookup.getSchemaVersionIds(),
+                schemaVersionLookup.getSchemaVersionKeys());
+    }
+
+    @Override
+    public Collection<SchemaVersionInfo> getSchemaVersionInfos(Collection<SchemaIdVersion> schemaIdVersions) {
+        List<Long> schemaVersionIds = new ArrayList<>();
+        List<SchemaIdVersion> others = new ArrayList<>();
+        for (SchemaIdVersion schemaIdVersion : schemaIdVersions) {
+            if (schemaIdVersion.getSchemaVersionId() != null) {
+                schemaVersionIds.add(schemaIdVersion.getSchemaVersionId());
+            } else {
+                others.add(schemaIdVersion);
+            }
+        }
+        List<SchemaVersionInfo> result = new ArrayList<>(
+                schemaVersionLifecycleManager.fetchSchemaVersionInfos(schemaVersionIds, Collections.emptyList()));
+        result.addAll(ISchemaRegistry.super.getSchemaVersionInfos(others));
+        return result;
+    }
+
     @Override
     public SchemaVersionInfo findSchemaVersionByFingerprint(String fingerprint) throws SchemaNotFoundException {
         return schemaVersionLifecycleManager.findSchemaVersionInfoByFingerprint(fingerprint);
@@ -671,6 +761,18 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         schemaVersionLifecycleManager.executeState(schemaVersionId, targetStateId, transitionDetails);
     }
 
+    @Override
+    public Map<Long, List<SchemaVersionStateInfo>> getSchemaVersionStates(Collection<Long> schemaVersionIds) {
+        // the histories of all the versions are read in a few queries
+        Map<Long, List<SchemaVersionStateInfo>> result = new HashMap<>();
+        schemaVersionLifecycleManager.getSchemaVersionStates(schemaVersionIds).forEach((schemaVersionId, states) ->
+                result.put(schemaVersionId, states.stream()
+                        .map(state -> new SchemaVersionStateInfo(state.getSchemaVersionId(), state.getStateId(),
+                                state.getSequence(), state.getTimestamp(), state.getDetails()))
+                        .collect(Collectors.toList())));
+        return result;
+    }
+
     @Override
     public Collection<AggregatedSchemaBranch> getAggregatedSchemaBranch(String schemaName)
             throws SchemaNotFoundException, SchemaBranchNotFoundException {
@@ -679,29 +781,28 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
             Long rootVersion = schemaBranch.getName().equals(SchemaBranch.MASTER_BRANCH) ? null :
                     schemaVersionLifecycleManager.getRootVersion(schemaBranch).getId();
             Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaBranch.getName(), schemaName);
-            schemaVersionInfos.stream().forEach(schemaVersionInfo -> {
-                SchemaVersionLifecycleContext context = null;
-                try {
-                    context = schemaVersionLifecycleManager
-                            .createSchemaVersionLifeCycleContext(schemaVersionInfo.getId(), SchemaVersionLifecycleStates.INITIATED);
-                    MergeInfo mergeInfo = null;
-                    if (context.getDetails() == null) {
-                        mergeInfo = null;
-                    } else {
-                        try {
-                            InitializedStateDetails details = ObjectMapperUtils.deserialize(context.getDetails(), InitializedStateDetails.class);
-                            mergeInfo = details.getMergeInfo();
-                        } catch (IOException e) {
-                            throw new RuntimeException(String.format("Failed to serialize state details of schema version : '%s'",
-                                    context.getSchemaVersionId()), e);
-                        }
+            // the states of all the versions of the branch are read at once, the merge info is in the details of the
+            // latest 'INITIATED' state of a version
+            Map<Long, List<SchemaVersionStateStorable>> schemaVersionStates = schemaVersionLifecycleManager.getSchemaVersionStates(
+                    schemaVersionInfos.stream().map(SchemaVersionInfo::getId).collect(Collectors.toList()));
+            for (SchemaVersionInfo schemaVersionInfo : schemaVersionInfos) {
+                byte[] details = schemaVersionStates.getOrDefault(schemaVersionInfo.getId(), Collections.emptyList())
+                        .stream()
+                        .filter(state -> SchemaVersionLifecycleStates.INITIATED.getId().equals(state.getStateId()))
+                        .reduce((previous, next) -> next)
+                        .map(SchemaVersionStateStorable::getDetails)
+                        .orElse(null);
+                MergeInfo mergeInfo = null;
+                if (details != null) {
+                    try {
+                        mergeInfo = ObjectMapperUtils.deserialize(details, InitializedStateDetails.class).getMergeInfo();
+                    } catch (IOException e) {
+                        throw new RuntimeException(String.format("Failed to serialize state details of schema version : '%s'",
+                                schemaVersionInfo.getId()), e);
                     }
-                    schemaVersionInfo.setMergeInfo(mergeInfo);
-                } catch (SchemaNotFoundException e) {
-                    // If the schema version has never been in 'INITIATED' state, then SchemaNotFoundException error is thrown which is expected
-                    schemaVersionInfo.setMergeInfo(null);
                 }
-            });
+                schemaVersionInfo.setMergeInfo(mergeInfo);
+            }
             aggregatedSchemaBranches.add(new AggregatedSchemaBranch(schemaBranch, rootVersion, schemaVersionInfos));
         }
         return aggregatedSchemaBranches;
@@ -712,6 +813,46 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         return bulkUploadService.bulkUploadSchemas(file, failOnError, format);
     }
 
+    @Override
+    public int exportSchemas(OutputStream out) throws IOException {
+        return bulkExportService.exportSchemas(out);
+    }
+
+    @Override
+    public SchemaChanges getSchemaChanges(Long since, Collection<Long> skippedSequences) {
+        return schemaChangeLog.getChanges(since, skippedSequences);
+    }
+
+    @Override
+    public CompletableFuture<SchemaChanges> awaitSchemaChanges(Long since, Collection<Long> skippedSequences, long waitMs) {
+        return schemaChangeLog.awaitChanges(since, skippedSequences, waitMs);
+    }
+
+    @Override
+    public Collection<SchemaVersionKey> getDependentSchemaVersions(String schemaName, boolean transitive) {
+        Set<SchemaVersionKey> dependents = new LinkedHashSet<>();
+        Set<String> visitedSchemaNames = new HashSet<>(Collections.singleton(schemaName));
+        Deque<String> schemaNames = new ArrayDeque<>(visitedSchemaNames);
+        while (!schemaNames.isEmpty()) {
+            List<QueryParam> queryParams = Collections.singletonList(
+                    new QueryParam(SchemaVersionIncludeStorable.INCLUDED_SCHEMA_NAME, schemaNames.poll()));
+            List<Long> schemaVersionIds = storageManager.<SchemaVersionIncludeStorable>find(SchemaVersionIncludeStorable.NAME_SPACE, queryParams)
+                    .stream()
+                    .map(SchemaVersionIncludeStorable::getSchemaVersionId)
+                    .collect(Collectors.toList());
+            if (schemaVersionIds.isEmpty()) {
+                continue;
+            }
+            for (SchemaVersionInfo schemaVersionInfo : schemaVersionLifecycleManager.fetchSchemaVersionInfos(schemaVersionIds, Collections.emptyList())) {
+                dependents.add(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()));
+                if (transitive && visitedSchemaNames.add(schemaVersionInfo.getName())) {
+                    schemaNames.add(schemaVersionInfo.getName());
+                }
+            }
+        }
+        return dependents;
+    }
+
     @Override
     public SchemaVersionMergeResult mergeSchemaVersion(Long schemaVersionId,
                                                        boolean disableCanonicalCheck) throws SchemaNotFoundException, IncompatibleSchemaException {
@@ -772,6 +913,12 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                 new SchemaBranchVersionMapping(persistedSchemaBranch.getId(), schemaVersionInfo.getId());
         storageManager.add(schemaBranchVersionMapping);
 
+        // an enabled root version is the latest enabled version of the new branch
+        if (SchemaVersionLifecycleStates.ENABLED.getId().equals(schemaVersionInfo.getStateId())) {
+            storageManager.add(new SchemaBranchLatestVersionStorable(persistedSchemaBranch.getId(), schemaVersionInfo.getId(),
+                                                                     schemaVersionInfo.getVersion()));
+        }
+
         return persistedSchemaBranch;
     }
 
@@ -893,6 +1040,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
             }
         }
 
+        storageManager.remove(new SchemaBranchLatestVersionStorable(schemaBranchId, null, null).getStorableKey());
         storageManager.remove(new SchemaBranchStorable(schemaBranchId).getStorableKey());
     }
 
@@ -936,6 +1084,35 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         return fileName;
     }
 
+    @Override
+    public String uploadFile(InputStream inputStream, String contentDigest) {
+        String fileName = "sha256-" + contentDigest;
+        if (fileExists(fileName)) {
+            LOG.debug("File [{}] is already stored", fileName);
+            Metrics.get().mark(DUPLICATE_UPLOADS_METRIC);
+            return fileName;
+        }
+        try {
+            fileStorage.upload(inputStream, fileName);
+        } catch (IOException e) {
+            // the same content may have been stored by a concurrent upload
+            if (!fileExists(fileName)) {
+                throw new RuntimeException(e);
+            }
+            Metrics.get().mark(DUPLICATE_UPLOADS_METRIC);
+        }
+
+        return fileName;
+    }
+
+    private boolean fileExists(String fileName) {
+        try {
+            return fileStorage.exists(fileName);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public InputStream downloadFile(String fileId) throws IOException {
         return fileStorage.download(fileId);
@@ -1146,4 +1323,16 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     public SchemaVersionInfo fetchSchemaVersionInfo(Long id) throws SchemaNotFoundException {
         return schemaVersionLifecycleManager.fetchSchemaVersionInfo(id);
     }
+
+    @Override
+    public void close() {
+        schemaVersionBatchService.close();
+        schemaChangeLog.close();
+    }
+
+    @FunctionalInterface
+    private interface SchemaVersionRegistration {
+        SchemaIdVersion register()
+                throws IncompatibleSchemaException, InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException;
+    }
 }
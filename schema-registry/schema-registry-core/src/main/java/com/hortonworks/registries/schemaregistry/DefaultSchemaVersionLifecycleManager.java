@@ -41,6 +41,10 @@ import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.search.Aggregation;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
@@ -52,11 +56,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -68,24 +78,34 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
 
     private static final List<SchemaVersionLifecycleStateTransitionListener> DEFAULT_LISTENERS = new ArrayList<>();
 
+    // keeps the IN lists of the lookup queries within the limits of every supported database
+    private static final int MAX_LOOKUP_BATCH_SIZE = 500;
+
     private StorageManager storageManager;
     private DefaultSchemaRegistry.SchemaMetadataFetcher schemaMetadataFetcher;
+    private SchemaChangeLog schemaChangeLog;
+    private Consumer<String> lockSchemaMetadata;
 
     public DefaultSchemaVersionLifecycleManager(StorageManager storageManager,
                                          RegistryConfiguration configuration,
                                          DefaultSchemaRegistry.SchemaMetadataFetcher schemaMetadataFetcher,
                                          Function<SchemaBranchKey, SchemaBranch> getSchemaBranch,
-                                         Function<Long, SchemaBranch> getSchemaBranchId) {
+                                         Function<Long, SchemaBranch> getSchemaBranchId,
+                                         SchemaChangeLog schemaChangeLog,
+                                         Consumer<String> lockSchemaMetadata) {
         super(configuration, getSchemaBranch, getSchemaBranchId);
 
         this.storageManager = storageManager;
         this.schemaMetadataFetcher = schemaMetadataFetcher;
+        this.schemaChangeLog = schemaChangeLog;
+        this.lockSchemaMetadata = lockSchemaMetadata;
     }
 
     @Override @Nonnull
     protected SchemaVersionInfo createSchemaVersion(String schemaBranchName,
                                                   SchemaMetadata schemaMetadata,
                                                   Long schemaMetadataId,
+                                                  @Nullable Long registrationVersion,
                                                   Optional<Long> versionId,
                                                   @Nullable Integer version,
                                                   SchemaVersion schemaVersion)
@@ -127,6 +147,8 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
         schemaVersionStorable.setTimestamp(System.currentTimeMillis());
 
         schemaVersionStorable.setState(DEFAULT_VERSION_STATE.getId());
+        // the column is not nullable, the sequence of the initial state is set once the state is stored
+        schemaVersionStorable.setStateSequence(0);
 
         if (!schemaBranchName.equals(SchemaBranch.MASTER_BRANCH)) {
             schemaVersion.setState(SchemaVersionLifecycleStates.INITIATED.getId());
@@ -141,17 +163,31 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
             schemaVersionStorable.setVersion(calculatedVersion + 1);
         }
 
+        List<SchemaFieldInfo> schemaFieldInfos = getSchemaProvider(type).generateFields(schemaVersionStorable.getSchemaText());
+
+        // everything above is only read, the version is stored if no other version was created in the meantime
+        claimRegistration(schemaName, registrationVersion);
+
         storageManager.add(schemaVersionStorable);
-        updateSchemaVersionState(schemaVersionStorable.getId(), 1, initialState, schemaVersion.getStateDetails());
 
         // fetching this as the ID may have been set by storage manager.
         Long schemaInstanceId = schemaVersionStorable.getId();
+        storageManager.add(new SchemaVersionFingerprintStorable(schemaInstanceId, schemaMetadataId, fingerprint));
+        // a schema may be included more than once, only its first include is stored as it is the one the schema is resolved with
+        Set<String> includedSchemaNames = new HashSet<>();
+        for (SchemaVersionKey includedSchemaVersion : getSchemaProvider(type).getIncludedSchemaVersions(schemaVersionStorable.getSchemaText())) {
+            if (includedSchemaNames.add(includedSchemaVersion.getSchemaName())) {
+                storageManager.add(new SchemaVersionIncludeStorable(schemaInstanceId, schemaMetadataId,
+                                                                    includedSchemaVersion.getSchemaName(), includedSchemaVersion.getVersion()));
+            }
+        }
 
+        // the branch mapping is needed before the state is set, enabling the version moves the latest version pointer of its branch
         SchemaBranchVersionMapping schemaBranchVersionMapping = new SchemaBranchVersionMapping(schemaBranch.getId(), schemaInstanceId);
         storageManager.add(schemaBranchVersionMapping);
+        updateSchemaVersionState(schemaInstanceId, 1, initialState, schemaVersion.getStateDetails());
 
         String storableNamespace = new SchemaFieldInfoStorable().getNameSpace();
-        List<SchemaFieldInfo> schemaFieldInfos = getSchemaProvider(type).generateFields(schemaVersionStorable.getSchemaText());
         for (SchemaFieldInfo schemaFieldInfo : schemaFieldInfos) {
             final Long fieldInstanceId = storageManager.nextId(storableNamespace);
             SchemaFieldInfoStorable schemaFieldInfoStorable = SchemaFieldInfoStorable.fromSchemaFieldInfo(schemaFieldInfo, fieldInstanceId);
@@ -160,11 +196,37 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
             storageManager.add(schemaFieldInfoStorable);
         }
 
-        return schemaVersionStorable.toSchemaVersionInfo();
+        SchemaVersionInfo schemaVersionInfo = schemaVersionStorable.toSchemaVersionInfo();
+        schemaChangeLog.schemaVersionChanged(SchemaChange.Type.SCHEMA_VERSION_ADDED, schemaMetadata.getSchemaGroup(), schemaVersionInfo);
+        getSchemaProvider(type).invalidateDependents(schemaName);
+        return schemaVersionInfo;
     }
 
 
 
+    @Override
+    protected Long getRegistrationVersion(String schemaName) {
+        SchemaLockStorable schemaLockStorable = storageManager.get(getSchemaLockKey(schemaName));
+        return schemaLockStorable != null ? schemaLockStorable.getVersion() : null;
+    }
+
+    private void claimRegistration(String schemaName, Long registrationVersion) {
+        if (registrationVersion == null) {
+            // without a lock row only the unique version constraint guards against concurrent registrations
+            LOG.warn("Schema [{}] has no lock, its version is registered without a version check", schemaName);
+            return;
+        }
+        SchemaLockStorable schemaLockStorable = new SchemaLockStorable(SchemaMetadataStorable.NAME_SPACE, schemaName,
+                System.currentTimeMillis());
+        schemaLockStorable.setVersion(registrationVersion + 1);
+        // throws OptimisticLockException if the lock is not at the registration version anymore
+        storageManager.update(schemaLockStorable);
+    }
+
+    private StorableKey getSchemaLockKey(String schemaName) {
+        return new SchemaLockStorable(SchemaMetadataStorable.NAME_SPACE, schemaName).getStorableKey();
+    }
+
     @Override
     protected SchemaProvider getSchemaProvider(String type) {
         return schemaMetadataFetcher.getSchemaProvider(type);
@@ -194,6 +256,58 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
         return schemaVersionInfos;
     }
 
+    @Override
+    public SchemaVersionInfo getLatestSchemaVersionInfo(String schemaName, Byte stateId) throws SchemaNotFoundException {
+        Preconditions.checkNotNull(schemaName, "schemaName can't be null");
+
+        if (getSchemaMetadataInfo(schemaName) == null) {
+            throw new SchemaNotFoundException("Schema not found with name " + schemaName, schemaName);
+        }
+
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStorable.NAME_SPACE)
+                .where(WhereClause.begin().eq(SchemaVersionStorable.NAME, schemaName).combine())
+                .orderBy(OrderBy.desc(SchemaVersionStorable.VERSION));
+        if (stateId == null) {
+            Collection<SchemaVersionStorable> storables = storageManager.search(searchQuery.limit(1));
+            return storables.isEmpty() ? null : storables.iterator().next().toSchemaVersionInfo();
+        }
+
+        // the states of all the versions are read without their schema texts, then only the matching version is read
+        searchQuery.select(SchemaVersionStorable.ID, SchemaVersionStorable.STATE);
+        Collection<SchemaVersionStorable> storables = storageManager.search(searchQuery);
+        for (SchemaVersionStorable storable : storables) {
+            if (stateId.equals(storable.getState())) {
+                return fetchSchemaVersionInfo(storable.getId());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public SchemaVersionInfo getLatestSchemaVersionInfo(String schemaBranchName,
+                                                        String schemaName,
+                                                        Byte stateId) throws SchemaNotFoundException, SchemaBranchNotFoundException {
+        if (!SchemaVersionLifecycleStates.ENABLED.getId().equals(stateId)) {
+            return super.getLatestSchemaVersionInfo(schemaBranchName, schemaName, stateId);
+        }
+
+        Preconditions.checkNotNull(schemaBranchName, "Schema branch name can't be null");
+        Preconditions.checkNotNull(schemaName, "schemaName can't be null");
+
+        // the pointer is moved by every state change, the versions of the branch need not be read
+        SchemaBranch schemaBranch = getSchemaBranch.apply(new SchemaBranchKey(schemaBranchName, schemaName));
+        SchemaBranchLatestVersionStorable latestVersion = storageManager.get(createLatestVersionKey(schemaBranch.getId()));
+        return latestVersion != null
+                ? getSchemaVersionRetriever().retrieveSchemaVersion(new SchemaIdVersion(latestVersion.getSchemaVersionId())) : null;
+    }
+
+    @Override
+    protected Integer getLatestVersionNumber(String schemaName) {
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStorable.NAME_SPACE)
+                .where(WhereClause.begin().eq(SchemaVersionStorable.NAME, schemaName).combine());
+        return storageManager.<Integer>aggregate(searchQuery, SchemaVersionStorable.VERSION, Aggregation.MAX).orElse(null);
+    }
+
     @Override
     protected SchemaMetadataInfo getSchemaMetadataInfo(String schemaName) {
         return schemaMetadataFetcher.getSchemaMetadataInfo(schemaName);
@@ -215,6 +329,76 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
         return versionedSchema.toSchemaVersionInfo();
     }
 
+    @Override
+    public Collection<SchemaVersionInfo> fetchSchemaVersionInfos(Collection<Long> schemaVersionIds,
+                                                                 Collection<SchemaVersionKey> schemaVersionKeys) {
+        Map<Long, SchemaVersionInfo> result = new LinkedHashMap<>();
+        for (List<Long> ids : Lists.partition(new ArrayList<>(new LinkedHashSet<>(schemaVersionIds)), MAX_LOOKUP_BATCH_SIZE)) {
+            for (SchemaVersionStorable storable : searchSchemaVersions(SchemaVersionStorable.ID, ids)) {
+                result.put(storable.getId(), storable.toSchemaVersionInfo());
+            }
+        }
+
+        if (!schemaVersionKeys.isEmpty()) {
+            // the ids of the versions of the requested schemas are read without their schema texts,
+            // then only the requested versions are read
+            Set<String> schemaNames = schemaVersionKeys.stream()
+                    .filter(key -> !SchemaVersionKey.LATEST_VERSION.equals(key.getVersion()))
+                    .map(SchemaVersionKey::getSchemaName)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            Map<SchemaVersionKey, Long> idsByKey = new HashMap<>();
+            for (List<String> names : Lists.partition(new ArrayList<>(schemaNames), MAX_LOOKUP_BATCH_SIZE)) {
+                SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStorable.NAME_SPACE)
+                        .where(WhereClause.begin().in(SchemaVersionStorable.NAME, names).combine());
+                searchQuery.select(SchemaVersionStorable.ID, SchemaVersionStorable.NAME, SchemaVersionStorable.VERSION);
+                for (SchemaVersionStorable storable : storageManager.<SchemaVersionStorable>search(searchQuery)) {
+                    idsByKey.put(new SchemaVersionKey(storable.getName(), storable.getVersion()), storable.getId());
+                }
+            }
+            Set<Long> requestedIds = schemaVersionKeys.stream()
+                    .map(idsByKey::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            Map<Long, SchemaVersionInfo> versionsById = new HashMap<>();
+            for (List<Long> ids : Lists.partition(new ArrayList<>(requestedIds), MAX_LOOKUP_BATCH_SIZE)) {
+                for (SchemaVersionStorable storable : searchSchemaVersions(SchemaVersionStorable.ID, ids)) {
+                    versionsById.put(storable.getId(), storable.toSchemaVersionInfo());
+                }
+            }
+
+            // the latest version is resolved on the master branch like for a single lookup
+            Map<String, SchemaVersionInfo> latestByName = new HashMap<>();
+            for (SchemaVersionKey key : schemaVersionKeys) {
+                SchemaVersionInfo schemaVersionInfo;
+                if (SchemaVersionKey.LATEST_VERSION.equals(key.getVersion())) {
+                    schemaVersionInfo = latestByName.computeIfAbsent(key.getSchemaName(), this::getLatestMasterSchemaVersionInfo);
+                } else {
+                    Long id = idsByKey.get(key);
+                    schemaVersionInfo = id != null ? versionsById.get(id) : null;
+                }
+                if (schemaVersionInfo != null) {
+                    result.putIfAbsent(schemaVersionInfo.getId(), schemaVersionInfo);
+                }
+            }
+        }
+
+        return result.values();
+    }
+
+    private SchemaVersionInfo getLatestMasterSchemaVersionInfo(String schemaName) {
+        try {
+            return getLatestSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, schemaName, null);
+        } catch (SchemaNotFoundException | SchemaBranchNotFoundException e) {
+            return null;
+        }
+    }
+
+    private Collection<SchemaVersionStorable> searchSchemaVersions(String fieldName, Collection<?> values) {
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStorable.NAME_SPACE)
+                .where(WhereClause.begin().in(fieldName, values).combine());
+        return storageManager.search(searchQuery);
+    }
+
     protected SchemaVersionInfo findSchemaVersion(String schemaBranchName,
                                                 String type,
                                                 String schemaText,
@@ -226,66 +410,74 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
 
         String fingerPrint = getFingerprint(type, schemaText);
         LOG.debug("Fingerprint of the given schema [{}] is [{}]", schemaText, fingerPrint);
+        SchemaMetadataInfo schemaMetadataInfo = getSchemaMetadataInfo(schemaMetadataName);
+        if (schemaMetadataInfo == null) {
+            return null;
+        }
+
         List<QueryParam> queryParams = Lists.newArrayList(
-                new QueryParam(SchemaVersionStorable.NAME, schemaMetadataName),
-                new QueryParam(SchemaVersionStorable.FINGERPRINT, fingerPrint));
+                new QueryParam(SchemaVersionFingerprintStorable.SCHEMA_METADATA_ID, String.valueOf(schemaMetadataInfo.getId())),
+                new QueryParam(SchemaVersionFingerprintStorable.FINGERPRINT, fingerPrint));
+        List<SchemaVersionFingerprintStorable> fingerprints =
+                new ArrayList<>(storageManager.<SchemaVersionFingerprintStorable>find(SchemaVersionFingerprintStorable.NAME_SPACE, queryParams));
+        if (fingerprints.isEmpty()) {
+            return null;
+        }
+        if (fingerprints.size() > 1) {
+            LOG.warn("Exists more than one schema with schemaMetadataName: [{}] and schemaText [{}]", schemaMetadataName, schemaText);
+        }
 
-        Collection<SchemaVersionStorable> versionedSchemas = storageManager.find(SchemaVersionStorable.NAME_SPACE, queryParams);
+        SchemaBranch schemaBranch = getSchemaBranch.apply(new SchemaBranchKey(schemaBranchName, schemaMetadataName));
 
-        Map<Long, SchemaVersionStorable> matchedSchemaVersionMap = null;
-        if (versionedSchemas != null && !versionedSchemas.isEmpty()) {
-            if (versionedSchemas.size() > 1) {
-                LOG.warn("Exists more than one schema with schemaMetadataName: [{}] and schemaText [{}]", schemaMetadataName, schemaText);
+        // If the disableCanonicalCheck is set to false, then return the lastest schema version of the branch that matches the fingerprint
+        fingerprints.sort(Comparator.comparing(SchemaVersionFingerprintStorable::getSchemaVersionId).reversed());
+        for (SchemaVersionFingerprintStorable fingerprint : fingerprints) {
+            if (!isMappedToBranch(schemaBranch.getId(), fingerprint.getSchemaVersionId())) {
+                continue;
+            }
+            SchemaVersionInfo schemaVersionInfo = getSchemaVersionRetriever().retrieveSchemaVersion(new SchemaIdVersion(fingerprint.getSchemaVersionId()));
+            if (!disableCanonicalCheck || schemaVersionInfo.getSchemaText().equals(schemaText)) {
+                return schemaVersionInfo;
             }
-
-            matchedSchemaVersionMap = versionedSchemas.stream().collect(Collectors.toMap(SchemaVersionStorable::getId, v -> v));
         }
 
-        if (matchedSchemaVersionMap == null) {
-            return null;
-        } else {
-            SchemaBranch schemaBranch = getSchemaBranch.apply(new SchemaBranchKey(schemaBranchName, schemaMetadataName));
-            SchemaVersionInfo matchedSchemaVersionInfo = null;
-
-            // If the disableCanonicalCheck is set to false, then return the lastest schema version that matches the fingerprint
-            for (SchemaVersionInfo schemaVersionInfo : getSortedSchemaVersions(schemaBranch)) {
-                if (matchedSchemaVersionMap.containsKey(schemaVersionInfo.getId())) {
-                    if (!disableCanonicalCheck || schemaVersionInfo.getSchemaText().equals(schemaText)) {
-                        matchedSchemaVersionInfo = schemaVersionInfo;
-                    }
-                }
-            }
+        return null;
+    }
 
-            return matchedSchemaVersionInfo;
-        }
+    private boolean isMappedToBranch(Long schemaBranchId, Long schemaVersionId) {
+        List<QueryParam> queryParams = Lists.newArrayList(
+                new QueryParam(SchemaBranchVersionMapping.SCHEMA_BRANCH_ID, String.valueOf(schemaBranchId)),
+                new QueryParam(SchemaBranchVersionMapping.SCHEMA_VERSION_INFO_ID, String.valueOf(schemaVersionId)));
+        return !storageManager.find(SchemaBranchVersionMapping.NAMESPACE, queryParams).isEmpty();
     }
 
     @Override
     public SchemaVersionInfo findSchemaVersionInfoByFingerprint(final String fingerprint) throws SchemaNotFoundException {
-        final List<QueryParam> queryParams = Collections.singletonList(new QueryParam(SchemaVersionStorable.FINGERPRINT, fingerprint));
-        final List<OrderByField> orderParams = Collections.singletonList(OrderByField.of(SchemaVersionStorable.TIMESTAMP, true));
+        Collection<SchemaVersionFingerprintStorable> fingerprints = storageManager.find(SchemaVersionFingerprintStorable.NAME_SPACE,
+                Collections.singletonList(new QueryParam(SchemaVersionFingerprintStorable.FINGERPRINT, fingerprint)));
 
-        final Collection<SchemaVersionStorable> schemas = storageManager.find(SchemaVersionStorable.NAME_SPACE, queryParams, orderParams);
-
-        if (schemas.isEmpty()) {
+        if (fingerprints.isEmpty()) {
             throw new SchemaNotFoundException(String.format("No schema found for fingerprint: %s", fingerprint), fingerprint);
-        } else {
-            if (schemas.size() > 1) {
-                LOG.warn(String.format("Multiple schemas found for the same fingerprint: %s", fingerprint));
-            }
-
-            return schemas.stream()
-                    .findFirst()
-                    .get()
-                    .toSchemaVersionInfo();
         }
+        if (fingerprints.size() > 1) {
+            LOG.warn(String.format("Multiple schemas found for the same fingerprint: %s", fingerprint));
+        }
+
+        // the most recently added version wins when the fingerprint is ambiguous
+        List<Long> schemaVersionIds = fingerprints.stream().map(SchemaVersionFingerprintStorable::getSchemaVersionId).collect(Collectors.toList());
+        return searchSchemaVersions(SchemaVersionStorable.ID, schemaVersionIds).stream()
+                .max(Comparator.comparing(SchemaVersionStorable::getTimestamp))
+                .orElseThrow(() -> new SchemaNotFoundException(String.format("No schema found for fingerprint: %s", fingerprint), fingerprint))
+                .toSchemaVersionInfo();
     }
 
     @Override
     public void deleteSchemaVersion(SchemaVersionKey schemaVersionKey) throws SchemaNotFoundException, SchemaLifecycleException {
         SchemaVersionInfo schemaVersionInfo = getSchemaVersionRetriever().retrieveSchemaVersion(schemaVersionKey);
+        deleteSchemaVersionIndexes(schemaVersionInfo);
         storageManager.remove(createSchemaVersionStorableKey(schemaVersionInfo.getId()));
         deleteSchemaVersionBranchMapping(schemaVersionInfo.getId());
+        recordSchemaVersionChange(SchemaChange.Type.SCHEMA_VERSION_DELETED, schemaVersionInfo);
     }
 
     @Override
@@ -339,6 +531,7 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
 
             SchemaVersionInfo createdSchemaVersionInfo;
             try {
+                Long registrationVersion = getRegistrationVersion(schemaMetadataInfo.getSchemaMetadata().getName());
                 SchemaVersionInfo existingSchemaVersionInfo = findSchemaVersion(SchemaBranch.MASTER_BRANCH,
                                                                                 schemaMetadataInfo.getSchemaMetadata().getType(),
                                                                                 schemaVersionInfo.getSchemaText(),
@@ -357,6 +550,7 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
                 createdSchemaVersionInfo = createSchemaVersion(SchemaBranch.MASTER_BRANCH,
                                                                schemaMetadataInfo.getSchemaMetadata(),
                                                                schemaMetadataInfo.getId(),
+                                                               registrationVersion,
                                                                Optional.empty(),
                                                                null,
                                                                new SchemaVersion(schemaVersionInfo.getSchemaText(),
@@ -368,19 +562,15 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
                         .toString()), e);
             }
 
-            Collection<SchemaVersionStateStorable> schemaVersionStates =
-                    storageManager.find(SchemaVersionStateStorable.NAME_SPACE,
-                                        Collections.singletonList(new QueryParam(SchemaVersionStateStorable.SCHEMA_VERSION_ID,
-                                                                                 schemaVersionId.toString())),
-                                        Collections.singletonList(OrderByField.of(SchemaVersionStateStorable.SEQUENCE, true)));
+            SchemaVersionStateStorable schemaVersionState = getLatestSchemaVersionState(schemaVersionId);
 
-            if (schemaVersionStates == null || schemaVersionStates.isEmpty()) {
+            if (schemaVersionState == null) {
                 throw new RuntimeException(String.format("The database doesn't have any state transition recorded for the schema version id : '%s'",
                         schemaVersionId));
             }
 
             updateSchemaVersionState(createdSchemaVersionInfo.getId(),
-                                     schemaVersionStates.iterator().next().getSequence(),
+                                     schemaVersionState.getSequence(),
                                      SchemaVersionLifecycleStates.ENABLED.getId(),
                                      null);
 
@@ -399,37 +589,56 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
 
     private Pair<SchemaVersionLifecycleContext, SchemaVersionLifecycleState>
     createSchemaVersionLifeCycleContextAndState(Long schemaVersionId) throws SchemaNotFoundException {
-        // get the current state from storage for the given versionID
-        // we can use a query to get max value for the column for a given schema-version-id but StorageManager does not
-        // have API to take custom queries.
-        Collection<SchemaVersionStateStorable> schemaVersionStates =
-                storageManager.find(SchemaVersionStateStorable.NAME_SPACE,
-                                    Collections.singletonList(new QueryParam(SchemaVersionStateStorable.SCHEMA_VERSION_ID,
-                                                                             schemaVersionId.toString())),
-                                    Collections.singletonList(OrderByField.of(SchemaVersionStateStorable.SEQUENCE, true)));
-        if (schemaVersionStates.isEmpty()) {
+        // the current state and its sequence are kept in the version, the history is only read for versions which were
+        // stored before the sequence was
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStorable.NAME_SPACE)
+                .select(SchemaVersionStorable.ID, SchemaVersionStorable.STATE, SchemaVersionStorable.STATE_SEQUENCE)
+                .where(WhereClause.begin().eq(SchemaVersionStorable.ID, schemaVersionId).combine());
+        Collection<SchemaVersionStorable> versions = storageManager.search(searchQuery);
+        if (versions.isEmpty()) {
             throw new SchemaNotFoundException("No schema versions found with id " + schemaVersionId, String.valueOf(schemaVersionId));
         }
-        SchemaVersionStateStorable stateStorable = schemaVersionStates.iterator().next();
+        SchemaVersionStorable version = versions.iterator().next();
+        Byte stateId = version.getState();
+        Integer sequence = version.getStateSequence();
+        if (sequence == null || sequence == 0) {
+            SchemaVersionStateStorable stateStorable = getLatestSchemaVersionState(schemaVersionId);
+            if (stateStorable == null) {
+                throw new SchemaNotFoundException("No schema versions found with id " + schemaVersionId, String.valueOf(schemaVersionId));
+            }
+            stateId = stateStorable.getStateId();
+            sequence = stateStorable.getSequence();
+        }
 
-        SchemaVersionLifecycleState schemaVersionLifecycleState = schemaVersionLifecycleStateMachine.getStates().get(stateStorable.getStateId());
+        SchemaVersionLifecycleState schemaVersionLifecycleState = schemaVersionLifecycleStateMachine.getStates().get(stateId);
 
-        SchemaVersionLifecycleContext context = new SchemaVersionLifecycleContext(stateStorable.getSchemaVersionId(),
-                                                                                  stateStorable.getSequence(),
+        SchemaVersionLifecycleContext context = new SchemaVersionLifecycleContext(schemaVersionId,
+                                                                                  sequence,
                                                                                   schemaVersionService,
                                                                                   schemaVersionLifecycleStateMachine,
                                                                                   customSchemaStateExecutor);
         return ImmutablePair.of(context, schemaVersionLifecycleState);
     }
 
+    /**
+     * @return the state with the highest sequence of the given schema version without its details, null if the
+     * schema version has no state
+     */
+    private SchemaVersionStateStorable getLatestSchemaVersionState(Long schemaVersionId) {
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStateStorable.NAME_SPACE)
+                .select(SchemaVersionStateStorable.SCHEMA_VERSION_ID, SchemaVersionStateStorable.SEQUENCE, SchemaVersionStateStorable.STATE)
+                .where(WhereClause.begin().eq(SchemaVersionStateStorable.SCHEMA_VERSION_ID, schemaVersionId).combine())
+                .orderBy(OrderBy.desc(SchemaVersionStateStorable.SEQUENCE))
+                .limit(1);
+        Collection<SchemaVersionStateStorable> schemaVersionStates = storageManager.search(searchQuery);
+        return schemaVersionStates.isEmpty() ? null : schemaVersionStates.iterator().next();
+    }
+
     @Override @Nonnull
     public SchemaVersionLifecycleContext createSchemaVersionLifeCycleContext(Long schemaVersionId,
                                                                              SchemaVersionLifecycleState schemaVersionLifecycleState) 
             throws SchemaNotFoundException {
         // get the current state from storage for the given versionID
-        // we can use a query to get max value for the column for a given schema-version-id but StorageManager does not
-        // have API to take custom queries.
-
         List<QueryParam> queryParams = new ArrayList<>();
         queryParams.add(new QueryParam(SchemaVersionStateStorable.SCHEMA_VERSION_ID, schemaVersionId.toString()));
         queryParams.add(new QueryParam(SchemaVersionStateStorable.STATE, schemaVersionLifecycleState.getId()
@@ -453,6 +662,21 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
         return context;
     }
 
+    @Override
+    public Map<Long, List<SchemaVersionStateStorable>> getSchemaVersionStates(Collection<Long> schemaVersionIds) {
+        Map<Long, List<SchemaVersionStateStorable>> result = new LinkedHashMap<>();
+        for (List<Long> ids : Lists.partition(new ArrayList<>(new LinkedHashSet<>(schemaVersionIds)), MAX_LOOKUP_BATCH_SIZE)) {
+            SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStateStorable.NAME_SPACE)
+                    .where(WhereClause.begin().in(SchemaVersionStateStorable.SCHEMA_VERSION_ID, ids).combine());
+            Collection<SchemaVersionStateStorable> states = storageManager.search(searchQuery);
+            for (SchemaVersionStateStorable state : states) {
+                result.computeIfAbsent(state.getSchemaVersionId(), id -> new ArrayList<>()).add(state);
+            }
+        }
+        result.values().forEach(states -> states.sort(Comparator.comparing(SchemaVersionStateStorable::getSequence)));
+        return result;
+    }
+
     @Override
     protected void storeSchemaVersionState(SchemaVersionLifecycleContext schemaVersionLifecycleContext) throws SchemaNotFoundException {
         // store versions state, sequence
@@ -477,8 +701,106 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
             throw new SchemaNotFoundException("No Schema version exists with id " + schemaVersionId, String.valueOf(schemaVersionId));
         }
         versionedSchema.setState(state.getId());
+        versionedSchema.setStateSequence(stateStorable.getSequence());
         LOG.debug("New state for version {}: {}", versionedSchema.getVersion(), state.getName());
         storageManager.update(versionedSchema);
+        updateLatestEnabledVersions(versionedSchema);
+        recordSchemaVersionChange(SchemaChange.Type.SCHEMA_VERSION_STATE_CHANGED, versionedSchema.toSchemaVersionInfo());
+    }
+
+    /**
+     * Moves the latest enabled version pointers of the branches of the given version after its state was changed.
+     * The pointers are read and written while holding the write lock of the schema, so that concurrent transitions
+     * of its versions do not overwrite each other's pointer.
+     */
+    private void updateLatestEnabledVersions(SchemaVersionStorable schemaVersionStorable) {
+        lockSchemaMetadata.accept(schemaVersionStorable.getName());
+        boolean enabled = SchemaVersionLifecycleStates.ENABLED.getId().equals(schemaVersionStorable.getState());
+        for (SchemaBranchVersionMapping mapping : findBranchVersionMappings(SchemaBranchVersionMapping.SCHEMA_VERSION_INFO_ID,
+                                                                            schemaVersionStorable.getId())) {
+            Long schemaBranchId = mapping.getSchemaBranchId();
+            SchemaBranchLatestVersionStorable latestVersion = storageManager.get(createLatestVersionKey(schemaBranchId));
+            if (enabled) {
+                if (latestVersion == null || latestVersion.getVersion() < schemaVersionStorable.getVersion()) {
+                    storageManager.addOrUpdate(new SchemaBranchLatestVersionStorable(schemaBranchId, schemaVersionStorable.getId(),
+                                                                                     schemaVersionStorable.getVersion()));
+                }
+            } else if (latestVersion != null && latestVersion.getSchemaVersionId().equals(schemaVersionStorable.getId())) {
+                resetLatestEnabledVersion(schemaBranchId, schemaVersionStorable.getId());
+            }
+        }
+    }
+
+    /**
+     * Points the branch at its latest enabled version other than the given one, or removes the pointer if there is none.
+     */
+    private void resetLatestEnabledVersion(Long schemaBranchId, Long excludedSchemaVersionId) {
+        List<Long> schemaVersionIds = findBranchVersionMappings(SchemaBranchVersionMapping.SCHEMA_BRANCH_ID, schemaBranchId)
+                .stream()
+                .map(SchemaBranchVersionMapping::getSchemaVersionInfoId)
+                .filter(id -> !id.equals(excludedSchemaVersionId))
+                .collect(Collectors.toList());
+
+        SchemaVersionStorable latestEnabled = null;
+        for (List<Long> ids : Lists.partition(schemaVersionIds, MAX_LOOKUP_BATCH_SIZE)) {
+            SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStorable.NAME_SPACE)
+                    .where(WhereClause.begin().in(SchemaVersionStorable.ID, ids).combine())
+                    .select(SchemaVersionStorable.ID, SchemaVersionStorable.VERSION, SchemaVersionStorable.STATE);
+            for (SchemaVersionStorable storable : storageManager.<SchemaVersionStorable>search(searchQuery)) {
+                if (SchemaVersionLifecycleStates.ENABLED.getId().equals(storable.getState())
+                        && (latestEnabled == null || latestEnabled.getVersion() < storable.getVersion())) {
+                    latestEnabled = storable;
+                }
+            }
+        }
+
+        if (latestEnabled == null) {
+            storageManager.remove(createLatestVersionKey(schemaBranchId));
+        } else {
+            storageManager.addOrUpdate(new SchemaBranchLatestVersionStorable(schemaBranchId, latestEnabled.getId(), latestEnabled.getVersion()));
+        }
+    }
+
+    /**
+     * Removes the fingerprint and the includes of the given version and moves the latest enabled version pointers
+     * away from it, databases cascade these deletes but the other storage managers do not.
+     */
+    private void deleteSchemaVersionIndexes(SchemaVersionInfo schemaVersionInfo) {
+        Long schemaVersionId = schemaVersionInfo.getId();
+        storageManager.remove(new SchemaVersionFingerprintStorable(schemaVersionId, null, null).getStorableKey());
+        Collection<SchemaVersionIncludeStorable> includes = storageManager.find(SchemaVersionIncludeStorable.NAME_SPACE,
+                Collections.singletonList(new QueryParam(SchemaVersionIncludeStorable.SCHEMA_VERSION_ID, String.valueOf(schemaVersionId))));
+        for (SchemaVersionIncludeStorable include : includes) {
+            storageManager.remove(include.getStorableKey());
+        }
+        lockSchemaMetadata.accept(schemaVersionInfo.getName());
+        for (SchemaBranchVersionMapping mapping : findBranchVersionMappings(SchemaBranchVersionMapping.SCHEMA_VERSION_INFO_ID, schemaVersionId)) {
+            SchemaBranchLatestVersionStorable latestVersion = storageManager.get(createLatestVersionKey(mapping.getSchemaBranchId()));
+            if (latestVersion != null && latestVersion.getSchemaVersionId().equals(schemaVersionId)) {
+                resetLatestEnabledVersion(mapping.getSchemaBranchId(), schemaVersionId);
+            }
+        }
+    }
+
+    private Collection<SchemaBranchVersionMapping> findBranchVersionMappings(String fieldName, Long value) {
+        return storageManager.find(SchemaBranchVersionMapping.NAMESPACE, Collections.singletonList(new QueryParam(fieldName, String.valueOf(value))));
+    }
+
+    private StorableKey createLatestVersionKey(Long schemaBranchId) {
+        return new SchemaBranchLatestVersionStorable(schemaBranchId, null, null).getStorableKey();
+    }
+
+    private void recordSchemaVersionChange(SchemaChange.Type type, SchemaVersionInfo schemaVersionInfo) {
+        SchemaMetadataInfo schemaMetadataInfo = schemaMetadataFetcher.getSchemaMetadataInfo(schemaVersionInfo.getSchemaMetadataId());
+        String schemaGroup = schemaMetadataInfo != null ? schemaMetadataInfo.getSchemaMetadata().getSchemaGroup() : null;
+        schemaChangeLog.schemaVersionChanged(type, schemaGroup, schemaVersionInfo);
+        // the latest version of the schema may have changed, the resultant schemas including it are resolved again
+        if (schemaMetadataInfo != null) {
+            SchemaProvider schemaProvider = getSchemaProvider(schemaMetadataInfo.getSchemaMetadata().getType());
+            if (schemaProvider != null) {
+                schemaProvider.invalidateDependents(schemaVersionInfo.getName());
+            }
+        }
     }
 
     @Override
@@ -495,8 +817,11 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
     }
 
     protected void doDeleteSchemaVersion(Long schemaVersionId) throws SchemaNotFoundException, SchemaLifecycleException {
+        SchemaVersionInfo schemaVersionInfo = fetchSchemaVersionInfo(schemaVersionId);
+        deleteSchemaVersionIndexes(schemaVersionInfo);
         storageManager.remove(createSchemaVersionStorableKey(schemaVersionId));
         deleteSchemaVersionBranchMapping(schemaVersionId);
+        recordSchemaVersionChange(SchemaChange.Type.SCHEMA_VERSION_DELETED, schemaVersionInfo);
     }
 
     private StorableKey createSchemaVersionStorableKey(Long id) {
@@ -622,6 +947,48 @@ public class DefaultSchemaVersionLifecycleManager extends SchemaVersionLifecycle
         return schemaBranches;
     }
 
+    @Override
+    public Collection<SchemaVersionInfo> getAllVersions(final String schemaBranchName,
+                                                        final String schemaName,
+                                                        final List<Byte> stateIds) throws SchemaNotFoundException, SchemaBranchNotFoundException {
+        Preconditions.checkNotNull(schemaBranchName, "Schema branch name can't be null");
+        Preconditions.checkNotNull(stateIds, "State Ids can't be null");
+
+        // the versions of the branch are filtered on their current state, they are not retrieved one by one
+        SchemaBranch schemaBranch = getSchemaBranch.apply(new SchemaBranchKey(schemaBranchName, schemaName));
+        List<Long> schemaVersionIds = findBranchVersionMappings(SchemaBranchVersionMapping.SCHEMA_BRANCH_ID, schemaBranch.getId())
+                .stream()
+                .map(SchemaBranchVersionMapping::getSchemaVersionInfoId)
+                .collect(Collectors.toList());
+        if (schemaVersionIds.isEmpty()) {
+            // only the master branch can be without versions
+            return getSortedSchemaVersions(schemaBranch.getId());
+        }
+        if (stateIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Byte> stateIdSet = new HashSet<>(stateIds);
+        List<SchemaVersionStorable> storables = new ArrayList<>();
+        for (List<Long> ids : Lists.partition(schemaVersionIds, MAX_LOOKUP_BATCH_SIZE)) {
+            SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStorable.NAME_SPACE)
+                    .where(WhereClause.begin()
+                            .in(SchemaVersionStorable.ID, ids)
+                            .and()
+                            .in(SchemaVersionStorable.STATE, stateIdSet)
+                            .combine());
+            // the database filters on the state, the in memory storage manager does not combine the predicates
+            Set<Long> idSet = new HashSet<>(ids);
+            storageManager.<SchemaVersionStorable>search(searchQuery).stream()
+                    .filter(storable -> idSet.contains(storable.getId()) && stateIdSet.contains(storable.getState()))
+                    .forEach(storables::add);
+        }
+
+        return storables.stream()
+                .sorted(Comparator.comparing(SchemaVersionStorable::getId).reversed())
+                .map(SchemaVersionStorable::toSchemaVersionInfo)
+                .collect(Collectors.toList());
+    }
+
     @Override
     protected List<SchemaVersionInfo> getSortedSchemaVersions(Long schemaBranchId) throws SchemaNotFoundException, SchemaBranchNotFoundException {
         List<QueryParam> schemaVersionMappingStorableQueryParams = Lists.newArrayList();
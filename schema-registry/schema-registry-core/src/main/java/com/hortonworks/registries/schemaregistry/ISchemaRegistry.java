@@ -25,9 +25,12 @@ import com.hortonworks.registries.schemaregistry.exportimport.UploadResult;
 import javax.ws.rs.core.MultivaluedMap;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 /**
@@ -189,6 +192,13 @@ public interface ISchemaRegistry extends ISchemaRegistryService, AddSchemaWithId
      */
     Collection<AggregatedSchemaBranch> getAggregatedSchemaBranch(String schemaName) throws SchemaNotFoundException, SchemaBranchNotFoundException;
 
+    /**
+     * @param schemaVersionIds ids of the schema versions
+     *
+     * @return state history of each of the given schema versions ordered by sequence, versions without states are left out
+     */
+    Map<Long, List<SchemaVersionStateInfo>> getSchemaVersionStates(Collection<Long> schemaVersionIds);
+
     /**
      * @param schemaBranchId id of the branch
      *
@@ -223,4 +233,63 @@ public interface ISchemaRegistry extends ISchemaRegistryService, AddSchemaWithId
      */
     UploadResult bulkUploadSchemas(InputStream file, boolean failOnError, BulkUploadInputFormat format) throws IOException;
 
+    /**
+     * Write all the schemas of the registry into the given stream, in a format which can be imported with
+     * {@link #bulkUploadSchemas(InputStream, boolean, BulkUploadInputFormat)} using {@link BulkUploadInputFormat#CLOUDERA}.
+     *
+     * @param out   stream the schemas are written to, it is not closed
+     * @return  the number of exported schemas
+     */
+    int exportSchemas(OutputStream out) throws IOException;
+
+    /**
+     * Stores the given file under a name derived from its content digest. A file with the same content is stored
+     * only once, when it already exists the given stream is not read.
+     *
+     * @param inputStream   content of the file
+     * @param contentDigest hex encoded SHA-256 digest of the content
+     * @return  identifier of the file, which can be used with {@link #downloadFile(String)}
+     */
+    String uploadFile(InputStream inputStream, String contentDigest);
+
+    /**
+     * Looks up the given schema versions with as few storage round trips as possible.
+     * Versions which do not exist are left out of the result.
+     *
+     * @param schemaVersionLookup   ids and/or schema name and version pairs of the versions
+     * @return  the existing schema versions
+     */
+    Collection<SchemaVersionInfo> getSchemaVersionInfos(SchemaVersionLookup schemaVersionLookup);
+
+    /**
+     * Returns the changes of schemas and schema versions which were recorded after the given sequence number, and the
+     * changes of the given skipped sequence numbers which were committed since they were skipped.
+     *
+     * @param since             sequence number of the last seen change, null to get only the current sequence number
+     * @param skippedSequences  sequence numbers returned as skipped by the earlier calls
+     * @return  the changes in the order they happened
+     */
+    SchemaChanges getSchemaChanges(Long since, Collection<Long> skippedSequences);
+
+    /**
+     * Same as {@link #getSchemaChanges(Long, Collection)}, but if there are no changes yet, the returned future is
+     * completed once one happens, or with no changes after the given time. No thread is held during the wait.
+     *
+     * @param since             sequence number of the last seen change, null to get only the current sequence number
+     * @param skippedSequences  sequence numbers returned as skipped by the earlier calls
+     * @param waitMs            maximum time to wait for a change
+     * @return  the changes in the order they happened
+     */
+    CompletableFuture<SchemaChanges> awaitSchemaChanges(Long since, Collection<Long> skippedSequences, long waitMs);
+
+    /**
+     * Returns the schema versions which include the given schema, either a pinned version of it or its latest version.
+     * Only the versions registered with this include tracking are known.
+     *
+     * @param schemaName    name of the included schema
+     * @param transitive    whether the versions including the dependent versions are returned too
+     * @return  the dependent schema versions
+     */
+    Collection<SchemaVersionKey> getDependentSchemaVersions(String schemaName, boolean transitive);
+
 }
\ No newline at end of file
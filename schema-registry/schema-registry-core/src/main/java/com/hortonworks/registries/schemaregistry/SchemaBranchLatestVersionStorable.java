@@ -0,0 +1,124 @@
+/**
+ * Copyright 2017-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+
+import java.util.Collections;
+
+/**
+ * Pointer to the latest enabled schema version of a branch. A row exists only while the branch has an enabled version.
+ */
+public class SchemaBranchLatestVersionStorable extends AbstractStorable {
+    public static final String NAME_SPACE = "schema_branch_latest_version";
+
+    public static final String SCHEMA_BRANCH_ID = "schemaBranchId";
+    public static final String SCHEMA_VERSION_ID = "schemaVersionId";
+    public static final String VERSION = "version";
+
+    private Long schemaBranchId;
+    private Long schemaVersionId;
+    private Integer version;
+
+    public SchemaBranchLatestVersionStorable() {
+    }
+
+    public SchemaBranchLatestVersionStorable(Long schemaBranchId, Long schemaVersionId, Integer version) {
+        this.schemaBranchId = schemaBranchId;
+        this.schemaVersionId = schemaVersionId;
+        this.version = version;
+    }
+
+    @Override
+    public String getNameSpace() {
+        return NAME_SPACE;
+    }
+
+    @Override
+    public PrimaryKey getPrimaryKey() {
+        return new PrimaryKey(Collections.singletonMap(new Schema.Field(SCHEMA_BRANCH_ID, Schema.Type.LONG), schemaBranchId));
+    }
+
+    @Override
+    public boolean isCacheable() {
+        // the pointer moves whenever any server enables, disables or deletes a version of the branch
+        return false;
+    }
+
+    public Long getSchemaBranchId() {
+        return schemaBranchId;
+    }
+
+    public void setSchemaBranchId(Long schemaBranchId) {
+        this.schemaBranchId = schemaBranchId;
+    }
+
+    public Long getSchemaVersionId() {
+        return schemaVersionId;
+    }
+
+    public void setSchemaVersionId(Long schemaVersionId) {
+        this.schemaVersionId = schemaVersionId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaBranchLatestVersionStorable{" +
+                "schemaBranchId=" + schemaBranchId +
+                ", schemaVersionId=" + schemaVersionId +
+                ", version=" + version +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SchemaBranchLatestVersionStorable that = (SchemaBranchLatestVersionStorable) o;
+
+        if (schemaBranchId != null ? !schemaBranchId.equals(that.schemaBranchId) : that.schemaBranchId != null) {
+            return false;
+        }
+        if (schemaVersionId != null ? !schemaVersionId.equals(that.schemaVersionId) : that.schemaVersionId != null) {
+            return false;
+        }
+        return version != null ? version.equals(that.version) : that.version == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = schemaBranchId != null ? schemaBranchId.hashCode() : 0;
+        result = 31 * result + (schemaVersionId != null ? schemaVersionId.hashCode() : 0);
+        result = 31 * result + (version != null ? version.hashCode() : 0);
+        return result;
+    }
+}
@@ -0,0 +1,354 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the changes of schemas and schema versions into the change log table and reads them back for the
+ * subscribers of the change feed.
+ * <p>
+ * The changes are written with the storage manager of the registry, so they are part of the same transaction as
+ * the change itself. The sequence numbers are generated by the database, and a transaction which got a lower
+ * number may commit after one with a higher number. A reader therefore stops at a gap in the sequence until the
+ * gap is older than {@link #GAP_SETTLE_MS}. The missing numbers are then returned as skipped, and the reader asks
+ * for them again with its next reads in case their transaction commits late.
+ * <p>
+ * Readers waiting for a change are served by a single poller thread, which reads the table once per poll interval
+ * for all of them, because the changes can be written by any instance of the registry. The same thread removes the
+ * changes older than the retention time.
+ */
+public class SchemaChangeLog implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaChangeLog.class);
+
+    public static final long DEFAULT_POLL_INTERVAL_MS = 1000L;
+    public static final long DEFAULT_RETENTION_MS = TimeUnit.DAYS.toMillis(7);
+    public static final long MAX_WAIT_MS = 60 * 1000L;
+    static final long GAP_SETTLE_MS = 10 * 1000L;
+    static final int MAX_CHANGES_PER_READ = 1000;
+    /** Skipped sequence numbers kept for a reader, the oldest ones beyond it are given up. */
+    static final int MAX_SKIPPED_SEQUENCES = 100;
+    static final long PRUNE_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final StorageManager storageManager;
+    private final long pollIntervalMs;
+    private final long retentionMs;
+    /** Readers waiting for a change, it also guards the executor. */
+    private final List<Waiter> waiters = new ArrayList<>();
+    private ScheduledExecutorService executor;
+    private boolean closed;
+
+    public SchemaChangeLog(StorageManager storageManager) {
+        this(storageManager, DEFAULT_POLL_INTERVAL_MS, DEFAULT_RETENTION_MS);
+    }
+
+    public SchemaChangeLog(StorageManager storageManager, long pollIntervalMs) {
+        this(storageManager, pollIntervalMs, DEFAULT_RETENTION_MS);
+    }
+
+    /**
+     * @param retentionMs time the changes are kept for, 0 to keep them forever
+     */
+    public SchemaChangeLog(StorageManager storageManager, long pollIntervalMs, long retentionMs) {
+        this.storageManager = storageManager;
+        this.pollIntervalMs = pollIntervalMs;
+        this.retentionMs = retentionMs;
+    }
+
+    public void schemaMetadataChanged(SchemaChange.Type type, SchemaMetadataInfo schemaMetadataInfo) {
+        SchemaMetadata schemaMetadata = schemaMetadataInfo.getSchemaMetadata();
+        record(new SchemaChangeStorable(type, schemaMetadata.getSchemaGroup(), schemaMetadata.getName(),
+                schemaMetadataInfo.getId(), null, null, System.currentTimeMillis()));
+    }
+
+    public void schemaVersionChanged(SchemaChange.Type type, String schemaGroup, SchemaVersionInfo schemaVersionInfo) {
+        record(new SchemaChangeStorable(type, schemaGroup, schemaVersionInfo.getName(), schemaVersionInfo.getSchemaMetadataId(),
+                schemaVersionInfo.getId(), schemaVersionInfo.getVersion(), System.currentTimeMillis()));
+    }
+
+    private void record(SchemaChangeStorable schemaChangeStorable) {
+        schemaChangeStorable.setId(storageManager.nextId(SchemaChangeStorable.NAME_SPACE));
+        storageManager.add(schemaChangeStorable);
+        LOG.debug("Recorded change {}", schemaChangeStorable);
+        // the old changes are pruned once this instance writes changes
+        synchronized (waiters) {
+            startExecutor();
+        }
+    }
+
+    /**
+     * Returns the changes after the given sequence number, and the changes of the given skipped sequence numbers
+     * which were committed since they were skipped.
+     *
+     * @param since            sequence number of the last change the caller has seen, or null to get the current
+     *                         sequence number without any changes
+     * @param skippedSequences sequence numbers returned as skipped by the earlier reads
+     * @return the changes, possibly empty
+     */
+    public SchemaChanges getChanges(@Nullable Long since, Collection<Long> skippedSequences) {
+        if (since == null) {
+            return new SchemaChanges(Collections.emptyList(), getLastSequence());
+        }
+        List<Long> skipped = limitSkipped(skippedSequences);
+        return toSchemaChanges(readChanges(since), readSkippedChanges(skipped), since, skipped, System.currentTimeMillis());
+    }
+
+    /**
+     * Same as {@link #getChanges(Long, Collection)}, but if there are no changes yet, the returned future is completed
+     * when one is read by the poller, or with no changes once the given time has passed.
+     *
+     * @param waitMs maximum time to wait for a change, it is capped at {@link #MAX_WAIT_MS}
+     */
+    public CompletableFuture<SchemaChanges> awaitChanges(@Nullable Long since, Collection<Long> skippedSequences, long waitMs) {
+        SchemaChanges schemaChanges = getChanges(since, skippedSequences);
+        long wait = Math.max(0L, Math.min(waitMs, MAX_WAIT_MS));
+        if (since == null || !schemaChanges.getChanges().isEmpty() || wait == 0L) {
+            return CompletableFuture.completedFuture(schemaChanges);
+        }
+
+        Waiter waiter = new Waiter(since, limitSkipped(skippedSequences), System.currentTimeMillis() + wait);
+        synchronized (waiters) {
+            if (closed) {
+                return CompletableFuture.completedFuture(schemaChanges);
+            }
+            waiters.add(waiter);
+            startExecutor();
+        }
+        return waiter.future;
+    }
+
+    private void startExecutor() {
+        if (executor != null || closed) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("schema-change-log-%d")
+                .build());
+        executor.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        if (retentionMs > 0L) {
+            executor.scheduleWithFixedDelay(this::prune, 0L, PRUNE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void poll() {
+        List<Waiter> polled;
+        synchronized (waiters) {
+            if (waiters.isEmpty()) {
+                return;
+            }
+            polled = new ArrayList<>(waiters);
+        }
+
+        try {
+            // a single read serves all the waiting readers
+            long since = polled.stream().mapToLong(waiter -> waiter.since).min().getAsLong();
+            TreeSet<Long> skipped = new TreeSet<>();
+            polled.forEach(waiter -> skipped.addAll(waiter.skippedSequences));
+            List<SchemaChangeStorable> storables = readChanges(since);
+            Map<Long, SchemaChangeStorable> skippedChanges = readSkippedChanges(skipped);
+
+            long now = System.currentTimeMillis();
+            for (Waiter waiter : polled) {
+                SchemaChanges schemaChanges = toSchemaChanges(storables, skippedChanges, waiter.since, waiter.skippedSequences, now);
+                if (!schemaChanges.getChanges().isEmpty() || now >= waiter.deadline) {
+                    complete(waiter, schemaChanges);
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to read the change log for {} waiting readers", polled.size(), e);
+            for (Waiter waiter : polled) {
+                synchronized (waiters) {
+                    waiters.remove(waiter);
+                }
+                waiter.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void complete(Waiter waiter, SchemaChanges schemaChanges) {
+        synchronized (waiters) {
+            waiters.remove(waiter);
+        }
+        waiter.future.complete(schemaChanges);
+    }
+
+    void prune() {
+        long before = System.currentTimeMillis() - retentionMs;
+        int pruned = 0;
+        try {
+            Collection<SchemaChangeStorable> storables;
+            do {
+                // the oldest changes have the lowest sequence numbers, so they are found at the start of the index
+                SearchQuery searchQuery = SearchQuery.searchFrom(SchemaChangeStorable.NAME_SPACE)
+                        .where(WhereClause.begin().lt(SchemaChangeStorable.TIMESTAMP, before).combine())
+                        .orderBy(OrderBy.asc(SchemaChangeStorable.ID))
+                        .limit(MAX_CHANGES_PER_READ);
+                storables = storageManager.search(searchQuery);
+                for (SchemaChangeStorable storable : storables) {
+                    // another instance may be removing the same changes
+                    if (storageManager.remove(storable.getStorableKey()) != null) {
+                        pruned++;
+                    }
+                }
+            } while (storables.size() == MAX_CHANGES_PER_READ);
+        } catch (Exception e) {
+            LOG.warn("Failed to prune the change log", e);
+        }
+        if (pruned > 0) {
+            LOG.info("Pruned {} changes older than {} ms from the change log", pruned, retentionMs);
+        }
+    }
+
+    private List<SchemaChangeStorable> readChanges(long since) {
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaChangeStorable.NAME_SPACE)
+                .where(WhereClause.begin().gt(SchemaChangeStorable.ID, since).combine())
+                .orderBy(OrderBy.asc(SchemaChangeStorable.ID))
+                .limit(MAX_CHANGES_PER_READ);
+        return new ArrayList<>(storageManager.<SchemaChangeStorable>search(searchQuery));
+    }
+
+    private Map<Long, SchemaChangeStorable> readSkippedChanges(Collection<Long> skippedSequences) {
+        Map<Long, SchemaChangeStorable> result = new HashMap<>();
+        for (List<Long> sequences : Lists.partition(new ArrayList<>(skippedSequences), MAX_SKIPPED_SEQUENCES)) {
+            SearchQuery searchQuery = SearchQuery.searchFrom(SchemaChangeStorable.NAME_SPACE)
+                    .where(WhereClause.begin().in(SchemaChangeStorable.ID, sequences).combine());
+            for (SchemaChangeStorable storable : storageManager.<SchemaChangeStorable>search(searchQuery)) {
+                result.put(storable.getId(), storable);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the changes of a reader from the changes read for it, or for all the waiting readers.
+     *
+     * @param storables        changes in the order of their sequence number, some may be before {@code since}
+     * @param skippedChanges   committed changes of skipped sequence numbers, by sequence number
+     * @param since            sequence number of the last change the reader has seen
+     * @param skippedSequences skipped sequence numbers of the reader
+     * @param now              current time
+     */
+    private static SchemaChanges toSchemaChanges(List<SchemaChangeStorable> storables,
+                                                 Map<Long, SchemaChangeStorable> skippedChanges,
+                                                 long since,
+                                                 List<Long> skippedSequences,
+                                                 long now) {
+        List<SchemaChange> changes = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        for (Long skippedSequence : skippedSequences) {
+            SchemaChangeStorable committedLate = skippedChanges.get(skippedSequence);
+            if (committedLate != null) {
+                LOG.debug("Skipped sequence {} was committed late", skippedSequence);
+                changes.add(committedLate.toSchemaChange());
+            } else {
+                skipped.add(skippedSequence);
+            }
+        }
+
+        long sequence = since;
+        for (SchemaChangeStorable storable : storables) {
+            if (storable.getId() <= since) {
+                continue;
+            }
+            if (storable.getId() != sequence + 1) {
+                if (now - storable.getTimestamp() < GAP_SETTLE_MS) {
+                    LOG.debug("Change log has a gap after sequence {}, waiting for it to be committed", sequence);
+                    break;
+                }
+                // the missing sequence numbers are most likely rolled back, they are asked for again by the reader
+                long firstMissing = Math.max(sequence + 1, storable.getId() - MAX_SKIPPED_SEQUENCES);
+                for (long missing = firstMissing; missing < storable.getId(); missing++) {
+                    skipped.add(missing);
+                }
+            }
+            changes.add(storable.toSchemaChange());
+            sequence = storable.getId();
+        }
+        return new SchemaChanges(changes, sequence, limitSkipped(skipped));
+    }
+
+    /** @return the given sequence numbers in ascending order, the oldest ones beyond the limit are left out */
+    private static List<Long> limitSkipped(@Nullable Collection<Long> skippedSequences) {
+        if (skippedSequences == null || skippedSequences.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(skippedSequences));
+        return sorted.size() > MAX_SKIPPED_SEQUENCES ? sorted.subList(sorted.size() - MAX_SKIPPED_SEQUENCES, sorted.size()) : sorted;
+    }
+
+    private long getLastSequence() {
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaChangeStorable.NAME_SPACE)
+                .where(WhereClause.begin().gt(SchemaChangeStorable.ID, 0L).combine())
+                .orderBy(OrderBy.desc(SchemaChangeStorable.ID))
+                .limit(1);
+        Collection<SchemaChangeStorable> storables = storageManager.search(searchQuery);
+        return storables.isEmpty() ? 0L : storables.iterator().next().getId();
+    }
+
+    /**
+     * Stops the poller, the waiting readers get no changes.
+     */
+    @Override
+    public void close() {
+        List<Waiter> pending;
+        synchronized (waiters) {
+            closed = true;
+            pending = new ArrayList<>(waiters);
+            waiters.clear();
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        for (Waiter waiter : pending) {
+            waiter.future.complete(new SchemaChanges(Collections.emptyList(), waiter.since, waiter.skippedSequences));
+        }
+    }
+
+    /** A reader waiting for a change. */
+    private static final class Waiter {
+        private final long since;
+        private final List<Long> skippedSequences;
+        private final long deadline;
+        private final CompletableFuture<SchemaChanges> future = new CompletableFuture<>();
+
+        private Waiter(long since, List<Long> skippedSequences, long deadline) {
+            this.since = since;
+            this.skippedSequences = skippedSequences;
+            this.deadline = deadline;
+        }
+    }
+}
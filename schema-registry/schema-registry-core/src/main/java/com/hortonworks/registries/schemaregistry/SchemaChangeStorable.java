@@ -0,0 +1,189 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Entry of the change log table. The id is the sequence number of the change.
+ */
+public class SchemaChangeStorable extends AbstractStorable {
+
+    public static final String NAME_SPACE = "schema_change_log";
+
+    public static final String ID = "id";
+    public static final String TYPE = "type";
+    public static final String SCHEMA_GROUP = "schemaGroup";
+    public static final String SCHEMA_NAME = "schemaName";
+    public static final String SCHEMA_METADATA_ID = "schemaMetadataId";
+    public static final String SCHEMA_VERSION_ID = "schemaVersionId";
+    public static final String VERSION = "version";
+    public static final String TIMESTAMP = "timestamp";
+
+    private Long id;
+    private String type;
+    private String schemaGroup;
+    private String schemaName;
+    private Long schemaMetadataId;
+    private Long schemaVersionId;
+    private Integer version;
+    private Long timestamp;
+
+    public SchemaChangeStorable() { }
+
+    public SchemaChangeStorable(SchemaChange.Type type,
+                                String schemaGroup,
+                                String schemaName,
+                                Long schemaMetadataId,
+                                Long schemaVersionId,
+                                Integer version,
+                                Long timestamp) {
+        this.type = type.name();
+        this.schemaGroup = schemaGroup;
+        this.schemaName = schemaName;
+        this.schemaMetadataId = schemaMetadataId;
+        this.schemaVersionId = schemaVersionId;
+        this.version = version;
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String getNameSpace() {
+        return NAME_SPACE;
+    }
+
+    @Override
+    public PrimaryKey getPrimaryKey() {
+        Map<Schema.Field, Object> values = new HashMap<>();
+        values.put(new Schema.Field(ID, Schema.Type.LONG), id);
+        return new PrimaryKey(values);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getSchemaGroup() {
+        return schemaGroup;
+    }
+
+    public void setSchemaGroup(String schemaGroup) {
+        this.schemaGroup = schemaGroup;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public void setSchemaName(String schemaName) {
+        this.schemaName = schemaName;
+    }
+
+    public Long getSchemaMetadataId() {
+        return schemaMetadataId;
+    }
+
+    public void setSchemaMetadataId(Long schemaMetadataId) {
+        this.schemaMetadataId = schemaMetadataId;
+    }
+
+    public Long getSchemaVersionId() {
+        return schemaVersionId;
+    }
+
+    public void setSchemaVersionId(Long schemaVersionId) {
+        this.schemaVersionId = schemaVersionId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public SchemaChange toSchemaChange() {
+        return new SchemaChange(id, SchemaChange.Type.valueOf(type), schemaGroup, schemaName, schemaMetadataId,
+                schemaVersionId, version, timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaChangeStorable{" +
+                "id=" + id +
+                ", type='" + type + '\'' +
+                ", schemaGroup='" + schemaGroup + '\'' +
+                ", schemaName='" + schemaName + '\'' +
+                ", schemaMetadataId=" + schemaMetadataId +
+                ", schemaVersionId=" + schemaVersionId +
+                ", version=" + version +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SchemaChangeStorable that = (SchemaChangeStorable) o;
+        return Objects.equals(id, that.id) &&
+                Objects.equals(type, that.type) &&
+                Objects.equals(schemaGroup, that.schemaGroup) &&
+                Objects.equals(schemaName, that.schemaName) &&
+                Objects.equals(schemaMetadataId, that.schemaMetadataId) &&
+                Objects.equals(schemaVersionId, that.schemaVersionId) &&
+                Objects.equals(version, that.version) &&
+                Objects.equals(timestamp, that.timestamp);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, type, schemaGroup, schemaName, schemaMetadataId, schemaVersionId, version, timestamp);
+    }
+}
@@ -17,6 +17,7 @@ package com.hortonworks.registries.schemaregistry;
 
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.annotation.VersionField;
 import com.hortonworks.registries.storage.catalog.AbstractStorable;
 
 import java.util.HashMap;
@@ -32,6 +33,12 @@ public class SchemaLockStorable extends AbstractStorable {
 
     private Long timestamp;
 
+    /**
+     * Incremented by every schema version registration, which is only committed if it is still the version it read.
+     */
+    @VersionField
+    private Long version = 0L;
+
     public static final Schema.Field NAME_FIELD = Schema.Field.of(NAME, Schema.Type.STRING);
 
 
@@ -73,6 +80,14 @@ public class SchemaLockStorable extends AbstractStorable {
         this.timestamp = timestamp;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String getNameSpace() {
         return NAMESPACE;
@@ -85,6 +100,12 @@ public class SchemaLockStorable extends AbstractStorable {
         return new PrimaryKey(values);
     }
 
+    @Override
+    public boolean isCacheable() {
+        // the version has to be read from the database, it is updated by every server
+        return false;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -95,12 +116,13 @@ public class SchemaLockStorable extends AbstractStorable {
         }
         SchemaLockStorable that = (SchemaLockStorable) o;
         return Objects.equals(getName(), that.getName()) &&
-                Objects.equals(getTimestamp(), that.getTimestamp());
+                Objects.equals(getTimestamp(), that.getTimestamp()) &&
+                Objects.equals(getVersion(), that.getVersion());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getName(), getTimestamp());
+        return Objects.hash(getName(), getTimestamp(), getVersion());
     }
 
     @Override
@@ -108,6 +130,7 @@ public class SchemaLockStorable extends AbstractStorable {
         return "SchemaLockStorable{" +
                 "name='" + name + '\'' +
                 ", timestamp=" + timestamp +
+                ", version=" + version +
                 '}';
     }
 }
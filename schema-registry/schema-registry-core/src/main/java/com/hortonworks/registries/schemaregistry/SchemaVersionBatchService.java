@@ -0,0 +1,227 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hortonworks.registries.schemaregistry.SchemaVersionBatchResult.ItemResult;
+import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.transaction.ManagedTransaction;
+import com.hortonworks.registries.storage.transaction.functional.ManagedTransactionFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.hortonworks.registries.storage.transaction.TransactionIsolation.READ_COMMITTED;
+
+/**
+ * Registers the versions of a {@link SchemaVersionBatch}.
+ * <p>
+ * If a {@link TransactionManager} is provided, the versions are registered on worker threads. In
+ * {@link SchemaVersionBatch.TransactionMode#PER_ITEM} mode the versions of different schemas are registered in
+ * parallel and every version is committed in its own transaction, while the versions of the same schema are
+ * registered one after the other, in the order of the batch. In {@link SchemaVersionBatch.TransactionMode#ALL_OR_NOTHING}
+ * mode all the versions are registered in a single transaction which is rolled back at the first failure.
+ * <p>
+ * Without a transaction manager the versions are registered on the calling thread, within the caller's transaction,
+ * and a failure can't roll back the versions registered before it.
+ * <p>
+ * Every worker thread holds its own database connection while it registers versions, so the parallelism should be
+ * kept well below the size of the connection pool. The workers are stopped by {@link #close()}.
+ */
+public class SchemaVersionBatchService implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaVersionBatchService.class);
+
+    private final ISchemaRegistry schemaRegistry;
+    private final SchemaVersionLifecycleManager schemaVersionLifecycleManager;
+    private final ManagedTransaction managedTransaction;
+    private final ExecutorService executor;
+
+    public SchemaVersionBatchService(ISchemaRegistry schemaRegistry,
+                                     SchemaVersionLifecycleManager schemaVersionLifecycleManager,
+                                     @Nullable TransactionManager transactionManager,
+                                     int parallelism) {
+        this.schemaRegistry = checkNotNull(schemaRegistry, "schemaRegistry");
+        this.schemaVersionLifecycleManager = checkNotNull(schemaVersionLifecycleManager, "schemaVersionLifecycleManager");
+        checkArgument(parallelism > 0, "Parallelism must be greater than 0");
+        if (transactionManager == null) {
+            this.managedTransaction = null;
+            this.executor = null;
+        } else {
+            this.managedTransaction = new ManagedTransaction(transactionManager, READ_COMMITTED);
+            this.executor = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("schema-version-batch-%d")
+                    .build());
+        }
+    }
+
+    public SchemaVersionBatchResult addSchemaVersions(SchemaVersionBatch schemaVersionBatch) {
+        ItemResult[] results = new ItemResult[schemaVersionBatch.getItems().size()];
+        if (schemaVersionBatch.getTransactionMode() == SchemaVersionBatch.TransactionMode.ALL_OR_NOTHING) {
+            addAllOrNothing(schemaVersionBatch, results);
+        } else {
+            addPerItem(schemaVersionBatch, results);
+        }
+        return new SchemaVersionBatchResult(Arrays.asList(results));
+    }
+
+    private void addPerItem(SchemaVersionBatch schemaVersionBatch, ItemResult[] results) {
+        Map<String, List<Integer>> itemsBySchema = new LinkedHashMap<>();
+        List<SchemaVersionBatch.Item> items = schemaVersionBatch.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            itemsBySchema.computeIfAbsent(items.get(i).getSchemaName(), name -> new ArrayList<>()).add(i);
+        }
+
+        if (executor == null) {
+            for (List<Integer> schemaItems : itemsBySchema.values()) {
+                addSchemaItems(schemaVersionBatch, schemaItems, results);
+            }
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<Integer> schemaItems : itemsBySchema.values()) {
+            futures.add(executor.submit(() -> addSchemaItems(schemaVersionBatch, schemaItems, results)));
+        }
+        for (Future<?> future : futures) {
+            await(future);
+        }
+    }
+
+    /** Registers the given items of the same schema one after the other, each of them in its own transaction. */
+    private void addSchemaItems(SchemaVersionBatch schemaVersionBatch, List<Integer> schemaItems, ItemResult[] results) {
+        for (int index : schemaItems) {
+            SchemaVersionBatch.Item item = schemaVersionBatch.getItems().get(index);
+            try {
+                results[index] = managedTransaction == null
+                        ? addItem(item, schemaVersionBatch.isDisableCanonicalCheck())
+                        : managedTransaction.executeFunction((ManagedTransactionFunction.Arg0<ItemResult>) () ->
+                                addItem(item, schemaVersionBatch.isDisableCanonicalCheck()));
+            } catch (Exception e) {
+                LOG.debug("Failed to register version of schema [{}] in batch", item.getSchemaName(), e);
+                results[index] = ItemResult.failed(item, e.getMessage());
+            }
+        }
+    }
+
+    private void addAllOrNothing(SchemaVersionBatch schemaVersionBatch, ItemResult[] results) {
+        List<SchemaVersionBatch.Item> items = schemaVersionBatch.getItems();
+        if (executor == null) {
+            int failedIndex = addAll(schemaVersionBatch, results);
+            if (failedIndex >= 0) {
+                // nothing to roll back, only the items after the failure are left out
+                for (int i = failedIndex + 1; i < items.size(); i++) {
+                    results[i] = ItemResult.aborted(items.get(i));
+                }
+            }
+            return;
+        }
+
+        int failedIndex = await(executor.submit(() -> {
+            try {
+                return managedTransaction.executeFunction((ManagedTransactionFunction.Arg0<Integer>) () -> {
+                    int index = addAll(schemaVersionBatch, results);
+                    if (index >= 0) {
+                        throw new BatchRollbackException(index);
+                    }
+                    return index;
+                });
+            } catch (BatchRollbackException e) {
+                return e.failedIndex;
+            }
+        }));
+        if (failedIndex >= 0) {
+            for (int i = 0; i < items.size(); i++) {
+                if (i != failedIndex) {
+                    results[i] = ItemResult.aborted(items.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers the items in the order of the batch and stops at the first failure.
+     *
+     * @return index of the failed item, -1 if all the items were registered
+     */
+    private int addAll(SchemaVersionBatch schemaVersionBatch, ItemResult[] results) {
+        List<SchemaVersionBatch.Item> items = schemaVersionBatch.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            SchemaVersionBatch.Item item = items.get(i);
+            try {
+                results[i] = addItem(item, schemaVersionBatch.isDisableCanonicalCheck());
+            } catch (Exception e) {
+                LOG.debug("Failed to register version of schema [{}], aborting the batch", item.getSchemaName(), e);
+                results[i] = ItemResult.failed(item, e.getMessage());
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ItemResult addItem(SchemaVersionBatch.Item item, boolean disableCanonicalCheck) throws Exception {
+        checkArgument(item.getSchemaName() != null && item.getSchemaVersion() != null,
+                "Schema name and schema version are required");
+        SchemaVersionInfo existingVersion = schemaVersionLifecycleManager.getSchemaVersionInfoWithBranchName(item.getSchemaName(),
+                item.getSchemaBranchName(), item.getSchemaVersion().getSchemaText(), disableCanonicalCheck);
+        if (existingVersion != null) {
+            return ItemResult.existing(item, new SchemaIdVersion(existingVersion.getSchemaMetadataId(),
+                    existingVersion.getVersion(), existingVersion.getId()));
+        }
+        return ItemResult.registered(item, schemaRegistry.addSchemaVersion(item.getSchemaBranchName(), item.getSchemaName(),
+                item.getSchemaVersion(), disableCanonicalCheck));
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while registering a batch of schema versions", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to register a batch of schema versions", e.getCause());
+        }
+    }
+
+    /** Thrown to roll back the transaction of an all-or-nothing batch. */
+    private static class BatchRollbackException extends Exception {
+        private final int failedIndex;
+
+        BatchRollbackException(int failedIndex) {
+            this.failedIndex = failedIndex;
+        }
+    }
+}
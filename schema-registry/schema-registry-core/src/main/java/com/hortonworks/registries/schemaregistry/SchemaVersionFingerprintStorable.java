@@ -0,0 +1,119 @@
+/**
+ * Copyright 2017-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+
+import java.util.Collections;
+
+/**
+ * Index row mapping a schema version to the fingerprint of its text, so that versions can be looked up by
+ * (schemaMetadataId, fingerprint) without scanning the versions of the schema.
+ */
+public class SchemaVersionFingerprintStorable extends AbstractStorable {
+    public static final String NAME_SPACE = "schema_version_fingerprint";
+
+    public static final String SCHEMA_VERSION_ID = "schemaVersionId";
+    public static final String SCHEMA_METADATA_ID = "schemaMetadataId";
+    public static final String FINGERPRINT = "fingerprint";
+
+    private Long schemaVersionId;
+    private Long schemaMetadataId;
+    private String fingerprint;
+
+    public SchemaVersionFingerprintStorable() {
+    }
+
+    public SchemaVersionFingerprintStorable(Long schemaVersionId, Long schemaMetadataId, String fingerprint) {
+        this.schemaVersionId = schemaVersionId;
+        this.schemaMetadataId = schemaMetadataId;
+        this.fingerprint = fingerprint;
+    }
+
+    @Override
+    public String getNameSpace() {
+        return NAME_SPACE;
+    }
+
+    @Override
+    public PrimaryKey getPrimaryKey() {
+        return new PrimaryKey(Collections.singletonMap(new Schema.Field(SCHEMA_VERSION_ID, Schema.Type.LONG), schemaVersionId));
+    }
+
+    public Long getSchemaVersionId() {
+        return schemaVersionId;
+    }
+
+    public void setSchemaVersionId(Long schemaVersionId) {
+        this.schemaVersionId = schemaVersionId;
+    }
+
+    public Long getSchemaMetadataId() {
+        return schemaMetadataId;
+    }
+
+    public void setSchemaMetadataId(Long schemaMetadataId) {
+        this.schemaMetadataId = schemaMetadataId;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaVersionFingerprintStorable{" +
+                "schemaVersionId=" + schemaVersionId +
+                ", schemaMetadataId=" + schemaMetadataId +
+                ", fingerprint='" + fingerprint + '\'' +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SchemaVersionFingerprintStorable that = (SchemaVersionFingerprintStorable) o;
+
+        if (schemaVersionId != null ? !schemaVersionId.equals(that.schemaVersionId) : that.schemaVersionId != null) {
+            return false;
+        }
+        if (schemaMetadataId != null ? !schemaMetadataId.equals(that.schemaMetadataId) : that.schemaMetadataId != null) {
+            return false;
+        }
+        return fingerprint != null ? fingerprint.equals(that.fingerprint) : that.fingerprint == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = schemaVersionId != null ? schemaVersionId.hashCode() : 0;
+        result = 31 * result + (schemaMetadataId != null ? schemaMetadataId.hashCode() : 0);
+        result = 31 * result + (fingerprint != null ? fingerprint.hashCode() : 0);
+        return result;
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2017-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Edge of the include graph of the schemas: the schema version includes the given version of another schema, the
+ * version is {@link SchemaVersionKey#LATEST_VERSION} when the include is not pinned to a version. The rows are looked
+ * up by the name of the included schema to find the versions depending on it.
+ */
+public class SchemaVersionIncludeStorable extends AbstractStorable {
+    public static final String NAME_SPACE = "schema_version_include";
+
+    public static final String SCHEMA_VERSION_ID = "schemaVersionId";
+    public static final String SCHEMA_METADATA_ID = "schemaMetadataId";
+    public static final String INCLUDED_SCHEMA_NAME = "includedSchemaName";
+    public static final String INCLUDED_VERSION = "includedVersion";
+
+    private Long schemaVersionId;
+    private Long schemaMetadataId;
+    private String includedSchemaName;
+    private Integer includedVersion;
+
+    public SchemaVersionIncludeStorable() {
+    }
+
+    public SchemaVersionIncludeStorable(Long schemaVersionId, Long schemaMetadataId, String includedSchemaName, Integer includedVersion) {
+        this.schemaVersionId = schemaVersionId;
+        this.schemaMetadataId = schemaMetadataId;
+        this.includedSchemaName = includedSchemaName;
+        this.includedVersion = includedVersion;
+    }
+
+    @Override
+    public String getNameSpace() {
+        return NAME_SPACE;
+    }
+
+    @Override
+    public PrimaryKey getPrimaryKey() {
+        Map<Schema.Field, Object> values = new HashMap<>();
+        values.put(new Schema.Field(SCHEMA_VERSION_ID, Schema.Type.LONG), schemaVersionId);
+        values.put(new Schema.Field(INCLUDED_SCHEMA_NAME, Schema.Type.STRING), includedSchemaName);
+        return new PrimaryKey(values);
+    }
+
+    public Long getSchemaVersionId() {
+        return schemaVersionId;
+    }
+
+    public void setSchemaVersionId(Long schemaVersionId) {
+        this.schemaVersionId = schemaVersionId;
+    }
+
+    public Long getSchemaMetadataId() {
+        return schemaMetadataId;
+    }
+
+    public void setSchemaMetadataId(Long schemaMetadataId) {
+        this.schemaMetadataId = schemaMetadataId;
+    }
+
+    public String getIncludedSchemaName() {
+        return includedSchemaName;
+    }
+
+    public void setIncludedSchemaName(String includedSchemaName) {
+        this.includedSchemaName = includedSchemaName;
+    }
+
+    public Integer getIncludedVersion() {
+        return includedVersion;
+    }
+
+    public void setIncludedVersion(Integer includedVersion) {
+        this.includedVersion = includedVersion;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaVersionIncludeStorable{" +
+                "schemaVersionId=" + schemaVersionId +
+                ", schemaMetadataId=" + schemaMetadataId +
+                ", includedSchemaName='" + includedSchemaName + '\'' +
+                ", includedVersion=" + includedVersion +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SchemaVersionIncludeStorable that = (SchemaVersionIncludeStorable) o;
+
+        if (schemaVersionId != null ? !schemaVersionId.equals(that.schemaVersionId) : that.schemaVersionId != null) {
+            return false;
+        }
+        if (schemaMetadataId != null ? !schemaMetadataId.equals(that.schemaMetadataId) : that.schemaMetadataId != null) {
+            return false;
+        }
+        if (includedSchemaName != null ? !includedSchemaName.equals(that.includedSchemaName) : that.includedSchemaName != null) {
+            return false;
+        }
+        return includedVersion != null ? includedVersion.equals(that.includedVersion) : that.includedVersion == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = schemaVersionId != null ? schemaVersionId.hashCode() : 0;
+        result = 31 * result + (schemaMetadataId != null ? schemaMetadataId.hashCode() : 0);
+        result = 31 * result + (includedSchemaName != null ? includedSchemaName.hashCode() : 0);
+        result = 31 * result + (includedVersion != null ? includedVersion.hashCode() : 0);
+        return result;
+    }
+}
@@ -18,6 +18,8 @@ package com.hortonworks.registries.schemaregistry;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.hortonworks.registries.common.RegistryConfiguration;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundException;
@@ -125,12 +127,15 @@ public abstract class SchemaVersionLifecycleManager {
         Long schemaMetadataId;
         if (retrievedschemaMetadataInfo != null) {
             schemaMetadataId = retrievedschemaMetadataInfo.getId();
+            // read before the lookup, so a version registered concurrently with the same text is not missed
+            Long registrationVersion = getRegistrationVersion(schemaName);
             // check whether the same schema text exists
             schemaVersionInfo = getSchemaVersionInfoWithBranchName(schemaName, schemaBranchName, schemaVersion.getSchemaText(), disableCanonicalCheck);
             if (schemaVersionInfo == null) {
                 schemaVersionInfo = createSchemaVersion(schemaBranchName,
                         schemaMetadata,
                         retrievedschemaMetadataInfo.getId(),
+                        registrationVersion,
                         versionId,
                         version,
                         schemaVersion);
@@ -141,6 +146,7 @@ public abstract class SchemaVersionLifecycleManager {
             schemaVersionInfo = createSchemaVersion(schemaBranchName,
                     schemaMetadata,
                     schemaMetadataId,
+                    getRegistrationVersion(schemaName),
                     versionId,
                     version,
                     schemaVersion);
@@ -149,15 +155,32 @@ public abstract class SchemaVersionLifecycleManager {
         return new SchemaIdVersion(schemaMetadataId, schemaVersionInfo.getVersion(), schemaVersionInfo.getId());
     }
 
+    /**
+     * Creates the given schema version. It is only stored if no other version of the schema was created since the
+     * given registration version was read, otherwise
+     * {@link com.hortonworks.registries.storage.exception.OptimisticLockException} is thrown and the registration can
+     * be retried.
+     *
+     * @param registrationVersion registration version of the schema, read with {@link #getRegistrationVersion(String)}
+     *                            before the schema versions which the new version is checked against are read
+     */
     @Nonnull
     protected abstract SchemaVersionInfo createSchemaVersion(String schemaBranchName,
                                                     SchemaMetadata schemaMetadata,
                                                     Long schemaMetadataId,
+                                                    @Nullable Long registrationVersion,
                                                     Optional<Long> versionId,
                                                     @Nullable Integer version,
                                                     SchemaVersion schemaVersion)
             throws IncompatibleSchemaException, InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException;
 
+    /**
+     * @return the registration version of the given schema, which is incremented whenever a version of it is created,
+     *         null if the schema does not have one
+     */
+    @Nullable
+    protected abstract Long getRegistrationVersion(String schemaName);
+
     @Nonnull
     protected SchemaBranch getSchemaBranch(String schemaBranchName, SchemaMetadata schemaMetadata) throws SchemaNotFoundException {
         SchemaBranch schemaBranch = null;
@@ -203,14 +226,22 @@ public abstract class SchemaVersionLifecycleManager {
                     throw new IncompatibleSchemaException(errMsg);
                 }
             }
-            SchemaVersionInfo latestSchemaVersionInfo = getLatestSchemaVersionInfo(schemaMetadata.getName());
-            if (latestSchemaVersionInfo != null) {
-                version = latestSchemaVersionInfo.getVersion();
+            Integer latestVersion = getLatestVersionNumber(schemaMetadata.getName());
+            if (latestVersion != null) {
+                version = latestVersion;
             }
         }
         return version;
     }
 
+    /**
+     * @return the highest version number of the given schema, null if the schema has no versions
+     */
+    protected Integer getLatestVersionNumber(String schemaName) throws SchemaNotFoundException {
+        SchemaVersionInfo latestSchemaVersionInfo = getLatestSchemaVersionInfo(schemaName);
+        return latestSchemaVersionInfo != null ? latestSchemaVersionInfo.getVersion() : null;
+    }
+
     protected void updateSchemaVersionState(Long schemaVersionId,
                                           Integer sequence,
                                           Byte initialState,
@@ -315,11 +346,13 @@ public abstract class SchemaVersionLifecycleManager {
         SchemaVersionInfo schemaVersionInfo;
         // check whether there exists schema-metadata for schema-metadata-key
         SchemaMetadata schemaMetadata = schemaMetadataInfo.getSchemaMetadata();
+        Long registrationVersion = getRegistrationVersion(schemaMetadata.getName());
         // check whether the same schema text exists
         schemaVersionInfo = findSchemaVersion(schemaBranchName, schemaMetadata.getType(), schemaVersion.getSchemaText(),
                 schemaMetadataInfo.getSchemaMetadata().getName(), disableCanonicalCheck);
         if (schemaVersionInfo == null) {
-            schemaVersionInfo = createSchemaVersion(schemaBranchName, schemaMetadata, schemaMetadataInfo.getId(), Optional.empty(), null, schemaVersion);
+            schemaVersionInfo = createSchemaVersion(schemaBranchName, schemaMetadata, schemaMetadataInfo.getId(), registrationVersion,
+                    Optional.empty(), null, schemaVersion);
         }
 
         return new SchemaIdVersion(schemaMetadataInfo.getId(), schemaVersionInfo.getVersion(), schemaVersionInfo.getId());
@@ -444,7 +477,10 @@ public abstract class SchemaVersionLifecycleManager {
             throw new IllegalStateException("No SchemaProvider registered for type: " + type);
         }
 
-        return schemaProvider.checkCompatibility(toSchema, existingSchema, compatibility);
+        try (RegistryMetrics.Context ignored =
+                     Metrics.get().time(RegistryMetrics.name(SchemaVersionLifecycleManager.class, "compatibilityCheck", type))) {
+            return schemaProvider.checkCompatibility(toSchema, existingSchema, compatibility);
+        }
     }
 
     protected abstract SchemaProvider getSchemaProvider(String type);
@@ -544,6 +580,12 @@ public abstract class SchemaVersionLifecycleManager {
     public abstract SchemaVersionLifecycleContext createSchemaVersionLifeCycleContext(Long schemaVersionId,
                                                                       SchemaVersionLifecycleState schemaVersionLifecycleState) throws SchemaNotFoundException;
 
+    /**
+     * @return the state history of each of the given schema versions ordered by sequence, versions without states are
+     *         left out
+     */
+    public abstract Map<Long, List<SchemaVersionStateStorable>> getSchemaVersionStates(Collection<Long> schemaVersionIds);
+
     public abstract void enableSchemaVersion(Long schemaVersionId) throws SchemaNotFoundException, SchemaLifecycleException, IncompatibleSchemaException, SchemaBranchNotFoundException;
 
     public abstract void deleteSchemaVersion(Long schemaVersionId) throws SchemaNotFoundException, SchemaLifecycleException;
@@ -662,6 +704,12 @@ public abstract class SchemaVersionLifecycleManager {
 
     protected abstract SchemaVersionInfo fetchSchemaVersionInfo(String schemaName, Integer version) throws SchemaNotFoundException;
 
+    /**
+     * Looks up the given schema versions with as few queries as possible. Versions which do not exist are left out of the result.
+     */
+    public abstract Collection<SchemaVersionInfo> fetchSchemaVersionInfos(Collection<Long> schemaVersionIds,
+                                                                          Collection<SchemaVersionKey> schemaVersionKeys);
+
     protected abstract SchemaMetadataInfo getSchemaMetadataInfo(Long schemaMetadataId);
 
 }
@@ -39,6 +39,7 @@ public class SchemaVersionStorable extends AbstractVersionedStorable {
     public static final String TIMESTAMP = "timestamp";
     public static final String FINGERPRINT = "fingerprint";
     public static final String STATE = "state";
+    public static final String STATE_SEQUENCE = "stateSequence";
 
     public static final Schema.Field ID_FIELD = Schema.Field.of(ID, Schema.Type.LONG);
 
@@ -51,7 +52,8 @@ public class SchemaVersionStorable extends AbstractVersionedStorable {
         Schema.Field.of(VERSION, Schema.Type.INTEGER),
         Schema.Field.of(TIMESTAMP, Schema.Type.LONG),
         Schema.Field.of(FINGERPRINT, Schema.Type.STRING),
-        Schema.Field.of(STATE, Schema.Type.BYTE)
+        Schema.Field.of(STATE, Schema.Type.BYTE),
+        Schema.Field.optional(STATE_SEQUENCE, Schema.Type.INTEGER)
     );
     
 
@@ -102,6 +104,11 @@ public class SchemaVersionStorable extends AbstractVersionedStorable {
      */
     private Byte state;
 
+    /**
+     * Sequence of the {@link SchemaVersionStateStorable} of the current state, it is updated together with the state.
+     */
+    private Integer stateSequence;
+
     public SchemaVersionStorable() {
     }
 
@@ -208,8 +215,19 @@ public class SchemaVersionStorable extends AbstractVersionedStorable {
         this.state = state.byteValue();
     }
 
+    public Integer getStateSequence() {
+        return stateSequence;
+    }
+
+    public void setStateSequence(Integer stateSequence) {
+        this.stateSequence = stateSequence;
+    }
+
     public SchemaVersionInfo toSchemaVersionInfo() {
-        return new SchemaVersionInfo(id, name, version, getSchemaMetadataId(), schemaText, timestamp, description, state);
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(id, name, version, getSchemaMetadataId(), schemaText,
+                timestamp, description, state);
+        schemaVersionInfo.setStateSequence(stateSequence);
+        return schemaVersionInfo;
     }
 
     @Override
@@ -229,6 +247,7 @@ public class SchemaVersionStorable extends AbstractVersionedStorable {
                 ", timestamp=" + timestamp +
                 ", fingerprint='" + fingerprint + '\'' +
                 ", state=" + state +
+                ", stateSequence=" + stateSequence +
                 ", description='" + description + '\'' +
                 ", version=" + version +
                 ", rootEntityId=" + rootEntityId +
@@ -270,7 +289,10 @@ public class SchemaVersionStorable extends AbstractVersionedStorable {
         if (fingerprint != null ? !fingerprint.equals(that.fingerprint) : that.fingerprint != null) {
             return false;
         }
-        return state != null ? state.equals(that.state) : that.state == null;
+        if (state != null ? !state.equals(that.state) : that.state != null) {
+            return false;
+        }
+        return stateSequence != null ? stateSequence.equals(that.stateSequence) : that.stateSequence == null;
     }
 
     @Override
@@ -284,6 +306,7 @@ public class SchemaVersionStorable extends AbstractVersionedStorable {
         result = 31 * result + (timestamp != null ? timestamp.hashCode() : 0);
         result = 31 * result + (fingerprint != null ? fingerprint.hashCode() : 0);
         result = 31 * result + (state != null ? state.hashCode() : 0);
+        result = 31 * result + (stateSequence != null ? stateSequence.hashCode() : 0);
         return result;
     }
 }
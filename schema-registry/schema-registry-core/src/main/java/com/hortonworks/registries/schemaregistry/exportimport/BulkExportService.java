@@ -0,0 +1,255 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.exportimport;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.schemaregistry.AggregatedSchemaBranch;
+import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaBranchStorable;
+import com.hortonworks.registries.schemaregistry.SchemaBranchVersionMapping;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataStorable;
+import com.hortonworks.registries.schemaregistry.SchemaSerDesMapping;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionStateStorable;
+import com.hortonworks.registries.schemaregistry.SchemaVersionStorable;
+import com.hortonworks.registries.schemaregistry.SerDesInfo;
+import com.hortonworks.registries.schemaregistry.SerDesInfoStorable;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import com.hortonworks.registries.schemaregistry.state.details.InitializedStateDetails;
+import com.hortonworks.registries.schemaregistry.state.details.MergeInfo;
+import com.hortonworks.registries.schemaregistry.utils.ObjectMapperUtils;
+import com.hortonworks.registries.storage.OrderByField;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Exports every schema of the registry in the {@link BulkUploadInputFormat#CLOUDERA} format, so the output
+ * can be imported again with {@link BulkUploadService}.
+ * <p>
+ * Schemas are read page by page, ordered by their id. Every page continues after the last id of the previous
+ * one, so the export never holds more than a single page in memory and does not need a long running
+ * transaction: schemas added while the export is running are included as long as their id is greater than
+ * the current position. The output is written as it is produced, so it can be compressed on the fly.
+ */
+public class BulkExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkExportService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_LOOKUP_BATCH_SIZE = 500;
+    static final String ENTITIES = "entities";
+
+    /** Storables read by the export, a storage manager created only for the export has to register them. */
+    public static final List<Class<? extends Storable>> STORABLES = Collections.unmodifiableList(Arrays.asList(
+            SchemaMetadataStorable.class,
+            SchemaBranchStorable.class,
+            SchemaBranchVersionMapping.class,
+            SchemaVersionStorable.class,
+            SchemaVersionStateStorable.class,
+            SchemaSerDesMapping.class,
+            SerDesInfoStorable.class));
+
+    private final StorageManager storageManager;
+    private final int pageSize;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public BulkExportService(StorageManager storageManager) {
+        this(storageManager, DEFAULT_PAGE_SIZE);
+    }
+
+    public BulkExportService(StorageManager storageManager, int pageSize) {
+        checkArgument(pageSize > 0, "Page size must be greater than 0");
+        this.storageManager = checkNotNull(storageManager, "storageManager");
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Write all the schemas into the given stream. The stream is flushed but not closed.
+     *
+     * @return the number of exported schemas
+     */
+    public int exportSchemas(OutputStream out) throws IOException {
+        int exported = 0;
+        Map<Long, SerDesInfo> serDesInfos = new HashMap<>();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(ENTITIES);
+
+            Long lastId = Long.MIN_VALUE;
+            Collection<SchemaMetadataStorable> page;
+            do {
+                page = nextPage(lastId);
+                for (SchemaMetadataStorable schemaMetadataStorable : page) {
+                    generator.writeObject(toAggregatedSchemaMetadataInfo(schemaMetadataStorable, serDesInfos));
+                    lastId = schemaMetadataStorable.getId();
+                    exported++;
+                }
+                generator.flush();
+                LOG.debug("Exported {} schemas", exported);
+            } while (page.size() >= pageSize);
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        LOG.info("Exported {} schemas", exported);
+        return exported;
+    }
+
+    private Collection<SchemaMetadataStorable> nextPage(Long lastId) {
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaMetadataStorable.NAME_SPACE)
+                .where(WhereClause.begin().gt(SchemaMetadataStorable.ID, lastId).combine())
+                .orderBy(OrderBy.asc(SchemaMetadataStorable.ID))
+                .limit(pageSize);
+        return storageManager.search(searchQuery);
+    }
+
+    private AggregatedSchemaMetadataInfo toAggregatedSchemaMetadataInfo(SchemaMetadataStorable schemaMetadataStorable,
+                                                                        Map<Long, SerDesInfo> serDesInfos) {
+        Long schemaMetadataId = schemaMetadataStorable.getId();
+
+        // all the versions of the schema are read with a single query and then distributed among the branches
+        Collection<SchemaVersionStorable> versionStorables = storageManager.find(SchemaVersionStorable.NAME_SPACE,
+                Collections.singletonList(new QueryParam(SchemaVersionStorable.SCHEMA_METADATA_ID, schemaMetadataId.toString())));
+        Map<Long, SchemaVersionStateStorable> initiatedStates = getInitiatedStates(
+                versionStorables.stream().map(SchemaVersionStorable::getId).collect(Collectors.toList()));
+        Map<Long, SchemaVersionInfo> versions = new HashMap<>();
+        for (SchemaVersionStorable versionStorable : versionStorables) {
+            SchemaVersionInfo schemaVersionInfo = versionStorable.toSchemaVersionInfo();
+            schemaVersionInfo.setMergeInfo(getMergeInfo(initiatedStates.get(schemaVersionInfo.getId())));
+            versions.put(schemaVersionInfo.getId(), schemaVersionInfo);
+        }
+
+        Collection<SchemaBranchStorable> branchStorables = storageManager.find(SchemaBranchStorable.NAME_SPACE,
+                Collections.singletonList(new QueryParam(SchemaBranchStorable.SCHEMA_METADATA_NAME, schemaMetadataStorable.getName())),
+                Collections.singletonList(OrderByField.of(SchemaBranchStorable.ID)));
+        List<AggregatedSchemaBranch> branches = new ArrayList<>();
+        for (SchemaBranchStorable branchStorable : branchStorables) {
+            branches.add(toAggregatedSchemaBranch(branchStorable.toSchemaBranch(), versions));
+        }
+
+        return new AggregatedSchemaMetadataInfo(schemaMetadataStorable.toSchemaMetadata(),
+                schemaMetadataId,
+                schemaMetadataStorable.getTimestamp(),
+                branches,
+                getSerDesInfos(schemaMetadataId, serDesInfos));
+    }
+
+    private AggregatedSchemaBranch toAggregatedSchemaBranch(SchemaBranch schemaBranch, Map<Long, SchemaVersionInfo> versions) {
+        Collection<SchemaBranchVersionMapping> mappings = storageManager.find(SchemaBranchVersionMapping.NAMESPACE,
+                Collections.singletonList(new QueryParam(SchemaBranchVersionMapping.SCHEMA_BRANCH_ID, schemaBranch.getId().toString())));
+
+        List<SchemaVersionInfo> branchVersions = mappings.stream()
+                .map(mapping -> versions.get(mapping.getSchemaVersionInfoId()))
+                .filter(schemaVersionInfo -> schemaVersionInfo != null)
+                .sorted(Comparator.comparing(SchemaVersionInfo::getVersion).reversed())
+                .collect(Collectors.toList());
+
+        // the root of a branch is the version of the master branch it was created from, which is its oldest version
+        Long rootVersion = null;
+        if (!SchemaBranch.MASTER_BRANCH.equals(schemaBranch.getName()) && !branchVersions.isEmpty()) {
+            rootVersion = branchVersions.stream().map(SchemaVersionInfo::getId).min(Long::compare).get();
+        }
+
+        return new AggregatedSchemaBranch(schemaBranch, rootVersion, branchVersions);
+    }
+
+    /**
+     * @return the last {@link SchemaVersionLifecycleStates#INITIATED} state of each of the given versions, read with a
+     *         single query per batch of versions
+     */
+    private Map<Long, SchemaVersionStateStorable> getInitiatedStates(List<Long> schemaVersionIds) {
+        Byte initiated = SchemaVersionLifecycleStates.INITIATED.getId();
+        Map<Long, SchemaVersionStateStorable> result = new HashMap<>();
+        for (List<Long> ids : Lists.partition(schemaVersionIds, MAX_LOOKUP_BATCH_SIZE)) {
+            SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStateStorable.NAME_SPACE)
+                    .where(WhereClause.begin()
+                            .in(SchemaVersionStateStorable.SCHEMA_VERSION_ID, ids)
+                            .and()
+                            .eq(SchemaVersionStateStorable.STATE, initiated)
+                            .combine());
+            // the in memory storage manager does not combine the predicates
+            Set<Long> idSet = new HashSet<>(ids);
+            Collection<SchemaVersionStateStorable> states = storageManager.search(searchQuery);
+            for (SchemaVersionStateStorable state : states) {
+                if (idSet.contains(state.getSchemaVersionId()) && initiated.equals(state.getStateId())) {
+                    result.merge(state.getSchemaVersionId(), state,
+                            (first, second) -> first.getSequence() >= second.getSequence() ? first : second);
+                }
+            }
+        }
+        return result;
+    }
+
+    private MergeInfo getMergeInfo(SchemaVersionStateStorable initiatedState) {
+        if (initiatedState == null || initiatedState.getDetails() == null) {
+            return null;
+        }
+        try {
+            InitializedStateDetails details = ObjectMapperUtils.deserialize(initiatedState.getDetails(), InitializedStateDetails.class);
+            return details.getMergeInfo();
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to deserialize state details of schema version : '%s'",
+                    initiatedState.getSchemaVersionId()), e);
+        }
+    }
+
+    private List<SerDesInfo> getSerDesInfos(Long schemaMetadataId, Map<Long, SerDesInfo> serDesInfos) {
+        Collection<SchemaSerDesMapping> mappings = storageManager.find(SchemaSerDesMapping.NAMESPACE,
+                Collections.singletonList(new QueryParam(SchemaSerDesMapping.SCHEMA_METADATA_ID, schemaMetadataId.toString())));
+        List<SerDesInfo> result = new ArrayList<>();
+        for (SchemaSerDesMapping mapping : mappings) {
+            // there are only a handful of serializers, so they are looked up once per export
+            SerDesInfo serDesInfo = serDesInfos.computeIfAbsent(mapping.getSerDesId(), serDesId -> {
+                SerDesInfoStorable serDesInfoStorable = new SerDesInfoStorable();
+                serDesInfoStorable.setId(serDesId);
+                SerDesInfoStorable storable = storageManager.get(serDesInfoStorable.getStorableKey());
+                return storable == null ? null : storable.toSerDesInfo();
+            });
+            if (serDesInfo != null) {
+                result.add(serDesInfo);
+            }
+        }
+        return result;
+    }
+}
@@ -15,9 +15,12 @@
  **/
 package com.hortonworks.registries.schemaregistry.exportimport;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaBranch;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
@@ -34,33 +37,74 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.errors.UnsupportedSchemaTypeException;
 import com.hortonworks.registries.schemaregistry.exportimport.reader.ClouderaFileReader;
 import com.hortonworks.registries.schemaregistry.exportimport.reader.ConfluentFileReader;
+import com.hortonworks.registries.storage.TransactionManager;
 import com.hortonworks.registries.storage.exception.AlreadyExistsException;
+import com.hortonworks.registries.storage.transaction.ManagedTransaction;
+import com.hortonworks.registries.storage.transaction.functional.ManagedTransactionFunction;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.hortonworks.registries.storage.transaction.TransactionIsolation.READ_COMMITTED;
 
+/**
+ * Imports the schemas of a previously exported file. The file is read in a streaming fashion and every schema,
+ * together with all its branches and versions, is imported as a single unit.
+ * <p>
+ * If a {@link TransactionManager} is provided, independent schemas are imported in parallel, each of them in
+ * its own transaction. The versions of a schema are always added in order and while holding the schema's lock.
+ * Schemas which include other schemas (see {@code includeSchemas} of Avro schemas) are kept aside while the file
+ * is read and imported one by one at the end, after the schemas they include.
+ * Since every schema is committed on its own, an interrupted import can be resumed by uploading the same
+ * file again: versions which already exist with the same schema text are skipped.
+ */
 public class BulkUploadService {
 
     private static final Logger LOG = LoggerFactory.getLogger(BulkUploadService.class);
 
+    public static final int DEFAULT_PARALLELISM = 4;
+    private static final int PROGRESS_REPORT_INTERVAL = 100;
+    private static final String INCLUDE_SCHEMAS = "includeSchemas";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final ISchemaRegistry schemaRegistry;
+    private final ManagedTransaction managedTransaction;
+    private final int parallelism;
 
     public BulkUploadService(ISchemaRegistry schemaRegistry) {
+        this(schemaRegistry, null, 1);
+    }
+
+    public BulkUploadService(ISchemaRegistry schemaRegistry, @Nullable TransactionManager transactionManager, int parallelism) {
         this.schemaRegistry = checkNotNull(schemaRegistry, "schemaRegistry");
+        checkState(parallelism > 0, "Parallelism must be greater than 0");
+        this.managedTransaction = transactionManager == null ? null : new ManagedTransaction(transactionManager, READ_COMMITTED);
+        this.parallelism = transactionManager == null ? 1 : parallelism;
     }
+
     public UploadResult bulkUploadSchemas(InputStream file, boolean failOnError, BulkUploadInputFormat format) {
         switch (format) {
             case CONFLUENT: return bulkUploadConfluentSchemas(file, failOnError);
@@ -70,36 +114,97 @@ public class BulkUploadService {
     }
 
     private UploadResult bulkUploadClouderaSchemas(InputStream file, boolean failOnError) {
-        AtomicInteger successCount = new AtomicInteger();
-        List<Long> failedIds = new ArrayList<>();
         ClouderaFileReader reader = new ClouderaFileReader(file);
-        List<AggregatedSchemaMetadataInfo> metadataInfos = reader.getMetadataInfos();
-        metadataInfos.stream()
-            .sorted(Comparator.comparingLong(AggregatedSchemaMetadataInfo::getId))
-            .forEach(info -> {
-            SchemaMetadataInfo existingSchemaMetadata = schemaRegistry.getSchemaMetadataInfo(info.getId());
-            if (existingSchemaMetadata == null) {
-                if (schemaRegistry.getSchemaMetadataInfo(info.getSchemaMetadata().getName()) == null) {
-                    LOG.debug("Adding SchemaMetadata with id {}", info.getId());
-                    schemaRegistry.addSchemaMetadataWithoutBranch(info::getId, info.getSchemaMetadata(), true);
+        SchemaImporter importer = new SchemaImporter();
+        Map<AggregatedSchemaMetadataInfo, Set<String>> dependentSchemas = new LinkedHashMap<>();
+        List<String> errors;
+        try {
+            errors = reader.readMetadataInfos(info -> {
+                Set<String> includedSchemaNames = findIncludedSchemaNames(info);
+                if (includedSchemaNames.isEmpty()) {
+                    importer.submit(info.getSchemaMetadata().getName(), () -> importOneSchema(info), () -> collectAllIdsForFailure(info));
                 } else {
-                    LOG.debug("SchemaMetadata with name {} already exists.", info.getSchemaMetadata().getName());
-                    failedIds.addAll(collectAllIdsForFailure(info));
+                    dependentSchemas.put(info, includedSchemaNames);
                 }
-            } else if (!(existingSchemaMetadata.getSchemaMetadata().getType().equals(info.getSchemaMetadata().getType()))) {
-                failedIds.addAll(collectAllIdsForFailure(info));
-                return;
-            } 
-            Collection<AggregatedSchemaBranch> schemaBranches = info.getSchemaBranches();
-            schemaBranches.stream()
-                .sorted(Comparator.comparingLong(aggregatedSchemaBranch -> aggregatedSchemaBranch.getSchemaBranch().getId()))
-                .forEach(branch -> importOneBranch(branch, info, failedIds, successCount));
-        });
-        List<Long> failedIdsWithoutDuplicates = new ArrayList<>(new HashSet<>(failedIds));
-        return new UploadResult(successCount.get(), failedIdsWithoutDuplicates.size(), failedIdsWithoutDuplicates);
+            });
+            importer.awaitSubmitted();
+            for (AggregatedSchemaMetadataInfo info : orderByIncludes(dependentSchemas)) {
+                importer.importSchema(info.getSchemaMetadata().getName(), () -> importOneSchema(info), () -> collectAllIdsForFailure(info));
+            }
+        } finally {
+            importer.awaitCompletion();
+        }
+        List<Long> failedIdsWithoutDuplicates = new ArrayList<>(new HashSet<>(importer.failedIds));
+        return new UploadResult(importer.successCount, failedIdsWithoutDuplicates.size(), failedIdsWithoutDuplicates,
+                importer.skippedCount, errors);
+    }
+
+    /** Names of the other schemas included by any version of the given schema. */
+    private Set<String> findIncludedSchemaNames(AggregatedSchemaMetadataInfo info) {
+        Set<String> includedSchemaNames = new HashSet<>();
+        for (AggregatedSchemaBranch branch : info.getSchemaBranches()) {
+            for (SchemaVersionInfo schemaVersionInfo : branch.getSchemaVersionInfos()) {
+                String schemaText = schemaVersionInfo.getSchemaText();
+                if (schemaText == null || !schemaText.contains(INCLUDE_SCHEMAS)) {
+                    continue;
+                }
+                try {
+                    for (JsonNode include : OBJECT_MAPPER.readTree(schemaText).path(INCLUDE_SCHEMAS)) {
+                        includedSchemaNames.add(include.path("name").asText());
+                    }
+                } catch (IOException e) {
+                    LOG.debug("Schema text of version with id {} is not JSON, it has no includes", schemaVersionInfo.getId());
+                }
+            }
+        }
+        includedSchemaNames.remove(info.getSchemaMetadata().getName());
+        return includedSchemaNames;
+    }
+
+    /**
+     * Orders the schemas so that a schema comes after the schemas it includes. Schemas which include each other
+     * are imported in the order of their ids, which is the order they were originally created in.
+     */
+    private List<AggregatedSchemaMetadataInfo> orderByIncludes(Map<AggregatedSchemaMetadataInfo, Set<String>> dependentSchemas) {
+        List<AggregatedSchemaMetadataInfo> pending = dependentSchemas.keySet().stream()
+                .sorted(Comparator.comparingLong(AggregatedSchemaMetadataInfo::getId))
+                .collect(Collectors.toCollection(LinkedList::new));
+        List<AggregatedSchemaMetadataInfo> ordered = new ArrayList<>(pending.size());
+        while (!pending.isEmpty()) {
+            Set<String> pendingNames = pending.stream().map(info -> info.getSchemaMetadata().getName()).collect(Collectors.toSet());
+            AggregatedSchemaMetadataInfo next = pending.stream()
+                    .filter(info -> Collections.disjoint(dependentSchemas.get(info), pendingNames))
+                    .findFirst()
+                    .orElse(pending.get(0));
+            pending.remove(next);
+            ordered.add(next);
+        }
+        return ordered;
     }
 
-    private void importOneBranch(AggregatedSchemaBranch branch, AggregatedSchemaMetadataInfo info, List<Long> failedIds, AtomicInteger successCount) {
+    private SchemaImportResult importOneSchema(AggregatedSchemaMetadataInfo info) {
+        SchemaImportResult result = new SchemaImportResult();
+        SchemaMetadataInfo existingSchemaMetadata = schemaRegistry.getSchemaMetadataInfo(info.getId());
+        if (existingSchemaMetadata == null) {
+            if (schemaRegistry.getSchemaMetadataInfo(info.getSchemaMetadata().getName()) == null) {
+                LOG.debug("Adding SchemaMetadata with id {}", info.getId());
+                schemaRegistry.addSchemaMetadataWithoutBranch(info::getId, info.getSchemaMetadata(), true);
+            } else {
+                LOG.debug("SchemaMetadata with name {} already exists.", info.getSchemaMetadata().getName());
+                result.failedIds.addAll(collectAllIdsForFailure(info));
+            }
+        } else if (!(existingSchemaMetadata.getSchemaMetadata().getType().equals(info.getSchemaMetadata().getType()))) {
+            result.failedIds.addAll(collectAllIdsForFailure(info));
+            return result;
+        }
+        Collection<AggregatedSchemaBranch> schemaBranches = info.getSchemaBranches();
+        schemaBranches.stream()
+            .sorted(Comparator.comparingLong(aggregatedSchemaBranch -> aggregatedSchemaBranch.getSchemaBranch().getId()))
+            .forEach(branch -> importOneBranch(branch, info, result));
+        return result;
+    }
+
+    private void importOneBranch(AggregatedSchemaBranch branch, AggregatedSchemaMetadataInfo info, SchemaImportResult result) {
         SchemaBranch existingBranch = null;
         try {
             existingBranch = schemaRegistry.getSchemaBranch(branch.getSchemaBranch().getId());
@@ -118,23 +223,48 @@ public class BulkUploadService {
         }
         if (existingBranch != null && existingBranch.getSchemaMetadataName().equals(info.getSchemaMetadata().getName())) {
             SchemaBranch finalExistingBranch = existingBranch;
-            branch.getSchemaVersionInfos().stream()
+            List<SchemaVersionInfo> versions = branch.getSchemaVersionInfos().stream()
                 .sorted(Comparator.comparingLong(SchemaVersionInfo::getId))
-                .forEach(schemaVersionInfo -> {
-                    try {
-                        handleAlreadyExistingSchemaVersion(schemaVersionInfo, failedIds);
-                    } catch (SchemaNotFoundException schemaNotFoundException) {
-                        createNewSchemaVersion(schemaVersionInfo, info, finalExistingBranch, successCount, failedIds);
+                .collect(Collectors.toList());
+            Map<Long, SchemaVersionInfo> existingVersions = findExistingVersions(versions, result);
+            for (SchemaVersionInfo schemaVersionInfo : versions) {
+                SchemaVersionInfo importedVersion = result.importedVersions.get(schemaVersionInfo.getId());
+                if (importedVersion != null) {
+                    // shared by several branches, it was already added while importing a previous branch
+                    if (!importedVersion.getSchemaText().equals(schemaVersionInfo.getSchemaText())) {
+                        result.failedIds.add(schemaVersionInfo.getId());
                     }
-                });
+                } else if (existingVersions.containsKey(schemaVersionInfo.getId())) {
+                    handleAlreadyExistingSchemaVersion(existingVersions.get(schemaVersionInfo.getId()), schemaVersionInfo, result);
+                } else {
+                    createNewSchemaVersion(schemaVersionInfo, info, finalExistingBranch, result);
+                }
+            }
         } else {
             LOG.debug("Schema branch with id {} got different schema metadata ", branch.getSchemaBranch().getId());
-            failedIds.addAll(branch.getSchemaVersionInfos().stream()
+            result.failedIds.addAll(branch.getSchemaVersionInfos().stream()
                 .map(SchemaVersionInfo::getId)
                 .collect(Collectors.toSet()));
         }
     }
 
+    /**
+     * Look up which versions of the branch are already present in the registry, before any of them gets imported.
+     * Versions which were added earlier during this import are not looked up again.
+     */
+    private Map<Long, SchemaVersionInfo> findExistingVersions(List<SchemaVersionInfo> versions, SchemaImportResult result) {
+        List<SchemaIdVersion> schemaIdVersions = versions.stream()
+                .map(SchemaVersionInfo::getId)
+                .filter(id -> !result.importedVersions.containsKey(id))
+                .map(SchemaIdVersion::new)
+                .collect(Collectors.toList());
+        if (schemaIdVersions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return schemaRegistry.getSchemaVersionInfos(schemaIdVersions).stream()
+                .collect(Collectors.toMap(SchemaVersionInfo::getId, Function.identity()));
+    }
+
     private Set<Long> collectAllIdsForFailure(AggregatedSchemaMetadataInfo info) {
         return info.getSchemaBranches().stream()
             .flatMap(b -> b.getSchemaVersionInfos().stream())
@@ -142,27 +272,28 @@ public class BulkUploadService {
             .collect(Collectors.toSet());
     }
 
-    private void handleAlreadyExistingSchemaVersion(SchemaVersionInfo schemaVersionInfo, List<Long> failedIds) throws SchemaNotFoundException {
-        SchemaVersionInfo existingVersion = schemaRegistry.getSchemaVersionInfo(new SchemaIdVersion(schemaVersionInfo.getId()));
+    private void handleAlreadyExistingSchemaVersion(SchemaVersionInfo existingVersion, SchemaVersionInfo schemaVersionInfo, SchemaImportResult result) {
         LOG.debug("SchemaVersionInfo with id {} already exists: {}", existingVersion.getId(), existingVersion);
         if (!existingVersion.getSchemaText().equals(schemaVersionInfo.getSchemaText())) {
             LOG.debug("Already existing SchemaVersionInfo with id {} does not have same schema text, adding id to failedId-s", existingVersion.getId());
-            failedIds.add(schemaVersionInfo.getId());
+            result.failedIds.add(schemaVersionInfo.getId());
         } else {
             LOG.debug("SchemaVersionInfo with id {} already exists and they have the same schemaText", schemaVersionInfo.getId());
+            result.skippedCount++;
         }
     }
 
-    private void createNewSchemaVersion(SchemaVersionInfo schemaVersionInfo, AggregatedSchemaMetadataInfo info, SchemaBranch finalExistingBranch, AtomicInteger successCount, List<Long> failedIds) {
-        LOG.debug("SchemaVersionInfo with id {} does not exist yet", schemaVersionInfo.getId());
+    private void createNewSchemaVersion(SchemaVersionInfo schemaVersionInfo, AggregatedSchemaMetadataInfo info, SchemaBranch finalExistingBranch,
+                                        SchemaImportResult result) {
         try {
             schemaRegistry.addSchemaVersionWithBranchName(finalExistingBranch.getName(), info.getSchemaMetadata(), schemaVersionInfo.getId(),
                 schemaVersionInfo); 
             LOG.debug("Added SchemaVersionInfo with id {}", schemaVersionInfo.getId());
-            successCount.getAndIncrement();
+            result.importedVersions.put(schemaVersionInfo.getId(), schemaVersionInfo);
+            result.successCount++;
         } catch (IncompatibleSchemaException | InvalidSchemaException | SchemaNotFoundException ex) {
             LOG.error("Exception while adding version with id {}", schemaVersionInfo.getId(), ex);
-            failedIds.add(schemaVersionInfo.getId());
+            result.failedIds.add(schemaVersionInfo.getId());
         }
     }
 
@@ -236,53 +367,178 @@ public class BulkUploadService {
     @VisibleForTesting
     UploadResult uploadValidSchemas(Multimap<SchemaMetadataInfo, SchemaVersionInfo> schemasToUpload,
                                     List<Long> failedIds) {
-        int successCount = 0;
+        SchemaImporter importer = new SchemaImporter();
+        try {
+            for (SchemaMetadataInfo meta : schemasToUpload.keySet()) {
+                Collection<SchemaVersionInfo> versions = schemasToUpload.get(meta);
+                importer.submit(meta.getSchemaMetadata().getName(),
+                        () -> uploadValidSchema(meta, versions),
+                        () -> Collections.singletonList(meta.getId()));
+            }
+        } finally {
+            importer.awaitCompletion();
+        }
+
+        failedIds.addAll(importer.failedIds);
+        return new UploadResult(importer.successCount, failedIds.size(), failedIds);
+    }
 
-        for (SchemaMetadataInfo meta : schemasToUpload.keySet()) {
-            Long schemaId;
+    private SchemaImportResult uploadValidSchema(SchemaMetadataInfo meta, Collection<SchemaVersionInfo> versions) {
+        SchemaImportResult result = new SchemaImportResult();
+        Long schemaId;
+        try {
+            LOG.info("Adding {}", meta.getSchemaMetadata());
+            schemaId = schemaRegistry.addSchemaMetadata(meta.getSchemaMetadata(), false);
+        } catch (UnsupportedSchemaTypeException | AlreadyExistsException ex) {
+            result.failedIds.add(meta.getId());
+            LOG.error("Could not add new schema metadata {}", meta, ex);
+            return result;  // skip all versions of this meta
+        }
+
+        SchemaMetadataInfo schemaMetadataInfo = schemaRegistry.getSchemaMetadataInfo(schemaId);
+        if (schemaMetadataInfo == null) {
+            result.failedIds.add(schemaId);
+            return result;
+        }
+        SchemaMetadata schemaMetadata = schemaMetadataInfo.getSchemaMetadata();
+        if (schemaMetadata == null) {
+            result.failedIds.add(schemaId);
+            return result;
+        }
+
+        for (SchemaVersionInfo version : versions) {
             try {
-                LOG.info("Adding {}", meta.getSchemaMetadata());
-                schemaId = schemaRegistry.addSchemaMetadata(meta.getSchemaMetadata(), false);
-            } catch (UnsupportedSchemaTypeException | AlreadyExistsException ex) {
-                failedIds.add(meta.getId());
-                LOG.error("Could not add new schema metadata {}", meta, ex);
-                continue;  // skip all versions of this meta
+                LOG.info("Adding version {} to schema {}", version.getVersion(), schemaMetadata.getName());
+                SchemaIdVersion schemaIdVersion = schemaRegistry.addSchemaVersionWithBranchName(
+                        "MASTER",
+                        schemaMetadata,
+                        version.getId(),
+                        version
+                );
+                checkState(schemaIdVersion.getVersion().equals(version.getVersion()),
+                        "Version not same after upload: %s vs %s",
+                        schemaIdVersion.getSchemaVersionId(), version.getId());
+                result.successCount++;
+            } catch (Exception ex) {
+                result.failedIds.add(schemaId);
+                LOG.error("Error while adding new version for schema {}: {}", meta.getSchemaMetadata().getName(),
+                        version, ex);
             }
+        }
+        return result;
+    }
+
+    /** Outcome of importing a single schema with all its branches and versions. */
+    private static class SchemaImportResult {
+        private int successCount = 0;
+        private int skippedCount = 0;
+        private final List<Long> failedIds = new ArrayList<>();
+        private final Map<Long, SchemaVersionInfo> importedVersions = new HashMap<>();
+    }
+
+    /**
+     * Runs the import of one schema at a time. Without a transaction manager, the schemas are imported on the
+     * calling thread, within the caller's transaction. Otherwise each schema is imported in its own transaction,
+     * submitted schemas on worker threads with at most twice as many schemas waiting as there are workers.
+     */
+    private class SchemaImporter {
+
+        private final ExecutorService executor;
+        private final Semaphore inFlight;
+        private final int maxInFlight;
 
-            SchemaMetadataInfo schemaMetadataInfo = schemaRegistry.getSchemaMetadataInfo(schemaId);
-            if (schemaMetadataInfo == null) {
-                failedIds.add(schemaId);
-                continue;
+        private int successCount = 0;
+        private int skippedCount = 0;
+        private int schemaCount = 0;
+        private final List<Long> failedIds = new ArrayList<>();
+
+        SchemaImporter() {
+            if (parallelism > 1) {
+                this.maxInFlight = parallelism * 2;
+                this.inFlight = new Semaphore(maxInFlight);
+                this.executor = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("bulk-upload-%d")
+                        .build());
+            } else {
+                this.maxInFlight = 0;
+                this.inFlight = null;
+                this.executor = null;
             }
-            SchemaMetadata schemaMetadata = schemaMetadataInfo.getSchemaMetadata();
-            if (schemaMetadata == null) {
-                failedIds.add(schemaId);
-                continue;
+        }
+
+        void submit(String schemaName, Supplier<SchemaImportResult> importSchema, Supplier<Collection<Long>> allIds) {
+            if (executor == null) {
+                importSchema(schemaName, importSchema, allIds);
+                return;
             }
 
-            Collection<SchemaVersionInfo> versions = schemasToUpload.get(meta);
-            for (SchemaVersionInfo version : versions) {
-                try {
-                    LOG.info("Adding version {} to schema {}", version.getVersion(), schemaMetadata.getName());
-                    SchemaIdVersion schemaIdVersion = schemaRegistry.addSchemaVersionWithBranchName(
-                            "MASTER",
-                            schemaMetadata,
-                            version.getId(),
-                            version
-                    );
-                    checkState(schemaIdVersion.getVersion().equals(version.getVersion()),
-                            "Version not same after upload: %s vs %s",
-                            schemaIdVersion.getSchemaVersionId(), version.getId());
-                    successCount++;
-                } catch (Exception ex) {
-                    failedIds.add(schemaId);
-                    LOG.error("Error while adding new version for schema {}: {}", meta.getSchemaMetadata().getName(),
-                            version, ex);
-                }
+            inFlight.acquireUninterruptibly();
+            try {
+                executor.submit(() -> {
+                    try {
+                        importSchema(schemaName, importSchema, allIds);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException ex) {
+                inFlight.release();
+                throw ex;
             }
         }
 
-        return new UploadResult(successCount, failedIds.size(), failedIds);
-    }
+        /** Import the schema on the calling thread. */
+        void importSchema(String schemaName, Supplier<SchemaImportResult> importSchema, Supplier<Collection<Long>> allIds) {
+            if (managedTransaction == null) {
+                complete(schemaName, importSchema.get());
+                return;
+            }
+
+            try {
+                SchemaImportResult result = managedTransaction.executeFunction(
+                        (ManagedTransactionFunction.Arg0<SchemaImportResult>) importSchema::get);
+                complete(schemaName, result);
+            } catch (Exception ex) {
+                LOG.error("Import of schema {} was rolled back", schemaName, ex);
+                SchemaImportResult failed = new SchemaImportResult();
+                failed.failedIds.addAll(allIds.get());
+                complete(schemaName, failed);
+            }
+        }
+
+        private synchronized void complete(String schemaName, SchemaImportResult result) {
+            successCount += result.successCount;
+            skippedCount += result.skippedCount;
+            failedIds.addAll(result.failedIds);
+            schemaCount++;
+            LOG.debug("Finished importing schema {}", schemaName);
+            if (schemaCount % PROGRESS_REPORT_INTERVAL == 0) {
+                LOG.info("Bulk upload progress: {} schemas processed, {} versions added, {} skipped, {} failed",
+                        schemaCount, successCount, skippedCount, failedIds.size());
+            }
+        }
+
+        /** Wait until every schema submitted so far is imported, further schemas can still be submitted. */
+        void awaitSubmitted() {
+            if (executor == null) {
+                return;
+            }
+            inFlight.acquireUninterruptibly(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
 
+        /** Wait until every submitted schema is imported. */
+        void awaitCompletion() {
+            if (executor == null) {
+                return;
+            }
+            inFlight.acquireUninterruptibly(maxInFlight);
+            executor.shutdown();
+            synchronized (this) {
+                LOG.info("Bulk upload finished: {} schemas processed, {} versions added, {} skipped, {} failed",
+                        schemaCount, successCount, skippedCount, failedIds.size());
+            }
+        }
+    }
 }
@@ -23,13 +23,17 @@ import java.util.stream.Collectors;
 /**
  * After uploading a file containing schemas exported from another database, we will
  * respond to the user with information about how many schemas were imported successfully
- * and how many failed.
+ * and how many failed. Versions which were already present with the same schema text are
+ * counted as skipped, so uploading the same file again after a partial import only adds
+ * what was missing. If the file could only be read partially, the reason is returned among the errors.
  */
 public class UploadResult {
 
     private int successCount;
     private int failedCount;
     private List<Long> failedIds;
+    private int skippedCount;
+    private List<String> errors = Collections.emptyList();
 
     @Override
     public boolean equals(Object o) {
@@ -42,12 +46,13 @@ public class UploadResult {
         UploadResult that = (UploadResult) o;
         Collections.sort(failedIds);
         Collections.sort(that.failedIds);
-        return successCount == that.successCount && failedCount == that.failedCount && Objects.equals(failedIds, that.failedIds);
+        return successCount == that.successCount && failedCount == that.failedCount && skippedCount == that.skippedCount
+                && Objects.equals(failedIds, that.failedIds) && Objects.equals(errors, that.errors);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(successCount, failedCount, failedIds);
+        return Objects.hash(successCount, failedCount, failedIds, skippedCount, errors);
     }
 
     @Override
@@ -56,15 +61,27 @@ public class UploadResult {
                 "successCount=" + successCount +
                 ", failedCount=" + failedCount +
                 ", failedIds=" + failedIds +
+                ", skippedCount=" + skippedCount +
+                ", errors=" + errors +
                 '}';
     }
 
     public UploadResult() { }
 
     public UploadResult(int successCount, int failedCount, List<Long> failedIds) {
+        this(successCount, failedCount, failedIds, 0);
+    }
+
+    public UploadResult(int successCount, int failedCount, List<Long> failedIds, int skippedCount) {
+        this(successCount, failedCount, failedIds, skippedCount, Collections.emptyList());
+    }
+
+    public UploadResult(int successCount, int failedCount, List<Long> failedIds, int skippedCount, List<String> errors) {
         this.successCount = successCount;
         this.failedCount = failedCount;
         this.failedIds = removeDuplicates(failedIds);
+        this.skippedCount = skippedCount;
+        this.errors = errors;
     }
 
     private static List<Long> removeDuplicates(List<Long> failedIds) {
@@ -99,4 +116,20 @@ public class UploadResult {
         this.failedIds = failedIds;
     }
 
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    public void setSkippedCount(int skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
 }
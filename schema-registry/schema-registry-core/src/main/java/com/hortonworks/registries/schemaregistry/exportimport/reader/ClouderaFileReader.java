@@ -15,9 +15,9 @@
  **/
 package com.hortonworks.registries.schemaregistry.exportimport.reader;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
@@ -25,11 +25,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Parse a file that has previously been created with REST API endpoint
@@ -225,26 +226,60 @@ public class ClouderaFileReader {
 
     public List<AggregatedSchemaMetadataInfo> getMetadataInfos() {
         ImmutableList.Builder<AggregatedSchemaMetadataInfo> metadataInfos = ImmutableList.builder();
-        try {
+        List<String> errors = readMetadataInfos(metadataInfos::add);
+        checkState(errors.isEmpty(), "Schemas can not be read: %s", errors);
+        return metadataInfos.build();
+    }
 
-            JsonNode jsonNode = mapper.readValue(file,
-                JsonNode.class);
-            checkNotNull(jsonNode, "Values in file can not be read");
-            ObjectNode objectNode = (ObjectNode) jsonNode;
-            Iterator<Map.Entry<String, JsonNode>> iter = objectNode.fields();
-            while (iter.hasNext()) {
-                Map.Entry<String, JsonNode> entry = iter.next();
-                Iterator<JsonNode> iterator = entry.getValue().iterator();
-                while (iterator.hasNext()) {
-                    JsonNode metadataInfo = iterator.next();
-                    AggregatedSchemaMetadataInfo aggregatedSchemaMetadataInfo = mapper.readValue(metadataInfo.traverse(), AggregatedSchemaMetadataInfo.class);
+    /**
+     * Parse the file incrementally and pass each schema to the consumer as soon as it was read. Only one
+     * schema is kept in memory at a time, regardless of the size of the file.
+     * <p>
+     * The schemas read before a parse error are still passed to the consumer, the rest of the file is skipped.
+     *
+     * @return the errors which stopped the parsing, empty if the whole file was read
+     */
+    public List<String> readMetadataInfos(Consumer<AggregatedSchemaMetadataInfo> consumer) {
+        List<String> errors = new ArrayList<>();
+        int schemaCount = 0;
+        try (JsonParser parser = mapper.getFactory().createParser(file)) {
+            JsonToken token = parser.nextToken();
+            checkNotNull(token, "Values in file can not be read");
+            checkState(token == JsonToken.START_OBJECT, "Expected a JSON object but found %s", token);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    AggregatedSchemaMetadataInfo aggregatedSchemaMetadataInfo = mapper.readValue(parser, AggregatedSchemaMetadataInfo.class);
                     checkNotNull(aggregatedSchemaMetadataInfo, "AggregatedMetadataInfo is null");
-                    metadataInfos.add(aggregatedSchemaMetadataInfo);
+                    schemaCount++;
+                    try {
+                        consumer.accept(aggregatedSchemaMetadataInfo);
+                    } catch (RuntimeException e) {
+                        throw new ConsumerException(e);
+                    }
                 }
             }
+        } catch (ConsumerException e) {
+            // not a parsing error, let the caller handle it
+            throw e.getCause();
         } catch (Exception e) {
-            LOG.error("Error while reading schemas", e);
+            LOG.error("Error while reading schemas, {} schemas were read", schemaCount, e);
+            errors.add(String.format("Error after reading %d schemas: %s", schemaCount, e.getMessage()));
+        }
+        return errors;
+    }
+
+    private static class ConsumerException extends RuntimeException {
+        ConsumerException(RuntimeException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
         }
-        return metadataInfos.build();
     }
 }
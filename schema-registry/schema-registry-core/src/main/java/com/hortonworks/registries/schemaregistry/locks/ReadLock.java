@@ -16,6 +16,8 @@
 
 package com.hortonworks.registries.schemaregistry.locks;
 
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.schemaregistry.SchemaLockStorable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.TransactionManager;
@@ -24,6 +26,8 @@ import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 public class ReadLock implements Lock {
+    private static final String WAIT_METRIC = RegistryMetrics.name(SchemaLockManager.class, "read", "wait");
+    private static final String TIMEOUTS_METRIC = RegistryMetrics.name(SchemaLockManager.class, "read", "timeouts");
 
     private String lockName;
     private long lockHoldingThreadId = -1L;
@@ -48,11 +52,15 @@ public class ReadLock implements Lock {
     @Override
     public boolean lock(Long time, TimeUnit timeUnit) {
         StorableKey storableKey = new SchemaLockStorable(lockName).getStorableKey();
-        boolean isLocked = transactionManager.readLock(storableKey, time, timeUnit);
+        boolean isLocked;
+        try (RegistryMetrics.Context ignored = Metrics.get().time(WAIT_METRIC)) {
+            isLocked = transactionManager.readLock(storableKey, time, timeUnit);
+        }
 
         if (isLocked) {
             this.lockHoldingThreadId = Thread.currentThread().getId();
         } else {
+            Metrics.get().mark(TIMEOUTS_METRIC);
             this.lockHoldingThreadId = -1L;
         }
 
@@ -16,6 +16,8 @@
 
 package com.hortonworks.registries.schemaregistry.locks;
 
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.schemaregistry.SchemaLockStorable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.TransactionManager;
@@ -24,6 +26,8 @@ import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 public class WriteLock implements Lock {
+    private static final String WAIT_METRIC = RegistryMetrics.name(SchemaLockManager.class, "write", "wait");
+    private static final String TIMEOUTS_METRIC = RegistryMetrics.name(SchemaLockManager.class, "write", "timeouts");
 
     private String lockName;
     private Long lockHoldingThreadId = -1L;
@@ -48,11 +52,15 @@ public class WriteLock implements Lock {
     @Override
     public boolean lock(Long time, TimeUnit timeUnit) {
         StorableKey storableKey = new SchemaLockStorable(lockName).getStorableKey();
-        boolean isLocked = transactionManager.writeLock(storableKey, time, timeUnit);
+        boolean isLocked;
+        try (RegistryMetrics.Context ignored = Metrics.get().time(WAIT_METRIC)) {
+            isLocked = transactionManager.writeLock(storableKey, time, timeUnit);
+        }
 
         if (isLocked) {
             this.lockHoldingThreadId = Thread.currentThread().getId();
         } else {
+            Metrics.get().mark(TIMEOUTS_METRIC);
             this.lockHoldingThreadId = -1L;
         }
 
@@ -17,35 +17,55 @@ package com.hortonworks.registries.schemaregistry;
 
 import com.google.common.collect.ImmutableList;
 import com.hortonworks.registries.common.CompatibilityConfig;
+import com.hortonworks.registries.common.FileStorageConfiguration;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.common.RegistryConfiguration;
+import com.hortonworks.registries.common.util.FileStorage;
+import com.hortonworks.registries.common.util.LocalFileSystemStorage;
 import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.json.JsonSchemaProvider;
 import com.hortonworks.registries.schemaregistry.locks.SchemaLockManager;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
 import com.hortonworks.registries.storage.NOOPTransactionManager;
 import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
 import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
 import com.hortonworks.registries.storage.search.WhereClause;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -337,6 +357,332 @@ public class DefaultSchemaRegistryTest {
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void testGetSchemaVersionInfosWithLookup() {
+        //given
+        StorageManager storageManager = new InMemoryStorageManager();
+        underTest = new DefaultSchemaRegistry(new RegistryConfiguration(), storageManager, null,
+                Collections.singletonList(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName())),
+                new SchemaLockManager(new NOOPTransactionManager()), new CompatibilityConfig());
+        storageManager.add(createSchemaVersionStorable(1L, "rain", 1));
+        storageManager.add(createSchemaVersionStorable(2L, "rain", 2));
+        storageManager.add(createSchemaVersionStorable(3L, "snow", 1));
+        storageManager.add(createSchemaVersionStorable(4L, "snow", 2));
+        storageManager.add(createSchemaVersionStorable(5L, "snow", 3));
+        SchemaBranchStorable master = new SchemaBranchStorable(SchemaBranch.MASTER_BRANCH, "snow", SchemaBranch.MASTER_BRANCH_DESC);
+        master.setId(1L);
+        storageManager.add(master);
+        SchemaBranchStorable branch = new SchemaBranchStorable("storm", "snow", "branch");
+        branch.setId(2L);
+        storageManager.add(branch);
+        storageManager.add(new SchemaBranchVersionMapping(1L, 3L));
+        storageManager.add(new SchemaBranchVersionMapping(1L, 4L));
+        storageManager.add(new SchemaBranchVersionMapping(2L, 4L));
+        storageManager.add(new SchemaBranchVersionMapping(2L, 5L));
+
+        //when
+        Collection<SchemaVersionInfo> actual = underTest.getSchemaVersionInfos(new SchemaVersionLookup(
+                Arrays.asList(1L, 3L, 42L),
+                Arrays.asList(new SchemaVersionKey("rain", 1), new SchemaVersionKey("snow", SchemaVersionKey.LATEST_VERSION),
+                        new SchemaVersionKey("wind", 1))));
+
+        //then
+        // missing versions are left out, versions requested both ways are returned only once and the latest version
+        // is the one of the master branch
+        assertEquals(3, actual.size());
+        assertEquals(new HashSet<>(Arrays.asList(1L, 3L, 4L)), actual.stream().map(SchemaVersionInfo::getId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testAddSchemaVersionAfterConcurrentRegistration() throws Exception {
+        //given
+        AtomicInteger lockUpdates = new AtomicInteger();
+        StorageManager storageManager = new InMemoryStorageManager() {
+            @Override
+            public void update(Storable storable) {
+                if (storable instanceof SchemaLockStorable && lockUpdates.getAndIncrement() == 0) {
+                    // another server registers a version in the meantime
+                    SchemaLockStorable stored = get(storable.getStorableKey());
+                    SchemaLockStorable concurrent = new SchemaLockStorable(stored.getName(), System.currentTimeMillis());
+                    concurrent.setVersion(stored.getVersion() + 1);
+                    super.update(concurrent);
+                }
+                super.update(storable);
+            }
+        };
+        underTest = new DefaultSchemaRegistry(new RegistryConfiguration(), storageManager, null,
+                Collections.singletonList(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName())),
+                new SchemaLockManager(new NOOPTransactionManager()), new CompatibilityConfig());
+        underTest.addSchemaMetadata(new SchemaMetadata.Builder("rain").type(AvroSchemaProvider.TYPE).schemaGroup("kafka").build());
+
+        //when
+        SchemaIdVersion registered = underTest.addSchemaVersion("rain", new SchemaVersion("\"string\"", "first"), false);
+        SchemaIdVersion reregistered = underTest.addSchemaVersion("rain", new SchemaVersion("\"string\"", "again"), false);
+
+        //then
+        // the conflicting attempt is retried, and the registration of the same text again does not update the lock
+        assertEquals(Integer.valueOf(1), registered.getVersion());
+        assertEquals(registered.getSchemaVersionId(), reregistered.getSchemaVersionId());
+        assertEquals(2, lockUpdates.get());
+        SchemaLockStorable schemaLock = storageManager.get(new SchemaLockStorable(SchemaMetadataStorable.NAME_SPACE, "rain").getStorableKey());
+        assertEquals(Long.valueOf(2L), schemaLock.getVersion());
+    }
+
+    @Test
+    public void testLatestEnabledVersionFollowsStateChanges() throws Exception {
+        //given
+        StorageManager storageManager = new InMemoryStorageManager();
+        underTest = new DefaultSchemaRegistry(new RegistryConfiguration(), storageManager, null,
+                Collections.singletonList(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName())),
+                new SchemaLockManager(new NOOPTransactionManager()), new CompatibilityConfig());
+        underTest.addSchemaMetadata(new SchemaMetadata.Builder("rain").type(AvroSchemaProvider.TYPE).schemaGroup("kafka")
+                .compatibility(SchemaCompatibility.NONE).build());
+        SchemaIdVersion first = underTest.addSchemaVersion("rain", new SchemaVersion("\"string\"", "first"), false);
+        SchemaIdVersion second = underTest.addSchemaVersion("rain", new SchemaVersion("\"int\"", "second"), false);
+
+        //when
+        SchemaVersionInfo latestOfTwo = underTest.getLatestEnabledSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, "rain");
+        underTest.disableSchemaVersion(second.getSchemaVersionId());
+        SchemaVersionInfo latestAfterDisable = underTest.getLatestEnabledSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, "rain");
+        underTest.disableSchemaVersion(first.getSchemaVersionId());
+        SchemaVersionInfo latestOfNone = underTest.getLatestEnabledSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, "rain");
+        SchemaIdVersion reregistered = underTest.addSchemaVersion("rain", new SchemaVersion("\"int\"", "again"), false);
+
+        //then
+        // the pointer falls back to the previous enabled version, and the fingerprint index finds the existing version
+        assertEquals(second.getSchemaVersionId(), latestOfTwo.getId());
+        assertEquals(first.getSchemaVersionId(), latestAfterDisable.getId());
+        assertNull(latestOfNone);
+        assertEquals(second.getSchemaVersionId(), reregistered.getSchemaVersionId());
+    }
+
+    @Test
+    public void testCurrentStateIsKeptWithTheVersion() throws Exception {
+        //given
+        StorageManager storageManager = new InMemoryStorageManager();
+        underTest = new DefaultSchemaRegistry(new RegistryConfiguration(), storageManager, null,
+                Collections.singletonList(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName())),
+                new SchemaLockManager(new NOOPTransactionManager()), new CompatibilityConfig());
+        underTest.addSchemaMetadata(new SchemaMetadata.Builder("rain").type(AvroSchemaProvider.TYPE).schemaGroup("kafka")
+                .compatibility(SchemaCompatibility.NONE).build());
+        Long first = underTest.addSchemaVersion("rain", new SchemaVersion("\"string\"", "first"), false).getSchemaVersionId();
+        Long second = underTest.addSchemaVersion("rain", new SchemaVersion("\"int\"", "second"), false).getSchemaVersionId();
+
+        //when
+        underTest.disableSchemaVersion(first);
+        underTest.archiveSchemaVersion(first);
+        Collection<SchemaVersionInfo> enabled = underTest.getAllVersions(SchemaBranch.MASTER_BRANCH, "rain",
+                Collections.singletonList(SchemaVersionLifecycleStates.ENABLED.getId()));
+        Collection<SchemaVersionInfo> archived = underTest.getAllVersions(SchemaBranch.MASTER_BRANCH, "rain",
+                Collections.singletonList(SchemaVersionLifecycleStates.ARCHIVED.getId()));
+        Map<Long, List<SchemaVersionStateInfo>> states = underTest.getSchemaVersionStates(Arrays.asList(first, second, 42L));
+
+        //then
+        assertEquals(Collections.singletonList(second), enabled.stream().map(SchemaVersionInfo::getId).collect(Collectors.toList()));
+        assertEquals(Collections.singletonList(first), archived.stream().map(SchemaVersionInfo::getId).collect(Collectors.toList()));
+        assertEquals(new HashSet<>(Arrays.asList(first, second)), states.keySet());
+        assertEquals(Arrays.asList(SchemaVersionLifecycleStates.ENABLED.getId(), SchemaVersionLifecycleStates.DISABLED.getId(),
+                SchemaVersionLifecycleStates.ARCHIVED.getId()),
+                states.get(first).stream().map(SchemaVersionStateInfo::getStateId).collect(Collectors.toList()));
+        SchemaVersionStorable firstVersion = storageManager.get(new StorableKey(SchemaVersionStorable.NAME_SPACE,
+                SchemaVersionStorable.getPrimaryKey(first)));
+        // the sequence kept with the version is the one of the latest state
+        assertEquals(states.get(first).get(2).getSequence(), firstVersion.getStateSequence());
+    }
+
+    @Test
+    public void testAddSchemaVersionsReportsEveryItem() throws Exception {
+        //given
+        StorageManager storageManager = new InMemoryStorageManager();
+        underTest = new DefaultSchemaRegistry(new RegistryConfiguration(), storageManager, null,
+                Collections.singletonList(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName())),
+                new SchemaLockManager(new NOOPTransactionManager()), new CompatibilityConfig());
+        underTest.addSchemaMetadata(new SchemaMetadata.Builder("rain").type(AvroSchemaProvider.TYPE).schemaGroup("kafka")
+                .compatibility(SchemaCompatibility.NONE).build());
+        SchemaIdVersion existing = underTest.addSchemaVersion("rain", new SchemaVersion("\"string\"", "first"), false);
+
+        //when
+        SchemaVersionBatchResult perItem = underTest.addSchemaVersions(new SchemaVersionBatch(Arrays.asList(
+                new SchemaVersionBatch.Item("rain", new SchemaVersion("\"string\"", "again")),
+                new SchemaVersionBatch.Item("snow", new SchemaVersion("\"string\"", "missing schema")),
+                new SchemaVersionBatch.Item("rain", new SchemaVersion("\"int\"", "second"))),
+                SchemaVersionBatch.TransactionMode.PER_ITEM, false));
+        SchemaVersionBatchResult allOrNothing = underTest.addSchemaVersions(new SchemaVersionBatch(Arrays.asList(
+                new SchemaVersionBatch.Item("snow", new SchemaVersion("\"string\"", "missing schema")),
+                new SchemaVersionBatch.Item("rain", new SchemaVersion("\"long\"", "third"))),
+                SchemaVersionBatch.TransactionMode.ALL_OR_NOTHING, false));
+
+        //then
+        assertEquals(Arrays.asList(SchemaVersionBatchResult.Status.EXISTING, SchemaVersionBatchResult.Status.FAILED,
+                SchemaVersionBatchResult.Status.REGISTERED),
+                perItem.getResults().stream().map(SchemaVersionBatchResult.ItemResult::getStatus).collect(Collectors.toList()));
+        assertEquals(existing.getSchemaVersionId(), perItem.getResults().get(0).getSchemaIdVersion().getSchemaVersionId());
+        assertNotNull(perItem.getResults().get(1).getErrorMessage());
+        assertEquals(Integer.valueOf(2), perItem.getResults().get(2).getSchemaIdVersion().getVersion());
+        assertEquals(Arrays.asList(SchemaVersionBatchResult.Status.FAILED, SchemaVersionBatchResult.Status.ABORTED),
+                allOrNothing.getResults().stream().map(SchemaVersionBatchResult.ItemResult::getStatus).collect(Collectors.toList()));
+        assertEquals(2, underTest.getAllVersions("rain").size());
+    }
+
+    @Test
+    public void testGetDependentSchemaVersions() throws Exception {
+        //given
+        StorageManager storageManager = new InMemoryStorageManager();
+        underTest = createRegistryWithIncludes(storageManager);
+
+        //when
+        Collection<SchemaVersionKey> direct = underTest.getDependentSchemaVersions("base", false);
+        Collection<SchemaVersionKey> transitive = underTest.getDependentSchemaVersions("base", true);
+
+        //then
+        assertEquals(Collections.singletonList(new SchemaVersionKey("middle", 1)), new ArrayList<>(direct));
+        assertEquals(Arrays.asList(new SchemaVersionKey("middle", 1), new SchemaVersionKey("top", 1)), new ArrayList<>(transitive));
+        assertEquals(Collections.singletonList(new SchemaVersionKey("top", 1)),
+                new ArrayList<>(underTest.getDependentSchemaVersions("middle", true)));
+        assertEquals(Collections.emptyList(), new ArrayList<>(underTest.getDependentSchemaVersions("top", true)));
+    }
+
+    @Test
+    public void testDuplicateIncludesAreStoredOnce() throws Exception {
+        //given
+        StorageManager storageManager = new InMemoryStorageManager();
+
+        //when
+        underTest = createRegistryWithIncludes(storageManager);
+
+        //then
+        // middle includes base twice, only the first include is kept
+        Long middleId = underTest.getSchemaVersionInfo(new SchemaVersionKey("middle", 1)).getId();
+        Collection<SchemaVersionIncludeStorable> includes = findIncludes(storageManager, middleId);
+        assertEquals(1, includes.size());
+        SchemaVersionIncludeStorable include = includes.iterator().next();
+        assertEquals("base", include.getIncludedSchemaName());
+        assertEquals(Integer.valueOf(1), include.getIncludedVersion());
+    }
+
+    @Test
+    public void testIncludesAreRemovedWithTheVersion() throws Exception {
+        //given
+        StorageManager storageManager = new InMemoryStorageManager();
+        underTest = createRegistryWithIncludes(storageManager);
+        Long topId = underTest.getSchemaVersionInfo(new SchemaVersionKey("top", 1)).getId();
+
+        //when
+        underTest.deleteSchemaVersion(new SchemaVersionKey("top", 1));
+
+        //then
+        assertEquals(0, findIncludes(storageManager, topId).size());
+        assertEquals(Collections.emptyList(), new ArrayList<>(underTest.getDependentSchemaVersions("middle", false)));
+        assertEquals(Collections.singletonList(new SchemaVersionKey("middle", 1)),
+                new ArrayList<>(underTest.getDependentSchemaVersions("base", true)));
+    }
+
+    @Test
+    public void testUploadingTheSameContentStoresOneFile() throws Exception {
+        //given
+        File uploadDir = Files.createTempDirectory("upload").toFile();
+        uploadDir.deleteOnExit();
+        underTest = createRegistryWithFileStorage(createFileStorage(uploadDir));
+
+        //when
+        String first = underTest.uploadFile(new ByteArrayInputStream(new byte[] {1, 2, 3}), "0123abcd");
+        String second = underTest.uploadFile(new ByteArrayInputStream(new byte[] {1, 2, 3}), "0123abcd");
+
+        //then
+        assertEquals(first, second);
+        assertEquals(Collections.singletonList(first), Arrays.asList(uploadDir.list()));
+        try (InputStream content = underTest.downloadFile(second)) {
+            assertArrayEquals(new byte[] {1, 2, 3}, IOUtils.toByteArray(content));
+        }
+    }
+
+    @Test
+    public void testUploadingContentStoredByAConcurrentUploadReturnsTheStoredFile() throws Exception {
+        //given
+        File uploadDir = Files.createTempDirectory("upload").toFile();
+        uploadDir.deleteOnExit();
+        FileStorage fileStorage = spy(createFileStorage(uploadDir));
+        fileStorage.upload(new ByteArrayInputStream(new byte[] {1, 2, 3}), "sha256-0123abcd");
+        // the concurrent upload stores the file after this one checked for it
+        doReturn(false).doCallRealMethod().when(fileStorage).exists("sha256-0123abcd");
+        underTest = createRegistryWithFileStorage(fileStorage);
+
+        //when
+        String fileId = underTest.uploadFile(new ByteArrayInputStream(new byte[] {1, 2, 3}), "0123abcd");
+
+        //then
+        assertEquals("sha256-0123abcd", fileId);
+        assertEquals(Collections.singletonList(fileId), Arrays.asList(uploadDir.list()));
+        verify(fileStorage, times(2)).upload(any(InputStream.class), eq(fileId));
+    }
+
+    @Test
+    public void testUploadFailsWhenTheStorageCanNotBeChecked() throws Exception {
+        //given
+        File uploadDir = Files.createTempDirectory("upload").toFile();
+        uploadDir.deleteOnExit();
+        FileStorage fileStorage = spy(createFileStorage(uploadDir));
+        doThrow(new IOException("storage is not available")).when(fileStorage).exists("sha256-0123abcd");
+        underTest = createRegistryWithFileStorage(fileStorage);
+
+        //when
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> underTest.uploadFile(new ByteArrayInputStream(new byte[] {1, 2, 3}), "0123abcd"));
+
+        //then
+        assertTrue(e.getCause() instanceof IOException);
+        verify(fileStorage, never()).upload(any(InputStream.class), any());
+    }
+
+    private static FileStorage createFileStorage(File uploadDir) {
+        FileStorageConfiguration config = new FileStorageConfiguration();
+        config.getProperties().setDirectory(uploadDir.getAbsolutePath());
+        return new LocalFileSystemStorage(config);
+    }
+
+    private DefaultSchemaRegistry createRegistryWithFileStorage(FileStorage fileStorage) {
+        return new DefaultSchemaRegistry(new RegistryConfiguration(), new InMemoryStorageManager(), fileStorage,
+                Collections.singletonList(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName())),
+                new SchemaLockManager(new NOOPTransactionManager()), new CompatibilityConfig());
+    }
+
+    /** Registers base, middle including base (twice) and top including middle. */
+    private DefaultSchemaRegistry createRegistryWithIncludes(StorageManager storageManager) throws Exception {
+        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(new RegistryConfiguration(), storageManager, null,
+                Collections.singletonList(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName())),
+                new SchemaLockManager(new NOOPTransactionManager()), new CompatibilityConfig());
+        for (String name : Arrays.asList("base", "middle", "top")) {
+            schemaRegistry.addSchemaMetadata(new SchemaMetadata.Builder(name).type(AvroSchemaProvider.TYPE).schemaGroup("kafka").build());
+        }
+        schemaRegistry.addSchemaVersion("base", new SchemaVersion("{\"type\":\"record\",\"name\":\"Base\",\"namespace\":\"com.example\"," +
+                "\"fields\":[{\"name\":\"id\",\"type\":\"string\"}]}", "base"), false);
+        schemaRegistry.addSchemaVersion("middle", new SchemaVersion("{\"type\":\"record\",\"name\":\"Middle\",\"namespace\":\"com.example\"," +
+                "\"includeSchemas\":[{\"name\":\"base\",\"version\":1},{\"name\":\"base\"}]," +
+                "\"fields\":[{\"name\":\"base\",\"type\":\"com.example.Base\"}]}", "middle"), false);
+        schemaRegistry.addSchemaVersion("top", new SchemaVersion("{\"type\":\"record\",\"name\":\"Top\",\"namespace\":\"com.example\"," +
+                "\"includeSchemas\":[{\"name\":\"middle\"}]," +
+                "\"fields\":[{\"name\":\"middle\",\"type\":\"com.example.Middle\"}]}", "top"), false);
+        return schemaRegistry;
+    }
+
+    private static Collection<SchemaVersionIncludeStorable> findIncludes(StorageManager storageManager, Long schemaVersionId) {
+        return storageManager.find(SchemaVersionIncludeStorable.NAME_SPACE,
+                Collections.singletonList(new QueryParam(SchemaVersionIncludeStorable.SCHEMA_VERSION_ID, String.valueOf(schemaVersionId))));
+    }
+
+    private SchemaVersionStorable createSchemaVersionStorable(Long id, String schemaName, int version) {
+        SchemaVersionStorable storable = new SchemaVersionStorable();
+        storable.setId(id);
+        storable.setSchemaMetadataId(1L);
+        storable.setName(schemaName);
+        storable.setVersion(version);
+        storable.setSchemaText("\"string\"");
+        storable.setFingerprint("fingerprint-" + id);
+        storable.setTimestamp(System.currentTimeMillis());
+        storable.setState(SchemaVersionLifecycleStates.ENABLED.getId());
+        return storable;
+    }
+
     private SchemaMetadataStorable createSchemaMetadataStorable(String schemaName) {
         SchemaMetadataStorable storable = new SchemaMetadataStorable();
         storable.setId(1L);
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SchemaChangeLogTest {
+
+    private InMemoryStorageManager storageManager;
+    private SchemaChangeLog schemaChangeLog;
+
+    @BeforeEach
+    public void setup() {
+        storageManager = new InMemoryStorageManager();
+        schemaChangeLog = new SchemaChangeLog(storageManager, 10L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        schemaChangeLog.close();
+    }
+
+    @Test
+    public void testChangesAreReadInOrder() throws Exception {
+        assertEquals(Long.valueOf(0L), schemaChangeLog.getChanges(null, Collections.emptyList()).getSequence());
+
+        schemaChangeLog.schemaMetadataChanged(SchemaChange.Type.SCHEMA_METADATA_ADDED, schemaMetadataInfo());
+        schemaChangeLog.schemaVersionChanged(SchemaChange.Type.SCHEMA_VERSION_ADDED, "kafka", schemaVersionInfo());
+
+        SchemaChanges changes = schemaChangeLog.getChanges(0L, Collections.emptyList());
+        assertEquals(Long.valueOf(2L), changes.getSequence());
+        assertEquals(Arrays.asList(SchemaChange.Type.SCHEMA_METADATA_ADDED, SchemaChange.Type.SCHEMA_VERSION_ADDED),
+                changes.getChanges().stream().map(SchemaChange::getType).collect(Collectors.toList()));
+        SchemaChange versionChange = changes.getChanges().get(1);
+        assertEquals("rain", versionChange.getSchemaName());
+        assertEquals("kafka", versionChange.getSchemaGroup());
+        assertEquals(Long.valueOf(3L), versionChange.getSchemaVersionId());
+        assertEquals(Integer.valueOf(2), versionChange.getVersion());
+
+        SchemaChanges noChanges = schemaChangeLog.getChanges(2L, Collections.emptyList());
+        assertTrue(noChanges.getChanges().isEmpty());
+        assertEquals(Long.valueOf(2L), noChanges.getSequence());
+        assertEquals(Long.valueOf(2L), schemaChangeLog.getChanges(null, Collections.emptyList()).getSequence());
+    }
+
+    @Test
+    public void testWaitsForChange() throws Exception {
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                return;
+            }
+            schemaChangeLog.schemaMetadataChanged(SchemaChange.Type.SCHEMA_METADATA_UPDATED, schemaMetadataInfo());
+        });
+        writer.start();
+
+        long start = System.currentTimeMillis();
+        SchemaChanges changes = schemaChangeLog.awaitChanges(0L, Collections.emptyList(), 30_000L).get(30L, TimeUnit.SECONDS);
+        writer.join();
+
+        assertEquals(1, changes.getChanges().size());
+        assertEquals(SchemaChange.Type.SCHEMA_METADATA_UPDATED, changes.getChanges().get(0).getType());
+        assertTrue(System.currentTimeMillis() - start < 30_000L);
+    }
+
+    @Test
+    public void testWaitingReadersAreCompletedByThePoller() throws Exception {
+        CompletableFuture<SchemaChanges> first = schemaChangeLog.awaitChanges(0L, Collections.emptyList(), 30_000L);
+        CompletableFuture<SchemaChanges> second = schemaChangeLog.awaitChanges(0L, Collections.emptyList(), 30_000L);
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+
+        schemaChangeLog.schemaMetadataChanged(SchemaChange.Type.SCHEMA_METADATA_UPDATED, schemaMetadataInfo());
+
+        assertEquals(Long.valueOf(1L), first.get(30L, TimeUnit.SECONDS).getSequence());
+        assertEquals(Long.valueOf(1L), second.get(30L, TimeUnit.SECONDS).getSequence());
+        assertEquals(1, first.get().getChanges().size());
+        assertEquals(1, second.get().getChanges().size());
+    }
+
+    @Test
+    public void testWaitingReaderGetsNoChangesAfterTheWait() throws Exception {
+        SchemaChanges changes = schemaChangeLog.awaitChanges(0L, Collections.emptyList(), 50L).get(30L, TimeUnit.SECONDS);
+
+        assertTrue(changes.getChanges().isEmpty());
+        assertEquals(Long.valueOf(0L), changes.getSequence());
+    }
+
+    @Test
+    public void testStopsAtRecentGap() throws Exception {
+        long now = System.currentTimeMillis();
+        addChange(1L, now);
+        // sequence 2 may belong to a transaction which is not committed yet
+        addChange(3L, now);
+
+        SchemaChanges changes = schemaChangeLog.getChanges(0L, Collections.emptyList());
+        assertEquals(1, changes.getChanges().size());
+        assertEquals(Long.valueOf(1L), changes.getSequence());
+
+        // a gap older than the settle time is skipped, the transaction is most likely rolled back
+        addChange(3L, now - SchemaChangeLog.GAP_SETTLE_MS - 1);
+        addChange(5L, now - SchemaChangeLog.GAP_SETTLE_MS - 1);
+
+        changes = schemaChangeLog.getChanges(1L, Collections.emptyList());
+        assertEquals(Arrays.asList(3L, 5L),
+                changes.getChanges().stream().map(SchemaChange::getSequence).collect(Collectors.toList()));
+        assertEquals(Long.valueOf(5L), changes.getSequence());
+        assertEquals(Arrays.asList(2L, 4L), changes.getSkippedSequences());
+    }
+
+    @Test
+    public void testSkippedSequenceCommittedLateIsReturned() throws Exception {
+        long settled = System.currentTimeMillis() - SchemaChangeLog.GAP_SETTLE_MS - 1;
+        addChange(1L, settled);
+        addChange(3L, settled);
+        SchemaChanges changes = schemaChangeLog.getChanges(0L, Collections.emptyList());
+        assertEquals(Collections.singletonList(2L), changes.getSkippedSequences());
+
+        // the transaction of sequence 2 commits after it was skipped
+        addChange(2L, settled);
+
+        changes = schemaChangeLog.getChanges(changes.getSequence(), changes.getSkippedSequences());
+        assertEquals(Collections.singletonList(2L),
+                changes.getChanges().stream().map(SchemaChange::getSequence).collect(Collectors.toList()));
+        assertEquals(Long.valueOf(3L), changes.getSequence());
+        assertTrue(changes.getSkippedSequences().isEmpty());
+    }
+
+    @Test
+    public void testWaitingReaderGetsSkippedSequenceCommittedLate() throws Exception {
+        long settled = System.currentTimeMillis() - SchemaChangeLog.GAP_SETTLE_MS - 1;
+        addChange(1L, settled);
+        addChange(3L, settled);
+        CompletableFuture<SchemaChanges> waiting = schemaChangeLog.awaitChanges(3L, Collections.singletonList(2L), 30_000L);
+        assertFalse(waiting.isDone());
+
+        addChange(2L, settled);
+
+        SchemaChanges changes = waiting.get(30L, TimeUnit.SECONDS);
+        assertEquals(Collections.singletonList(2L),
+                changes.getChanges().stream().map(SchemaChange::getSequence).collect(Collectors.toList()));
+        assertEquals(Long.valueOf(3L), changes.getSequence());
+    }
+
+    @Test
+    public void testPrunesChangesOlderThanTheRetention() throws Exception {
+        SchemaChangeLog pruningLog = new SchemaChangeLog(storageManager, 10L, 1000L);
+        long now = System.currentTimeMillis();
+        addChange(1L, now - 2000L);
+        addChange(2L, now - 1500L);
+        addChange(3L, now);
+
+        pruningLog.prune();
+
+        assertEquals(Collections.singletonList(3L), storageManager.<SchemaChangeStorable>list(SchemaChangeStorable.NAME_SPACE)
+                .stream().map(SchemaChangeStorable::getId).collect(Collectors.toList()));
+        pruningLog.close();
+    }
+
+    private void addChange(Long id, long timestamp) {
+        SchemaChangeStorable storable = new SchemaChangeStorable(SchemaChange.Type.SCHEMA_METADATA_UPDATED,
+                "kafka", "rain", 1L, null, null, timestamp);
+        storable.setId(id);
+        storageManager.addOrUpdate(storable);
+    }
+
+    private SchemaMetadataInfo schemaMetadataInfo() {
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder("rain")
+                .type("avro")
+                .schemaGroup("kafka")
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+        return new SchemaMetadataInfo(schemaMetadata, 1L, System.currentTimeMillis());
+    }
+
+    private SchemaVersionInfo schemaVersionInfo() {
+        return new SchemaVersionInfo(3L, "rain", 2, 1L, "\"string\"", System.currentTimeMillis(), "description",
+                SchemaVersionLifecycleStates.ENABLED.getId());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SchemaVersionBatchServiceTest {
+
+    private ISchemaRegistry schemaRegistry;
+    private TransactionManager transactionManager;
+    private SchemaVersionBatchService underTest;
+
+    /** Threads having an open transaction. */
+    private final Set<Thread> transactionThreads = ConcurrentHashMap.newKeySet();
+    /** Names of the threads versions were registered on, outside of a transaction. */
+    private final Set<String> nonTransactionalThreads = ConcurrentHashMap.newKeySet();
+    private final Set<String> registeringThreads = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        schemaRegistry = mock(ISchemaRegistry.class);
+        transactionManager = mock(TransactionManager.class);
+        doAnswer(invocation -> transactionThreads.add(Thread.currentThread()))
+                .when(transactionManager).beginTransaction(any(TransactionIsolation.class));
+        doAnswer(invocation -> transactionThreads.remove(Thread.currentThread()))
+                .when(transactionManager).commitTransaction();
+        doAnswer(invocation -> transactionThreads.remove(Thread.currentThread()))
+                .when(transactionManager).rollbackTransaction();
+
+        when(schemaRegistry.addSchemaVersion(anyString(), eq("rain"), any(SchemaVersion.class), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    recordThread();
+                    return new SchemaIdVersion(1L, 1, 10L);
+                });
+        when(schemaRegistry.addSchemaVersion(anyString(), eq("snow"), any(SchemaVersion.class), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    recordThread();
+                    throw new SchemaNotFoundException("snow");
+                });
+
+        underTest = new SchemaVersionBatchService(schemaRegistry, mock(SchemaVersionLifecycleManager.class),
+                transactionManager, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        underTest.close();
+    }
+
+    private void recordThread() {
+        registeringThreads.add(Thread.currentThread().getName());
+        if (!transactionThreads.contains(Thread.currentThread())) {
+            nonTransactionalThreads.add(Thread.currentThread().getName());
+        }
+    }
+
+    @Test
+    public void testPerItemCommitsEveryItemInItsOwnTransaction() {
+        //when
+        SchemaVersionBatchResult result = underTest.addSchemaVersions(new SchemaVersionBatch(Arrays.asList(
+                new SchemaVersionBatch.Item("rain", new SchemaVersion("\"string\"", "first")),
+                new SchemaVersionBatch.Item("snow", new SchemaVersion("\"string\"", "missing schema")),
+                new SchemaVersionBatch.Item("rain", new SchemaVersion("\"int\"", "second"))),
+                SchemaVersionBatch.TransactionMode.PER_ITEM, false));
+
+        //then
+        assertEquals(Arrays.asList(SchemaVersionBatchResult.Status.REGISTERED, SchemaVersionBatchResult.Status.FAILED,
+                SchemaVersionBatchResult.Status.REGISTERED), statuses(result));
+        verify(transactionManager, times(3)).beginTransaction(TransactionIsolation.READ_COMMITTED);
+        verify(transactionManager, times(2)).commitTransaction();
+        verify(transactionManager, times(1)).rollbackTransaction();
+        assertTrue(nonTransactionalThreads.isEmpty(), "Versions registered outside of a transaction: " + nonTransactionalThreads);
+        assertTrue(registeringThreads.stream().allMatch(name -> name.startsWith("schema-version-batch-")),
+                "Versions registered on the request thread: " + registeringThreads);
+    }
+
+    @Test
+    public void testAllOrNothingRollsBackTheBatch() throws Exception {
+        //when
+        SchemaVersionBatchResult result = underTest.addSchemaVersions(new SchemaVersionBatch(Arrays.asList(
+                new SchemaVersionBatch.Item("rain", new SchemaVersion("\"string\"", "first")),
+                new SchemaVersionBatch.Item("snow", new SchemaVersion("\"string\"", "missing schema")),
+                new SchemaVersionBatch.Item("rain", new SchemaVersion("\"int\"", "second"))),
+                SchemaVersionBatch.TransactionMode.ALL_OR_NOTHING, false));
+
+        //then
+        assertEquals(Arrays.asList(SchemaVersionBatchResult.Status.ABORTED, SchemaVersionBatchResult.Status.FAILED,
+                SchemaVersionBatchResult.Status.ABORTED), statuses(result));
+        verify(transactionManager, times(1)).beginTransaction(TransactionIsolation.READ_COMMITTED);
+        verify(transactionManager, times(1)).rollbackTransaction();
+        verify(transactionManager, never()).commitTransaction();
+        // the registration stops at the first failure
+        verify(schemaRegistry, times(1)).addSchemaVersion(anyString(), eq("rain"), any(SchemaVersion.class), anyBoolean());
+        assertTrue(nonTransactionalThreads.isEmpty(), "Versions registered outside of a transaction: " + nonTransactionalThreads);
+    }
+
+    @Test
+    public void testCloseStopsTheWorkers() {
+        //given
+        underTest.close();
+
+        //when
+        assertThrows(RejectedExecutionException.class, () -> underTest.addSchemaVersions(new SchemaVersionBatch(
+                Arrays.asList(new SchemaVersionBatch.Item("rain", new SchemaVersion("\"string\"", "first"))),
+                SchemaVersionBatch.TransactionMode.ALL_OR_NOTHING, false)));
+    }
+
+    private static List<SchemaVersionBatchResult.Status> statuses(SchemaVersionBatchResult result) {
+        return result.getResults().stream().map(SchemaVersionBatchResult.ItemResult::getStatus).collect(Collectors.toList());
+    }
+}
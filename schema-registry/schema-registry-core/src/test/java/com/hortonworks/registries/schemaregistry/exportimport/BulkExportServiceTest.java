@@ -0,0 +1,253 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.exportimport;
+
+import com.hortonworks.registries.common.CompatibilityConfig;
+import com.hortonworks.registries.common.RegistryConfiguration;
+import com.hortonworks.registries.schemaregistry.AggregatedSchemaBranch;
+import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaBranchStorable;
+import com.hortonworks.registries.schemaregistry.SchemaBranchVersionMapping;
+import com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry;
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataStorable;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionStateStorable;
+import com.hortonworks.registries.schemaregistry.SchemaVersionStorable;
+import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
+import com.hortonworks.registries.schemaregistry.exportimport.reader.ClouderaFileReader;
+import com.hortonworks.registries.schemaregistry.locks.SchemaLockManager;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import com.hortonworks.registries.schemaregistry.state.details.InitializedStateDetails;
+import com.hortonworks.registries.schemaregistry.utils.ObjectMapperUtils;
+import com.hortonworks.registries.storage.NOOPTransactionManager;
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkExportServiceTest {
+
+    private InMemoryStorageManager storageManager;
+    private long nextVersionId = 1L;
+
+    @BeforeEach
+    public void setup() {
+        storageManager = new InMemoryStorageManager();
+    }
+
+    @Test
+    public void testExportedFileCanBeRead() throws Exception {
+        //given
+        addSchema(1L, "rain", 2, true);
+        addSchema(2L, "snow", 1, false);
+        addSchema(3L, "wind", 3, false);
+        // page size of 2 makes sure the export continues from the last id of the previous page
+        BulkExportService exportService = new BulkExportService(storageManager, 2);
+
+        //when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int exported = exportService.exportSchemas(out);
+        List<AggregatedSchemaMetadataInfo> schemas = new ArrayList<>();
+        new ClouderaFileReader(new ByteArrayInputStream(out.toByteArray())).readMetadataInfos(schemas::add);
+
+        //then
+        assertEquals(3, exported);
+        assertEquals(3, schemas.size());
+        assertEquals(Arrays.asList("rain", "snow", "wind"),
+                schemas.stream().map(s -> s.getSchemaMetadata().getName()).collect(Collectors.toList()));
+
+        AggregatedSchemaMetadataInfo rain = schemas.get(0);
+        assertEquals(Long.valueOf(1L), rain.getId());
+        assertEquals(SchemaCompatibility.BACKWARD, rain.getSchemaMetadata().getCompatibility());
+        assertEquals(2, rain.getSchemaBranches().size());
+
+        Iterator<AggregatedSchemaBranch> branches = rain.getSchemaBranches().iterator();
+        AggregatedSchemaBranch master = branches.next();
+        assertEquals(SchemaBranch.MASTER_BRANCH, master.getSchemaBranch().getName());
+        assertNull(master.getRootSchemaVersion());
+        assertEquals(Arrays.asList(2, 1), master.getSchemaVersionInfos().stream().map(SchemaVersionInfo::getVersion).collect(Collectors.toList()));
+
+        AggregatedSchemaBranch branch = branches.next();
+        assertEquals("rain-branch", branch.getSchemaBranch().getName());
+        // the branch was forked from the first version of master
+        assertEquals(Long.valueOf(1L), branch.getRootSchemaVersion());
+        assertEquals(Arrays.asList(3, 1), branch.getSchemaVersionInfos().stream().map(SchemaVersionInfo::getVersion).collect(Collectors.toList()));
+
+        assertEquals(3, schemas.get(2).getSchemaBranches().iterator().next().getSchemaVersionInfos().size());
+        assertTrue(schemas.get(1).getSerDesInfos().isEmpty());
+    }
+
+    @Test
+    public void testExportedFileCanBeImported() throws Exception {
+        //given
+        addSchema(1L, "rain", 2, true);
+        addSchema(2L, "snow", 1, false);
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        new BulkExportService(storageManager, 1).exportSchemas(exported);
+
+        InMemoryStorageManager importedStorageManager = new InMemoryStorageManager();
+        DefaultSchemaRegistry importingRegistry = new DefaultSchemaRegistry(new RegistryConfiguration(), importedStorageManager, null,
+                Collections.singletonList(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName())),
+                new SchemaLockManager(new NOOPTransactionManager()), new CompatibilityConfig());
+
+        //when
+        UploadResult uploadResult;
+        try {
+            uploadResult = importingRegistry.bulkUploadSchemas(new ByteArrayInputStream(exported.toByteArray()), true,
+                    BulkUploadInputFormat.CLOUDERA);
+        } finally {
+            importingRegistry.close();
+        }
+        ByteArrayOutputStream reexported = new ByteArrayOutputStream();
+        new BulkExportService(importedStorageManager).exportSchemas(reexported);
+
+        //then
+        assertTrue(uploadResult.getFailedIds().isEmpty());
+        // the first version of rain is shared by its branches, it is imported once
+        assertEquals(4, uploadResult.getSuccessCount());
+        assertEquals(describe(exported), describe(reexported));
+    }
+
+    @Test
+    public void testMergeInfoIsExported() throws Exception {
+        //given
+        addSchema(1L, "rain", 2, true);
+        // the second version of master was merged from the branch, only the last initiated state counts
+        addState(2L, SchemaVersionLifecycleStates.INITIATED.getId(), 1, new InitializedStateDetails("old-branch", 1L));
+        addState(2L, SchemaVersionLifecycleStates.ENABLED.getId(), 2, null);
+        addState(2L, SchemaVersionLifecycleStates.INITIATED.getId(), 3, new InitializedStateDetails("rain-branch", 3L));
+        addState(1L, SchemaVersionLifecycleStates.INITIATED.getId(), 1, null);
+
+        //when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BulkExportService(storageManager).exportSchemas(out);
+        List<AggregatedSchemaMetadataInfo> schemas = new ArrayList<>();
+        new ClouderaFileReader(new ByteArrayInputStream(out.toByteArray())).readMetadataInfos(schemas::add);
+
+        //then
+        List<SchemaVersionInfo> masterVersions = schemas.get(0).getSchemaBranches().iterator().next().getSchemaVersionInfos();
+        assertEquals(Long.valueOf(2L), masterVersions.get(0).getId());
+        assertEquals("rain-branch", masterVersions.get(0).getMergeInfo().getSchemaBranchName());
+        assertEquals(Long.valueOf(3L), masterVersions.get(0).getMergeInfo().getSchemaVersionId());
+        assertNull(masterVersions.get(1).getMergeInfo());
+    }
+
+    @Test
+    public void testEmptyRegistry() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int exported = new BulkExportService(storageManager).exportSchemas(out);
+
+        assertEquals(0, exported);
+        assertEquals("{\"entities\":[]}", out.toString("UTF-8"));
+    }
+
+    private void addSchema(Long id, String name, int versionCount, boolean withBranch) {
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(name)
+                .type("avro")
+                .schemaGroup("Kafka")
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+        storageManager.add(SchemaMetadataStorable.fromSchemaMetadataInfo(new SchemaMetadataInfo(schemaMetadata, id, System.currentTimeMillis())));
+
+        SchemaBranchStorable master = new SchemaBranchStorable(SchemaBranch.MASTER_BRANCH, name, "master", System.currentTimeMillis());
+        master.setId(id * 10);
+        storageManager.add(master);
+
+        List<Long> versionIds = new ArrayList<>();
+        for (int version = 1; version <= versionCount; version++) {
+            Long versionId = addVersion(id, name, version);
+            versionIds.add(versionId);
+            storageManager.add(new SchemaBranchVersionMapping(master.getId(), versionId));
+        }
+
+        if (withBranch) {
+            SchemaBranchStorable branch = new SchemaBranchStorable(name + "-branch", name, "branch", System.currentTimeMillis());
+            branch.setId(id * 10 + 1);
+            storageManager.add(branch);
+            storageManager.add(new SchemaBranchVersionMapping(branch.getId(), versionIds.get(0)));
+            storageManager.add(new SchemaBranchVersionMapping(branch.getId(), addVersion(id, name, versionCount + 1)));
+        }
+    }
+
+    private Long addVersion(Long schemaMetadataId, String name, int version) {
+        SchemaVersionStorable versionStorable = new SchemaVersionStorable();
+        versionStorable.setId(nextVersionId++);
+        versionStorable.setSchemaMetadataId(schemaMetadataId);
+        versionStorable.setName(name);
+        versionStorable.setVersion(version);
+        versionStorable.setSchemaText(schemaText(name, version));
+        versionStorable.setFingerprint("fingerprint-" + versionStorable.getId());
+        versionStorable.setTimestamp(System.currentTimeMillis());
+        versionStorable.setState((byte) 5);
+        storageManager.add(versionStorable);
+        return versionStorable.getId();
+    }
+
+    private void addState(Long schemaVersionId, Byte stateId, int sequence, InitializedStateDetails details) throws Exception {
+        SchemaVersionStateStorable stateStorable = new SchemaVersionStateStorable();
+        stateStorable.setId((long) sequence);
+        stateStorable.setSchemaVersionId(schemaVersionId);
+        stateStorable.setStateId(stateId);
+        stateStorable.setSequence(sequence);
+        stateStorable.setTimestamp(System.currentTimeMillis());
+        stateStorable.setDetails(details == null ? null : ObjectMapperUtils.serialize(details));
+        storageManager.add(stateStorable);
+    }
+
+    /** Every version adds a field with a default value, so the versions are backward compatible. */
+    private static String schemaText(String name, int version) {
+        StringBuilder fields = new StringBuilder();
+        for (int field = 1; field <= version; field++) {
+            fields.append(field > 1 ? "," : "").append("{\"name\":\"f").append(field).append("\",\"type\":\"int\",\"default\":0}");
+        }
+        return "{\"type\":\"record\",\"name\":\"" + name + "\",\"fields\":[" + fields + "]}";
+    }
+
+    /** The exported schemas without the fields the registry sets on import, like the timestamps. */
+    private static List<String> describe(ByteArrayOutputStream exported) throws Exception {
+        List<String> result = new ArrayList<>();
+        new ClouderaFileReader(new ByteArrayInputStream(exported.toByteArray())).readMetadataInfos(schema -> {
+            SchemaMetadata schemaMetadata = schema.getSchemaMetadata();
+            result.add(schema.getId() + " " + schemaMetadata.getName() + " " + schemaMetadata.getType() + " " +
+                    schemaMetadata.getSchemaGroup() + " " + schemaMetadata.getCompatibility());
+            for (AggregatedSchemaBranch branch : schema.getSchemaBranches()) {
+                result.add("  " + branch.getSchemaBranch().getId() + " " + branch.getSchemaBranch().getName() +
+                        " root=" + branch.getRootSchemaVersion());
+                for (SchemaVersionInfo version : branch.getSchemaVersionInfos()) {
+                    result.add("    " + version.getId() + " v" + version.getVersion() + " " + version.getSchemaText());
+                }
+            }
+        });
+        return result;
+    }
+}
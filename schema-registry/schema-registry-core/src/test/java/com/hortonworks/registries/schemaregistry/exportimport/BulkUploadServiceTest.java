@@ -15,6 +15,8 @@
  **/
 package com.hortonworks.registries.schemaregistry.exportimport;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
@@ -29,11 +31,19 @@ import com.hortonworks.registries.schemaregistry.SchemaValidationLevel;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.hortonworks.registries.storage.TransactionManager;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import org.junit.jupiter.api.BeforeEach;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.stubbing.Answer;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -47,8 +57,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -56,6 +68,8 @@ import static org.mockito.Mockito.when;
 
 public class BulkUploadServiceTest {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private ISchemaRegistry schemaRegistry;
     private BulkUploadService bulkUploadService;
     private static final SchemaIdVersion SCHEMA_ID_VERSION_1 = new SchemaIdVersion(1L);
@@ -66,6 +80,7 @@ public class BulkUploadServiceTest {
     @BeforeEach
     public void setUp() {
         schemaRegistry = mock(ISchemaRegistry.class);
+        when(schemaRegistry.getSchemaVersionInfos(anyCollection())).thenCallRealMethod();
         bulkUploadService = new BulkUploadService(schemaRegistry);
     }
 
@@ -365,6 +380,30 @@ public class BulkUploadServiceTest {
         assertIterableEquals(expected.getFailedIds(), actual.getFailedIds());
     }
     
+    @Test
+    public void testUploadClouderaSchemasInParallel() throws Exception {
+        //given
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        bulkUploadService = new BulkUploadService(schemaRegistry, transactionManager, 2);
+        InputStream is = getClass().getResourceAsStream("/exportimport/twometas.json");
+        when(schemaRegistry.getSchemaBranch(eq(1L))).thenReturn(createBranch(1L, "MASTER", "rain", "'MASTER' branch for schema metadata 'rain'"));
+        when(schemaRegistry.getSchemaBranch(eq(2L))).thenReturn(createBranch(2L, "MASTER", "Food", "'MASTER' branch for schema metadata 'Food'"));
+        when(schemaRegistry.getSchemaMetadataInfo(eq(1L))).thenReturn(createMetadata(1L, "rain"));
+        when(schemaRegistry.getSchemaMetadataInfo(eq(2L))).thenReturn(createMetadata(2L, "Food"));
+        when(schemaRegistry.getSchemaVersionInfo(any(SchemaIdVersion.class))).thenThrow(SchemaNotFoundException.class);
+        when(schemaRegistry.addSchemaVersionWithBranchName(anyString(), any(), any(), any())).thenReturn(SCHEMA_ID_VERSION_1);
+
+        //when
+        UploadResult actual = bulkUploadService.bulkUploadSchemas(is, false, BulkUploadInputFormat.CLOUDERA);
+
+        //then
+        assertEquals(4, actual.getSuccessCount());
+        assertEquals(0, actual.getFailedCount());
+        // every schema is imported in its own transaction
+        verify(transactionManager, times(2)).beginTransaction(TransactionIsolation.READ_COMMITTED);
+        verify(transactionManager, times(2)).commitTransaction();
+    }
+
     @Test
     public void testUploadInvalidVersionValidVersion() throws Exception {
         //given
@@ -405,6 +444,8 @@ public class BulkUploadServiceTest {
         assertEquals(expected.getSuccessCount(), actual.getSuccessCount());
         assertEquals(expected.getFailedCount(), actual.getFailedCount());
         assertIterableEquals(expected.getFailedIds(), actual.getFailedIds());
+        // version 1 already exists with the same text
+        assertEquals(1, actual.getSkippedCount());
     }
 
     @Test
@@ -474,6 +515,82 @@ public class BulkUploadServiceTest {
         assertIterableEquals(expected.getFailedIds(), actual.getFailedIds());
     }
 
+    @Test
+    public void testIncludedSchemasAreImportedFirst() throws Exception {
+        //given
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        bulkUploadService = new BulkUploadService(schemaRegistry, transactionManager, 2);
+        String accountText = "{\"type\": \"record\", \"name\": \"account\", \"includeSchemas\": [{\"name\": \"utils\"}], " +
+                "\"fields\": [{\"name\": \"id\", \"type\": \"com.example.Uuid\"}]}";
+        String utilsText = "{\"type\": \"record\", \"name\": \"Uuid\", \"namespace\": \"com.example\", " +
+                "\"fields\": [{\"name\": \"value\", \"type\": \"string\"}]}";
+        // the including schema comes first in the file
+        InputStream is = clouderaFile(exportedSchema(1L, "account", accountText), exportedSchema(2L, "utils", utilsText));
+        when(schemaRegistry.getSchemaBranch(eq(1L))).thenReturn(createBranch(1L, "MASTER", "account", ""));
+        when(schemaRegistry.getSchemaBranch(eq(2L))).thenReturn(createBranch(2L, "MASTER", "utils", ""));
+        when(schemaRegistry.getSchemaMetadataInfo(eq(1L))).thenReturn(createMetadata(1L, "account"));
+        when(schemaRegistry.getSchemaMetadataInfo(eq(2L))).thenReturn(createMetadata(2L, "utils"));
+        when(schemaRegistry.getSchemaVersionInfo(any(SchemaIdVersion.class))).thenThrow(SchemaNotFoundException.class);
+        when(schemaRegistry.addSchemaVersionWithBranchName(anyString(), any(), any(), any())).thenReturn(SCHEMA_ID_VERSION_1);
+
+        //when
+        UploadResult actual = bulkUploadService.bulkUploadSchemas(is, false, BulkUploadInputFormat.CLOUDERA);
+
+        //then
+        assertEquals(2, actual.getSuccessCount());
+        assertEquals(0, actual.getFailedCount());
+        InOrder inOrder = inOrder(schemaRegistry);
+        inOrder.verify(schemaRegistry).addSchemaVersionWithBranchName(anyString(), any(), eq(2L), any());
+        inOrder.verify(schemaRegistry).addSchemaVersionWithBranchName(anyString(), any(), eq(1L), any());
+    }
+
+    @Test
+    public void testParseErrorIsReturned() throws Exception {
+        //given
+        String schemaText = "{\"type\": \"record\", \"name\": \"rain\", \"fields\": [{\"name\": \"mm\", \"type\": \"int\"}]}";
+        String file = IOUtils.toString(clouderaFile(exportedSchema(1L, "rain", schemaText)), StandardCharsets.UTF_8);
+        // the second schema is cut off
+        InputStream is = IOUtils.toInputStream(file.substring(0, file.length() - 2) + ", {\"id\": ", StandardCharsets.UTF_8);
+        when(schemaRegistry.getSchemaBranch(eq(1L))).thenReturn(createBranch(1L, "MASTER", "rain", ""));
+        when(schemaRegistry.getSchemaMetadataInfo(eq(1L))).thenReturn(createMetadata(1L, "rain"));
+        when(schemaRegistry.getSchemaVersionInfo(any(SchemaIdVersion.class))).thenThrow(SchemaNotFoundException.class);
+        when(schemaRegistry.addSchemaVersionWithBranchName(anyString(), any(), any(), any())).thenReturn(SCHEMA_ID_VERSION_1);
+
+        //when
+        UploadResult actual = bulkUploadService.bulkUploadSchemas(is, false, BulkUploadInputFormat.CLOUDERA);
+
+        //then
+        assertEquals(1, actual.getSuccessCount());
+        assertEquals(0, actual.getFailedCount());
+        assertEquals(1, actual.getErrors().size());
+    }
+
+    private InputStream clouderaFile(ObjectNode... schemas) throws IOException {
+        ObjectNode file = OBJECT_MAPPER.createObjectNode();
+        file.putArray("entities").addAll(Arrays.asList(schemas));
+        return new ByteArrayInputStream(OBJECT_MAPPER.writeValueAsBytes(file));
+    }
+
+    private ObjectNode exportedSchema(Long id, String name, String schemaText) {
+        ObjectNode schema = OBJECT_MAPPER.createObjectNode();
+        schema.set("schemaMetadata", OBJECT_MAPPER.valueToTree(createMetadata(id, name).getSchemaMetadata()));
+        schema.put("id", id);
+        schema.put("timestamp", System.currentTimeMillis());
+        ObjectNode branch = schema.putArray("schemaBranches").addObject();
+        branch.set("schemaBranch", OBJECT_MAPPER.valueToTree(createBranch(id, "MASTER", name, "")));
+        branch.putNull("rootSchemaVersion");
+        ObjectNode version = branch.putArray("schemaVersionInfos").addObject();
+        version.put("id", id);
+        version.put("schemaMetadataId", id);
+        version.put("name", name);
+        version.put("version", 1);
+        version.put("schemaText", schemaText);
+        version.put("timestamp", System.currentTimeMillis());
+        version.put("stateId", 5);
+        schema.putArray("serDesInfos");
+        return schema;
+    }
+
     private SchemaVersionInfo createVersion(Long id, String schemaName, int version, String schemaText) {
         return new SchemaVersionInfo(id, schemaName, version, schemaText, System.currentTimeMillis(), "");
     }
@@ -15,12 +15,17 @@
  */
 package com.hortonworks.registries.schemaregistry.serde;
 
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
 import com.hortonworks.registries.schemaregistry.client.SchemaRegistryClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -28,6 +33,11 @@ import java.util.Map;
 public abstract class AbstractSerDes {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractSerDes.class);
 
+    /**
+     * Comma separated names of the schemas whose versions are loaded into the client cache when this instance is initialized.
+     */
+    public static final String WARMUP_SCHEMA_NAMES = "schemaregistry.serdes.warmup.schemas";
+
     protected ISchemaRegistryClient schemaRegistryClient;
     protected boolean initialized = false;
     protected boolean closed = false;
@@ -55,13 +65,47 @@ public abstract class AbstractSerDes {
         }
 
         doInit(config);
+        warmUp(config);
 
         initialized = true;
     }
 
+    private void warmUp(Map<String, ?> config) {
+        Object value = config.get(WARMUP_SCHEMA_NAMES);
+        if (value == null) {
+            return;
+        }
+        Collection<String> schemaNames;
+        if (value instanceof Collection) {
+            schemaNames = ((Collection<?>) value).stream().map(String::valueOf).collect(Collectors.toList());
+        } else {
+            schemaNames = Arrays.stream(value.toString().split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .collect(Collectors.toList());
+        }
+        if (!schemaNames.isEmpty()) {
+            LOG.debug("Warming up schema versions of {}", schemaNames);
+            schemaRegistryClient.warmUpSchemaVersions(schemaNames);
+        }
+    }
+
     protected void doInit(Map<String, ?> config) {
     }
 
+    /**
+     * Marks a ser/des operation of the given protocol in the metrics, e.g. {@code protocol3.serialize} or
+     * {@code protocol3.serializeErrors} when it failed.
+     *
+     * @param operation  name of the operation
+     * @param protocolId ser/des protocol id, null when it is not known
+     * @param failed     whether the operation failed
+     */
+    protected void markOperation(String operation, Byte protocolId, boolean failed) {
+        String protocol = protocolId == null ? "unknownProtocol" : "protocol" + protocolId;
+        Metrics.get().mark(RegistryMetrics.name(AbstractSerDes.class, protocol, failed ? operation + "Errors" : operation));
+    }
+
     public void close() throws Exception {
         if (closed) {
             LOG.info("This instance [{}] is already closed", this);
@@ -176,19 +176,26 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
                          Integer readerSchemaVersion) throws SerDesException {
         ensureInitialized();
 
-        // it can be enhanced to have respective protocol handlers for different versions
-        byte protocolId = retrieveProtocolId(input);
-        SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, input);
-        SchemaVersionInfo schemaVersionInfo;
-        SchemaMetadata schemaMetadata;
+        Byte protocolId = null;
+        boolean failed = true;
         try {
-            schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
-            schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
-        } catch (Exception e) {
-            throw new RegistryException(e);
+            // it can be enhanced to have respective protocol handlers for different versions
+            protocolId = retrieveProtocolId(input);
+            SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, input);
+            SchemaVersionInfo schemaVersionInfo;
+            SchemaMetadata schemaMetadata;
+            try {
+                schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
+                schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
+            } catch (Exception e) {
+                throw new RegistryException(e);
+            }
+            O output = doDeserialize(input, protocolId, schemaMetadata, schemaVersionInfo.getVersion(), readerSchemaVersion);
+            failed = false;
+            return output;
+        } finally {
+            markOperation("deserialize", protocolId, failed);
         }
-        return doDeserialize(input, protocolId, schemaMetadata, schemaVersionInfo.getVersion(), readerSchemaVersion);
-
     }
 
     /**
@@ -47,20 +47,33 @@ public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes im
     public final O serialize(I input, SchemaMetadata schemaMetadata) throws SerDesException {
         ensureInitialized();
 
-        // compute schema based on input object
-        String schema = getSchemaText(input);
-
-        // register that schema and get the version
+        boolean failed = true;
         try {
+            // compute schema based on input object
+            String schema = getSchemaText(input);
+
+            // register that schema and get the version
             SchemaIdVersion schemaIdVersion = schemaRegistryClient.addSchemaVersion(schemaMetadata, 
                     new SchemaVersion(schema, "Schema registered by serializer:" + this.getClass()));
             // write the version and given object to the output
-            return doSerialize(input, schemaIdVersion);
+            O output = doSerialize(input, schemaIdVersion);
+            failed = false;
+            return output;
         } catch (SchemaNotFoundException | IncompatibleSchemaException | InvalidSchemaException | SchemaBranchNotFoundException e) {
             throw new RegistryException(e);
+        } finally {
+            markOperation("serialize", getProtocolId(), failed);
         }
     }
 
+    /**
+     * Returns the id of the ser/des protocol of the serialized objects, which is used to record the metrics per protocol.
+     * Returns null by default, when the serializer does not have a protocol id.
+     */
+    protected Byte getProtocolId() {
+        return null;
+    }
+
     /**
      * Returns textual representation of the schema for the given {@code input} payload.
      * @param input input payload
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes;
+
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.KafkaMetricsContext;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.MetricsReporter;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Meter;
+import org.apache.kafka.common.utils.Time;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link RegistryMetrics} which records the metrics of the client and the serdes with the metrics library of Kafka,
+ * so Kafka applications can read them with {@code metrics()} of the Kafka serdes, next to the metrics of their
+ * producers and consumers, and they are reported over JMX under the domain {@value #JMX_DOMAIN}.
+ * <p>
+ * It is installed by configuring the Kafka serdes with {@code schema.registry.client.metrics.class} set to the name of
+ * this class.
+ */
+public class KafkaRegistryMetrics implements RegistryMetrics {
+
+    public static final String JMX_DOMAIN = "kafka.schemaregistry";
+    public static final String METRIC_GROUP = "schema-registry-client-metrics";
+
+    private final org.apache.kafka.common.metrics.Metrics metrics;
+
+    public KafkaRegistryMetrics() {
+        this(new org.apache.kafka.common.metrics.Metrics(new MetricConfig(),
+                Collections.<MetricsReporter>singletonList(new JmxReporter()),
+                Time.SYSTEM,
+                new KafkaMetricsContext(JMX_DOMAIN)));
+    }
+
+    public KafkaRegistryMetrics(org.apache.kafka.common.metrics.Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void mark(String name, long count) {
+        sensor(name, sensor -> sensor.add(new Meter(metricName(name, "rate", "Number of events per second"),
+                                                    metricName(name, "total", "Total number of events"))))
+                .record(count);
+    }
+
+    @Override
+    public void update(String name, long duration, TimeUnit unit) {
+        sensor(name, sensor -> {
+            sensor.add(metricName(name, "count", "Number of operations"), new CumulativeCount());
+            sensor.add(metricName(name, "avg-ms", "Average duration of the operations in milliseconds"), new Avg());
+            sensor.add(metricName(name, "max-ms", "Maximum duration of the operations in milliseconds"), new Max());
+        }).record(unit.toNanos(duration) / 1_000_000.0);
+    }
+
+    @Override
+    public synchronized void registerGauge(String name, Supplier<? extends Number> gauge) {
+        MetricName metricName = metricName(name, "value", "Current value");
+        metrics.removeMetric(metricName);
+        metrics.addMetric(metricName, (Gauge<Number>) (config, now) -> gauge.get());
+    }
+
+    public Map<MetricName, ? extends Metric> metrics() {
+        return Collections.unmodifiableMap(metrics.metrics());
+    }
+
+    private Sensor sensor(String name, Consumer<Sensor> addStats) {
+        Sensor sensor = metrics.getSensor(name);
+        if (sensor != null) {
+            return sensor;
+        }
+        synchronized (this) {
+            sensor = metrics.getSensor(name);
+            if (sensor == null) {
+                sensor = metrics.sensor(name);
+                addStats.accept(sensor);
+            }
+            return sensor;
+        }
+    }
+
+    private MetricName metricName(String name, String suffix, String description) {
+        return metrics.metricName(name + "-" + suffix, METRIC_GROUP, description);
+    }
+
+    /**
+     * @return the metrics of the client and the serdes if they are recorded with Kafka metrics, an empty map otherwise
+     */
+    public static Map<MetricName, ? extends Metric> installedMetrics() {
+        RegistryMetrics registryMetrics = Metrics.get();
+        if (registryMetrics instanceof KafkaRegistryMetrics) {
+            return ((KafkaRegistryMetrics) registryMetrics).metrics();
+        }
+        return Collections.emptyMap();
+    }
+}
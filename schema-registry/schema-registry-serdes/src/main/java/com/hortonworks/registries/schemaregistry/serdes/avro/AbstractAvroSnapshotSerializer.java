@@ -146,6 +146,7 @@ public abstract class AbstractAvroSnapshotSerializer<O> extends AbstractSnapshot
         serDesProtocolHandler.handlePayloadSerialization(os, input);
     }
 
+    @Override
     protected Byte getProtocolId() {
         return serDesProtocolHandler.getProtocolId();
     }
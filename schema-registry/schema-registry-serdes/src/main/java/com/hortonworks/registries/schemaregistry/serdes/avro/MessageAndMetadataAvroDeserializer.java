@@ -41,17 +41,25 @@ public class MessageAndMetadataAvroDeserializer extends AbstractAvroSnapshotDese
     @Override
     public Object deserialize(MessageAndMetadata context,
                               Integer readerSchemaVersion) throws SerDesException {
-        byte protocolId = retrieveProtocolId(context);
-        SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, context);
-        SchemaMetadata schemaMetadata;
-        SchemaVersionInfo schemaVersionInfo;
+        Byte protocolId = null;
+        boolean failed = true;
         try {
-            schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
-            schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
-        } catch (Exception e) {
-            throw new RegistryException(e);
+            protocolId = retrieveProtocolId(context);
+            SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, context);
+            SchemaMetadata schemaMetadata;
+            SchemaVersionInfo schemaVersionInfo;
+            try {
+                schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
+                schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
+            } catch (Exception e) {
+                throw new RegistryException(e);
+            }
+            Object output = doDeserialize(context, protocolId, schemaMetadata, schemaVersionInfo.getVersion(), readerSchemaVersion);
+            failed = false;
+            return output;
+        } finally {
+            markOperation("deserialize", protocolId, failed);
         }
-        return doDeserialize(context, protocolId, schemaMetadata, schemaVersionInfo.getVersion(), readerSchemaVersion);
     }
 
     @Override
@@ -16,10 +16,13 @@
 package com.hortonworks.registries.schemaregistry.serdes.avro.kafka;
 
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serdes.KafkaRegistryMetrics;
 import com.hortonworks.registries.schemaregistry.serdes.Utils;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
 import com.hortonworks.registries.schemaregistry.serdes.avro.MessageAndMetadata;
 import com.hortonworks.registries.schemaregistry.serdes.avro.MessageAndMetadataAvroDeserializer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
@@ -130,6 +133,9 @@ public class KafkaAvroDeserializer implements Deserializer<Object> {
 
     @Override
     public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
         return avroSnapshotDeserializer.deserialize(new ByteArrayInputStream(data), readerVersions.get(topic));
     }
 
@@ -144,6 +150,14 @@ public class KafkaAvroDeserializer implements Deserializer<Object> {
         return deserialize(topic, data);
     }
 
+    /**
+     * Returns the metrics of the schema registry client and the serdes, when they are recorded with
+     * {@link KafkaRegistryMetrics}, like {@code metrics()} of the Kafka producers and consumers.
+     */
+    public Map<MetricName, ? extends Metric> metrics() {
+        return KafkaRegistryMetrics.installedMetrics();
+    }
+
     @Override
     public void close() {
         try {
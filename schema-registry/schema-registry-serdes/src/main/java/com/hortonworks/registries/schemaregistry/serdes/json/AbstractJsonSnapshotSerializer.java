@@ -65,4 +65,9 @@ public abstract class AbstractJsonSnapshotSerializer<O> extends AbstractSnapshot
     protocolHandler.handlePayloadSerialization(os, input);
   }
 
+  @Override
+  protected Byte getProtocolId() {
+    return protocolHandler.getProtocolId();
+  }
+
 }
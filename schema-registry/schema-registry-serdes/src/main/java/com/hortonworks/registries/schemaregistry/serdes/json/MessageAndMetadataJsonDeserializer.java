@@ -39,22 +39,30 @@ public class MessageAndMetadataJsonDeserializer extends AbstractJsonSnapshotDese
   
   @Override
   public Object deserialize(MessageAndMetadata context, Integer readerSchemaVersion) throws SerDesException {
-    byte protocolId = retrieveProtocolId(context);
+    Byte protocolId = null;
+    boolean failed = true;
+    try {
+      protocolId = retrieveProtocolId(context);
 
-    if (protocolId != SerDesProtocolHandlerRegistry.JSON_PROTOCOL) {
-      throw new SerDesException("Unsupported protocol: " + protocolId);
-    }
+      if (protocolId != SerDesProtocolHandlerRegistry.JSON_PROTOCOL) {
+        throw new SerDesException("Unsupported protocol: " + protocolId);
+      }
 
-    SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, context);
-    SchemaMetadata schemaMetadata;
-    SchemaVersionInfo schemaVersionInfo;
-    try {
-      schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
-      schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
-    } catch (Exception e) {
-      throw new RegistryException(e);
+      SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, context);
+      SchemaMetadata schemaMetadata;
+      SchemaVersionInfo schemaVersionInfo;
+      try {
+        schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
+        schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
+      } catch (Exception e) {
+        throw new RegistryException(e);
+      }
+      Object output = doDeserialize(context, protocolId, schemaMetadata, schemaVersionInfo.getVersion(), readerSchemaVersion);
+      failed = false;
+      return output;
+    } finally {
+      markOperation("deserialize", protocolId, failed);
     }
-    return doDeserialize(context, protocolId, schemaMetadata, schemaVersionInfo.getVersion(), readerSchemaVersion);
   }
 
   @Override
@@ -19,10 +19,15 @@ import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
 import com.hortonworks.registries.schemaregistry.json.JsonSchemaProvider;
+import com.hortonworks.registries.schemaregistry.serdes.KafkaRegistryMetrics;
 import com.hortonworks.registries.schemaregistry.serdes.Utils;
 import com.hortonworks.registries.schemaregistry.serdes.avro.MessageAndMetadata;
 import com.hortonworks.registries.schemaregistry.serdes.json.JsonSnapshotSerializer;
 import com.hortonworks.registries.schemaregistry.serdes.json.MessageAndMetadataJsonSerializer;
+import com.hortonworks.registries.schemaregistry.serdes.naming.SubjectSchemaMetadataCache;
+import com.hortonworks.registries.schemaregistry.serdes.naming.TopicNameStrategy;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Serializer;
 
@@ -36,13 +41,19 @@ public class KafkaJsonSerializer  implements Serializer<Object> {
   public static final String SCHEMA_COMPATIBILITY = "schema.compatibility";
 
   public static final String SCHEMA_GROUP = "schema.group";
-  public static final String SCHEMA_NAME_KEY_SUFFIX = "schema.name.key.suffix";
-  public static final String SCHEMA_NAME_VALUE_SUFFIX = "schema.name.value.suffix";
+  public static final String SCHEMA_NAME_KEY_SUFFIX = TopicNameStrategy.SCHEMA_NAME_KEY_SUFFIX;
+  public static final String SCHEMA_NAME_VALUE_SUFFIX = TopicNameStrategy.SCHEMA_NAME_VALUE_SUFFIX;
+  /**
+   * Class name of the {@link com.hortonworks.registries.schemaregistry.serdes.naming.SubjectNameStrategy} naming the
+   * schemas, {@link TopicNameStrategy} by default.
+   */
+  public static final String SCHEMA_NAME_STRATEGY = SubjectSchemaMetadataCache.SCHEMA_NAME_STRATEGY;
   public static final String STORE_SCHEMA_VERSION_ID_IN_HEADER = "store.schema.version.id.in.header";
 
   public static final String DEFAULT_SCHEMA_GROUP = "kafka";
-  public static final String DEFAULT_SCHEMA_NAME_KEY_SUFFIX = ":k";
-  public static final String DEFAULT_SCHEMA_NAME_VALUE_SUFFIX = null;
+  public static final String DEFAULT_SCHEMA_NAME_KEY_SUFFIX = TopicNameStrategy.DEFAULT_SCHEMA_NAME_KEY_SUFFIX;
+  public static final String DEFAULT_SCHEMA_NAME_VALUE_SUFFIX = TopicNameStrategy.DEFAULT_SCHEMA_NAME_VALUE_SUFFIX;
+  public static final String DEFAULT_SCHEMA_NAME_STRATEGY = SubjectSchemaMetadataCache.DEFAULT_SCHEMA_NAME_STRATEGY;
   public static final String DEFAULT_STORE_SCHEMA_VERSION_ID_IN_HEADER = "false";
 
   private boolean isKey;
@@ -53,11 +64,8 @@ public class KafkaJsonSerializer  implements Serializer<Object> {
   private String valueSchemaVersionIdHeaderName;
   private boolean useRecordHeader;
 
-  private SchemaCompatibility compatibility;
-
   private String schemaGroup;
-  private String schemaNameKeySuffix;
-  private String schemaNameValueSuffix;
+  private SubjectSchemaMetadataCache schemaMetadataCache;
 
   public KafkaJsonSerializer() {
     jsonSnapshotSerializer = new JsonSnapshotSerializer();
@@ -71,14 +79,15 @@ public class KafkaJsonSerializer  implements Serializer<Object> {
 
   @Override
   public void configure(Map<String, ?> configs, boolean isKey) {
+    SchemaCompatibility compatibility = null;
     String compatSetting = Utils.getOrDefaultAsString(configs, SCHEMA_COMPATIBILITY, "").toUpperCase();
     if (!"".equals(compatSetting)) {
       compatibility = SchemaCompatibility.valueOf(compatSetting);
     }
 
     schemaGroup = Utils.getOrDefaultAsString(configs, SCHEMA_GROUP, DEFAULT_SCHEMA_GROUP);
-    schemaNameKeySuffix = Utils.getOrDefaultAsString(configs, SCHEMA_NAME_KEY_SUFFIX, DEFAULT_SCHEMA_NAME_KEY_SUFFIX);
-    schemaNameValueSuffix = Utils.getOrDefaultAsString(configs, SCHEMA_NAME_VALUE_SUFFIX, DEFAULT_SCHEMA_NAME_VALUE_SUFFIX);
+    schemaMetadataCache = new SubjectSchemaMetadataCache(SubjectSchemaMetadataCache.createStrategy(configs),
+        isKey, JsonSchemaProvider.TYPE, schemaGroup, compatibility, "KafkaJsonSerializer");
 
     this.isKey = isKey;
     keySchemaVersionIdHeaderName = Utils.getOrDefaultAsString(configs,
@@ -102,13 +111,20 @@ public class KafkaJsonSerializer  implements Serializer<Object> {
 
   @Override
   public byte[] serialize(String topic, Object data) {
-    return jsonSnapshotSerializer.serialize(data, createSchemaMetadata(topic));
+    // a tombstone has no schema, the schema is neither looked up nor registered
+    if (data == null) {
+      return null;
+    }
+    return jsonSnapshotSerializer.serialize(data, createSchemaMetadata(topic, data));
   }
 
   @Override
   public byte[] serialize(String topic, Headers headers, Object data) {
+    if (data == null) {
+      return null;
+    }
     if (useRecordHeader) {
-      final MessageAndMetadata context = messageAndMetadataJsonSerializer.serialize(data, createSchemaMetadata(topic));
+      final MessageAndMetadata context = messageAndMetadataJsonSerializer.serialize(data, createSchemaMetadata(topic, data));
       headers.add(isKey ? keySchemaVersionIdHeaderName : valueSchemaVersionIdHeaderName, context.metadata());
       return context.payload();
     } else {
@@ -116,31 +132,28 @@ public class KafkaJsonSerializer  implements Serializer<Object> {
     }
   }
 
-  private SchemaMetadata createSchemaMetadata(String topic) {
-    SchemaMetadata schemaMetadata = getSchemaKey(topic, isKey);
-    String description = "Schema registered by KafkaJsonSerializer for topic: [" + topic + "] iskey: [" + isKey + "]";
-    SchemaMetadata.Builder builder = new SchemaMetadata.Builder(schemaMetadata).description(description);
-    if (compatibility != null) {
-      builder.compatibility(compatibility);
-    }
-    return builder.build();
+  private SchemaMetadata createSchemaMetadata(String topic, Object data) {
+    String recordName = schemaMetadataCache.usesRecordName() ? data.getClass().getName() : null;
+    return schemaMetadataCache.get(topic, recordName);
   }
 
+  /**
+   * Returns the key of the schema of the given topic, as it is named by the configured schema name strategy. Strategies
+   * which name the schemas after the records can not be used here, the record is not known.
+   */
   public SchemaMetadata getSchemaKey(String topic, boolean isKey) {
-    String name = topic;
-    if (isKey) {
-      if (schemaNameKeySuffix != null) {
-        name += schemaNameKeySuffix;
-      }
-    } else {
-      if (schemaNameValueSuffix != null) {
-        name += schemaNameValueSuffix;
-      }
-    }
-    // there wont be any naming collisions as kafka does not allow character `:` in a topic name.
+    String name = schemaMetadataCache.getStrategy().subjectName(topic, isKey, null);
     return new SchemaMetadata.Builder(name).type(JsonSchemaProvider.TYPE).schemaGroup(schemaGroup).build();
   }
 
+  /**
+   * Returns the metrics of the schema registry client and the serdes, when they are recorded with
+   * {@link KafkaRegistryMetrics}, like {@code metrics()} of the Kafka producers and consumers.
+   */
+  public Map<MetricName, ? extends Metric> metrics() {
+    return KafkaRegistryMetrics.installedMetrics();
+  }
+
   @Override
   public void close() {
     try {
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.naming;
+
+import java.util.Map;
+
+/**
+ * Decides the name of the schema the records of a topic are registered with by the Kafka serializers. The
+ * serializers memoize the names, so a strategy is asked only once for a topic, or for a topic and a record name
+ * when {@link #usesRecordName()} is true.
+ * <p>
+ * Implementations need a public no-arg constructor, they are configured with the configs of the serializer.
+ */
+public interface SubjectNameStrategy {
+
+    /**
+     * Configures the strategy with the configs of the serializer.
+     */
+    default void configure(Map<String, ?> configs) {
+    }
+
+    /**
+     * @return true if the name depends on the name of the serialized record, not just on the topic
+     */
+    default boolean usesRecordName() {
+        return false;
+    }
+
+    /**
+     * @param topic      topic of the record
+     * @param isKey      true if the key of the record is serialized
+     * @param recordName full name of the type of the record, it is null unless {@link #usesRecordName()} is true
+     * @return name of the schema
+     */
+    String subjectName(String topic, boolean isKey, String recordName);
+}
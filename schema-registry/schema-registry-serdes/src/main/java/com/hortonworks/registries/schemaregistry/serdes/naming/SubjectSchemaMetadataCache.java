@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.naming;
+
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.serdes.Utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link SchemaMetadata} the records of the topics are registered with by a Kafka serializer, named by the
+ * configured {@link SubjectNameStrategy}. The metadata is created once per topic, or per topic and record name, so
+ * serializing a record does neither build strings nor allocate metadata.
+ */
+public final class SubjectSchemaMetadataCache {
+
+    /**
+     * Class name of the {@link SubjectNameStrategy} of the serializer.
+     */
+    public static final String SCHEMA_NAME_STRATEGY = "schema.name.strategy";
+    public static final String DEFAULT_SCHEMA_NAME_STRATEGY = TopicNameStrategy.class.getName();
+
+    private final SubjectNameStrategy strategy;
+    private final boolean isKey;
+    private final String type;
+    private final String schemaGroup;
+    private final SchemaCompatibility compatibility;
+    private final String registeredBy;
+
+    private final ConcurrentMap<String, SchemaMetadata> byTopic = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, SchemaMetadata>> byTopicAndRecordName = new ConcurrentHashMap<>();
+
+    /**
+     * @param strategy      names the schemas
+     * @param isKey         true if the serializer serializes the keys of the records
+     * @param type          type of the schemas
+     * @param schemaGroup   group of the schemas
+     * @param compatibility compatibility of the schemas, the default compatibility is used if it is null
+     * @param registeredBy  name of the serializer, it is mentioned in the description of the schemas
+     */
+    public SubjectSchemaMetadataCache(SubjectNameStrategy strategy,
+                                      boolean isKey,
+                                      String type,
+                                      String schemaGroup,
+                                      SchemaCompatibility compatibility,
+                                      String registeredBy) {
+        this.strategy = strategy;
+        this.isKey = isKey;
+        this.type = type;
+        this.schemaGroup = schemaGroup;
+        this.compatibility = compatibility;
+        this.registeredBy = registeredBy;
+    }
+
+    /**
+     * Creates the {@link SubjectNameStrategy} given with {@link #SCHEMA_NAME_STRATEGY}, configured with the given configs.
+     */
+    public static SubjectNameStrategy createStrategy(Map<String, ?> configs) {
+        String className = Utils.getOrDefaultAsString(configs, SCHEMA_NAME_STRATEGY, DEFAULT_SCHEMA_NAME_STRATEGY);
+        SubjectNameStrategy strategy;
+        try {
+            Class<?> clazz = Class.forName(className, true, SubjectSchemaMetadataCache.class.getClassLoader());
+            strategy = (SubjectNameStrategy) clazz.newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e) {
+            throw new IllegalArgumentException("Failed to create an instance of schema name strategy class : " + className, e);
+        }
+        strategy.configure(configs);
+
+        return strategy;
+    }
+
+    public SubjectNameStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return true if the record name has to be given to {@link #get(String, String)}
+     */
+    public boolean usesRecordName() {
+        return strategy.usesRecordName();
+    }
+
+    /**
+     * @param topic      topic of the record
+     * @param recordName full name of the type of the record, it is ignored unless {@link #usesRecordName()} is true
+     * @return the metadata of the schema of the record
+     */
+    public SchemaMetadata get(String topic, String recordName) {
+        // a hit is a lock free read, computeIfAbsent is only called on a miss
+        if (!strategy.usesRecordName()) {
+            SchemaMetadata schemaMetadata = byTopic.get(topic);
+            return schemaMetadata != null ? schemaMetadata : byTopic.computeIfAbsent(topic, t -> create(t, null));
+        }
+
+        ConcurrentMap<String, SchemaMetadata> byRecordName = byTopicAndRecordName.get(topic);
+        if (byRecordName == null) {
+            byRecordName = byTopicAndRecordName.computeIfAbsent(topic, t -> new ConcurrentHashMap<>());
+        }
+        SchemaMetadata schemaMetadata = byRecordName.get(recordName);
+        return schemaMetadata != null ? schemaMetadata : byRecordName.computeIfAbsent(recordName, r -> create(topic, r));
+    }
+
+    private SchemaMetadata create(String topic, String recordName) {
+        String name = strategy.subjectName(topic, isKey, recordName);
+        String description = "Schema registered by " + registeredBy + " for topic: [" + topic + "] iskey: [" + isKey + "]";
+        SchemaMetadata.Builder builder = new SchemaMetadata.Builder(name).type(type).schemaGroup(schemaGroup).description(description);
+        if (compatibility != null) {
+            builder.compatibility(compatibility);
+        }
+        return builder.build();
+    }
+}
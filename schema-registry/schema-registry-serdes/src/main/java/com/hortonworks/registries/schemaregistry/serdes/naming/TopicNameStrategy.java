@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.naming;
+
+import com.hortonworks.registries.schemaregistry.serdes.Utils;
+
+import java.util.Map;
+
+/**
+ * Names the schemas after the topic, with the configured key or value suffix. This is the default strategy, all the
+ * records of a topic have to be of the same type.
+ */
+public class TopicNameStrategy implements SubjectNameStrategy {
+
+    public static final String SCHEMA_NAME_KEY_SUFFIX = "schema.name.key.suffix";
+    public static final String SCHEMA_NAME_VALUE_SUFFIX = "schema.name.value.suffix";
+
+    public static final String DEFAULT_SCHEMA_NAME_KEY_SUFFIX = ":k";
+    public static final String DEFAULT_SCHEMA_NAME_VALUE_SUFFIX = null;
+
+    private String schemaNameKeySuffix = DEFAULT_SCHEMA_NAME_KEY_SUFFIX;
+    private String schemaNameValueSuffix = DEFAULT_SCHEMA_NAME_VALUE_SUFFIX;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        schemaNameKeySuffix = Utils.getOrDefaultAsString(configs, SCHEMA_NAME_KEY_SUFFIX, DEFAULT_SCHEMA_NAME_KEY_SUFFIX);
+        schemaNameValueSuffix = Utils.getOrDefaultAsString(configs, SCHEMA_NAME_VALUE_SUFFIX, DEFAULT_SCHEMA_NAME_VALUE_SUFFIX);
+    }
+
+    @Override
+    public String subjectName(String topic, boolean isKey, String recordName) {
+        String suffix = isKey ? schemaNameKeySuffix : schemaNameValueSuffix;
+        // there wont be any naming collisions as kafka does not allow character `:` in a topic name.
+        return suffix != null ? topic + suffix : topic;
+    }
+}
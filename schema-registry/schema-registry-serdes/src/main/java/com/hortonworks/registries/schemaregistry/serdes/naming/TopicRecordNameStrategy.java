@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.naming;
+
+/**
+ * Names the schemas after the topic and the full name of the record type, as {@code <topic>:<record name>}, so a
+ * topic can have records of several types, each with its own schema in the topic.
+ */
+public class TopicRecordNameStrategy implements SubjectNameStrategy {
+
+    @Override
+    public boolean usesRecordName() {
+        return true;
+    }
+
+    @Override
+    public String subjectName(String topic, boolean isKey, String recordName) {
+        if (recordName == null) {
+            throw new IllegalArgumentException("Record name is required to name the schema of topic: [" + topic + "]");
+        }
+        // kafka does not allow character `:` in a topic name, so the topic part is unambiguous
+        return topic + ":" + recordName;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.serdes;
+
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class KafkaRegistryMetricsTest {
+
+    private Metrics metrics;
+    private KafkaRegistryMetrics underTest;
+
+    @BeforeEach
+    public void setUp() {
+        metrics = new Metrics();
+        underTest = new KafkaRegistryMetrics(metrics);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        metrics.close();
+    }
+
+    @Test
+    public void testMarkReachesTheKafkaMetrics() {
+        //when
+        underTest.mark("cache.miss");
+        underTest.mark("cache.miss", 2L);
+
+        //then
+        assertEquals(3.0, value("cache.miss-total"));
+    }
+
+    @Test
+    public void testTimerReachesTheKafkaMetrics() {
+        //when
+        underTest.update("lookup", 10L, TimeUnit.MILLISECONDS);
+        try (RegistryMetrics.Context context = underTest.time("lookup")) {
+            // timed
+        }
+
+        //then
+        assertEquals(2.0, value("lookup-count"));
+        assertEquals(10.0, value("lookup-max-ms"), 1.0);
+    }
+
+    @Test
+    public void testGaugeIsReplaced() {
+        //given
+        AtomicInteger size = new AtomicInteger(5);
+        underTest.registerGauge("cache.size", () -> 1);
+
+        //when
+        underTest.registerGauge("cache.size", size::get);
+
+        //then
+        assertEquals(5, ((Number) metrics.metric(metrics.metricName("cache.size-value",
+                KafkaRegistryMetrics.METRIC_GROUP)).metricValue()).intValue());
+        assertEquals(1, underTest.metrics().keySet().stream().filter(name -> name.name().equals("cache.size-value")).count());
+    }
+
+    private double value(String name) {
+        return (Double) underTest.metrics().get(metrics.metricName(name, KafkaRegistryMetrics.METRIC_GROUP)).metricValue();
+    }
+}
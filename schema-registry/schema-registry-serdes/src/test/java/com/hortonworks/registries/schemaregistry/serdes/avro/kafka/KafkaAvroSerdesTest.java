@@ -22,6 +22,7 @@ import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSerDesHandler;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
 import com.hortonworks.registries.schemaregistry.serdes.avro.DefaultAvroSerDesHandler;
 import com.hortonworks.registries.schemaregistry.serdes.avro.TestRecord;
+import com.hortonworks.registries.schemaregistry.serdes.naming.TopicRecordNameStrategy;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
@@ -248,4 +249,25 @@ public class KafkaAvroSerdesTest {
             Assertions.assertEquals(record, actual);
         }
     }
+
+    @Test
+    public void testTopicRecordNameStrategy() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(KafkaAvroSerializer.SCHEMA_NAME_STRATEGY, TopicRecordNameStrategy.class.getName());
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(schemaRegistryClient);
+        kafkaAvroSerializer.configure(configs, false);
+
+        TestRecord record = new TestRecord();
+        record.setField1("Hello");
+        kafkaAvroSerializer.serialize(topic, record);
+        kafkaAvroSerializer.serialize(topic, "World");
+        byte[] tombstone = kafkaAvroSerializer.serialize(topic, null);
+
+        Assertions.assertNotNull(schemaRegistryClient.getSchemaMetadataInfo(topic + ":" + TestRecord.class.getName()));
+        Assertions.assertNotNull(schemaRegistryClient.getSchemaMetadataInfo(topic + ":string"));
+        Assertions.assertNull(schemaRegistryClient.getSchemaMetadataInfo(topic));
+        // a tombstone is written without a schema
+        Assertions.assertNull(tombstone);
+        Assertions.assertNull(schemaRegistryClient.getSchemaMetadataInfo(topic + ":null"));
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.json.kafka;
+
+import com.hortonworks.registries.common.CompatibilityConfig;
+import com.hortonworks.registries.common.RegistryConfiguration;
+import com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.client.MockSchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.json.JsonSchemaProvider;
+import com.hortonworks.registries.schemaregistry.locks.SchemaLockManager;
+import com.hortonworks.registries.schemaregistry.serdes.naming.RecordNameStrategy;
+import com.hortonworks.registries.schemaregistry.serdes.naming.TopicRecordNameStrategy;
+import com.hortonworks.registries.storage.NOOPTransactionManager;
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class KafkaJsonSerializerTest {
+  private static final String TOPIC = "topic";
+  private static final String RECORD_NAME = SchemaMetadata.class.getName();
+
+  private ISchemaRegistryClient schemaRegistryClient;
+
+  @BeforeEach
+  void setUp() {
+    schemaRegistryClient = new MockSchemaRegistryClient(new DefaultSchemaRegistry(new RegistryConfiguration(),
+        new InMemoryStorageManager(), null,
+        Collections.singleton(Collections.singletonMap("providerClass", JsonSchemaProvider.class.getName())),
+        new SchemaLockManager(new NOOPTransactionManager()), new CompatibilityConfig()));
+  }
+
+  @Test
+  void testRecordNameStrategy() {
+    //given
+    KafkaJsonSerializer underTest = createSerializer(RecordNameStrategy.class.getName(), false);
+
+    //when
+    byte[] record = underTest.serialize(TOPIC, record());
+    byte[] tombstone = underTest.serialize(TOPIC, null);
+
+    //then
+    assertNotNull(record);
+    assertNull(tombstone);
+    assertNotNull(schemaRegistryClient.getSchemaMetadataInfo(RECORD_NAME));
+    assertNull(schemaRegistryClient.getSchemaMetadataInfo("null"));
+  }
+
+  @Test
+  void testTopicRecordNameStrategyWithHeaders() {
+    //given
+    KafkaJsonSerializer underTest = createSerializer(TopicRecordNameStrategy.class.getName(), true);
+    Headers recordHeaders = new RecordHeaders();
+    Headers tombstoneHeaders = new RecordHeaders();
+
+    //when
+    byte[] record = underTest.serialize(TOPIC, recordHeaders, record());
+    byte[] tombstone = underTest.serialize(TOPIC, tombstoneHeaders, null);
+
+    //then
+    assertNotNull(record);
+    assertNotNull(recordHeaders.lastHeader(KafkaJsonSerde.DEFAULT_VALUE_SCHEMA_VERSION_ID));
+    assertNull(tombstone);
+    assertFalse(tombstoneHeaders.iterator().hasNext());
+    assertNotNull(schemaRegistryClient.getSchemaMetadataInfo(TOPIC + ":" + RECORD_NAME));
+    assertNull(schemaRegistryClient.getSchemaMetadataInfo(TOPIC + ":null"));
+  }
+
+  @Test
+  void testTombstoneRoundTrip() {
+    //given
+    KafkaJsonDeserializer deserializer = new KafkaJsonDeserializer(schemaRegistryClient);
+    deserializer.configure(Collections.emptyMap(), false);
+
+    //when
+    byte[] tombstone = createSerializer(RecordNameStrategy.class.getName(), false).serialize(TOPIC, null);
+
+    //then
+    assertNull(deserializer.deserialize(TOPIC, tombstone));
+  }
+
+  private KafkaJsonSerializer createSerializer(String strategy, boolean storeSchemaVersionIdInHeader) {
+    Map<String, Object> configs = new HashMap<>();
+    configs.put(KafkaJsonSerializer.SCHEMA_NAME_STRATEGY, strategy);
+    configs.put(KafkaJsonSerializer.STORE_SCHEMA_VERSION_ID_IN_HEADER, String.valueOf(storeSchemaVersionIdInHeader));
+    KafkaJsonSerializer serializer = new KafkaJsonSerializer(schemaRegistryClient);
+    serializer.configure(configs, false);
+    return serializer;
+  }
+
+  private static SchemaMetadata record() {
+    return new SchemaMetadata.Builder("name").description("description").schemaGroup("kafka").type("json").build();
+  }
+}
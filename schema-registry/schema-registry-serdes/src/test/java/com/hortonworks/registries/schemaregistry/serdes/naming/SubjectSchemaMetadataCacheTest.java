@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.naming;
+
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SubjectSchemaMetadataCacheTest {
+
+    @Test
+    public void testTopicNameStrategy() {
+        SubjectSchemaMetadataCache keys = cache(Collections.emptyMap(), true);
+        SubjectSchemaMetadataCache values = cache(Collections.emptyMap(), false);
+
+        SchemaMetadata key = keys.get("orders", null);
+        Assertions.assertEquals("orders:k", key.getName());
+        Assertions.assertEquals(AvroSchemaProvider.TYPE, key.getType());
+        Assertions.assertEquals("kafka", key.getSchemaGroup());
+        Assertions.assertEquals(SchemaCompatibility.FORWARD, key.getCompatibility());
+        Assertions.assertEquals("Schema registered by test for topic: [orders] iskey: [true]", key.getDescription());
+        Assertions.assertEquals("orders", values.get("orders", null).getName());
+    }
+
+    @Test
+    public void testTopicNameStrategyWithSuffixes() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(TopicNameStrategy.SCHEMA_NAME_KEY_SUFFIX, "-key");
+        configs.put(TopicNameStrategy.SCHEMA_NAME_VALUE_SUFFIX, "-value");
+
+        Assertions.assertEquals("orders-key", cache(configs, true).get("orders", null).getName());
+        Assertions.assertEquals("orders-value", cache(configs, false).get("orders", null).getName());
+    }
+
+    @Test
+    public void testRecordNameStrategies() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(SubjectSchemaMetadataCache.SCHEMA_NAME_STRATEGY, RecordNameStrategy.class.getName());
+        SubjectSchemaMetadataCache recordNames = cache(configs, false);
+        configs.put(SubjectSchemaMetadataCache.SCHEMA_NAME_STRATEGY, TopicRecordNameStrategy.class.getName());
+        SubjectSchemaMetadataCache topicRecordNames = cache(configs, false);
+
+        Assertions.assertTrue(recordNames.usesRecordName());
+        Assertions.assertEquals("com.acme.Order", recordNames.get("orders", "com.acme.Order").getName());
+        Assertions.assertEquals("orders:com.acme.Order", topicRecordNames.get("orders", "com.acme.Order").getName());
+        Assertions.assertEquals("orders:com.acme.Refund", topicRecordNames.get("orders", "com.acme.Refund").getName());
+    }
+
+    @Test
+    public void testSchemaMetadataIsMemoized() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(SubjectSchemaMetadataCache.SCHEMA_NAME_STRATEGY, TopicRecordNameStrategy.class.getName());
+        SubjectSchemaMetadataCache topicRecordNames = cache(configs, false);
+        SubjectSchemaMetadataCache topicNames = cache(Collections.emptyMap(), false);
+
+        Assertions.assertSame(topicNames.get("orders", null), topicNames.get("orders", null));
+        Assertions.assertSame(topicRecordNames.get("orders", "com.acme.Order"), topicRecordNames.get("orders", "com.acme.Order"));
+        Assertions.assertNotSame(topicRecordNames.get("orders", "com.acme.Order"), topicRecordNames.get("refunds", "com.acme.Order"));
+    }
+
+    @Test
+    public void testUnknownStrategyIsRejected() {
+        Map<String, Object> configs = Collections.singletonMap(SubjectSchemaMetadataCache.SCHEMA_NAME_STRATEGY, "com.acme.NoSuchStrategy");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SubjectSchemaMetadataCache.createStrategy(configs));
+    }
+
+    private static SubjectSchemaMetadataCache cache(Map<String, ?> configs, boolean isKey) {
+        return new SubjectSchemaMetadataCache(SubjectSchemaMetadataCache.createStrategy(configs), isKey,
+                AvroSchemaProvider.TYPE, "kafka", SchemaCompatibility.FORWARD, "test");
+    }
+}
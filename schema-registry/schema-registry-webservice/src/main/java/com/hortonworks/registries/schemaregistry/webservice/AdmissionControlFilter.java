@@ -0,0 +1,291 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.webservice;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.RateLimiter;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the cheap lookups responsive while expensive operations are under heavy load. The API requests are divided
+ * into operation classes, every class has its own limit on the requests it may run at the same time and on the
+ * requests which may wait for their turn. A request which would exceed the waiting limit, or which waits longer than
+ * allowed, is rejected with 429 and a Retry-After header. The limits are counted in database connections: a request
+ * holds one connection, except a batch registration of schema versions whose workers hold one each, so a batch takes
+ * {@code batchPermits} permits of the write class. The limits of the write and analysis classes should leave enough
+ * connections of the pool for the lookups.
+ * <p>
+ * The requests of a principal can also be rate limited per class. The filter should be registered after the
+ * authentication filter, otherwise the requests are rate limited by the remote address.
+ * <p>
+ * Init parameters, per operation class ({@code lookup}, {@code write} or {@code analysis}):
+ * <pre>
+ *  - &lt;class&gt;.maxConcurrent: requests of the class which run at the same time, 0 turns off the limits of the class
+ *  - &lt;class&gt;.maxQueued: requests of the class which wait for one of the running ones to finish
+ *  - &lt;class&gt;.maxQueueTimeMs: how long a request may wait
+ *  - &lt;class&gt;.permitsPerSecondPerPrincipal: rate limit of the requests of a principal, 0 means no rate limit
+ *  - retryAfterSecs: value of the Retry-After header when a request is rejected because of the load
+ *  - batchPermits: permits taken by a batch registration, it should be the schemaVersionBatchParallelism of the registry
+ * </pre>
+ */
+public class AdmissionControlFilter implements Filter {
+    private static final Logger LOG = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    @VisibleForTesting
+    static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+    private static final String API_PATH = "/api/";
+    private static final String ADMITTED_ATTRIBUTE = AdmissionControlFilter.class.getName() + ".admitted";
+
+    private static final String BATCH_PATH_SUFFIX = "/versions/batch";
+    private static final Pattern CONFLUENT_SUBJECT_LOOKUP = Pattern.compile(".*/api/v1/confluent/subjects/[^/]+/?$");
+
+    /** Classes of the API requests, the limits of a class only apply to its own requests. */
+    public enum OperationClass {
+        /** Reads of schemas and schema versions. */
+        LOOKUP(0, 0, 0),
+        /** Registration and state changes of schemas and schema versions. */
+        WRITE(16, 64, 10_000),
+        /** Compatibility checks, aggregated listings, searches, import and export. */
+        ANALYSIS(4, 16, 5_000);
+
+        private final int defaultMaxConcurrent;
+        private final int defaultMaxQueued;
+        private final long defaultMaxQueueTimeMs;
+
+        OperationClass(int defaultMaxConcurrent, int defaultMaxQueued, long defaultMaxQueueTimeMs) {
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+            this.defaultMaxQueued = defaultMaxQueued;
+            this.defaultMaxQueueTimeMs = defaultMaxQueueTimeMs;
+        }
+
+        String paramPrefix() {
+            return name().toLowerCase(Locale.ROOT) + ".";
+        }
+    }
+
+    private final Map<OperationClass, Bulkhead> bulkheads = new EnumMap<>(OperationClass.class);
+    private int retryAfterSecs;
+    private int batchPermits;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        retryAfterSecs = getIntParameter(filterConfig, "retryAfterSecs", 1);
+        batchPermits = Math.max(1, getIntParameter(filterConfig, "batchPermits", 4));
+        for (OperationClass operationClass : OperationClass.values()) {
+            String prefix = operationClass.paramPrefix();
+            Bulkhead bulkhead = new Bulkhead(operationClass,
+                    getIntParameter(filterConfig, prefix + "maxConcurrent", operationClass.defaultMaxConcurrent),
+                    getIntParameter(filterConfig, prefix + "maxQueued", operationClass.defaultMaxQueued),
+                    getIntParameter(filterConfig, prefix + "maxQueueTimeMs", (int) operationClass.defaultMaxQueueTimeMs),
+                    getDoubleParameter(filterConfig, prefix + "permitsPerSecondPerPrincipal", 0));
+            bulkheads.put(operationClass, bulkhead);
+            LOG.info("Admission control of {}", bulkhead);
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        // forwarded requests were already admitted when they arrived
+        if (!request.getRequestURI().contains(API_PATH) || request.getAttribute(ADMITTED_ATTRIBUTE) != null) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(classify(request.getMethod(), request.getRequestURI()));
+        RateLimiter rateLimiter = bulkhead.rateLimiterOf(getPrincipal(request));
+        if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+            reject(response, bulkhead, "rateLimited", (int) Math.ceil(1 / rateLimiter.getRate()),
+                    "Too many requests of the principal, try again later");
+            return;
+        }
+        int permits = bulkhead.permitsOf(isBatch(request.getMethod(), request.getRequestURI()) ? batchPermits : 1);
+        if (!bulkhead.acquire(permits)) {
+            reject(response, bulkhead, "rejected", retryAfterSecs, "The registry is busy, try again later");
+            return;
+        }
+        try {
+            request.setAttribute(ADMITTED_ATTRIBUTE, bulkhead.operationClass);
+            filterChain.doFilter(servletRequest, servletResponse);
+        } finally {
+            bulkhead.release(permits);
+        }
+    }
+
+    @VisibleForTesting
+    static OperationClass classify(String method, String requestUri) {
+        String uri = requestUri.toLowerCase(Locale.ROOT);
+        if (uri.contains("/compatibility") || uri.contains("/aggregated") || uri.contains("/search/")
+                || uri.endsWith("/export") || uri.endsWith("/import")) {
+            return OperationClass.ANALYSIS;
+        }
+        boolean read = "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+        // these POST requests only look up existing versions
+        boolean lookup = "POST".equals(method)
+                && (uri.endsWith("/versions/lookup") || CONFLUENT_SUBJECT_LOOKUP.matcher(uri).matches());
+        if (read || lookup) {
+            return OperationClass.LOOKUP;
+        }
+        return OperationClass.WRITE;
+    }
+
+    private static boolean isBatch(String method, String requestUri) {
+        return "POST".equals(method) && requestUri.toLowerCase(Locale.ROOT).endsWith(BATCH_PATH_SUFFIX);
+    }
+
+    private String getPrincipal(HttpServletRequest request) {
+        String remoteUser = request.getRemoteUser();
+        return remoteUser != null ? remoteUser : request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Bulkhead bulkhead, String reason, int retryAfter, String message)
+            throws IOException {
+        LOG.debug("Rejecting {} request: {}", bulkhead.operationClass, reason);
+        Metrics.get().mark(RegistryMetrics.name(AdmissionControlFilter.class, bulkhead.metricName(), reason));
+        response.setHeader(RETRY_AFTER_HEADER, String.valueOf(Math.max(1, retryAfter)));
+        response.sendError(SC_TOO_MANY_REQUESTS, message);
+    }
+
+    private int getIntParameter(FilterConfig filterConfig, String name, int defaultValue) throws ServletException {
+        String value = filterConfig.getInitParameter(name);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ServletException("Invalid value of " + name + ": " + value, e);
+        }
+    }
+
+    private double getDoubleParameter(FilterConfig filterConfig, String name, double defaultValue) throws ServletException {
+        String value = filterConfig.getInitParameter(name);
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ServletException("Invalid value of " + name + ": " + value, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    /** Limits the requests of an operation class. */
+    private static class Bulkhead {
+        private final OperationClass operationClass;
+        private final int maxConcurrent;
+        private final int maxQueued;
+        private final long maxQueueTimeMs;
+        private final double permitsPerSecondPerPrincipal;
+        private final Semaphore running;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LoadingCache<String, RateLimiter> rateLimiters;
+
+        Bulkhead(OperationClass operationClass, int maxConcurrent, int maxQueued, long maxQueueTimeMs,
+                 double permitsPerSecondPerPrincipal) {
+            this.operationClass = operationClass;
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.maxQueueTimeMs = maxQueueTimeMs;
+            this.permitsPerSecondPerPrincipal = permitsPerSecondPerPrincipal;
+            this.running = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+            if (permitsPerSecondPerPrincipal > 0) {
+                this.rateLimiters = CacheBuilder.newBuilder()
+                        .expireAfterAccess(10, TimeUnit.MINUTES)
+                        .build(CacheLoader.from((String principal) -> RateLimiter.create(permitsPerSecondPerPrincipal)));
+            } else {
+                this.rateLimiters = null;
+            }
+            if (running != null) {
+                Metrics.get().registerGauge(RegistryMetrics.name(AdmissionControlFilter.class, metricName(), "running"),
+                        () -> maxConcurrent - running.availablePermits());
+                Metrics.get().registerGauge(RegistryMetrics.name(AdmissionControlFilter.class, metricName(), "queued"),
+                        queued::get);
+            }
+        }
+
+        RateLimiter rateLimiterOf(String principal) {
+            return rateLimiters == null || principal == null ? null : rateLimiters.getUnchecked(principal);
+        }
+
+        /** @return permits of a request holding the given number of connections, never more than the limit */
+        int permitsOf(int connections) {
+            return Math.min(connections, Math.max(1, maxConcurrent));
+        }
+
+        /** @return true if the request may run, it has to release the permits when it finished */
+        boolean acquire(int permits) {
+            if (running == null || running.tryAcquire(permits)) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return false;
+            }
+            try {
+                return running.tryAcquire(permits, maxQueueTimeMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        void release(int permits) {
+            if (running != null) {
+                running.release(permits);
+            }
+        }
+
+        String metricName() {
+            return operationClass.name().toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public String toString() {
+            return operationClass + " requests{" +
+                    "maxConcurrent=" + maxConcurrent +
+                    ", maxQueued=" + maxQueued +
+                    ", maxQueueTimeMs=" + maxQueueTimeMs +
+                    ", permitsPerSecondPerPrincipal=" + permitsPerSecondPerPrincipal +
+                    '}';
+        }
+    }
+}
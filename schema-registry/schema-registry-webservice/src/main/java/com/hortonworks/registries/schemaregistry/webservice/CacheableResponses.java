@@ -0,0 +1,86 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.webservice;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validators and cache lifetimes of the representations which HTTP caches can keep. A request with a matching
+ * {@code If-None-Match} header gets 304 without the representation. Representations served to authenticated users
+ * are only cached privately, as the authorization of the users may differ.
+ */
+final class CacheableResponses {
+    private static final int IMMUTABLE_MAX_AGE_SECS = (int) TimeUnit.DAYS.toSeconds(365);
+
+    private CacheableResponses() {
+    }
+
+    /** @return cache control of a representation which may change, it is revalidated every time it is used */
+    static CacheControl revalidated(SecurityContext securityContext) {
+        CacheControl cacheControl = cacheControl(securityContext);
+        cacheControl.setNoCache(true);
+        return cacheControl;
+    }
+
+    /** @return cache control of a representation which never changes */
+    static CacheControl immutable(SecurityContext securityContext) {
+        CacheControl cacheControl = cacheControl(securityContext);
+        cacheControl.setMaxAge(IMMUTABLE_MAX_AGE_SECS);
+        return cacheControl;
+    }
+
+    private static CacheControl cacheControl(SecurityContext securityContext) {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoTransform(false);
+        cacheControl.setPrivate(securityContext != null && securityContext.getUserPrincipal() != null);
+        return cacheControl;
+    }
+
+    /**
+     * @return validator of a listing computed from its items, as the items are the only thing the listing has
+     */
+    static EntityTag listingTag(Collection<?> items) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (Object item : items) {
+            hasher.putString(String.valueOf(item), StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+        return new EntityTag(hasher.hash().toString());
+    }
+
+    /**
+     * @return 304 response if the client already has the representation with the given tag, null otherwise
+     */
+    static Response notModified(Request request, EntityTag entityTag, CacheControl cacheControl) {
+        Response.ResponseBuilder builder = request == null ? null : request.evaluatePreconditions(entityTag);
+        return builder == null ? null : builder.tag(entityTag).cacheControl(cacheControl).build();
+    }
+
+    /**
+     * @return the given response with the validator and the cache control of its representation
+     */
+    static Response cacheable(Response response, EntityTag entityTag, CacheControl cacheControl) {
+        return Response.fromResponse(response).tag(entityTag).cacheControl(cacheControl).build();
+    }
+}
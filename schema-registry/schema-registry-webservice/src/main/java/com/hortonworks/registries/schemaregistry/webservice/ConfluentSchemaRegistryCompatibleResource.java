@@ -32,6 +32,7 @@ import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaValidationLevel;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionEntityTags;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
 import com.hortonworks.registries.schemaregistry.authorizer.agent.AuthorizationAgent;
@@ -58,13 +59,15 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 import java.io.IOException;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -85,6 +88,7 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
     private final RangerAuthenticator authenticationUtils;
     private final AtlasEventLogger atlasEventLogger;
     private final CompatibilityConfig compatibilityConfig;
+    private final ConfluentSubjectIndex subjectIndex;
 
     @Inject
     public ConfluentSchemaRegistryCompatibleResource(ISchemaRegistry schemaRegistry,
@@ -98,6 +102,7 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
         this.authenticationUtils = authenticationUtils;
         this.atlasEventLogger = atlasEventLogger;
         this.compatibilityConfig = compatibilityConfig;
+        this.subjectIndex = new ConfluentSubjectIndex(schemaRegistry);
     }
 
     @GET
@@ -105,9 +110,11 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
     @ApiOperation(value = "Get schema version by id",
             response = Schema.class, tags = OPERATION_GROUP_CONFLUENT_SR)
     @Timed
-    @UnitOfWork
+    // may be served by the read replica, only the schema text is returned and it never changes
+    @UnitOfWork(readOnly = true)
     public Response getSchemaById(@ApiParam(value = "schema version id", required = true) @PathParam("id") Long id,
-                                  @Context SecurityContext securityContext) {
+                                  @Context SecurityContext securityContext,
+                                  @Context Request request) {
         return wrapper(() -> {
             SchemaVersionInfo schemaVersionInfo = schemaRegistry.getSchemaVersionInfo(new SchemaIdVersion(id));
             if (schemaVersionInfo == null) {
@@ -116,9 +123,15 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
             authorizationAgent.authorizeSchemaVersion(authenticationUtils.getUserAndGroups(securityContext), schemaRegistry,
                     schemaVersionInfo, Authorizer.AccessType.READ);
 
+            EntityTag entityTag = new EntityTag(SchemaVersionEntityTags.ofSchemaText(id));
+            CacheControl cacheControl = CacheableResponses.immutable(securityContext);
+            Response notModified = CacheableResponses.notModified(request, entityTag, cacheControl);
+            if (notModified != null) {
+                return notModified;
+            }
             SchemaString schema = new SchemaString();
             schema.setSchema(schemaVersionInfo.getSchemaText());
-            return WSUtils.respondEntity(schema, Response.Status.OK);
+            return CacheableResponses.cacheable(WSUtils.respondEntity(schema, Response.Status.OK), entityTag, cacheControl);
         });
     }
 
@@ -128,15 +141,16 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
             response = String.class, responseContainer = "List", tags = OPERATION_GROUP_CONFLUENT_SR)
     @Timed
     @UnitOfWork
-    public Response getSubjects(@Context SecurityContext securityContext) {
+    public Response getSubjects(@Context SecurityContext securityContext,
+                                @Context Request request) {
         return wrapper(() -> {
             List<String> registeredSubjects = authorizationAgent.authorizeFindSchemas(authenticationUtils.getUserAndGroups(securityContext),
-                    schemaRegistry.findSchemaMetadata(Collections.emptyMap()))
+                    subjectIndex.getSubjects())
                     .stream()
                     .map(x -> x.getSchemaMetadata().getName())
                     .collect(Collectors.toList());
 
-            return WSUtils.respondEntity(registeredSubjects, Response.Status.OK);
+            return respondListing(registeredSubjects, securityContext, request);
         });
     }
 
@@ -204,19 +218,31 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
     public Response getAllVersions(@ApiParam(value = "subject", required = true)
                                    @PathParam("subject")
                                            String subject,
-                                   @Context SecurityContext securityContext) {
+                                   @Context SecurityContext securityContext,
+                                   @Context Request request) {
         return wrapper(() -> {
             List<Integer> registeredSubjects = authorizationAgent.authorizeGetAllVersions(authenticationUtils.getUserAndGroups(securityContext),
                     schemaRegistry,
-                    schemaRegistry.getAllVersions(subject))
+                    subjectIndex.getVersions(subject))
                     .stream()
                     .map(SchemaVersionInfo::getVersion)
                     .collect(Collectors.toList());
 
-            return WSUtils.respondEntity(registeredSubjects, Response.Status.OK);
+            return respondListing(registeredSubjects, securityContext, request);
         });
         }
 
+    private Response respondListing(List<?> listing, SecurityContext securityContext, Request request) {
+        // the listing depends on the authorization of the user, so it is tagged after the authorization
+        EntityTag entityTag = CacheableResponses.listingTag(listing);
+        CacheControl cacheControl = CacheableResponses.revalidated(securityContext);
+        Response notModified = CacheableResponses.notModified(request, entityTag, cacheControl);
+        if (notModified != null) {
+            return notModified;
+        }
+        return CacheableResponses.cacheable(WSUtils.respondEntity(listing, Response.Status.OK), entityTag, cacheControl);
+    }
+
     private Response wrapper(ErrorCallback method) {
     try {
         return method.call();
@@ -371,6 +397,7 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
             SchemaIdVersion schemaVersionInfo = schemaRegistry.addSchemaVersion(schemaMetadataInfo.getSchemaMetadata(),
                                                                                 new SchemaVersion(schemaStringFromJson(schema).getSchema(), null));
             atlasEventLogger.withAuth(auth).createVersion(schemaVersionInfo.getSchemaVersionId());
+            subjectIndex.subjectChanged(subject);
 
             Id id = new Id();
             id.setId(schemaVersionInfo.getSchemaVersionId());
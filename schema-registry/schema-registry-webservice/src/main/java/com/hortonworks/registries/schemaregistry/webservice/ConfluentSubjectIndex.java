@@ -0,0 +1,184 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.webservice;
+
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
+import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
+import com.hortonworks.registries.schemaregistry.SchemaChange;
+import com.hortonworks.registries.schemaregistry.SchemaChangeCursor;
+import com.hortonworks.registries.schemaregistry.SchemaChanges;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of the subjects of the Confluent compatible API and of their versions. The Confluent clients poll
+ * these listings, so they are served from memory instead of reading every schema, or every version of a subject,
+ * from the storage on each request.
+ * <p>
+ * The index is built when it is first used, and then it is kept current with the change log of the registry, which
+ * also has the changes made by the other instances of the registry. Catching up with the change log is a single
+ * indexed query when nothing changed. The versions of a subject are only loaded when they are asked for, and they
+ * are dropped when a version of the subject changes.
+ */
+class ConfluentSubjectIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(ConfluentSubjectIndex.class);
+
+    private static final String HITS_METRIC = RegistryMetrics.name(ConfluentSubjectIndex.class, "versions", "hits");
+    private static final String MISSES_METRIC = RegistryMetrics.name(ConfluentSubjectIndex.class, "versions", "misses");
+    private static final String REBUILDS_METRIC = RegistryMetrics.name(ConfluentSubjectIndex.class, "rebuilds");
+
+    /** Reads of the change log within a single catch up, the rest of the changes are read by the next requests. */
+    private static final int MAX_CHANGE_READS = 10;
+
+    private final ISchemaRegistry schemaRegistry;
+    private final ConcurrentNavigableMap<String, Subject> subjects = new ConcurrentSkipListMap<>();
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+    private final SchemaChangeCursor cursor = new SchemaChangeCursor();
+
+    ConfluentSubjectIndex(ISchemaRegistry schemaRegistry) {
+        this.schemaRegistry = schemaRegistry;
+    }
+
+    /**
+     * @return the schemas of all the subjects, in the order of the subject names
+     */
+    Collection<SchemaMetadataInfo> getSubjects() {
+        catchUp();
+        List<SchemaMetadataInfo> result = new ArrayList<>(subjects.size());
+        for (Subject subject : subjects.values()) {
+            result.add(subject.schemaMetadataInfo);
+        }
+        return result;
+    }
+
+    /**
+     * @return all the versions of the given subject
+     * @throws SchemaNotFoundException if there is no such subject
+     */
+    Collection<SchemaVersionInfo> getVersions(String subjectName) throws SchemaNotFoundException {
+        catchUp();
+        Subject subject = subjects.get(subjectName);
+        if (subject != null && subject.versions != null) {
+            Metrics.get().mark(HITS_METRIC);
+            return subject.versions;
+        }
+
+        // the storage is asked even if the subject is not indexed, it could have been added recently
+        Metrics.get().mark(MISSES_METRIC);
+        List<SchemaVersionInfo> versions = Collections.unmodifiableList(new ArrayList<>(schemaRegistry.getAllVersions(subjectName)));
+        if (subject != null) {
+            // a change of the subject which arrived in the meantime wins over the loaded versions
+            subjects.replace(subjectName, subject, new Subject(subject.schemaMetadataInfo, versions));
+        } else {
+            SchemaMetadataInfo schemaMetadataInfo = schemaRegistry.getSchemaMetadataInfo(subjectName);
+            if (schemaMetadataInfo != null) {
+                subjects.putIfAbsent(subjectName, new Subject(schemaMetadataInfo, versions));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Updates the given subject right away after it was changed by this instance, the change log only has the
+     * change once the transaction of the change is committed.
+     */
+    void subjectChanged(String subjectName) {
+        SchemaMetadataInfo schemaMetadataInfo = schemaRegistry.getSchemaMetadataInfo(subjectName);
+        if (schemaMetadataInfo == null) {
+            subjects.remove(subjectName);
+        } else {
+            subjects.put(subjectName, new Subject(schemaMetadataInfo, null));
+        }
+    }
+
+    private void catchUp() {
+        if (cursor.getSequence() == null) {
+            catchUpLock.lock();
+        } else if (!catchUpLock.tryLock()) {
+            // another request is already reading the change log, the index is served as it is
+            return;
+        }
+        try {
+            if (cursor.getSequence() == null) {
+                rebuild();
+            } else {
+                readChanges();
+            }
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        // the changes made while the schemas are read are applied again, applying a change is idempotent
+        Long startSequence = schemaRegistry.getSchemaChanges(null, Collections.emptyList()).getSequence();
+        Collection<SchemaMetadataInfo> schemaMetadataInfos = schemaRegistry.findSchemaMetadata(Collections.emptyMap());
+        subjects.clear();
+        for (SchemaMetadataInfo schemaMetadataInfo : schemaMetadataInfos) {
+            subjects.put(schemaMetadataInfo.getSchemaMetadata().getName(), new Subject(schemaMetadataInfo, null));
+        }
+        cursor.reset(startSequence);
+        Metrics.get().mark(REBUILDS_METRIC);
+        LOG.info("Built the index of {} subjects at change sequence {}", subjects.size(), startSequence);
+    }
+
+    private void readChanges() {
+        for (int i = 0; i < MAX_CHANGE_READS; i++) {
+            SchemaChanges schemaChanges = schemaRegistry.getSchemaChanges(cursor.getSequence(), cursor.getSkippedSequences());
+            for (SchemaChange schemaChange : schemaChanges.getChanges()) {
+                apply(schemaChange);
+            }
+            cursor.advance(schemaChanges);
+            if (schemaChanges.getChanges().isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private void apply(SchemaChange schemaChange) {
+        LOG.debug("Applying {}", schemaChange);
+        String subjectName = schemaChange.getSchemaName();
+        if (schemaChange.getType() == SchemaChange.Type.SCHEMA_METADATA_DELETED) {
+            subjects.remove(subjectName);
+        } else if (schemaChange.getType().isSchemaVersionChange()) {
+            subjects.computeIfPresent(subjectName, (name, subject) -> new Subject(subject.schemaMetadataInfo, null));
+        } else {
+            subjectChanged(subjectName);
+        }
+    }
+
+    /** A subject with its versions, the versions are null until they are asked for. */
+    private static final class Subject {
+        private final SchemaMetadataInfo schemaMetadataInfo;
+        private final List<SchemaVersionInfo> versions;
+
+        private Subject(SchemaMetadataInfo schemaMetadataInfo, List<SchemaVersionInfo> versions) {
+            this.schemaMetadataInfo = schemaMetadataInfo;
+            this.versions = versions;
+        }
+    }
+}
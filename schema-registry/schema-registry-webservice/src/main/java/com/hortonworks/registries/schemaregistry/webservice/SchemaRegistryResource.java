@@ -27,6 +27,8 @@ import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
 import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaChange;
+import com.hortonworks.registries.schemaregistry.SchemaChanges;
 import com.hortonworks.registries.schemaregistry.SchemaFieldInfo;
 import com.hortonworks.registries.schemaregistry.SchemaFieldQuery;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
@@ -35,9 +37,14 @@ import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataStorable;
 import com.hortonworks.registries.schemaregistry.SchemaProviderInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionBatch;
+import com.hortonworks.registries.schemaregistry.SchemaVersionBatchResult;
+import com.hortonworks.registries.schemaregistry.SchemaVersionEntityTags;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.SchemaVersionLookup;
 import com.hortonworks.registries.schemaregistry.SchemaVersionMergeResult;
+import com.hortonworks.registries.schemaregistry.SchemaVersionStateInfo;
 import com.hortonworks.registries.schemaregistry.SerDesInfo;
 import com.hortonworks.registries.schemaregistry.SerDesPair;
 import com.hortonworks.registries.schemaregistry.authorizer.agent.AuthorizationAgent;
@@ -81,11 +88,16 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.StreamingOutput;
@@ -101,6 +113,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import static com.hortonworks.registries.common.catalog.CatalogResponse.ResponseMessage.SUCCESS;
 import static com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry.ORDER_BY_FIELDS_PARAM_NAME;
@@ -536,6 +550,39 @@ public class SchemaRegistryResource extends BaseRegistryResource {
                 return WSUtils.respondEntity(version.getVersion(), Response.Status.CREATED);
     }
 
+    @POST
+    @Path("/schemas/versions/batch")
+    @ApiOperation(value = "Register versions of several schemas",
+            notes = "Registers every version of the batch which is not registered yet and returns a result for each of them, " +
+                    "in the order of the batch. Versions of different schemas are registered in parallel. In ALL_OR_NOTHING " +
+                    "mode the whole batch is rolled back if any of its versions can't be registered, in PER_ITEM mode " +
+                    "the failure of a version does not affect the others. The request is rejected if the user is not " +
+                    "allowed to add any of the versions.",
+            response = SchemaVersionBatchResult.class, tags = OPERATION_GROUP_SCHEMA)
+    @Timed
+    // the versions are registered in transactions of the batch workers, the request must not hold a connection meanwhile
+    @UnitOfWork(transactional = false)
+    public Response addSchemaVersions(@ApiParam(value = "Versions to be registered and the transaction mode", required = true)
+                                              SchemaVersionBatch schemaVersionBatch,
+                                      @Context SecurityContext securityContext) throws Exception {
+        LOG.info("adding {} schema versions in batch", schemaVersionBatch.getItems().size());
+        final Authorizer.UserAndGroups auth = authenticationUtils.getUserAndGroups(securityContext);
+        for (SchemaVersionBatch.Item item : schemaVersionBatch.getItems()) {
+            authorizationAgent.authorizeSchemaVersion(auth, schemaRegistry,
+                    item.getSchemaName(),
+                    item.getSchemaBranchName(),
+                    Authorizer.AccessType.CREATE);
+        }
+
+        SchemaVersionBatchResult result = schemaRegistry.addSchemaVersions(schemaVersionBatch);
+        for (SchemaVersionBatchResult.ItemResult itemResult : result.getResults()) {
+            if (itemResult.getStatus() == SchemaVersionBatchResult.Status.REGISTERED) {
+                atlasEventLogger.withAuth(auth).createVersion(itemResult.getSchemaIdVersion().getSchemaVersionId());
+            }
+        }
+        return WSUtils.respondEntity(result, Response.Status.OK);
+    }
+
     @GET
     @Path("/schemas/{name}/versions/latest")
     @ApiOperation(value = "Get the latest version of the schema for the given schema name",
@@ -610,6 +657,30 @@ public class SchemaRegistryResource extends BaseRegistryResource {
             }
     }
 
+    @GET
+    @Path("/schemas/{name}/dependents")
+    @ApiOperation(value = "Get the schema versions which include the schema with the given name",
+            notes = "Returns the schema versions including the given schema with their includeSchemas, either a pinned version of it or " +
+                    "its latest version. With transitive the versions including those versions are returned too, these are the versions " +
+                    "whose resultant schema may change with a new version of the given schema. Versions registered before the includes " +
+                    "were tracked are not returned.",
+            response = SchemaVersionKey.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
+    @Timed
+    @UnitOfWork
+    public Response getDependentSchemaVersions(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaName,
+                                               @QueryParam("transitive") @DefaultValue("false") boolean transitive,
+                                               @Context SecurityContext securityContext) throws Exception {
+        if (schemaRegistry.getSchemaMetadataInfo(schemaName) == null) {
+            LOG.info("No schemas found with schemakey: [{}]", schemaName);
+            return WSUtils.respond(Response.Status.NOT_FOUND, CatalogResponse.ResponseMessage.ENTITY_NOT_FOUND, schemaName);
+        }
+        final Authorizer.UserAndGroups auth = authenticationUtils.getUserAndGroups(securityContext);
+        authorizationAgent.authorizeSchemaVersion(auth, schemaRegistry, schemaName, MASTER_BRANCH, Authorizer.AccessType.READ);
+        Collection<SchemaVersionKey> schemaVersionKeys = authorizationAgent.authorizeFindSchemasByFields(auth, schemaRegistry,
+                schemaRegistry.getDependentSchemaVersions(schemaName, transitive));
+        return WSUtils.respondEntities(schemaVersionKeys, Response.Status.OK);
+    }
+
     @GET
     @Path("/schemas/{name}/versions/{version}")
     @ApiOperation(value = "Get a version of the schema identified by the schema name",
@@ -618,13 +689,20 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @UnitOfWork
     public Response getSchemaVersion(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaMetadata,
                                      @ApiParam(value = "version of the schema", required = true) @PathParam("version") Integer versionNumber,
-                                     @Context SecurityContext securityContext) throws Exception {
+                                     @Context SecurityContext securityContext,
+                                     @Context Request request) throws Exception {
         SchemaVersionKey schemaVersionKey = new SchemaVersionKey(schemaMetadata, versionNumber);
         SchemaVersionInfo schemaVersionInfo = schemaRegistry.getSchemaVersionInfo(schemaVersionKey);
         authorizationAgent.authorizeSchemaVersion(authenticationUtils.getUserAndGroups(securityContext), schemaRegistry,
                 schemaVersionInfo, Authorizer.AccessType.READ);
 
-        return WSUtils.respondEntity(schemaVersionInfo, Response.Status.OK);
+        EntityTag entityTag = new EntityTag(SchemaVersionEntityTags.of(schemaVersionInfo));
+        CacheControl cacheControl = CacheableResponses.revalidated(securityContext);
+        Response notModified = CacheableResponses.notModified(request, entityTag, cacheControl);
+        if (notModified != null) {
+            return notModified;
+        }
+        return CacheableResponses.cacheable(WSUtils.respondEntity(schemaVersionInfo, Response.Status.OK), entityTag, cacheControl);
     }
 
     @GET
@@ -635,16 +713,26 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @UnitOfWork
     public Response getSchemaVersionText(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaMetadata,
                                      @ApiParam(value = "version of the schema", required = true) @PathParam("version") Integer versionNumber,
-                                     @Context SecurityContext securityContext) throws Exception {
+                                     @Context SecurityContext securityContext,
+                                     @Context Request request) throws Exception {
         SchemaVersionKey schemaVersionKey = new SchemaVersionKey(schemaMetadata, versionNumber);
         SchemaVersionInfo schemaVersionInfo = schemaRegistry.getSchemaVersionInfo(schemaVersionKey);
         authorizationAgent.authorizeSchemaVersion(authenticationUtils.getUserAndGroups(securityContext), schemaRegistry,
                 schemaVersionInfo, Authorizer.AccessType.READ);
 
-            return Response.status(Response.Status.OK)
-                    .entity(schemaVersionInfo.getSchemaText())
-                    .type(MediaType.APPLICATION_JSON_TYPE)
-                    .build();
+        // the name and version may identify a different schema version once this one was deleted
+        EntityTag entityTag = new EntityTag(SchemaVersionEntityTags.ofSchemaText(schemaVersionInfo.getId()));
+        CacheControl cacheControl = CacheableResponses.revalidated(securityContext);
+        Response notModified = CacheableResponses.notModified(request, entityTag, cacheControl);
+        if (notModified != null) {
+            return notModified;
+        }
+        return Response.status(Response.Status.OK)
+                .entity(schemaVersionInfo.getSchemaText())
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .tag(entityTag)
+                .cacheControl(cacheControl)
+                .build();
     }
 
     @GET
@@ -654,12 +742,118 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @Timed
     @UnitOfWork
     public Response getSchemaVersionById(@ApiParam(value = "version identifier of the schema", required = true) @PathParam("id") Long versionId,
-                                         @Context SecurityContext securityContext) throws Exception {
+                                         @Context SecurityContext securityContext,
+                                         @Context Request request) throws Exception {
         SchemaIdVersion schemaIdVersion = new SchemaIdVersion(versionId);
             SchemaVersionInfo schemaVersionInfo = schemaRegistry.getSchemaVersionInfo(schemaIdVersion);
             authorizationAgent.authorizeSchemaVersion(authenticationUtils.getUserAndGroups(securityContext), schemaRegistry,
                     schemaIdVersion, Authorizer.AccessType.READ);
-            return WSUtils.respondEntity(schemaVersionInfo, Response.Status.OK);
+
+            EntityTag entityTag = new EntityTag(SchemaVersionEntityTags.of(schemaVersionInfo));
+            CacheControl cacheControl = CacheableResponses.revalidated(securityContext);
+            Response notModified = CacheableResponses.notModified(request, entityTag, cacheControl);
+            if (notModified != null) {
+                return notModified;
+            }
+            return CacheableResponses.cacheable(WSUtils.respondEntity(schemaVersionInfo, Response.Status.OK), entityTag, cacheControl);
+    }
+
+    @POST
+    @Path("/schemas/versions/lookup")
+    @ApiOperation(value = "Get several schema versions identified by their version ids and/or schema name and version",
+            notes = "Schema versions which do not exist or which the user is not allowed to read are left out of the result.",
+            response = SchemaVersionInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
+    @Timed
+    @UnitOfWork
+    public Response lookupSchemaVersions(@ApiParam(value = "Version ids and/or schema name and version pairs", required = true)
+                                                 SchemaVersionLookup schemaVersionLookup,
+                                         @Context SecurityContext securityContext) throws Exception {
+        Collection<SchemaVersionInfo> schemaVersionInfos = authorizationAgent.authorizeGetAllVersions(
+                authenticationUtils.getUserAndGroups(securityContext),
+                schemaRegistry,
+                schemaRegistry.getSchemaVersionInfos(schemaVersionLookup));
+        return WSUtils.respondEntities(schemaVersionInfos, Response.Status.OK);
+    }
+
+    @GET
+    @Path("/schemas/versions/states")
+    @ApiOperation(value = "Get the state history of several schema versions identified by their version ids",
+            notes = "Returns the states of each version ordered by sequence keyed by the version id. Schema versions which do " +
+                    "not exist, have no states or which the user is not allowed to read are left out of the result.",
+            response = SchemaVersionStateInfo.class, responseContainer = "Map", tags = OPERATION_GROUP_SCHEMA)
+    @Timed
+    @UnitOfWork
+    public Response getSchemaVersionStates(@ApiParam(value = "Version ids of the schemas", required = true)
+                                           @QueryParam("versionId") List<Long> versionIds,
+                                           @Context SecurityContext securityContext) throws Exception {
+        if (versionIds == null || versionIds.isEmpty()) {
+            return WSUtils.respondEntity(Collections.emptyMap(), Response.Status.OK);
+        }
+        List<Long> readableVersionIds = authorizationAgent.authorizeGetAllVersions(
+                authenticationUtils.getUserAndGroups(securityContext),
+                schemaRegistry,
+                schemaRegistry.getSchemaVersionInfos(new SchemaVersionLookup(versionIds, Collections.emptyList())))
+                .stream()
+                .map(SchemaVersionInfo::getId)
+                .collect(Collectors.toList());
+        return WSUtils.respondEntity(schemaRegistry.getSchemaVersionStates(readableVersionIds), Response.Status.OK);
+    }
+
+    @GET
+    @Path("/changes")
+    @ApiOperation(value = "Get the changes of schemas and schema versions which happened after the given sequence number",
+            notes = "Without 'since' only the current sequence number is returned. If there are no changes after 'since', " +
+                    "the request waits at most 'waitMs' milliseconds for one to happen. Changes of schemas the user " +
+                    "is not allowed to read are left out, the returned sequence number still moves past them. " +
+                    "The returned 'skippedSequences' are to be passed back as 'skipped' with the next request, " +
+                    "so the changes of transactions which committed late are returned too.",
+            response = SchemaChanges.class, tags = OPERATION_GROUP_SCHEMA)
+    @Timed
+    public void getSchemaChanges(@ApiParam(value = "Sequence number of the last change seen by the caller")
+                                 @QueryParam("since") Long since,
+                                 @ApiParam(value = "Skipped sequence numbers returned by the previous request")
+                                 @QueryParam("skipped") List<Long> skippedSequences,
+                                 @ApiParam(value = "Maximum time in milliseconds to wait for a change")
+                                 @QueryParam("waitMs") @DefaultValue("0") long waitMs,
+                                 @Context SecurityContext securityContext,
+                                 @Suspended AsyncResponse asyncResponse) {
+        // no @UnitOfWork and no thread is held while the request waits for a change, the poller of the change log
+        // completes the response
+        final Authorizer.UserAndGroups auth = authenticationUtils.getUserAndGroups(securityContext);
+        schemaRegistry.awaitSchemaChanges(since, skippedSequences, waitMs).whenComplete((schemaChanges, error) -> {
+            if (error != null) {
+                asyncResponse.resume(error);
+                return;
+            }
+            try {
+                asyncResponse.resume(WSUtils.respondEntity(filterReadableChanges(auth, schemaChanges), Response.Status.OK));
+            } catch (Exception e) {
+                asyncResponse.resume(e);
+            }
+        });
+    }
+
+    private SchemaChanges filterReadableChanges(Authorizer.UserAndGroups auth, SchemaChanges schemaChanges) {
+        if (schemaChanges.getChanges().isEmpty()) {
+            return schemaChanges;
+        }
+
+        Map<String, SchemaMetadataInfo> changedSchemas = new HashMap<>();
+        for (SchemaChange schemaChange : schemaChanges.getChanges()) {
+            changedSchemas.computeIfAbsent(schemaChange.getSchemaName(), name -> new SchemaMetadataInfo(
+                    new SchemaMetadata.Builder(name).schemaGroup(schemaChange.getSchemaGroup()).build()));
+        }
+        Set<String> readableSchemas = authorizationAgent
+                .authorizeFindSchemas(auth, changedSchemas.values())
+                .stream()
+                .map(schemaMetadataInfo -> schemaMetadataInfo.getSchemaMetadata().getName())
+                .collect(Collectors.toSet());
+        List<SchemaChange> readableChanges = schemaChanges.getChanges()
+                .stream()
+                .filter(schemaChange -> readableSchemas.contains(schemaChange.getSchemaName()))
+                .collect(Collectors.toList());
+
+        return new SchemaChanges(readableChanges, schemaChanges.getSequence(), schemaChanges.getSkippedSequences());
     }
 
     @GET
@@ -669,15 +863,24 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @Timed
     @UnitOfWork
     public Response getSchemaTextVersionById(@ApiParam(value = "version identifier of the schema", required = true) @PathParam("id") Long versionId,
-                                         @Context SecurityContext securityContext) throws Exception {
+                                         @Context SecurityContext securityContext,
+                                         @Context Request request) throws Exception {
         SchemaIdVersion schemaIdVersion = new SchemaIdVersion(versionId);
         SchemaVersionInfo schemaVersionInfo = schemaRegistry.getSchemaVersionInfo(schemaIdVersion);
         authorizationAgent.authorizeSchemaVersion(authenticationUtils.getUserAndGroups(securityContext), schemaRegistry,
                 schemaIdVersion, Authorizer.AccessType.READ);
 
+        EntityTag entityTag = new EntityTag(SchemaVersionEntityTags.ofSchemaText(versionId));
+        CacheControl cacheControl = CacheableResponses.immutable(securityContext);
+        Response notModified = CacheableResponses.notModified(request, entityTag, cacheControl);
+        if (notModified != null) {
+            return notModified;
+        }
         return Response.status(Response.Status.OK)
                 .entity(schemaVersionInfo.getSchemaText())
                 .type(MediaType.APPLICATION_JSON_TYPE)
+                .tag(entityTag)
+                .cacheControl(cacheControl)
                 .build();
     }
 
@@ -855,9 +1058,11 @@ public class SchemaRegistryResource extends BaseRegistryResource {
             LOG.info("Received contentDispositionHeader: [{}]", contentDispositionHeader);
             final Authorizer.UserAndGroups auth = authenticationUtils.getUserAndGroups(securityContext);
             authorizationAgent.authorizeSerDes(auth, Authorizer.AccessType.UPDATE);
-            InputStream validatedStream = jarInputStreamValidator.validate(inputStream);
-            String uploadedFileId = schemaRegistry.uploadFile(validatedStream);
-            return WSUtils.respondEntity(uploadedFileId, Response.Status.OK);
+            try (JarInputStreamValidator.SpooledJar jar = jarInputStreamValidator.spool(inputStream);
+                 InputStream jarStream = jar.openStream()) {
+                String uploadedFileId = schemaRegistry.uploadFile(jarStream, jar.getDigest());
+                return WSUtils.respondEntity(uploadedFileId, Response.Status.OK);
+            }
     }
 
     @GET
@@ -868,11 +1073,19 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @Timed
     public Response downloadFile(@ApiParam(value = "Identifier of the file (with extension) to be downloaded", required = true) 
                                      @PathParam("fileId") String fileId,
-                                 @Context SecurityContext securityContext) throws IOException {
+                                 @Context SecurityContext securityContext,
+                                 @Context Request request) throws IOException {
 
             authorizationAgent.authorizeSerDes(authenticationUtils.getUserAndGroups(securityContext), Authorizer.AccessType.READ);
+            // uploaded files are never overwritten, the file is not even opened when the client already has it
+            EntityTag entityTag = new EntityTag(fileId);
+            CacheControl cacheControl = CacheableResponses.immutable(securityContext);
+            Response notModified = CacheableResponses.notModified(request, entityTag, cacheControl);
+            if (notModified != null) {
+                return notModified;
+            }
             StreamingOutput streamOutput = WSUtils.wrapWithStreamingOutput(schemaRegistry.downloadFile(fileId));
-        return Response.ok(streamOutput).build();
+        return Response.ok(streamOutput).tag(entityTag).cacheControl(cacheControl).build();
              
     }
 
@@ -1024,6 +1237,37 @@ public class SchemaRegistryResource extends BaseRegistryResource {
             return WSUtils.respond(Response.Status.OK);
     }
 
+    @GET
+    @Path("/export")
+    @Produces({MediaType.APPLICATION_JSON, "application/gzip"})
+    @ApiOperation(value = "Bulk export all the schemas into a file",
+            notes = "The schemas are exported with all their branches and versions in the Cloudera format, " +
+                    "so the file can be imported into another Schema Registry. The output is streamed, " +
+                    "it can optionally be compressed with gzip.",
+            response = StreamingOutput.class, tags = OPERATION_GROUP_EXPORT_IMPORT)
+    @Timed
+    public Response exportSchemas(@ApiParam(value = "Compress the output with gzip")
+                                  @QueryParam("gzip") @DefaultValue("false") boolean gzip,
+                                  @Context SecurityContext securityContext) {
+        authorizationAgent.authorizeBulkExport(authenticationUtils.getUserAndGroups(securityContext));
+
+        // no @UnitOfWork: the export reads the schemas page by page, a single transaction would be held
+        // open for as long as the client keeps downloading
+        StreamingOutput streamOutput = os -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(os);
+                schemaRegistry.exportSchemas(gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                schemaRegistry.exportSchemas(os);
+            }
+        };
+        String fileName = gzip ? "schemas.json.gz" : "schemas.json";
+        return Response.ok(streamOutput, gzip ? "application/gzip" : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .build();
+    }
+
     @POST
     @Path("/import")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
@@ -1034,7 +1278,8 @@ public class SchemaRegistryResource extends BaseRegistryResource {
                     "schemas when the database is empty.",
             response = UploadResult.class, tags = OPERATION_GROUP_EXPORT_IMPORT)
     @Timed
-    @UnitOfWork
+    // the schemas are imported in transactions of the import workers, the request must not hold a connection meanwhile
+    @UnitOfWork(transactional = false)
     public Response uploadSchemaVersion(@ApiParam(value = "Imported file format. Can be 0 (Cloudera) or 1 (Confluent)", required = true)
                                         @QueryParam("format") @DefaultValue("0") String fileFormat,
                                         @ApiParam(value = "In case of errors, should the operation fail or should we continue processing the remaining rows")
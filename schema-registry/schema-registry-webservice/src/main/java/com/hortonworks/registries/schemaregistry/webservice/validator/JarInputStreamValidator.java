@@ -15,31 +15,218 @@
  */
 package com.hortonworks.registries.schemaregistry.webservice.validator;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.jar.JarInputStream;
 import java.util.zip.ZipException;
 
-import org.apache.commons.io.IOUtils;
+import javax.inject.Inject;
 
+import com.hortonworks.registries.common.JarUploadConfig;
+import com.hortonworks.registries.common.RegistryConfiguration;
 import com.hortonworks.registries.schemaregistry.webservice.validator.exception.InvalidJarFileException;
 
+/**
+ * Validates uploaded jars while spooling them to a temporary file. The upload is read only once: the bytes are
+ * written to the spool file and digested while the entries of the jar are walked through, so neither the jar nor
+ * any of its entries is held in memory.
+ */
 public class JarInputStreamValidator {
 
-    public InputStream validate(InputStream inputStream) throws IOException, InvalidJarFileException {
-        byte[] allBytesFromStream = null;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final JarUploadConfig config;
+
+    public JarInputStreamValidator() {
+        this(new JarUploadConfig());
+    }
+
+    @Inject
+    public JarInputStreamValidator(RegistryConfiguration registryConfiguration) {
+        this(registryConfiguration.getJarUpload());
+    }
+
+    public JarInputStreamValidator(JarUploadConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Reads the given jar into a spool file and validates it on the way. The given stream is closed.
+     *
+     * @return the validated jar, it has to be closed to delete the spool file
+     * @throws InvalidJarFileException if the jar is corrupted, it has no entries or it exceeds the size limits
+     */
+    public SpooledJar spool(InputStream inputStream) throws IOException, InvalidJarFileException {
+        Path spoolFile = createSpoolFile();
+        boolean spooled = false;
         try {
-            allBytesFromStream = IOUtils.toByteArray(inputStream);
-            JarInputStream jarInputStream = new JarInputStream(new ByteArrayInputStream(allBytesFromStream), false);
-            if (jarInputStream.getNextJarEntry() == null) {
-                throw new InvalidJarFileException("Jar file corrupted.");
+            SpoolingInputStream spooling;
+            try (InputStream in = inputStream;
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(spoolFile))) {
+                spooling = new SpoolingInputStream(in, out, sha256(), config.getMaxSizeBytes());
+                validateEntries(spooling);
+                // the central directory of the jar is not read by the jar stream
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while (spooling.read(buffer) != -1) {
+                    // drained into the spool file
+                }
             }
-        } catch (ZipException e) {
+            spooled = true;
+            return new SpooledJar(spoolFile, spooling.hexDigest(), spooling.count);
+        } catch (SizeLimitExceededException e) {
+            throw new InvalidJarFileException(e.getMessage(), e);
+        } catch (ZipException | EOFException e) {
             throw new InvalidJarFileException("Jar file corrupted.", e);
         } finally {
-            inputStream.close();
+            if (!spooled) {
+                Files.deleteIfExists(spoolFile);
+            }
+        }
+    }
+
+    private void validateEntries(InputStream inputStream) throws IOException, InvalidJarFileException {
+        JarInputStream jarInputStream = new JarInputStream(inputStream, false);
+        if (jarInputStream.getNextJarEntry() == null) {
+            throw new InvalidJarFileException("Jar file corrupted.");
+        }
+        // the entries are inflated to find the corrupted ones, and to bound the uncompressed size of the jar
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long uncompressedSize = 0;
+        do {
+            int read;
+            while ((read = jarInputStream.read(buffer)) != -1) {
+                uncompressedSize += read;
+                if (uncompressedSize > config.getMaxUncompressedSizeBytes()) {
+                    throw new SizeLimitExceededException("Uncompressed content of the jar file exceeds the allowed "
+                            + config.getMaxUncompressedSizeBytes() + " bytes.");
+                }
+            }
+        } while (jarInputStream.getNextJarEntry() != null);
+    }
+
+    private Path createSpoolFile() throws IOException {
+        String spoolDirectory = config.getSpoolDirectory();
+        return spoolDirectory == null
+                ? Files.createTempFile("jar-upload-", ".jar")
+                : Files.createTempFile(Paths.get(spoolDirectory), "jar-upload-", ".jar");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** A validated jar in its spool file. */
+    public static final class SpooledJar implements AutoCloseable {
+        private final Path file;
+        private final String digest;
+        private final long size;
+
+        private SpooledJar(Path file, String digest, long size) {
+            this.file = file;
+            this.digest = digest;
+            this.size = size;
+        }
+
+        /** @return hex encoded SHA-256 digest of the jar */
+        public String getDigest() {
+            return digest;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public InputStream openStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Copies the bytes read through it into the spool file and the digest, and fails beyond the size limit. */
+    private static final class SpoolingInputStream extends FilterInputStream {
+        private final OutputStream out;
+        private final MessageDigest digest;
+        private final long maxSize;
+        private long count;
+
+        private SpoolingInputStream(InputStream in, OutputStream out, MessageDigest digest, long maxSize) {
+            super(in);
+            this.out = out;
+            this.digest = digest;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                spooled(new byte[] {(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                spooled(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes have to be spooled too
+            byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+            int read = read(buffer, 0, buffer.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void spooled(byte[] b, int off, int len) throws IOException {
+            count += len;
+            if (count > maxSize) {
+                throw new SizeLimitExceededException("Jar file exceeds the allowed " + maxSize + " bytes.");
+            }
+            out.write(b, off, len);
+            digest.update(b, off, len);
+        }
+
+        private String hexDigest() {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        }
+    }
+
+    private static final class SizeLimitExceededException extends IOException {
+        private static final long serialVersionUID = 4519187286236102519L;
+
+        private SizeLimitExceededException(String message) {
+            super(message);
         }
-        return new ByteArrayInputStream(allBytesFromStream);
     }
 }
@@ -106,8 +106,14 @@ public class TransactionEventListener implements ApplicationEventListener {
                                 }
                         ).orElse(TransactionIsolation.DATABASE_SENSITIVE);
 
+                boolean readOnly = unitOfWork.map(UnitOfWork::readOnly).orElse(false);
+
                 if (useTransactionForUnitOfWork) {
-                    transactionManager.beginTransaction(transactionIsolation);
+                    if (readOnly) {
+                        transactionManager.beginTransaction(transactionIsolation, true);
+                    } else {
+                        transactionManager.beginTransaction(transactionIsolation);
+                    }
                     isTransactionActive = true;
                 }
             } else if (eventType == RequestEvent.Type.RESP_FILTERS_START) {
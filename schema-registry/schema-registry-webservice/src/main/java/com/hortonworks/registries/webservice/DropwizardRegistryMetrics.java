@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.webservice;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link RegistryMetrics} which records the metrics in the metric registry of Dropwizard, so they are served by the
+ * metrics servlet of the admin port and reported by the configured reporters. Events are recorded as meters.
+ */
+public class DropwizardRegistryMetrics implements RegistryMetrics {
+
+    private final MetricRegistry metricRegistry;
+
+    public DropwizardRegistryMetrics(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public void mark(String name, long count) {
+        metricRegistry.meter(name).mark(count);
+    }
+
+    @Override
+    public void update(String name, long duration, TimeUnit unit) {
+        metricRegistry.timer(name).update(duration, unit);
+    }
+
+    @Override
+    public synchronized void registerGauge(String name, Supplier<? extends Number> gauge) {
+        metricRegistry.remove(name);
+        metricRegistry.register(name, (Gauge<Number>) gauge::get);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.webservice;
+
+import com.hortonworks.registries.common.RegistryConfiguration;
+import com.hortonworks.registries.schemaregistry.exportimport.BulkExportService;
+import com.hortonworks.registries.schemaregistry.providers.StorageManagerProvider;
+import com.hortonworks.registries.storage.StorageManager;
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.setup.Bootstrap;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports all the schemas from the database of the registry into a file, without a running registry. It uses the
+ * same {@link BulkExportService} as the export endpoint, so the file can be imported with the bulk import endpoint.
+ */
+public class ExportSchemasCommand extends ConfiguredCommand<RegistryConfiguration> {
+    private static final String OUTPUT = "output";
+    private static final String GZIP = "gzip";
+    private static final String PAGE_SIZE = "pageSize";
+
+    public ExportSchemasCommand() {
+        super("export-schemas", "Exports all the schemas into a file which can be imported with the bulk import");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+        subparser.addArgument("-o", "--output")
+                .dest(OUTPUT)
+                .required(true)
+                .help("path of the exported file");
+        subparser.addArgument("--gzip")
+                .dest(GZIP)
+                .action(Arguments.storeTrue())
+                .help("compress the exported file with gzip");
+        subparser.addArgument("--page-size")
+                .dest(PAGE_SIZE)
+                .type(Integer.class)
+                .setDefault(BulkExportService.DEFAULT_PAGE_SIZE)
+                .help("number of schemas read from the database at once");
+    }
+
+    @Override
+    protected void run(Bootstrap<RegistryConfiguration> bootstrap, Namespace namespace, RegistryConfiguration configuration) throws Exception {
+        String outputFilePath = namespace.getString(OUTPUT);
+        StorageManager storageManager = new StorageManagerProvider(configuration).get();
+        try {
+            storageManager.registerStorables(BulkExportService.STORABLES);
+            try (OutputStream out = openOutput(outputFilePath, namespace.getBoolean(GZIP))) {
+                int exported = new BulkExportService(storageManager, namespace.getInt(PAGE_SIZE)).exportSchemas(out);
+                System.out.println(String.format("Exported %d schemas into %s", exported, outputFilePath));
+            }
+        } finally {
+            storageManager.cleanup();
+        }
+    }
+
+    private static OutputStream openOutput(String outputFilePath, boolean gzip) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFilePath));
+        return gzip ? new GZIPOutputStream(out) : out;
+    }
+}
@@ -16,6 +16,7 @@ package com.hortonworks.registries.webservice;
 
 import com.cloudera.dim.atlas.conf.AtlasSchemaRegistryModule;
 import com.cloudera.dim.atlas.events.AtlasEventLogger;
+import com.codahale.metrics.SharedMetricRegistries;
 import com.codahale.metrics.health.HealthCheck;
 import com.hortonworks.registries.common.GenericExceptionMapper;
 import com.hortonworks.registries.common.KerberosService;
@@ -23,6 +24,8 @@ import com.hortonworks.registries.common.RegistryConfiguration;
 import com.hortonworks.registries.common.SchemaRegistryServiceInfo;
 import com.hortonworks.registries.common.SchemaRegistryVersion;
 import com.hortonworks.registries.common.ServletFilterConfiguration;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
 import com.hortonworks.registries.schemaregistry.webservice.CoreModule;
 import com.hortonworks.registries.schemaregistry.webservice.SchemaRegistryModule;
 import io.dropwizard.Application;
@@ -69,6 +72,7 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
         environment.healthChecks().register("dummyHealthCheck", new DummyHealthCheck());
 
         manageAtlasEventLogger(environment);
+        manageSchemaRegistry(environment);
 
         if (registryConfiguration.isEnableCors()) {
             enableCORS(environment);
@@ -119,6 +123,12 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
     @Override
     public void initialize(Bootstrap<RegistryConfiguration> bootstrap) {
         LOG.debug("Initializing Registry ...");
+        // servlet filters (eg. authentication handlers) are not managed by Guice, they look up the metrics this way
+        if (SharedMetricRegistries.tryGetDefault() == null) {
+            SharedMetricRegistries.setDefault("registry", bootstrap.getMetricRegistry());
+        }
+        // metrics of the caches, locks, storage and compatibility checks, served by the admin servlet with the others
+        Metrics.set(new DropwizardRegistryMetrics(bootstrap.getMetricRegistry()));
         bootstrap.setConfigurationSourceProvider(
                 new SubstitutingSourceProvider(bootstrap.getConfigurationSourceProvider(),
                         new EnvironmentVariableSubstitutor(false)
@@ -149,6 +159,8 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
                 return swaggerConfig;
             }
         });
+        // exports the schemas straight from the database, see bootstrap/export-schemas.sh
+        bootstrap.addCommand(new ExportSchemasCommand());
         super.initialize(bootstrap);
     }
 
@@ -161,6 +173,9 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
         cors.setInitParameter(CrossOriginFilter.ALLOWED_HEADERS_PARAM, "X-Requested-With,Authorization,Content-Type,Accept,Origin");
         cors.setInitParameter(CrossOriginFilter.ALLOWED_METHODS_PARAM, "OPTIONS,GET,PUT,POST,DELETE,HEAD");
 
+        // the requests of the change feed are suspended while they wait for a change
+        cors.setAsyncSupported(true);
+
         // Add URL mapping
         cors.addMappingForUrlPatterns(EnumSet.allOf(DispatcherType.class), true, "/*");
     }
@@ -183,6 +198,8 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
                     if (params != null) {
                         dynamic.setInitParameters(params);
                     }
+                    // the requests of the change feed are suspended while they wait for a change
+                    dynamic.setAsyncSupported(true);
                     dynamic.addMappingForUrlPatterns(EnumSet.allOf(DispatcherType.class), true, "/*");
                 } catch (Exception e) {
                     LOG.error("Error registering servlet filter {}", servletFilterConfig);
@@ -197,6 +214,13 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
         environment.lifecycle().manage(new AutoCloseableManager(managed));
     }
 
+    private void manageSchemaRegistry(Environment environment) {
+        ISchemaRegistry schemaRegistry = new InjectorProvider(this).get().getInstance(ISchemaRegistry.class);
+        if (schemaRegistry instanceof AutoCloseable) {
+            environment.lifecycle().manage(new AutoCloseableManager((AutoCloseable) schemaRegistry));
+        }
+    }
+
     public static void main(String[] args) throws Exception {
         RegistryApplication registryApplication = new RegistryApplication();
         registryApplication.run(args);
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.webservice;
+
+import com.hortonworks.registries.schemaregistry.webservice.AdmissionControlFilter.OperationClass;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AdmissionControlFilterTest {
+
+    @Test
+    public void testClassify() {
+        assertEquals(OperationClass.LOOKUP, AdmissionControlFilter.classify("GET", "/api/v1/schemaregistry/schemas/versionsById/1"));
+        assertEquals(OperationClass.LOOKUP, AdmissionControlFilter.classify("POST", "/api/v1/schemaregistry/schemas/versions/lookup"));
+        assertEquals(OperationClass.LOOKUP, AdmissionControlFilter.classify("POST", "/api/v1/confluent/subjects/rain"));
+        assertEquals(OperationClass.WRITE, AdmissionControlFilter.classify("DELETE", "/api/v1/confluent/subjects/rain"));
+        assertEquals(OperationClass.WRITE, AdmissionControlFilter.classify("POST", "/api/v1/schemaregistry/schemas/rain/versions"));
+        assertEquals(OperationClass.ANALYSIS, AdmissionControlFilter.classify("POST", "/api/v1/schemaregistry/schemas/rain/compatibility"));
+        assertEquals(OperationClass.ANALYSIS, AdmissionControlFilter.classify("GET", "/api/v1/schemaregistry/search/schemas/fields"));
+        assertEquals(OperationClass.ANALYSIS, AdmissionControlFilter.classify("GET", "/api/v1/schemaregistry/schemas/aggregated"));
+    }
+
+    @Test
+    public void testRejectWhenTheClassIsBusy() throws Exception {
+        //given
+        Map<String, String> params = new HashMap<>();
+        params.put("analysis.maxConcurrent", "1");
+        params.put("analysis.maxQueued", "0");
+        params.put("retryAfterSecs", "3");
+        AdmissionControlFilter underTest = createFilter(params);
+        HttpServletResponse busyResponse = mock(HttpServletResponse.class);
+        FilterChain lookupChain = mock(FilterChain.class);
+        FilterChain busyChain = mock(FilterChain.class);
+        // while the first compatibility check runs, a second one and a lookup arrive
+        FilterChain firstChain = (request, response) -> {
+            underTest.doFilter(createRequest("POST", "/api/v1/schemaregistry/schemas/rain/compatibility"), busyResponse, busyChain);
+            underTest.doFilter(createRequest("GET", "/api/v1/schemaregistry/schemas/versionsById/1"),
+                    mock(HttpServletResponse.class), lookupChain);
+        };
+
+        //when
+        underTest.doFilter(createRequest("POST", "/api/v1/schemaregistry/schemas/snow/compatibility"),
+                mock(HttpServletResponse.class), firstChain);
+
+        //then
+        verify(busyChain, never()).doFilter(any(), any());
+        verify(busyResponse).setHeader("Retry-After", "3");
+        verify(busyResponse).sendError(AdmissionControlFilter.SC_TOO_MANY_REQUESTS, "The registry is busy, try again later");
+        verify(lookupChain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    public void testBatchTakesAPermitPerWorker() throws Exception {
+        //given
+        Map<String, String> params = new HashMap<>();
+        params.put("write.maxConcurrent", "4");
+        params.put("write.maxQueued", "0");
+        params.put("batchPermits", "4");
+        AdmissionControlFilter underTest = createFilter(params);
+        HttpServletResponse busyResponse = mock(HttpServletResponse.class);
+        FilterChain batchChain = mock(FilterChain.class);
+        FilterChain writeChain = mock(FilterChain.class);
+        // while a version is registered, a batch and another registration arrive
+        FilterChain firstChain = (request, response) -> {
+            underTest.doFilter(createRequest("POST", "/api/v1/schemaregistry/schemas/versions/batch"), busyResponse, batchChain);
+            underTest.doFilter(createRequest("POST", "/api/v1/schemaregistry/schemas/snow/versions"),
+                    mock(HttpServletResponse.class), writeChain);
+        };
+
+        //when
+        underTest.doFilter(createRequest("POST", "/api/v1/schemaregistry/schemas/rain/versions"),
+                mock(HttpServletResponse.class), firstChain);
+        underTest.doFilter(createRequest("POST", "/api/v1/schemaregistry/schemas/versions/batch"),
+                mock(HttpServletResponse.class), batchChain);
+
+        //then
+        verify(busyResponse).sendError(AdmissionControlFilter.SC_TOO_MANY_REQUESTS, "The registry is busy, try again later");
+        verify(writeChain, times(1)).doFilter(any(), any());
+        // once the registrations finished the batch gets all the permits
+        verify(batchChain, times(1)).doFilter(any(), any());
+    }
+
+    private AdmissionControlFilter createFilter(Map<String, String> params) throws Exception {
+        FilterConfig filterConfig = mock(FilterConfig.class);
+        when(filterConfig.getInitParameter(anyString())).thenAnswer(invocation -> params.get(invocation.<String>getArgument(0)));
+        AdmissionControlFilter filter = new AdmissionControlFilter();
+        filter.init(filterConfig);
+        return filter;
+    }
+
+    private HttpServletRequest createRequest(String method, String uri) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getRequestURI()).thenReturn(uri);
+        when(request.getRemoteUser()).thenReturn("ci");
+        return request;
+    }
+}
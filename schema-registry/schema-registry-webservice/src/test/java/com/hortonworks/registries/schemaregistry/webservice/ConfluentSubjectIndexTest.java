@@ -0,0 +1,120 @@
+/**
+ * Copyright 2016-2022 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.webservice;
+
+import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
+import com.hortonworks.registries.schemaregistry.SchemaChange;
+import com.hortonworks.registries.schemaregistry.SchemaChanges;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConfluentSubjectIndexTest {
+
+    private ISchemaRegistry schemaRegistry;
+    private ConfluentSubjectIndex underTest;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        schemaRegistry = mock(ISchemaRegistry.class);
+        when(schemaRegistry.getSchemaChanges(null, Collections.emptyList())).thenReturn(new SchemaChanges(Collections.emptyList(), 5L));
+        when(schemaRegistry.getSchemaChanges(5L, Collections.emptyList())).thenReturn(new SchemaChanges(Collections.emptyList(), 5L));
+        when(schemaRegistry.findSchemaMetadata(any())).thenReturn(Arrays.asList(schemaMetadataInfo("rain", 1L), schemaMetadataInfo("hail", 2L)));
+        underTest = new ConfluentSubjectIndex(schemaRegistry);
+    }
+
+    @Test
+    public void testSubjectsAreReadOnce() {
+        assertEquals(Arrays.asList("hail", "rain"), names(underTest.getSubjects()));
+        assertEquals(Arrays.asList("hail", "rain"), names(underTest.getSubjects()));
+
+        verify(schemaRegistry, times(1)).findSchemaMetadata(any());
+    }
+
+    @Test
+    public void testChangesAreApplied() throws Exception {
+        //given
+        underTest.getSubjects();
+        when(schemaRegistry.getSchemaChanges(5L, Collections.emptyList())).thenReturn(new SchemaChanges(Arrays.asList(
+                change(6L, SchemaChange.Type.SCHEMA_METADATA_ADDED, "snow", 3L),
+                change(7L, SchemaChange.Type.SCHEMA_METADATA_DELETED, "hail", 2L)), 7L));
+        when(schemaRegistry.getSchemaChanges(7L, Collections.emptyList())).thenReturn(new SchemaChanges(Collections.emptyList(), 7L));
+        when(schemaRegistry.getSchemaMetadataInfo("snow")).thenReturn(schemaMetadataInfo("snow", 3L));
+
+        //when
+        List<String> subjects = names(underTest.getSubjects());
+
+        //then
+        assertEquals(Arrays.asList("rain", "snow"), subjects);
+        verify(schemaRegistry, times(1)).findSchemaMetadata(any());
+    }
+
+    @Test
+    public void testVersionsAreReloadedAfterTheirChange() throws Exception {
+        //given
+        SchemaVersionInfo first = new SchemaVersionInfo(10L, "rain", 1, 1L, "{}", 0L, null, null);
+        SchemaVersionInfo second = new SchemaVersionInfo(11L, "rain", 2, 1L, "{}", 0L, null, null);
+        when(schemaRegistry.getAllVersions("rain")).thenReturn(Collections.singletonList(first), Arrays.asList(first, second));
+        assertEquals(Collections.singletonList(first), underTest.getVersions("rain"));
+        assertEquals(Collections.singletonList(first), underTest.getVersions("rain"));
+        verify(schemaRegistry, times(1)).getAllVersions("rain");
+
+        //when
+        when(schemaRegistry.getSchemaChanges(5L, Collections.emptyList())).thenReturn(new SchemaChanges(Collections.singletonList(
+                new SchemaChange(6L, SchemaChange.Type.SCHEMA_VERSION_ADDED, "Kafka", "rain", 1L, 11L, 2, 0L)), 6L));
+        when(schemaRegistry.getSchemaChanges(6L, Collections.emptyList())).thenReturn(new SchemaChanges(Collections.emptyList(), 6L));
+
+        //then
+        assertEquals(Arrays.asList(first, second), underTest.getVersions("rain"));
+        verify(schemaRegistry, times(2)).getAllVersions("rain");
+    }
+
+    @Test
+    public void testUnknownSubjectIsAskedFromTheStorage() throws Exception {
+        when(schemaRegistry.getAllVersions(eq("fog"))).thenThrow(new SchemaNotFoundException("Schema not found with name fog", "fog"));
+
+        assertThrows(SchemaNotFoundException.class, () -> underTest.getVersions("fog"));
+    }
+
+    private static SchemaMetadataInfo schemaMetadataInfo(String name, Long id) {
+        return new SchemaMetadataInfo(new SchemaMetadata.Builder(name).type("avro").schemaGroup("Kafka").build(), id, 0L);
+    }
+
+    private static SchemaChange change(Long sequence, SchemaChange.Type type, String name, Long schemaMetadataId) {
+        return new SchemaChange(sequence, type, "Kafka", name, schemaMetadataId, null, null, 0L);
+    }
+
+    private static List<String> names(Collection<SchemaMetadataInfo> schemaMetadataInfos) {
+        return schemaMetadataInfos.stream().map(x -> x.getSchemaMetadata().getName()).collect(Collectors.toList());
+    }
+}
@@ -20,6 +20,7 @@ import com.hortonworks.registries.common.catalog.CatalogResponse;
 import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
 import com.hortonworks.registries.schemaregistry.SchemaFieldQuery;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionEntityTags;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
 import com.hortonworks.registries.schemaregistry.authorizer.agent.AuthorizationAgent;
@@ -30,8 +31,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import java.util.ArrayList;
@@ -44,7 +47,9 @@ import static com.hortonworks.registries.schemaregistry.SchemaBranch.MASTER_BRAN
 import static java.util.Collections.emptySet;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -434,7 +439,7 @@ public class SchemaRegistryResourceTest {
                 .thenReturn(new Authorizer.UserAndGroups("[user]", emptySet()));
 
         //when
-        Response response = underTest.getSchemaVersionText(NAME, 1, mock(SecurityContext.class));
+        Response response = underTest.getSchemaVersionText(NAME, 1, mock(SecurityContext.class), mock(Request.class));
 
         //then
         assertEquals(200, response.getStatus());
@@ -450,7 +455,7 @@ public class SchemaRegistryResourceTest {
 
         //when
         assertThrows(SchemaNotFoundException.class,
-                () -> underTest.getSchemaVersionText(NAME, 1, mock(SecurityContext.class)));
+                () -> underTest.getSchemaVersionText(NAME, 1, mock(SecurityContext.class), mock(Request.class)));
     }
 
     @Test
@@ -462,7 +467,7 @@ public class SchemaRegistryResourceTest {
                 .thenReturn(new Authorizer.UserAndGroups("[user]", emptySet()));
 
         //then
-        Response response = underTest.getSchemaTextVersionById(1L, mock(SecurityContext.class));
+        Response response = underTest.getSchemaTextVersionById(1L, mock(SecurityContext.class), mock(Request.class));
 
         //then
         assertEquals(200, response.getStatus());
@@ -478,6 +483,43 @@ public class SchemaRegistryResourceTest {
 
         //when
         assertThrows(SchemaNotFoundException.class,
-                () -> underTest.getSchemaTextVersionById(1L, mock(SecurityContext.class)));
+                () -> underTest.getSchemaTextVersionById(1L, mock(SecurityContext.class), mock(Request.class)));
+    }
+
+    @Test
+    public void shouldTagVersionByIdSchemaText() throws Exception {
+        //given
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(1L, NAME, 1, SCHEMA_TEXT, 0L, "[description]");
+        when(schemaRegistryMock.getSchemaVersionInfo(any(SchemaIdVersion.class))).thenReturn(schemaVersionInfo);
+        when(authenticationUtils.getUserAndGroups(any(SecurityContext.class)))
+                .thenReturn(new Authorizer.UserAndGroups("[user]", emptySet()));
+
+        //when
+        Response response = underTest.getSchemaTextVersionById(1L, mock(SecurityContext.class), mock(Request.class));
+
+        //then
+        assertEquals(200, response.getStatus());
+        assertEquals(new EntityTag("1"), response.getEntityTag());
+        assertTrue(response.getHeaderString("Cache-Control").contains("max-age="));
+    }
+
+    @Test
+    public void shouldReturnNotModifiedWhenTheClientHasTheSchemaVersion() throws Exception {
+        //given
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(1L, NAME, 1, SCHEMA_TEXT, 0L, "[description]");
+        when(schemaRegistryMock.getSchemaVersionInfo(any(SchemaIdVersion.class))).thenReturn(schemaVersionInfo);
+        when(authenticationUtils.getUserAndGroups(any(SecurityContext.class)))
+                .thenReturn(new Authorizer.UserAndGroups("[user]", emptySet()));
+        EntityTag entityTag = new EntityTag(SchemaVersionEntityTags.of(schemaVersionInfo));
+        Request request = mock(Request.class);
+        when(request.evaluatePreconditions(entityTag)).thenReturn(Response.notModified(entityTag));
+
+        //when
+        Response response = underTest.getSchemaVersionById(1L, mock(SecurityContext.class), request);
+
+        //then
+        assertEquals(304, response.getStatus());
+        assertEquals(entityTag, response.getEntityTag());
+        assertNull(response.getEntity());
     }
 }
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hortonworks.registries.common.CompatibilityConfig;
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
+import com.hortonworks.registries.schemaregistry.SchemaChanges;
 import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
@@ -41,11 +42,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import javax.ws.rs.BeanParam;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
 import static com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer.AccessType.READ;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -53,6 +56,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -110,6 +114,7 @@ public class ConfluentSchemaRegistryCompatibleResourceIT {
                 SchemaMetadata schemaMetadata = createSchemaMetadata("name");
                 Collection<SchemaMetadataInfo> schemaMetadataInfos = createSchemaMetadataInfo(schemaMetadata, 1L);
                 when(schemaRegistryMock.findSchemaMetadata(any())).thenReturn(schemaMetadataInfos);
+                when(schemaRegistryMock.getSchemaChanges(any(), any())).thenReturn(new SchemaChanges(Collections.emptyList(), 0L));
                 when(authorizationAgentMock.authorizeFindSchemas(any(), any())).thenReturn(schemaMetadataInfos);
 
                 //when
@@ -117,14 +122,20 @@ public class ConfluentSchemaRegistryCompatibleResourceIT {
                         String.format("/api/v1/confluent/subjects"))
                         .request()
                         .get();
+                Response revalidated = testClient.target(
+                        String.format("/api/v1/confluent/subjects"))
+                        .request()
+                        .header(HttpHeaders.IF_NONE_MATCH, response.getEntityTag())
+                        .get();
 
                 //then
                 verify(schemaRegistryMock).findSchemaMetadata(any());
-                verify(authorizationAgentMock).authorizeFindSchemas(any(), any());
+                verify(authorizationAgentMock, times(2)).authorizeFindSchemas(any(), any());
                 String actual = response.readEntity(String.class);
                 String expectedString = new StringBuilder().append("[\"").append(schemaMetadata.getName()).append("\"]").toString();
                 assertEquals(expectedString, actual);
                 assertEquals(200, response.getStatus());
+                assertEquals(304, revalidated.getStatus());
         }
 
         @Test
@@ -15,6 +15,7 @@
  */
 package com.hortonworks.registries.schemaregistry.webservice.validator;
 
+import com.hortonworks.registries.common.JarUploadConfig;
 import com.hortonworks.registries.schemaregistry.avro.helper.JarFileFactory;
 import com.hortonworks.registries.schemaregistry.webservice.validator.exception.InvalidJarFileException;
 import org.apache.commons.io.IOUtils;
@@ -25,28 +26,29 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.nio.file.Files;
 
 public class JarInputStreamValidatorTest {
     private JarInputStreamValidator underTest = new JarInputStreamValidator();
 
     @Test
-    public void testValidateWhenValidJarAccepts() throws Exception {
+    public void testSpoolWhenValidJarAccepts() throws Exception {
         // given
         InputStream validJar = new FileInputStream(JarFileFactory.createValidJar());
 
         // when
-        underTest.validate(validJar);
+        underTest.spool(validJar).close();
 
         // then no exception is thrown
     }
 
     @Test
-    public void testValidateWhenCorruptedJarExceptionIsThrown() throws Exception {
+    public void testSpoolWhenCorruptedJarExceptionIsThrown() throws Exception {
         // given
         InputStream corruptedJar = new FileInputStream(JarFileFactory.createCorruptedJar());
 
         // when
-        Assertions.assertThrows(InvalidJarFileException.class, () -> underTest.validate(corruptedJar));
+        Assertions.assertThrows(InvalidJarFileException.class, () -> underTest.spool(corruptedJar));
     }
 
     @Test
@@ -54,10 +56,8 @@ public class JarInputStreamValidatorTest {
         // given
         File validJar = JarFileFactory.createValidJar();
         try (InputStream copyOfInitialStream = new FileInputStream(validJar);
-                InputStream validJarStream = new FileInputStream(validJar);) {
-            // when
-            InputStream actual = underTest.validate(validJarStream);
-
+                JarInputStreamValidator.SpooledJar spooledJar = underTest.spool(new FileInputStream(validJar));
+                InputStream actual = spooledJar.openStream()) {
             // then
             Assertions.assertTrue(IOUtils.contentEquals(actual, copyOfInitialStream));
         }
@@ -70,6 +70,62 @@ public class JarInputStreamValidatorTest {
         InputStream emptyZipStream = new ByteArrayInputStream(emptyZip);
 
         // when
-        Assertions.assertThrows(InvalidJarFileException.class, () -> underTest.validate(emptyZipStream));
+        Assertions.assertThrows(InvalidJarFileException.class, () -> underTest.spool(emptyZipStream));
+    }
+
+    @Test
+    public void testSpoolWhenSameJarSameDigest() throws Exception {
+        // given
+        File validJar = JarFileFactory.createValidJar();
+
+        // when
+        try (JarInputStreamValidator.SpooledJar first = underTest.spool(new FileInputStream(validJar));
+                JarInputStreamValidator.SpooledJar second = underTest.spool(new FileInputStream(validJar))) {
+            // then
+            Assertions.assertEquals(first.getDigest(), second.getDigest());
+            Assertions.assertEquals(validJar.length(), first.getSize());
+        }
+    }
+
+    @Test
+    public void testSpoolWhenJarTooLargeExceptionIsThrown() throws Exception {
+        // given
+        File validJar = JarFileFactory.createValidJar();
+        JarUploadConfig config = new JarUploadConfig();
+        config.setMaxSizeBytes(validJar.length() - 1);
+        JarInputStreamValidator limited = new JarInputStreamValidator(config);
+
+        // when
+        Assertions.assertThrows(InvalidJarFileException.class, () -> limited.spool(new FileInputStream(validJar)));
+    }
+
+    @Test
+    public void testSpoolWhenUncompressedContentTooLargeExceptionIsThrown() throws Exception {
+        // given
+        File validJar = JarFileFactory.createValidJar();
+        JarUploadConfig config = new JarUploadConfig();
+        config.setMaxUncompressedSizeBytes(16);
+        JarInputStreamValidator limited = new JarInputStreamValidator(config);
+
+        // when
+        Assertions.assertThrows(InvalidJarFileException.class, () -> limited.spool(new FileInputStream(validJar)));
+    }
+
+    @Test
+    public void testSpoolFileIsDeletedOnClose() throws Exception {
+        // given
+        File spoolDirectory = Files.createTempDirectory("spool").toFile();
+        spoolDirectory.deleteOnExit();
+        JarUploadConfig config = new JarUploadConfig();
+        config.setSpoolDirectory(spoolDirectory.getAbsolutePath());
+        JarInputStreamValidator spooling = new JarInputStreamValidator(config);
+
+        // when
+        JarInputStreamValidator.SpooledJar jar = spooling.spool(new FileInputStream(JarFileFactory.createValidJar()));
+        Assertions.assertEquals(1, spoolDirectory.list().length);
+        jar.close();
+
+        // then
+        Assertions.assertEquals(0, spoolDirectory.list().length);
     }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.webservice;
+
+import com.codahale.metrics.MetricRegistry;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DropwizardRegistryMetricsTest {
+
+    private MetricRegistry metricRegistry;
+    private DropwizardRegistryMetrics underTest;
+
+    @BeforeEach
+    public void setUp() {
+        metricRegistry = new MetricRegistry();
+        underTest = new DropwizardRegistryMetrics(metricRegistry);
+    }
+
+    @Test
+    public void testMarkReachesTheMetricRegistry() {
+        //when
+        underTest.mark("cache.miss");
+        underTest.mark("cache.miss", 2L);
+
+        //then
+        assertEquals(3L, metricRegistry.meter("cache.miss").getCount());
+    }
+
+    @Test
+    public void testTimerReachesTheMetricRegistry() {
+        //when
+        underTest.update("lookup", 10L, TimeUnit.MILLISECONDS);
+        try (RegistryMetrics.Context context = underTest.time("lookup")) {
+            // timed
+        }
+
+        //then
+        assertEquals(2L, metricRegistry.timer("lookup").getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10L), metricRegistry.timer("lookup").getSnapshot().getMax(),
+                TimeUnit.MILLISECONDS.toNanos(1L));
+    }
+
+    @Test
+    public void testGaugeIsReplaced() {
+        //given
+        AtomicInteger size = new AtomicInteger(5);
+        underTest.registerGauge("cache.size", () -> 1);
+
+        //when
+        underTest.registerGauge("cache.size", size::get);
+
+        //then
+        assertEquals(5, metricRegistry.getGauges().get("cache.size").getValue());
+    }
+}
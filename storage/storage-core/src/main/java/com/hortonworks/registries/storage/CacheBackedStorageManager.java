@@ -21,12 +21,14 @@ import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.storage.cache.impl.GuavaCache;
 import com.hortonworks.registries.storage.cache.writer.StorageWriter;
 import com.hortonworks.registries.storage.exception.StorageException;
+import com.hortonworks.registries.storage.search.Aggregation;
 import com.hortonworks.registries.storage.search.SearchQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public class CacheBackedStorageManager implements StorageManager {
@@ -117,6 +119,11 @@ public class CacheBackedStorageManager implements StorageManager {
         return ((GuavaCache) cache).getDao().search(searchQuery);
     }
 
+    @Override
+    public <T> Optional<T> aggregate(SearchQuery searchQuery, String fieldName, Aggregation aggregation) {
+        return ((GuavaCache) cache).getDao().aggregate(searchQuery, fieldName, aggregation);
+    }
+
     @Override
     public <T extends Storable> Collection<T> list(String namespace) throws StorageException {
         return dao.list(namespace);
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2021 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *   http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Connection of the read only replica of the database. The replica serves the read only transactions, except the ones
+ * which start within {@code maxLagMs} after the last write of this instance: the replica may not have caught up with
+ * the primary database yet.
+ */
+public class ReadReplicaProperties {
+    private DbProperties properties;
+    private Long maxLagMs;
+
+    @JsonProperty("db.properties")
+    public DbProperties getProperties() {
+        return properties;
+    }
+
+    @JsonProperty
+    public void setProperties(DbProperties properties) {
+        this.properties = properties;
+    }
+
+    @JsonProperty
+    public Long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    @JsonProperty
+    public void setMaxLagMs(Long maxLagMs) {
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadReplicaProperties{" +
+                "maxLagMs=" + maxLagMs +
+                '}';
+    }
+}
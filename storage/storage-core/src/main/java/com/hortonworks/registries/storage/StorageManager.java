@@ -17,10 +17,12 @@ package com.hortonworks.registries.storage;
 
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.storage.exception.StorageException;
+import com.hortonworks.registries.storage.search.Aggregation;
 import com.hortonworks.registries.storage.search.SearchQuery;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * TODO: All the methods are very restrictive and needs heavy synchronization to get right but my assumption is that
@@ -133,6 +135,21 @@ public interface StorageManager {
      */
     <T extends Storable> Collection<T> search(SearchQuery searchQuery);
 
+    /**
+     * Aggregates the values of the given field of the storables matching the where clause of the given query, like the
+     * maximum of a sequence column, without reading the matching storables. The default implementation reads them
+     * with {@link #search(SearchQuery)} and aggregates them in memory.
+     *
+     * @param searchQuery the search query, its order, limit and projection are ignored
+     * @param fieldName the field to aggregate
+     * @param aggregation the aggregate function
+     * @param <T> the type of the field, or {@link Long} for {@link Aggregation#COUNT}
+     * @return the aggregated value, empty if no storable has a value for the field
+     */
+    default <T> Optional<T> aggregate(SearchQuery searchQuery, String fieldName, Aggregation aggregation) {
+        return aggregation.aggregate(search(searchQuery), fieldName);
+    }
+
     /**
      * Lists all {@link Storable} objects existing in the given namespace. If no entity is found, and empty list will be returned.
      * @param namespace the namespace
@@ -22,6 +22,7 @@ public class StorageProviderProperties {
     private Integer queryTimeoutInSecs;
     private DbProperties properties;
     private OffsetProperties offsetRange;
+    private ReadReplicaProperties readReplica;
 
     @JsonProperty("db.type")
     public String getDbtype() {
@@ -62,4 +63,14 @@ public class StorageProviderProperties {
     public void setOffsetRange(OffsetProperties offsetRange) {
         this.offsetRange = offsetRange;
     }
+
+    @JsonProperty("readReplica")
+    public ReadReplicaProperties getReadReplica() {
+        return readReplica;
+    }
+
+    @JsonProperty
+    public void setReadReplica(ReadReplicaProperties readReplica) {
+        this.readReplica = readReplica;
+    }
 }
@@ -26,6 +26,14 @@ public interface TransactionManager {
      */
     void beginTransaction(TransactionIsolation transactionIsolationLevel);
 
+    /**
+     * Begins the transaction. A read only transaction may be served by a read replica of the storage,
+     * it must not write or lock anything.
+     */
+    default void beginTransaction(TransactionIsolation transactionIsolationLevel, boolean readOnly) {
+        beginTransaction(transactionIsolationLevel);
+    }
+
 
     /**
      * Discards the changes made to the storage layer and reverts to the last committed point.
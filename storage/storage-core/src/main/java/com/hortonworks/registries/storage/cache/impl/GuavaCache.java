@@ -43,7 +43,7 @@ public class GuavaCache implements Cache<StorableKey, Storable> {
 
     public GuavaCache(final StorageManager dao, CacheBuilder guavaCacheBuilder) {
         this.dao = dao;
-        this.guavaCache = guavaCacheBuilder.build(new CacheLoader<StorableKey, Storable>() {
+        this.guavaCache = guavaCacheBuilder.recordStats().build(new CacheLoader<StorableKey, Storable>() {
             @Override
             public Storable load(StorableKey key) throws StorageException, NonexistentStorableKeyException {
                 Storable val = dao.get(key);
@@ -103,9 +103,8 @@ public class GuavaCache implements Cache<StorableKey, Storable> {
         return guavaCache.size();
     }
 
-    //TODO
     public CacheStats stats() {
-        return null;
+        return new GuavaCacheStats(guavaCache.stats());
     }
 
     @Override
@@ -116,4 +115,32 @@ public class GuavaCache implements Cache<StorableKey, Storable> {
     public StorageManager getDao() {
         return dao;
     }
+
+    private static class GuavaCacheStats implements CacheStats {
+        private final com.google.common.cache.CacheStats stats;
+
+        private GuavaCacheStats(com.google.common.cache.CacheStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public long hitCount() {
+            return stats.hitCount();
+        }
+
+        @Override
+        public long missCount() {
+            return stats.missCount();
+        }
+
+        @Override
+        public long evictionCount() {
+            return stats.evictionCount();
+        }
+
+        @Override
+        public String toString() {
+            return stats.toString();
+        }
+    }
 }
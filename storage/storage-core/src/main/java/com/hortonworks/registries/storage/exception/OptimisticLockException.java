@@ -0,0 +1,27 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.storage.exception;
+
+/**
+ * Thrown when a storable with a {@link com.hortonworks.registries.storage.annotation.VersionField} is not updated,
+ * because the stored row is not at the previous version anymore, it was updated concurrently.
+ */
+public class OptimisticLockException extends StorageException {
+
+    public OptimisticLockException(String message) {
+        super(message);
+    }
+}
@@ -19,8 +19,11 @@ package com.hortonworks.registries.storage.impl.jdbc;
 import com.google.common.base.Stopwatch;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.ReadReplicaProperties;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableFactory;
 import com.hortonworks.registries.storage.StorableKey;
@@ -31,14 +34,17 @@ import com.hortonworks.registries.storage.common.DatabaseType;
 import com.hortonworks.registries.storage.exception.AlreadyExistsException;
 import com.hortonworks.registries.storage.exception.IllegalQueryParameterException;
 import com.hortonworks.registries.storage.exception.OffsetRangeReachedException;
+import com.hortonworks.registries.storage.exception.OptimisticLockException;
 import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.impl.jdbc.provider.QueryExecutorFactory;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.QueryExecutor;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlSelectQuery;
 import com.hortonworks.registries.storage.impl.jdbc.sequences.NamespaceSequenceStorable;
 import com.hortonworks.registries.storage.impl.jdbc.util.Columns;
+import com.hortonworks.registries.storage.search.Aggregation;
 import com.hortonworks.registries.storage.search.SearchQuery;
 import com.hortonworks.registries.storage.transaction.TransactionIsolation;
+import com.hortonworks.registries.storage.util.StorageUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +58,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static com.google.common.collect.Iterables.getOnlyElement;
@@ -63,11 +70,21 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 //Use unique constraints on respective columns of a table for handling concurrent inserts etc.
+//
+//When a read replica is configured, the read only transactions are served by the replica, except the ones starting
+//within maxLagMs after the last write of this instance. Entities are looked up again on the primary database
+//when the replica does not have them (yet).
 public class JdbcStorageManager implements TransactionManager, StorageManager {
     private static final Logger log = LoggerFactory.getLogger(StorageManager.class);
 
+    private static final long DEFAULT_REPLICA_MAX_LAG_MS = 1000L;
+
     private final StorableFactory storableFactory;
+    private final ThreadLocal<TransactionRoute> transactionRoutes = new ThreadLocal<>();
     private QueryExecutor queryExecutor;
+    private QueryExecutor replicaQueryExecutor;
+    private long replicaMaxLagMs;
+    private volatile long lastWriteMillis;
     private Long offsetMin;
     private Long offsetMax;
 
@@ -86,10 +103,18 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         registerStorables(Collections.singleton(NamespaceSequenceStorable.class));
     }
 
+    public JdbcStorageManager(QueryExecutor queryExecutor, QueryExecutor replicaQueryExecutor, long replicaMaxLagMs,
+                              StorableFactory storableFactory) {
+        this(queryExecutor, storableFactory);
+        this.replicaQueryExecutor = replicaQueryExecutor;
+        this.replicaMaxLagMs = replicaMaxLagMs;
+        replicaQueryExecutor.setStorableFactory(storableFactory);
+    }
+
     @Override
     public void add(Storable storable) throws AlreadyExistsException {
         log.debug("Adding storable [{}]", storable);
-        queryExecutor.insert(storable);
+        writeExecutor().insert(storable);
     }
 
     @Override
@@ -97,7 +122,7 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         T oldVal = get(key);
         if (key != null) {
             log.debug("Removing storable key [{}]", key);
-            queryExecutor.delete(key);
+            writeExecutor().delete(key);
         }
         return oldVal;
     }
@@ -105,19 +130,26 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     @Override
     public void addOrUpdate(Storable storable) throws StorageException {
         log.debug("Adding or updating storable [{}]", storable);
-        queryExecutor.insertOrUpdate(storable);
+        writeExecutor().insertOrUpdate(storable);
     }
 
     @Override
     public void update(Storable storable) {
-        queryExecutor.update(storable);
+        if (writeExecutor().update(storable) == 0) {
+            // a versioned row is only updated if it is still at the previous version
+            Optional<Long> version = StorageUtils.getVersion(storable);
+            if (version.isPresent()) {
+                throw new OptimisticLockException("Storable [" + storable.getStorableKey() + "] is not at version ["
+                        + (version.get() - 1) + "] anymore, it was updated concurrently");
+            }
+        }
     }
 
     @Override
     public <T extends Storable> T get(StorableKey key) throws StorageException {
         log.debug("Searching entry for storable key [{}]", key);
 
-        final Collection<T> entries = queryExecutor.select(key);
+        final Collection<T> entries = selectFallingBackToPrimary(executor -> executor.select(key));
         T entry = null;
         if (entries.size() > 0) {
             if (entries.size() > 1) {
@@ -133,7 +165,8 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     public boolean readLock(StorableKey key, Long time, TimeUnit timeUnit) {
         log.debug("Obtaining a read lock for entry with storable key [{}]", key);
 
-        Supplier<Collection<Storable>> supplier = () -> queryExecutor.selectForShare(key);
+        QueryExecutor executor = lockExecutor();
+        Supplier<Collection<Storable>> supplier = () -> executor.selectForShare(key);
 
         try {
             return getLock(supplier, time, timeUnit);
@@ -146,7 +179,8 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     public boolean writeLock(StorableKey key, Long time, TimeUnit timeUnit) {
         log.debug("Obtaining a write lock for entry with storable key [{}]", key);
 
-        Supplier<Collection<Storable>> supplier = () -> queryExecutor.selectForUpdate(key);
+        QueryExecutor executor = lockExecutor();
+        Supplier<Collection<Storable>> supplier = () -> executor.selectForUpdate(key);
 
         try {
             return getLock(supplier, time, timeUnit);
@@ -199,7 +233,7 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         try {
             StorableKey storableKey = buildStorableKey(namespace, queryParams);
             if (storableKey != null) {
-                entries = queryExecutor.select(storableKey, orderByFields);
+                entries = selectFallingBackToPrimary(executor -> executor.select(storableKey, orderByFields));
             }
         } catch (Exception e) {
             throw new StorageException(e);
@@ -212,12 +246,23 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
 
     @Override
     public <T extends Storable> Collection<T> search(SearchQuery searchQuery) {
-        return queryExecutor.select(searchQuery);
+        return readExecutor().select(searchQuery);
+    }
+
+    @Override
+    public <T> Optional<T> aggregate(SearchQuery searchQuery, String fieldName, Aggregation aggregation) {
+        Schema.Field field = storableFactory.create(searchQuery.getNameSpace()).getSchema().getField(fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException("Namespace " + searchQuery.getNameSpace() + " has no field " + fieldName);
+        }
+        // the count is a number of rows, not a value of the field
+        Schema.Field resultField = aggregation == Aggregation.COUNT ? Schema.Field.of(fieldName, Schema.Type.LONG) : field;
+        return readExecutor().selectAggregate(searchQuery, resultField, aggregation.name());
     }
 
     private <T extends Storable> Collection<T> list(String namespace, List<OrderByField> orderByFields) {
         log.debug("Listing entries for table [{}]", namespace);
-        final Collection<T> entries = queryExecutor.select(namespace, orderByFields);
+        final Collection<T> entries = readExecutor().select(namespace, orderByFields);
         log.debug("Querying table = [{}]\n\t returned [{}]", namespace, entries);
         return entries;
     }
@@ -230,6 +275,9 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     @Override
     public void cleanup() throws StorageException {
         queryExecutor.cleanup();
+        if (replicaQueryExecutor != null) {
+            replicaQueryExecutor.cleanup();
+        }
     }
 
     private boolean notAboveMaxOffset(NamespaceSequenceStorable sequence) {
@@ -241,7 +289,7 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         log.debug("Finding nextId for namespace [{}]", namespace);
         if (storableFactory.create(namespace).isIdAutoIncremented()) {
             log.debug("Storable for namespace {} is auto increment, deferring to the DB to generate the ID", namespace);
-            return queryExecutor.nextId(namespace);
+            return writeExecutor().nextId(namespace);
         }
 
         StorableKey keyForNamespace = new NamespaceSequenceStorable(namespace).getStorableKey();
@@ -380,7 +428,7 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         StorableKey storableKey = null;
 
         try {
-            Columns columns = queryExecutor.getColumns(namespace);
+            Columns columns = readExecutor().getColumns(namespace);
             for (QueryParam qp : queryParams) {
                 Schema.Type type = columns.getType(qp.getName());
                 if (type == null) {
@@ -430,11 +478,41 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
             this.offsetMin = configuration.getProperties().getOffsetRange().getMin();
             this.offsetMax = configuration.getProperties().getOffsetRange().getMax();
         }
+
+        ReadReplicaProperties readReplica = configuration.getProperties().getReadReplica();
+        if (readReplica != null && readReplica.getProperties() != null) {
+            this.replicaMaxLagMs = readReplica.getMaxLagMs() != null ? readReplica.getMaxLagMs() : DEFAULT_REPLICA_MAX_LAG_MS;
+            if (replicaMaxLagMs < 0) {
+                throw new IllegalArgumentException("maxLagMs property of the read replica can not be negative");
+            }
+            this.replicaQueryExecutor = QueryExecutorFactory.getReadReplica(type, configuration);
+            this.replicaQueryExecutor.setStorableFactory(storableFactory);
+            log.info("Read only transactions are served by the read replica, max lag: [{}]ms", replicaMaxLagMs);
+        }
     }
 
     @Override
     public void beginTransaction(TransactionIsolation transactionIsolationLevel) {
-        queryExecutor.beginTransaction(transactionIsolationLevel);
+        beginTransaction(transactionIsolationLevel, false);
+    }
+
+    @Override
+    public void beginTransaction(TransactionIsolation transactionIsolationLevel, boolean readOnly) {
+        // nested transactions stay on the database of the outermost one
+        TransactionRoute route = transactionRoutes.get();
+        if (route == null) {
+            route = new TransactionRoute(readOnly && isReplicaUpToDate() ? replicaQueryExecutor : queryExecutor);
+            transactionRoutes.set(route);
+        }
+        try {
+            route.queryExecutor.beginTransaction(transactionIsolationLevel);
+        } catch (RuntimeException e) {
+            if (route.depth == 0) {
+                transactionRoutes.remove();
+            }
+            throw e;
+        }
+        route.depth++;
     }
 
     @Override
@@ -445,11 +523,86 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
 
         // Another implementations of QueryExecutor should provide a way of guaranteeing the
         // behavior, like call closeConnection() when rollbackTransaction() is failing.
-        queryExecutor.rollbackTransaction();
+        TransactionRoute route = transactionRoutes.get();
+        try {
+            (route != null ? route.queryExecutor : queryExecutor).rollbackTransaction();
+        } finally {
+            leaveTransaction(route);
+        }
     }
 
     @Override
     public void commitTransaction() {
-        queryExecutor.commitTransaction();
+        TransactionRoute route = transactionRoutes.get();
+        try {
+            (route != null ? route.queryExecutor : queryExecutor).commitTransaction();
+        } finally {
+            leaveTransaction(route);
+        }
+    }
+
+    private void leaveTransaction(TransactionRoute route) {
+        if (route != null && --route.depth <= 0) {
+            transactionRoutes.remove();
+            if (route.wrote) {
+                lastWriteMillis = currentTimeMillis();
+            }
+        }
+    }
+
+    private boolean isReplicaUpToDate() {
+        return replicaQueryExecutor != null && currentTimeMillis() - lastWriteMillis >= replicaMaxLagMs;
+    }
+
+    /** @return the executor of the current transaction, or the primary one outside of transactions */
+    private QueryExecutor readExecutor() {
+        TransactionRoute route = transactionRoutes.get();
+        return route != null ? route.queryExecutor : queryExecutor;
+    }
+
+    private QueryExecutor writeExecutor() {
+        QueryExecutor executor = lockExecutor();
+        TransactionRoute route = transactionRoutes.get();
+        if (route != null) {
+            route.wrote = true;
+        } else {
+            lastWriteMillis = currentTimeMillis();
+        }
+        return executor;
+    }
+
+    private QueryExecutor lockExecutor() {
+        TransactionRoute route = transactionRoutes.get();
+        if (route != null && route.queryExecutor != queryExecutor) {
+            throw new StorageException("Read only transaction can not write or lock the storage");
+        }
+        return queryExecutor;
+    }
+
+    /**
+     * The entities served by read only transactions, like schema versions, do not change once they were created,
+     * the replica can only be behind by not having them yet. Empty results of the replica are selected again
+     * from the primary database.
+     */
+    private <T extends Storable> Collection<T> selectFallingBackToPrimary(Function<QueryExecutor, Collection<T>> select) {
+        QueryExecutor executor = readExecutor();
+        Collection<T> entries = select.apply(executor);
+        if (executor != queryExecutor && (entries == null || entries.isEmpty())) {
+            log.debug("Entries were not found on the read replica, querying the primary database");
+            Metrics.get().mark(RegistryMetrics.name(JdbcStorageManager.class, "replica", "misses"));
+            entries = select.apply(queryExecutor);
+        }
+        return entries;
+    }
+
+    /** The database which serves the transaction of a thread. */
+    private static class TransactionRoute {
+        private final QueryExecutor queryExecutor;
+        private int depth;
+        private boolean wrote;
+
+        TransactionRoute(QueryExecutor queryExecutor) {
+            this.queryExecutor = queryExecutor;
+        }
     }
 }
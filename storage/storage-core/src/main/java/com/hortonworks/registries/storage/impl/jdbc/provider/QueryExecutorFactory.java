@@ -18,6 +18,7 @@ package com.hortonworks.registries.storage.impl.jdbc.provider;
 
 import com.google.common.collect.Lists;
 import com.hortonworks.registries.storage.DbProperties;
+import com.hortonworks.registries.storage.ReadReplicaProperties;
 import com.hortonworks.registries.storage.StorageProviderConfiguration;
 import com.hortonworks.registries.storage.common.DatabaseType;
 import com.hortonworks.registries.storage.common.util.Constants;
@@ -44,8 +45,27 @@ public class QueryExecutorFactory {
     }
 
     public static QueryExecutor get(DatabaseType type, StorageProviderConfiguration storageConfig) {
+        checkNotNull(storageConfig.getProperties().getProperties());
+        HikariConfig hikariConfig = getHikariConfig(type, storageConfig.getProperties().getProperties());
+
+        return get(type, storageConfig, new HikariCPConnectionBuilder(hikariConfig));
+    }
 
-        HikariCPConnectionBuilder connectionBuilder = getHikariCPConnnectionBuilder(type, storageConfig);
+    /**
+     * Creates the executor of the read replica configured in {@code storageConfig}. Its connections are read only.
+     */
+    public static QueryExecutor getReadReplica(DatabaseType type, StorageProviderConfiguration storageConfig) {
+        ReadReplicaProperties readReplica = storageConfig.getProperties().getReadReplica();
+        checkNotNull(readReplica);
+        checkNotNull(readReplica.getProperties());
+        HikariConfig hikariConfig = getHikariConfig(type, readReplica.getProperties());
+        hikariConfig.setReadOnly(true);
+
+        return get(type, storageConfig, new HikariCPConnectionBuilder(hikariConfig));
+    }
+
+    private static QueryExecutor get(DatabaseType type, StorageProviderConfiguration storageConfig,
+                                     HikariCPConnectionBuilder connectionBuilder) {
         ExecutionConfig executionConfig = getExecutionConfig(type, storageConfig);
 
         QueryExecutor queryExecutor = null;
@@ -66,9 +86,7 @@ public class QueryExecutorFactory {
         return queryExecutor;
     }
 
-    private static HikariCPConnectionBuilder getHikariCPConnnectionBuilder(DatabaseType type, StorageProviderConfiguration storageConfig) {
-        checkNotNull(storageConfig.getProperties().getProperties());
-        DbProperties dbProperties = storageConfig.getProperties().getProperties();
+    private static HikariConfig getHikariConfig(DatabaseType type, DbProperties dbProperties) {
         Util.validateJDBCProperties(dbProperties, Lists.newArrayList(Constants.DataSource.CLASS_NAME, Constants.DataSource.URL));
 
         if (LOG.isDebugEnabled()) {
@@ -79,9 +97,7 @@ public class QueryExecutorFactory {
             LOG.debug("dataSource.url is: [{}] ", jdbcUrl);
         }
 
-        HikariConfig hikariConfig = HikariConfigFactory.get(type, dbProperties);
-
-        return new HikariCPConnectionBuilder(hikariConfig);
+        return HikariConfigFactory.get(type, dbProperties);
     }
 
     private static ExecutionConfig getExecutionConfig(DatabaseType type, StorageProviderConfiguration storageConfig) {
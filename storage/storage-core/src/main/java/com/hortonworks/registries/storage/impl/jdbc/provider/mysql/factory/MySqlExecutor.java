@@ -132,6 +132,12 @@ public class MySqlExecutor extends AbstractQueryExecutor {
         return selectAggregate(namespace, field, new MySqlAggregateSqlQuery(namespace, field, aggregationFunction));
     }
 
+    @Override
+    public <T> Optional<T> selectAggregate(SearchQuery searchQuery, Schema.Field field, String aggregationFunction) {
+        return selectAggregate(searchQuery.getNameSpace(), field, new MySqlAggregateSqlQuery(searchQuery,
+                storableFactory.create(searchQuery.getNameSpace()).getSchema(), field, aggregationFunction));
+    }
+
     private void insertOrUpdateWithUniqueId(final Storable storable, final SqlQuery sqlQuery) {
         try {
             Long id = storable.getId();
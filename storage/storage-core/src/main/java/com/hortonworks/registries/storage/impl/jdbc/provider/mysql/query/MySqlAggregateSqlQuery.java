@@ -18,6 +18,7 @@ package com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query;
 
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractAggregateSqlQuery;
+import com.hortonworks.registries.storage.search.SearchQuery;
 
 public class MySqlAggregateSqlQuery extends AbstractAggregateSqlQuery {
 
@@ -25,6 +26,10 @@ public class MySqlAggregateSqlQuery extends AbstractAggregateSqlQuery {
         super(namespace, field, false, aggregationFunction);
     }
 
+    public MySqlAggregateSqlQuery(SearchQuery searchQuery, Schema schema, Schema.Field field, String aggregationFunction) {
+        super(searchQuery, schema, field, aggregationFunction);
+    }
+
     @Override
     protected String fieldEncloser() {
         return "`";
@@ -129,6 +129,12 @@ public class OracleExecutor extends AbstractQueryExecutor {
         return selectAggregate(namespace, field, new OracleAggregateSqlQuery(namespace, field, aggregationFunction));
     }
 
+    @Override
+    public <T> Optional<T> selectAggregate(SearchQuery searchQuery, Schema.Field field, String aggregationFunction) {
+        return selectAggregate(searchQuery.getNameSpace(), field, new OracleAggregateSqlQuery(searchQuery,
+                storableFactory.create(searchQuery.getNameSpace()).getSchema(), field, aggregationFunction));
+    }
+
     @Override
     public Long nextId(String namespace) {
         OracleSequenceIdQuery oracleSequenceIdQuery = new OracleSequenceIdQuery(namespace, queryTimeoutSecs, ORACLE_DATA_TYPE_CONTEXT);
@@ -86,6 +86,31 @@ public class OracleSelectQuery extends AbstractSelectQuery {
         return sql;
     }
 
+    /**
+     * Oracle does not allow FOR UPDATE on a query with a row limiting clause, and ROWNUM in the WHERE clause is
+     * assigned before the rows are ordered and the locked rows are skipped. Locking queries are therefore not limited
+     * in SQL, their rows are only fetched up to the limit, see {@link #getMaxRows()}. SKIP LOCKED locks the rows as
+     * they are fetched. ROWNUM can not skip rows, so an offset is applied with the row limiting clause of Oracle 12c.
+     */
+    @Override
+    protected String applyLimit(String sql, int limit, int offset) {
+        if (offset > 0) {
+            if (lockRows) {
+                throw new OracleQueryException(String.format("Rows of the table \"%s\" can't be locked by a query with an offset", tableName));
+            }
+            return sql.trim() + " OFFSET " + offset + " ROWS FETCH NEXT " + limit + " ROWS ONLY";
+        }
+        if (lockRows) {
+            return sql;
+        }
+        return "SELECT * FROM (" + sql.trim() + ") WHERE ROWNUM <= " + limit;
+    }
+
+    @Override
+    public int getMaxRows() {
+        return lockRows && searchQuery != null && searchQuery.getLimit() != null ? searchQuery.getLimit() : 0;
+    }
+
     @Override
     protected String fieldEncloser() {
         return "\"";
@@ -154,6 +154,12 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         return selectAggregate(namespace, field, new PostgresAggregateSqlQuery(namespace, field, aggregationFunction));
     }
 
+    @Override
+    public <T> Optional<T> selectAggregate(SearchQuery searchQuery, Schema.Field field, String aggregationFunction) {
+        return selectAggregate(searchQuery.getNameSpace(), field, new PostgresAggregateSqlQuery(searchQuery,
+                storableFactory.create(searchQuery.getNameSpace()).getSchema(), field, aggregationFunction));
+    }
+
     // this is required since the Id type in Storable is long and Postgres supports Int type for SERIAL (auto increment) field
     @Override
     protected QueryExecution getQueryExecution(SqlQuery sqlQuery) {
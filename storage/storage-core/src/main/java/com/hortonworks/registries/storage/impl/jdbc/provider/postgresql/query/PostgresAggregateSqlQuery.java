@@ -18,6 +18,7 @@ package com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query;
 
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractAggregateSqlQuery;
+import com.hortonworks.registries.storage.search.SearchQuery;
 
 public class PostgresAggregateSqlQuery extends AbstractAggregateSqlQuery {
 
@@ -25,6 +26,10 @@ public class PostgresAggregateSqlQuery extends AbstractAggregateSqlQuery {
         super(namespace, field, true, aggregationFunction);
     }
 
+    public PostgresAggregateSqlQuery(SearchQuery searchQuery, Schema schema, Schema.Field field, String aggregationFunction) {
+        super(searchQuery, schema, field, aggregationFunction);
+    }
+
     @Override
     protected String fieldEncloser() {
         return "\"";
@@ -20,6 +20,8 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
 import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.common.metrics.Metrics;
+import com.hortonworks.registries.common.metrics.RegistryMetrics;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractAggregateSqlQuery;
 import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import com.hortonworks.registries.storage.Storable;
@@ -434,7 +436,8 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         }
 
         <E> E executeQuery(String namespace, BiFunction<ResultSet, String, E> resultExtractFunction) {
-            try (PreparedStatement preparedStatement = getPreparedStatement();
+            try (RegistryMetrics.Context ignored = time();
+                 PreparedStatement preparedStatement = getPreparedStatement();
                  ResultSet resultSet = preparedStatement.executeQuery()) {
                 return resultExtractFunction.apply(resultSet, namespace);
             } catch (SQLException | ExecutionException e) {
@@ -452,7 +455,8 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         }
 
         int executeUpdate() {
-            try (PreparedStatement preparedStatement = getPreparedStatement()) {
+            try (RegistryMetrics.Context ignored = time();
+                 PreparedStatement preparedStatement = getPreparedStatement()) {
                 return preparedStatement.executeUpdate();
             } catch (SQLException | ExecutionException e) {
                 throw new StorageException(e);
@@ -462,7 +466,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         }
 
         Long executeUpdateWithReturningGeneratedKey() {
-            try {
+            try (RegistryMetrics.Context ignored = time()) {
                 PreparedStatement pstmt = getPreparedStatementWithSetReturningGeneratedKey();
                 pstmt.executeUpdate();
                 try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
@@ -482,6 +486,15 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
         // ====== private helper methods ======
 
+        /**
+         * Starts timing the execution of the query, the latencies are recorded per table and kind of query,
+         * e.g. {@code schema_version_info.SqlSelectQuery}.
+         */
+        private RegistryMetrics.Context time() {
+            return Metrics.get().time(RegistryMetrics.name(AbstractQueryExecutor.class, "queries",
+                    sqlBuilder.getNamespace(), sqlBuilder.getClass().getSimpleName()));
+        }
+
         private PreparedStatement getPreparedStatement() throws ExecutionException, SQLException {
             PreparedStatementBuilder preparedStatementBuilder = null;
 
@@ -86,6 +86,16 @@ public interface QueryExecutor {
      */
     <T> Optional<T> selectAggregate(String namespace, Schema.Field field, String aggregationFunction);
 
+    /**
+     *
+     * @param searchQuery the rows to aggregate are selected with its where clause
+     * @param field is the {@link Storable#getSchema()} field corresponding to the database column, its type is the type of the result
+     * @param aggregationFunction the standard SQL function with which the aggregation is done
+     * @return field values aggregated with the aggregationFunction over the rows matching the search query
+     * @throws ClassCastException if the field's type does not correspond to the type T
+     */
+    <T> Optional<T> selectAggregate(SearchQuery searchQuery, Schema.Field field, String aggregationFunction);
+
     /**
      * @return The next available id for the autoincrement column in the specified {@code namespace}
      * @exception NonIncrementalColumnException if {@code namespace} has no autoincrement column
@@ -17,6 +17,7 @@ package com.hortonworks.registries.storage.impl.jdbc.provider.sql.query;
 
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.search.SearchQuery;
 
 import java.util.Collections;
 
@@ -24,23 +25,36 @@ import static java.util.Collections.emptyMap;
 
 public abstract class AbstractAggregateSqlQuery extends AbstractSelectQuery {
 
+    private final Schema.Field field;
     private final boolean quoteTableName;
     private final String aggregationFunction;
 
     public AbstractAggregateSqlQuery(String namespace, Schema.Field field, boolean quoteTableName, String aggregationFunction) {
         super(namespace);
         this.columns = Collections.singletonList(field);
+        this.field = field;
         this.quoteTableName = quoteTableName;
         this.aggregationFunction = aggregationFunction;
     }
 
+    /**
+     * Aggregates the field over the rows matching the where clause of the given search query, the order, limit and
+     * projection of the search query are ignored.
+     */
+    public AbstractAggregateSqlQuery(SearchQuery searchQuery, Schema schema, Schema.Field field, String aggregationFunction) {
+        super(SearchQuery.searchFrom(searchQuery.getNameSpace()).where(searchQuery.getWhereClause()), schema);
+        this.field = field;
+        this.quoteTableName = true;
+        this.aggregationFunction = aggregationFunction;
+    }
+
     public Schema.Field getField() {
-        return columns.iterator().next();
+        return field;
     }
 
     @Override
     public PrimaryKey getPrimaryKey() {
-        return new PrimaryKey(emptyMap());
+        return searchQuery != null ? super.getPrimaryKey() : new PrimaryKey(emptyMap());
     }
 
     @Override
@@ -48,6 +62,11 @@ public abstract class AbstractAggregateSqlQuery extends AbstractSelectQuery {
         return String.format("SELECT %s(%s%s%s) FROM %s", aggregationFunction, fieldEncloser(), getField().getName(), fieldEncloser(), sqlTableName());
     }
 
+    @Override
+    protected String selectListSql(SearchQuery searchQuery) {
+        return String.format("%s(%s%s%s)", aggregationFunction, fieldEncloser(), field.getName(), fieldEncloser());
+    }
+
     @Override
     protected String orderBySql() {
         return null;
@@ -32,6 +32,8 @@ import com.hortonworks.registries.storage.search.WhereClause;
 import com.hortonworks.registries.storage.search.WhereClauseCombiner;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -81,6 +83,25 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
         return "FOR UPDATE SKIP LOCKED";
     }
 
+    /**
+     * Restricts the number of rows returned by the given query, after skipping the first {@code offset} rows.
+     * Applied after the ORDER BY clause.
+     */
+    protected String applyLimit(String sql, int limit, int offset) {
+        return sql.trim() + " LIMIT " + limit + (offset > 0 ? " OFFSET " + offset : "");
+    }
+
+    /**
+     * @return the select list of the query built from the search query, the projected columns or all the columns
+     */
+    protected String selectListSql(SearchQuery searchQuery) {
+        List<String> projection = searchQuery.getProjection();
+        if (projection == null) {
+            return "*";
+        }
+        return join(projection.stream().map(x -> fieldEncloser() + x + fieldEncloser()).collect(Collectors.toList()), ", ");
+    }
+
     public boolean isLockRows() {
         return lockRows;
     }
@@ -113,7 +134,7 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
     }
 
     protected String buildSqlWithSearchQuery(SearchQuery searchQuery, Schema schema) {
-        String sql = "SELECT * FROM " + fieldEncloser() + tableName + fieldEncloser();
+        String sql = "SELECT " + selectListSql(searchQuery) + " FROM " + fieldEncloser() + tableName + fieldEncloser();
 
         WhereClause whereClause = searchQuery.getWhereClause();
         Map<Schema.Field, Object> fieldsToValues = new LinkedHashMap<Schema.Field, Object>() { };
@@ -154,6 +175,11 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
             );
         }
 
+        Integer limit = searchQuery.getLimit();
+        if (limit != null) {
+            sql = applyLimit(sql, limit, searchQuery.getOffset());
+        }
+
         primaryKey = new PrimaryKey(fieldsToValues);
         columns = Lists.newArrayList(fieldsToValues.keySet());
 
@@ -192,6 +218,8 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
             case LTE:
                 result = " " + fq + predicate.getField() + fq + " <= ? ";
                 break;
+            case IN:
+                return generateInClauseString(predicate, fieldsToValues, schema);
             default:
                 throw new IllegalArgumentException("Given operation " + operation + " is not supported!");
         }
@@ -202,6 +230,18 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
         return result;
     }
 
+    private String generateInClauseString(Predicate predicate, Map<Schema.Field, Object> fieldsToValues, Schema schema) {
+        String fq = fieldEncloser();
+        Schema.Field field = schema.getField(predicate.getField());
+        Collection<?> values = (Collection<?>) predicate.getValue();
+        int index = fieldsToValues.size();
+        for (Object value : values) {
+            // every value needs its own binding, the field name only has to be unique among the bindings
+            fieldsToValues.put(Schema.Field.of(field.getName() + "#" + index++, field.getType()), value);
+        }
+        return " " + fq + predicate.getField() + fq + " IN (" + join(Collections.nCopies(values.size(), "?"), ", ") + ") ";
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -216,6 +256,9 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
 
         AbstractSelectQuery that = (AbstractSelectQuery) o;
 
+        if (searchQuery != null ? !searchQuery.equals(that.searchQuery) : that.searchQuery != null) {
+            return false;
+        }
         return orderByFields != null ? orderByFields.equals(that.orderByFields) : that.orderByFields == null;
     }
 
@@ -223,6 +266,7 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
     public int hashCode() {
         int result = super.hashCode();
         result = 31 * result + (orderByFields != null ? orderByFields.hashCode() : 0);
+        result = 31 * result + (searchQuery != null ? searchQuery.hashCode() : 0);
         return result;
     }
 
@@ -44,4 +44,11 @@ public interface SqlQuery {
      * @return The SQL query with the place parameters ready to be replaced in a {@link PreparedStatement}
      */
     String getParametrizedSql();
+
+    /**
+     * @return the maximum number of rows read from the result of the query, 0 if the rows are not limited this way
+     */
+    default int getMaxRows() {
+        return 0;
+    }
 }
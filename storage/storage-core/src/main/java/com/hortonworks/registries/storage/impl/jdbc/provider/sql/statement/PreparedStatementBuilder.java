@@ -119,6 +119,12 @@ public class PreparedStatementBuilder {
         if (queryTimeoutSecs > 0) {
             preparedStatement.setQueryTimeout(queryTimeoutSecs);
         }
+        final int maxRows = sqlBuilder.getMaxRows();
+        if (maxRows > 0) {
+            // rows are only fetched up to the limit, rows locked on fetch beyond it are not locked
+            preparedStatement.setMaxRows(maxRows);
+            preparedStatement.setFetchSize(maxRows);
+        }
         this.preparedStatement = preparedStatement;
     }
 
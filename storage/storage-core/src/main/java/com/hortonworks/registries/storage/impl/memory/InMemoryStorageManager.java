@@ -26,10 +26,12 @@ import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
 import com.hortonworks.registries.storage.StorageProviderConfiguration;
 import com.hortonworks.registries.storage.exception.AlreadyExistsException;
+import com.hortonworks.registries.storage.exception.OptimisticLockException;
 import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.search.Predicate;
 import com.hortonworks.registries.storage.search.PredicateCombinerPair;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.util.StorageUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,8 +44,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 //TODO: The synchronization is broken right now, so all the methods don't guarantee the semantics as described in the interface.
 public class InMemoryStorageManager implements StorageManager {
@@ -101,7 +105,17 @@ public class InMemoryStorageManager implements StorageManager {
         if (!storageMap.containsKey(namespace)) {
             throw new StorageException("Row could not be updated");
         }
-        storageMap.get(namespace).put(pk, storable);
+        Optional<Long> version = StorageUtils.getVersion(storable);
+        if (version.isPresent()) {
+            Storable existing = storageMap.get(namespace).get(pk);
+            if (existing == null || !Optional.of(version.get() - 1).equals(StorageUtils.getVersion(existing))
+                    || !storageMap.get(namespace).replace(pk, existing, storable)) {
+                throw new OptimisticLockException("Storable [" + storable.getStorableKey() + "] is not at version ["
+                        + (version.get() - 1) + "] anymore, it was updated concurrently");
+            }
+        } else {
+            storageMap.get(namespace).put(pk, storable);
+        }
     }
 
     @Override
@@ -161,42 +175,47 @@ public class InMemoryStorageManager implements StorageManager {
             }
         }
 
-        if (orderByFields != null && !orderByFields.isEmpty()) {
-            storables.sort((storable1, storable2) -> {
-                try {
-                    for (OrderByField orderByField : orderByFields) {
-                        Comparable value1 = ReflectionHelper.invokeGetter(orderByField.getFieldName(), storable1);
-                        Comparable value2 = ReflectionHelper.invokeGetter(orderByField.getFieldName(), storable2);
-                        int compareTo;
-                        // same values continue
-                        if (value1 == value2) {
-                            continue;
-                        } else if (value1 == null) {
-                            // value2 is non null
-                            compareTo = -1;
-                        } else if (value2 == null) {
-                            // value1 is non null
-                            compareTo = 1;
-                        } else {
-                            // both value and value2 non null
-                            compareTo = value1.compareTo(value2);
-                        }
+        sort(storables, orderByFields);
 
-                        if (compareTo == 0) {
-                            continue;
-                        }
-                        return orderByField.isDescending() ? -compareTo : compareTo;
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
+        return storables;
+    }
 
-                // all group by fields are matched means equal
-                return 0;
-            });
+    private static <T extends Storable> void sort(List<T> storables, List<OrderByField> orderByFields) {
+        if (orderByFields == null || orderByFields.isEmpty()) {
+            return;
         }
+        storables.sort((storable1, storable2) -> {
+            try {
+                for (OrderByField orderByField : orderByFields) {
+                    Comparable value1 = ReflectionHelper.invokeGetter(orderByField.getFieldName(), storable1);
+                    Comparable value2 = ReflectionHelper.invokeGetter(orderByField.getFieldName(), storable2);
+                    int compareTo;
+                    // same values continue
+                    if (value1 == value2) {
+                        continue;
+                    } else if (value1 == null) {
+                        // value2 is non null
+                        compareTo = -1;
+                    } else if (value2 == null) {
+                        // value1 is non null
+                        compareTo = 1;
+                    } else {
+                        // both value and value2 non null
+                        compareTo = value1.compareTo(value2);
+                    }
 
-        return storables;
+                    if (compareTo == 0) {
+                        continue;
+                    }
+                    return orderByField.isDescending() ? -compareTo : compareTo;
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+
+            // all group by fields are matched means equal
+            return 0;
+        });
     }
 
     @Override
@@ -209,7 +228,12 @@ public class InMemoryStorageManager implements StorageManager {
         }
 
         Collection<T> result = new HashSet<>(list.size());
-        for (PredicateCombinerPair predicateCombinerPair : searchQuery.getWhereClause().getPredicateCombinerPairs()) {
+        if (searchQuery.getWhereClause() == null) {
+            result.addAll(list);
+        }
+        List<PredicateCombinerPair> predicateCombinerPairs = searchQuery.getWhereClause() != null
+                ? searchQuery.getWhereClause().getPredicateCombinerPairs() : Collections.emptyList();
+        for (PredicateCombinerPair predicateCombinerPair : predicateCombinerPairs) {
             for (T storable : list) {
                 Map<String, Object> map = pairs.get(storable);
                 final Predicate.Operation op = predicateCombinerPair.getPredicate().getOperation();
@@ -226,6 +250,19 @@ public class InMemoryStorageManager implements StorageManager {
                             }
                         }
                         break;
+                    case IN: {
+                        Object fieldValue = map.get(predicateCombinerPair.getPredicate().getField());
+                        Collection<?> values = (Collection<?>) predicateCombinerPair.getPredicate().getValue();
+                        if (fieldValue != null && values.stream().anyMatch(v -> String.valueOf(v).equals(fieldValue.toString()))) {
+                            result.add(storable);
+                        }
+                        break;
+                    }
+                    case GT: case GTE: case LT: case LTE:
+                        if (matchesRange(map.get(predicateCombinerPair.getPredicate().getField()), predicateCombinerPair.getPredicate())) {
+                            result.add(storable);
+                        }
+                        break;
                     default:
                         result.add(storable);
                         break;
@@ -233,9 +270,39 @@ public class InMemoryStorageManager implements StorageManager {
             }
         }
 
+        if (searchQuery.getOrderByFields() != null && !searchQuery.getOrderByFields().isEmpty()) {
+            List<T> sorted = new ArrayList<>(result);
+            sort(sorted, searchQuery.getOrderByFields().stream()
+                    .map(orderBy -> OrderByField.of(orderBy.getFieldName(), !orderBy.isAsc()))
+                    .collect(Collectors.toList()));
+            result = sorted;
+        }
+
+        // the projection is not applied, the storables are returned with all their fields
+        if (searchQuery.getLimit() != null && (result.size() > searchQuery.getLimit() || searchQuery.getOffset() > 0)) {
+            return result.stream().skip(searchQuery.getOffset()).limit(searchQuery.getLimit()).collect(Collectors.toList());
+        }
         return result;
     }
 
+    @SuppressWarnings("unchecked")
+    private static boolean matchesRange(Object value, Predicate predicate) {
+        if (!(value instanceof Comparable) || predicate.getValue() == null) {
+            return false;
+        }
+        int compareTo = ((Comparable<Object>) value).compareTo(predicate.getValue());
+        switch (predicate.getOperation()) {
+            case GT:
+                return compareTo > 0;
+            case GTE:
+                return compareTo >= 0;
+            case LT:
+                return compareTo < 0;
+            default:
+                return compareTo <= 0;
+        }
+    }
+
     @Override
     public <T extends Storable> Collection<T> list(String namespace) throws StorageException {
         return storageMap.containsKey(namespace)
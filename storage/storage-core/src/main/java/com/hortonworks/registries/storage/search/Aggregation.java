@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016-2022 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.storage.search;
+
+import com.hortonworks.registries.storage.Storable;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Aggregate functions which can be computed by the storage over the rows matching a {@link SearchQuery}.
+ */
+public enum Aggregation {
+    MAX,
+    MIN,
+    COUNT;
+
+    /**
+     * Computes the aggregate of the given field over the given storables, for storages which can not compute it
+     * themselves. Null values are ignored, like in SQL.
+     *
+     * @return the count as a {@link Long}, the minimum or maximum as the type of the field, empty if there is no value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> aggregate(Collection<? extends Storable> storables, String fieldName) {
+        Stream<Comparable<Object>> values = storables.stream()
+                .map(storable -> storable.toMap().get(fieldName))
+                .filter(Objects::nonNull)
+                .map(value -> (Comparable<Object>) value);
+        switch (this) {
+            case MAX:
+                return (Optional<T>) values.max(Comparator.naturalOrder());
+            case MIN:
+                return (Optional<T>) values.min(Comparator.naturalOrder());
+            default:
+                return Optional.of((T) Long.valueOf(values.count()));
+        }
+    }
+}
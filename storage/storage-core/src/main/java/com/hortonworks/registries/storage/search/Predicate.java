@@ -30,7 +30,7 @@ import java.io.Serializable;
 public class Predicate implements Serializable {
     private static final long serialVersionUID = 3928533466168563000L;
 
-    public enum Operation { EQ, LT, GT, LTE, GTE, CONTAINS }
+    public enum Operation { EQ, LT, GT, LTE, GTE, CONTAINS, IN }
 
     private String field;
     private Object value;
@@ -37,6 +37,9 @@ public class SearchQuery implements Serializable {
     private List<OrderBy> orderByFields;
     private WhereClause whereClause;
     private boolean lockRows = false;
+    private Integer limit;
+    private int offset;
+    private List<String> projection;
 
     private SearchQuery() {
     }
@@ -71,6 +74,46 @@ public class SearchQuery implements Serializable {
         return this;
     }
 
+    /**
+     * Restricts the number of returned rows. Combined with {@link #forUpdate()} this allows claiming
+     * the rows in bounded batches instead of locking every row matching the where clause.
+     */
+    public SearchQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be greater than 0 but was " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Returns at most {@code limit} rows after skipping the first {@code offset} rows. The rows should be ordered with
+     * {@link #orderBy(OrderBy...)}, pages of an unordered result are not stable.
+     */
+    public SearchQuery limit(int limit, int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset can't be negative but was " + offset);
+        }
+        limit(limit);
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Reads only the given fields of the matching rows, the other fields of the returned storables are left unset.
+     * This avoids transferring large columns, like schema texts, when they are not needed.
+     */
+    public SearchQuery select(String... fieldNames) {
+        if (this.projection != null) {
+            throw new IllegalArgumentException("selected fields are already defined for this search query.");
+        }
+        if (fieldNames.length == 0) {
+            throw new IllegalArgumentException("at least one field must be selected.");
+        }
+        this.projection = Collections.unmodifiableList(Arrays.asList(fieldNames));
+        return this;
+    }
+
     public String getNameSpace() {
         return nameSpace;
     }
@@ -87,6 +130,21 @@ public class SearchQuery implements Serializable {
         return lockRows;
     }
 
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the fields to read, null if all the fields are read
+     */
+    public List<String> getProjection() {
+        return projection;
+    }
+
     @Override
     public String toString() {
         return "SearchQuery{" +
@@ -94,6 +152,9 @@ public class SearchQuery implements Serializable {
                 ", orderByFields=" + orderByFields +
                 ", clause=" + whereClause +
                 ", lockRows=" + lockRows +
+                ", limit=" + limit +
+                ", offset=" + offset +
+                ", projection=" + projection +
                 '}';
     }
 
@@ -107,11 +168,12 @@ public class SearchQuery implements Serializable {
              return false;
          }
          SearchQuery that = (SearchQuery) o;
-         return lockRows == that.lockRows && nameSpace.equals(that.nameSpace) && Objects.equals(orderByFields, that.orderByFields) && Objects.equals(whereClause, that.whereClause);
+         return lockRows == that.lockRows && nameSpace.equals(that.nameSpace) && Objects.equals(orderByFields, that.orderByFields) && Objects.equals(whereClause, that.whereClause)
+                 && Objects.equals(limit, that.limit) && offset == that.offset && Objects.equals(projection, that.projection);
      }
 
      @Override
      public int hashCode() {
-         return Objects.hash(nameSpace, orderByFields, whereClause, lockRows);
+         return Objects.hash(nameSpace, orderByFields, whereClause, lockRows, limit, offset, projection);
      }
 }
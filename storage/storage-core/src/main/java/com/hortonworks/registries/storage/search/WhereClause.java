@@ -23,6 +23,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -117,6 +118,17 @@ public class WhereClause implements Serializable {
             return new WhereClauseCombiner(this, new Predicate(fieldName, value, Predicate.Operation.GT));
         }
 
+        /**
+         * Matches if the field is equal to any of the given values. The values are kept in the given order,
+         * callers should avoid passing too many of them as some databases limit the size of the IN list.
+         */
+        public WhereClauseCombiner in(String fieldName, Collection<?> values) {
+            if (values == null || values.isEmpty()) {
+                throw new IllegalArgumentException("IN predicate requires at least one value");
+            }
+            return new WhereClauseCombiner(this, new Predicate(fieldName, new ArrayList<>(values), Predicate.Operation.IN));
+        }
+
         public WhereClause build() {
             return new WhereClause(predicateCombinerPairs);
         }
@@ -27,6 +27,7 @@ import com.hortonworks.registries.storage.exception.IgnoreTransactionRollbackExc
 public class ManagedTransaction {
     private final TransactionManager transactionManager;
     private final TransactionIsolation transactionIsolation;
+    private final boolean readOnly;
 
     /**
      * Constructor.
@@ -34,8 +35,7 @@ public class ManagedTransaction {
      * @param transactionManager the instance of TransactionManager which manages transaction
      */
     public ManagedTransaction(TransactionManager transactionManager) {
-        this.transactionManager = transactionManager;
-        this.transactionIsolation = TransactionIsolation.JDBC_DEFAULT;
+        this(transactionManager, TransactionIsolation.JDBC_DEFAULT, false);
     }
 
     /**
@@ -45,8 +45,20 @@ public class ManagedTransaction {
      * @param transactionIsolation isolation level for transaction
      */
     public ManagedTransaction(TransactionManager transactionManager, TransactionIsolation transactionIsolation) {
+        this(transactionManager, transactionIsolation, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param transactionManager the instance of TransactionManager which manages transaction
+     * @param transactionIsolation isolation level for transaction
+     * @param readOnly true if the transaction only reads, it may be served by a read replica of the storage
+     */
+    public ManagedTransaction(TransactionManager transactionManager, TransactionIsolation transactionIsolation, boolean readOnly) {
         this.transactionManager = transactionManager;
         this.transactionIsolation = transactionIsolation;
+        this.readOnly = readOnly;
     }
 
     /**
@@ -238,7 +250,11 @@ public class ManagedTransaction {
     private <R> R executeTransactionBlockInternal(SupplierCapableOfThrowingException<R> fn) throws Exception {
         boolean committed = false;
         try {
-            transactionManager.beginTransaction(transactionIsolation);
+            if (readOnly) {
+                transactionManager.beginTransaction(transactionIsolation, true);
+            } else {
+                transactionManager.beginTransaction(transactionIsolation);
+            }
             R r = fn.get();
             transactionManager.commitTransaction();
             committed = true;
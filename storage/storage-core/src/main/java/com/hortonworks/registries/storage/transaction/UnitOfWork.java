@@ -33,4 +33,10 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 public @interface UnitOfWork {
     boolean transactional() default true;
     TransactionIsolation transactionIsolation() default TransactionIsolation.APPLICATION_DEFAULT;
+
+    /**
+     * Read only units of work may be served by the read replica of the storage, if there is one. They must not
+     * write or lock anything in the storage.
+     */
+    boolean readOnly() default false;
 }
\ No newline at end of file
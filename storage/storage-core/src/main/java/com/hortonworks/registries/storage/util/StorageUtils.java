@@ -23,6 +23,7 @@ import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.annotation.SearchableField;
 import com.hortonworks.registries.storage.annotation.StorableEntity;
 import com.hortonworks.registries.storage.annotation.VersionField;
+import com.hortonworks.registries.storage.exception.StorageException;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.IOException;
@@ -99,6 +100,17 @@ public final class StorageUtils {
         return Optional.empty();
     }
 
+    /**
+     * @return the value of the {@link VersionField} of the given storable, empty if it has no such field or it is not set
+     */
+    public static Optional<Long> getVersion(Storable storable) {
+        try {
+            return getVersionFieldValue(storable).map(Pair::getValue);
+        } catch (ReflectiveOperationException e) {
+            throw new StorageException(e);
+        }
+    }
+
     public static List<Pair<Field, Object>> getAnnotatedFieldValues(Storable storable, Class<? extends Annotation> clazz)
             throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
         List<Pair<Field, Object>> res = new ArrayList<>();
@@ -16,6 +16,7 @@
 package com.hortonworks.registries.cache;
 
 import com.google.common.cache.CacheBuilder;
+import com.hortonworks.registries.cache.stats.CacheStats;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.PrimaryKey;
 import com.hortonworks.registries.storage.Storable;
@@ -78,6 +79,22 @@ public class GuavaCacheTest {
         }
     }
 
+    @Test
+    public void testStatsCountHitsAndMisses() {
+        Cache<StorableKey, Storable> statsCache = getCache(new InMemoryStorageManager(), getGuavaCacheBuilder());
+        statsCache.put(storableKey, new TestStorable());
+
+        statsCache.get(storableKey);
+        statsCache.get(storableKey);
+        statsCache.remove(storableKey);
+        statsCache.get(storableKey);
+
+        CacheStats stats = statsCache.stats();
+        Assertions.assertEquals(2, stats.hitCount());
+        Assertions.assertEquals(1, stats.missCount());
+        Assertions.assertEquals(2.0 / 3, stats.hitRate(), 0.0001);
+    }
+
     private static Cache<StorableKey, Storable> getCache(StorageManager dao, CacheBuilder guavaCacheBuilder) {
         return new GuavaCache(dao, guavaCacheBuilder);
     }
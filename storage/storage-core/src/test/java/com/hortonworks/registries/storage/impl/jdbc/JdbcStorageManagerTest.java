@@ -32,6 +32,7 @@ import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.impl.jdbc.provider.QueryExecutorFactory;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.QueryExecutor;
 import com.hortonworks.registries.storage.impl.jdbc.sequences.NamespaceSequenceStorable;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -432,6 +433,71 @@ public class JdbcStorageManagerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Routing of read only transactions to the read replica")
+    class ReadReplica {
+
+        private final QueryExecutor replicaQueryExecutor = mock(QueryExecutor.class);
+        private final JdbcStorageManager storageManager =
+                new JdbcStorageManager(queryExecutor, replicaQueryExecutor, 60_000L, storableFactory);
+        private final StorableKey key = new NamespaceSequenceStorable(NAMESPACE, 1L).getStorableKey();
+
+        @Test
+        public void readOnlyTransactionIsServedByTheReplica() {
+            NamespaceSequenceStorable sequence = new NamespaceSequenceStorable(NAMESPACE, 5L);
+            when(replicaQueryExecutor.select(key)).thenReturn(singleton(sequence));
+
+            storageManager.beginTransaction(TransactionIsolation.READ_COMMITTED, true);
+            assertEquals(sequence, storageManager.get(key));
+            storageManager.commitTransaction();
+
+            verify(replicaQueryExecutor).beginTransaction(TransactionIsolation.READ_COMMITTED);
+            verify(replicaQueryExecutor).commitTransaction();
+            verify(queryExecutor, never()).beginTransaction(any());
+            verify(queryExecutor, never()).select(key);
+        }
+
+        @Test
+        public void missOnTheReplicaFallsBackToThePrimary() {
+            NamespaceSequenceStorable sequence = new NamespaceSequenceStorable(NAMESPACE, 5L);
+            when(replicaQueryExecutor.select(key)).thenReturn(emptyList());
+            when(queryExecutor.select(key)).thenReturn(singleton(sequence));
+
+            storageManager.beginTransaction(TransactionIsolation.READ_COMMITTED, true);
+            assertEquals(sequence, storageManager.get(key));
+            storageManager.commitTransaction();
+
+            verify(replicaQueryExecutor).select(key);
+            verify(queryExecutor).select(key);
+        }
+
+        @Test
+        public void readOnlyTransactionCanNotWrite() {
+            storageManager.beginTransaction(TransactionIsolation.READ_COMMITTED, true);
+            assertThrows(StorageException.class, () -> storageManager.add(new NamespaceSequenceStorable(NAMESPACE, 5L)));
+            storageManager.rollbackTransaction();
+
+            verify(replicaQueryExecutor).rollbackTransaction();
+            verify(queryExecutor, never()).insert(any());
+            verify(replicaQueryExecutor, never()).insert(any());
+        }
+
+        @Test
+        public void readsFollowingAWriteAreServedByThePrimary() {
+            storageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+            storageManager.add(new NamespaceSequenceStorable(NAMESPACE, 5L));
+            storageManager.commitTransaction();
+
+            storageManager.beginTransaction(TransactionIsolation.READ_COMMITTED, true);
+            storageManager.get(key);
+            storageManager.commitTransaction();
+
+            verify(queryExecutor, times(2)).beginTransaction(TransactionIsolation.READ_COMMITTED);
+            verify(queryExecutor).select(key);
+            verify(replicaQueryExecutor, never()).beginTransaction(any());
+        }
+    }
+
     static class StringIdStorable extends TestStorable {
         protected StringIdStorable() {
             super(of("stringField", STRING));
@@ -24,6 +24,7 @@
  import com.hortonworks.registries.storage.OrderByField;
  import com.hortonworks.registries.storage.PrimaryKey;
  import com.hortonworks.registries.storage.StorableKey;
+ import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlAggregateSqlQuery;
  import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectForShareQuery;
  import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectForUpdateQuery;
  import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectQuery;
@@ -39,6 +40,8 @@
  import java.util.List;
  import java.util.Map;
 
+ import static java.util.Collections.singletonList;
+ import static java.util.Collections.singletonMap;
  import static org.junit.jupiter.api.Assertions.assertEquals;
 
  public class MySqlSelectQueryTest {
@@ -122,6 +125,51 @@
              String expectedSql = "SELECT * FROM `store` WHERE `name` LIKE ? AND `amount` > ?  ORDER BY `name` ASC , `amount` DESC FOR UPDATE";
              assertEquals(expectedSql, generatedSql);
          }
+
+         @Test
+         void testLimitedForUpdateSearchQuery() {
+             SearchQuery searchQuery = SearchQuery.searchFrom("store")
+                     .where(WhereClause.begin()
+                             .gt("amount", 500)
+                             .combine()
+                     ).orderBy(OrderBy.asc("name"))
+                     .limit(10)
+                     .forUpdate();
+
+             String generatedSql = new MySqlSelectQuery(searchQuery, schema).getParametrizedSql();
+             String expectedSql = "SELECT * FROM `store` WHERE `amount` > ?  ORDER BY `name` ASC LIMIT 10 FOR UPDATE";
+             assertEquals(expectedSql, generatedSql);
+         }
+
+         @Test
+         void testPagedSearchQueryWithProjection() {
+             SearchQuery searchQuery = SearchQuery.searchFrom("store")
+                     .select("name", "amount")
+                     .where(WhereClause.begin()
+                             .gt("amount", 500)
+                             .combine()
+                     ).orderBy(OrderBy.asc("name"))
+                     .limit(10, 20);
+
+             String generatedSql = new MySqlSelectQuery(searchQuery, schema).getParametrizedSql();
+             String expectedSql = "SELECT `name`, `amount` FROM `store` WHERE `amount` > ?  ORDER BY `name` ASC LIMIT 10 OFFSET 20";
+             assertEquals(expectedSql, generatedSql);
+         }
+
+         @Test
+         void testAggregateSearchQuery() {
+             SearchQuery searchQuery = SearchQuery.searchFrom("store")
+                     .where(WhereClause.begin()
+                             .eq("name", "foo")
+                             .combine()
+                     ).orderBy(OrderBy.asc("name"))
+                     .limit(10);
+
+             MySqlAggregateSqlQuery query = new MySqlAggregateSqlQuery(searchQuery, schema, schema.getField("amount"), "MAX");
+             assertEquals("SELECT MAX(`amount`) FROM `store` WHERE `name` = ? ", query.getParametrizedSql());
+             assertEquals(singletonList(schema.getField("name")), query.getColumns());
+             assertEquals(singletonMap(schema.getField("name"), "foo"), query.getPrimaryKey().getFieldsToVal());
+         }
      }
 
      private StorableKey storableKey() {
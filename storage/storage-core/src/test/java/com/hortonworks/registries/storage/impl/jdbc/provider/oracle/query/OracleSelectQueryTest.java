@@ -23,11 +23,16 @@ import com.google.common.collect.ImmutableMap;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.PrimaryKey;
 import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.exception.OracleQueryException;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
 import org.junit.jupiter.api.Test;
 
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class OracleSelectQueryTest {
 
@@ -47,6 +52,67 @@ class OracleSelectQueryTest {
         assertEquals("SELECT * FROM \"topic\" WHERE  \"foo\" = ? FOR SHARE", parametrizedSql);
     }
 
+    @Test
+    public void testLimitedSearchQuery() {
+        SearchQuery searchQuery = SearchQuery.searchFrom("store")
+                .where(WhereClause.begin().gt("amount", 500).combine())
+                .orderBy(OrderBy.asc("name"))
+                .limit(10);
+
+        OracleSelectQuery selectQuery = new OracleSelectQuery(searchQuery, schema());
+        assertEquals("SELECT * FROM (SELECT * FROM \"store\" WHERE \"amount\" > ?  ORDER BY \"name\" ASC) WHERE ROWNUM <= 10", selectQuery.getParametrizedSql());
+        assertEquals(0, selectQuery.getMaxRows());
+    }
+
+    @Test
+    public void testLimitedSearchQueryForUpdate() {
+        SearchQuery searchQuery = SearchQuery.searchFrom("store")
+                .where(WhereClause.begin().gt("amount", 500).combine())
+                .orderBy(OrderBy.asc("name"))
+                .limit(10)
+                .forUpdate();
+
+        OracleSelectQuery selectQuery = new OracleSelectQuery(searchQuery, schema());
+        assertEquals("SELECT * FROM \"store\" WHERE \"amount\" > ?  ORDER BY \"name\" ASC FOR UPDATE SKIP LOCKED", selectQuery.getParametrizedSql());
+        assertEquals(10, selectQuery.getMaxRows());
+    }
+
+    @Test
+    public void testPagedSearchQuery() {
+        SearchQuery searchQuery = SearchQuery.searchFrom("store")
+                .select("name")
+                .where(WhereClause.begin().gt("amount", 500).combine())
+                .orderBy(OrderBy.asc("name"))
+                .limit(10, 20);
+
+        String parametrizedSql = new OracleSelectQuery(searchQuery, schema()).getParametrizedSql();
+        assertEquals("SELECT \"name\" FROM \"store\" WHERE \"amount\" > ?  ORDER BY \"name\" ASC OFFSET 20 ROWS FETCH NEXT 10 ROWS ONLY", parametrizedSql);
+    }
+
+    @Test
+    public void testPagedSearchQueryForUpdateFails() {
+        SearchQuery searchQuery = SearchQuery.searchFrom("store")
+                .where(WhereClause.begin().gt("amount", 500).combine())
+                .orderBy(OrderBy.asc("name"))
+                .limit(10, 20)
+                .forUpdate();
+
+        assertThrows(OracleQueryException.class, () -> new OracleSelectQuery(searchQuery, schema()).getParametrizedSql());
+    }
+
+    @Test
+    public void testAggregateSearchQuery() {
+        SearchQuery searchQuery = SearchQuery.searchFrom("store")
+                .where(WhereClause.begin().eq("name", "foo").combine());
+
+        String parametrizedSql = new OracleAggregateSqlQuery(searchQuery, schema(), schema().getField("amount"), "COUNT").getParametrizedSql();
+        assertEquals("SELECT COUNT(\"amount\") FROM \"store\" WHERE \"name\" = ? ", parametrizedSql);
+    }
+
+    private Schema schema() {
+        return Schema.of(Schema.Field.of("name", Schema.Type.STRING), Schema.Field.of("amount", Schema.Type.LONG));
+    }
+
     private StorableKey storableKey() {
         return new StorableKey(NAME_SPACE, new PrimaryKey(fieldToObjectMap));
     }
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class AbstractSelectQueryTest {
     
@@ -45,4 +46,22 @@ public class AbstractSelectQueryTest {
         //then
         Assertions.assertIterableEquals(expected, underTest.getColumns());
     }
+
+    @Test
+    public void buildSqlWithInClauseBindsEveryValue() {
+        //given
+        SearchQuery searchQuery = SearchQuery.searchFrom("table")
+                .where(WhereClause.begin().in("id", Arrays.asList(1L, 2L, 3L)).and().eq("name", "someName").combine());
+        Schema schema = Schema.of(Schema.Field.of("id", Schema.Type.LONG), Schema.Field.of("name", Schema.Type.STRING));
+        AbstractSelectQuery underTest = new SqlSelectQuery("table");
+
+        //when
+        String sql = underTest.buildSqlWithSearchQuery(searchQuery, schema);
+
+        //then
+        Assertions.assertTrue(sql.contains(" id IN (?, ?, ?) "), sql);
+        Assertions.assertEquals(4, underTest.getColumns().size());
+        Assertions.assertEquals(Arrays.asList(1L, 2L, 3L, "someName"),
+                underTest.getColumns().stream().map(c -> underTest.getPrimaryKey().getFieldsToVal().get(c)).collect(Collectors.toList()));
+    }
 }